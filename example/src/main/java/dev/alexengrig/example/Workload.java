@@ -0,0 +1,29 @@
+package dev.alexengrig.example;
+
+public class Workload {
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < calls; i++) {
+            sum += mix(i);
+            if (i % 1000 == 0) {
+                sum += traced(i);
+            }
+        }
+        System.out.println("Workload: " + (System.nanoTime() - start) / 1_000_000 + " ms, sum: " + sum);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        return value ^ value >>> 33;
+    }
+
+    private static long traced(int value) {
+        if (value % 2 == 0) {
+            return mix(value);
+        }
+        return value;
+    }
+}
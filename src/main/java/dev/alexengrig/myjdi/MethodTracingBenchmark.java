@@ -0,0 +1,97 @@
+package dev.alexengrig.myjdi;
+
+import com.sun.jdi.connect.IllegalConnectorArgumentsException;
+import com.sun.jdi.connect.VMStartException;
+import com.sun.jdi.request.MethodEntryRequest;
+import com.sun.jdi.request.MethodExitRequest;
+import dev.alexengrig.myjdi.connect.YouthConnectors;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.request.YouthEventRequestManager;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the debuggee slowdown of tracing one method with method entry and exit requests
+ * against tracing it with breakpoints on its entry and return instructions.
+ * The entry and exit requests are limited by a class filter, yet they still fire for every method of the class.
+ */
+public class MethodTracingBenchmark {
+    private static final Log log = Log.getLog(MethodTracingBenchmark.class);
+
+    private static final String CLASSPATH = "./example/build/classes/java/main";
+    private static final String CLASS_NAME = "dev.alexengrig.example.Workload";
+    private static final String METHOD_NAME = "traced";
+
+    public static void main(String[] args) throws IOException, IllegalConnectorArgumentsException, VMStartException {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        for (Mode mode : Mode.values()) {
+            run(mode, calls);
+        }
+    }
+
+    protected static void run(Mode mode, int calls)
+            throws IOException, IllegalConnectorArgumentsException, VMStartException {
+        long start = System.nanoTime();
+        YouthVirtualMachine vm = YouthConnectors.commandLine(CLASSPATH, CLASS_NAME + " " + calls).connect();
+        YouthEventRequestManager requestManager = vm.eventRequestManager();
+        YouthEventSubscriptionManager subscriptionManager = vm.eventSubscriptionManager();
+        long[] counts = new long[3];
+        subscriptionManager.subscribeOnMethodEntry(event -> {
+            counts[0]++;
+            if (METHOD_NAME.equals(event.method().name())) {
+                counts[1]++;
+            }
+        });
+        subscriptionManager.subscribeOnMethodExit(event -> {
+            if (METHOD_NAME.equals(event.method().name())) {
+                counts[2]++;
+            }
+        });
+        if (mode == Mode.METHOD_EVENTS) {
+            MethodEntryRequest entryRequest = requestManager.createMethodEntryRequest();
+            entryRequest.addClassFilter(CLASS_NAME);
+            entryRequest.enable();
+            MethodExitRequest exitRequest = requestManager.createMethodExitRequest();
+            exitRequest.addClassFilter(CLASS_NAME);
+            exitRequest.enable();
+        } else if (mode == Mode.BREAKPOINTS) {
+            requestManager.createMethodBreakpointRequests(CLASS_NAME, METHOD_NAME);
+        }
+        Thread output = printOutput(vm.process(), mode);
+        vm.eventHandler().run();
+        try {
+            output.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("{}: {} ms, entry events: {}", mode, elapsed, counts[0]);
+        log.info("{}: traced entries: {}, exits: {}", mode, counts[1], counts[2]);
+    }
+
+    protected static Thread printOutput(Process process, Mode mode) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.info("{} debuggee: {}", mode, line);
+                }
+            } catch (IOException e) {
+                log.warning("Debuggee output is lost.", e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    protected enum Mode {
+        NONE,
+        METHOD_EVENTS,
+        BREAKPOINTS
+    }
+}
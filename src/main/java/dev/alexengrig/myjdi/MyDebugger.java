@@ -7,6 +7,7 @@ import com.sun.jdi.request.StepRequest;
 import dev.alexengrig.myjdi.connect.YouthConnector;
 import dev.alexengrig.myjdi.connect.YouthConnectors;
 import dev.alexengrig.myjdi.handle.YouthEventHandler;
+import dev.alexengrig.myjdi.log.Log;
 import dev.alexengrig.myjdi.request.YouthEventRequestManager;
 import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
 import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
@@ -14,14 +15,13 @@ import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import static com.sun.jdi.request.StepRequest.STEP_MIN;
 import static com.sun.jdi.request.StepRequest.STEP_OVER;
 
 public class MyDebugger {
-    private static final Logger log = Logger.getLogger(MyDebugger.class.getName());
+    private static final Log log = Log.getLog(MyDebugger.class);
 
     public static void main(String[] args) throws IOException, IllegalConnectorArgumentsException, VMStartException {
         log.info("Started.");
@@ -34,18 +34,20 @@ public class MyDebugger {
 
         subscriptionManager.subscribeOnException(event -> {
             String name = event.exception().referenceType().name();
-            log.info("Exception: " + name + ", on " + event.location());
+            log.info("Exception: {}, on {}", name, event.location());
         });
         requestManager.createAllExceptionRequest("dev.alexengrig.example.exception.ExampleException");
 
         subscriptionManager.subscribeOnBreakpoint(breakpoint -> {
             try {
-                log.info("Breakpoint on " + breakpoint.location());
-                List<StackFrame> frames = breakpoint.thread().frames(0, 1);
-                Map<LocalVariable, Value> variables = frames.get(0).getValues(frames.get(0).visibleVariables());
-                log.info("Variables: " + variables.entrySet().stream()
-                        .map(e -> e.getKey().name() + ": " + e.getValue())
-                        .collect(Collectors.joining("; ")));
+                log.info("Breakpoint on {}", breakpoint.location());
+                if (log.isInfoEnabled()) {
+                    List<StackFrame> frames = breakpoint.thread().frames(0, 1);
+                    Map<LocalVariable, Value> variables = frames.get(0).getValues(frames.get(0).visibleVariables());
+                    log.info("Variables: {}", variables.entrySet().stream()
+                            .map(e -> e.getKey().name() + ": " + e.getValue())
+                            .collect(Collectors.joining("; ")));
+                }
                 StepRequest stepRequest = requestManager.createStepRequest(breakpoint.thread(), STEP_MIN, STEP_OVER);
                 stepRequest.addCountFilter(1);
                 stepRequest.enable();
@@ -53,7 +55,7 @@ public class MyDebugger {
                 e.printStackTrace();
             }
         });
-        subscriptionManager.subscribeOnStep(step -> log.info("Step to " + step.location()));
+        subscriptionManager.subscribeOnStep(step -> log.info("Step to {}", step.location()));
         requestManager.createBreakpointRequest("dev.alexengrig.example.Main", 12);
 
         YouthEventHandler handler = vm.eventHandler();
@@ -1,14 +1,14 @@
 package dev.alexengrig.myjdi;
 
+import dev.alexengrig.myjdi.log.Log;
 import dev.alexengrig.myjdi.ui.JFileTree;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
-import java.util.logging.Logger;
 
 public class MyDebuggerGUI extends JFrame {
-    private static final Logger log = Logger.getLogger(MyDebuggerGUI.class.getName());
+    private static final Log log = Log.getLog(MyDebuggerGUI.class);
 
     public MyDebuggerGUI() {
         init();
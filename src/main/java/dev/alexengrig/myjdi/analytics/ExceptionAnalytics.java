@@ -0,0 +1,352 @@
+package dev.alexengrig.myjdi.analytics;
+
+import com.sun.jdi.*;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.ExceptionRequest;
+import dev.alexengrig.myjdi.event.YouthExceptionEvent;
+import dev.alexengrig.myjdi.filter.ClassExclusionFilter;
+import dev.alexengrig.myjdi.profile.FrameTable;
+import dev.alexengrig.myjdi.profile.StackTable;
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.snapshot.LocationIdentity;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups exception events by exception type, throw location and catch location.
+ * Groups are counted with the space-saving algorithm: there are at most {@code capacity} counters
+ * and a new group takes over the smallest one, inheriting its count as the error bound,
+ * so memory stays constant under any event volume and frequent groups are never lost.
+ * Each counter keeps a rolling window of per-bucket counts for its rate.
+ * <p>
+ * The stack is captured only for the first exception of a group, as {@code maxDepth} top frames
+ * interned in a {@link StackTable}, because fetching frames costs round trips while the thread is suspended.
+ */
+public class ExceptionAnalytics {
+    private static final int ID_BITS = 21;
+    private static final long ID_LIMIT = 1L << ID_BITS;
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final int capacity;
+    protected final int maxDepth;
+    protected final long bucketNanos;
+    protected final int windowBuckets;
+    protected final boolean notifyCaught;
+    protected final boolean notifyUncaught;
+    protected final List<String> classExclusions;
+    protected final IdentityTable identities = new IdentityTable();
+    protected final FrameTable frameTable = new FrameTable(identities, true);
+    protected final StackTable stacks;
+    protected final LongLongHashMap slotsByKey;
+    protected final long[] keys;
+    protected final long[] counts;
+    protected final long[] errors;
+    protected final int[] stackIds;
+    protected final long[] buckets;
+    protected final long[] bucketStamps;
+    protected final long[] totalBuckets;
+    protected final long[] totalBucketStamps;
+    protected final int[] stack;
+    protected int used;
+    protected long total;
+    protected long untracked;
+    protected ExceptionRequest request;
+    protected boolean subscribed;
+
+    protected ExceptionAnalytics(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.capacity = builder.capacity;
+        this.maxDepth = builder.maxDepth;
+        this.bucketNanos = TimeUnit.MILLISECONDS.toNanos(builder.bucketMillis);
+        this.windowBuckets = builder.windowBuckets;
+        this.notifyCaught = builder.notifyCaught;
+        this.notifyUncaught = builder.notifyUncaught;
+        this.classExclusions = new ArrayList<>(builder.classExclusions);
+        this.stacks = new StackTable(builder.maxStacks);
+        this.slotsByKey = new LongLongHashMap(capacity);
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.stackIds = new int[capacity];
+        this.buckets = new long[capacity * windowBuckets];
+        this.bucketStamps = new long[capacity * windowBuckets];
+        this.totalBuckets = new long[windowBuckets];
+        this.totalBucketStamps = new long[windowBuckets];
+        this.stack = new int[maxDepth];
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * Requests exceptions of all types, suspending only the throwing thread.
+     */
+    public synchronized void start() {
+        if (request != null) {
+            throw new IllegalStateException("The analytics is already started");
+        }
+        if (!subscribed) {
+            virtualMachine.eventSubscriptionManager().subscribeOnException(this::onException);
+            subscribed = true;
+        }
+        request = virtualMachine.eventRequestManager().createExceptionRequest((ReferenceType) null, notifyCaught, notifyUncaught);
+        for (String pattern : classExclusions) {
+            request.addClassExclusionFilter(pattern);
+        }
+        request.setSuspendPolicy(EventRequest.SUSPEND_EVENT_THREAD);
+        request.putProperty(ExceptionAnalytics.class, this);
+        request.enable();
+    }
+
+    public synchronized void stop() {
+        if (request != null) {
+            virtualMachine.eventRequestManager().deleteEventRequest(request);
+            request = null;
+        }
+    }
+
+    protected synchronized void onException(YouthExceptionEvent event) {
+        if (request == null || event.request() == null
+                || event.request().getProperty(ExceptionAnalytics.class) != this) {
+            return;
+        }
+        long bucket = System.nanoTime() / bucketNanos;
+        total++;
+        addToWindow(totalBuckets, totalBucketStamps, 0, bucket);
+        int type = identities.internClass(event.exception().referenceType()).id();
+        int throwLocation = identities.internLocation(event.location()).id();
+        Location catchLocation = event.catchLocation();
+        int catchId = catchLocation == null ? 0 : identities.internLocation(catchLocation).id() + 1;
+        if (type >= ID_LIMIT || throwLocation >= ID_LIMIT || catchId >= ID_LIMIT) {
+            untracked++;
+            return;
+        }
+        long key = (long) type << 2 * ID_BITS | (long) throwLocation << ID_BITS | catchId;
+        int slot = (int) slotsByKey.get(key, -1);
+        if (slot < 0) {
+            slot = takeSlot(key);
+            stackIds[slot] = captureStack(event.thread());
+        }
+        counts[slot]++;
+        addToWindow(buckets, bucketStamps, slot * windowBuckets, bucket);
+    }
+
+    /**
+     * A free counter or the smallest one, the new group inherits its count.
+     */
+    protected int takeSlot(long key) {
+        int slot;
+        if (used < capacity) {
+            slot = used++;
+            counts[slot] = 0;
+            errors[slot] = 0;
+        } else {
+            slot = 0;
+            for (int i = 1; i < capacity; i++) {
+                if (counts[i] < counts[slot]) {
+                    slot = i;
+                }
+            }
+            slotsByKey.remove(keys[slot], -1);
+            errors[slot] = counts[slot];
+            Arrays.fill(bucketStamps, slot * windowBuckets, (slot + 1) * windowBuckets, 0);
+        }
+        keys[slot] = key;
+        slotsByKey.put(key, slot);
+        return slot;
+    }
+
+    protected int captureStack(ThreadReference thread) {
+        if (maxDepth == 0) {
+            return -1;
+        }
+        try {
+            int count = Math.min(maxDepth, thread.frameCount());
+            List<StackFrame> frames = thread.frames(0, count);
+            for (int i = 0; i < count; i++) {
+                stack[i] = frameTable.intern(frames.get(i).location());
+            }
+            return stacks.intern(stack, count);
+        } catch (IncompatibleThreadStateException | ObjectCollectedException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Buckets are stamped with their absolute index plus one, a stale stamp means a zero count.
+     */
+    protected void addToWindow(long[] values, long[] stamps, int offset, long bucket) {
+        int index = offset + (int) (bucket % windowBuckets);
+        if (stamps[index] != bucket + 1) {
+            stamps[index] = bucket + 1;
+            values[index] = 0;
+        }
+        values[index]++;
+    }
+
+    protected double rate(long[] values, long[] stamps, int offset, long bucket) {
+        long sum = 0;
+        for (int i = 0; i < windowBuckets; i++) {
+            long stamp = stamps[offset + i] - 1;
+            if (stamp >= 0 && stamp > bucket - windowBuckets && stamp <= bucket) {
+                sum += values[offset + i];
+            }
+        }
+        return sum * 1e9 / (bucketNanos * windowBuckets);
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Exceptions not grouped because the identity ids are too large to pack into a key.
+     */
+    public synchronized long untracked() {
+        return untracked;
+    }
+
+    /**
+     * Rate of all exceptions over the rolling window.
+     */
+    public synchronized double ratePerSecond() {
+        return rate(totalBuckets, totalBucketStamps, 0, System.nanoTime() / bucketNanos);
+    }
+
+    /**
+     * Most frequent groups, most frequent first.
+     */
+    public synchronized List<ExceptionGroup> top(int limit) {
+        Integer[] slots = new Integer[used];
+        for (int i = 0; i < used; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, (a, b) -> Long.compare(counts[b], counts[a]));
+        long bucket = System.nanoTime() / bucketNanos;
+        int size = Math.min(limit, used);
+        List<ExceptionGroup> groups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            groups.add(group(slots[i], bucket));
+        }
+        return groups;
+    }
+
+    protected ExceptionGroup group(int slot, long bucket) {
+        long key = keys[slot];
+        int type = (int) (key >>> 2 * ID_BITS);
+        int throwLocation = (int) (key >>> ID_BITS & ID_LIMIT - 1);
+        int catchId = (int) (key & ID_LIMIT - 1);
+        LocationIdentity catchLocation = catchId == 0 ? null : identities.locationById(catchId - 1);
+        List<String> frames;
+        if (stackIds[slot] < 0) {
+            frames = Collections.emptyList();
+        } else {
+            int stackId = stackIds[slot];
+            frames = new ArrayList<>(stacks.length(stackId));
+            for (int i = 0; i < stacks.length(stackId); i++) {
+                frames.add(frameTable.name(stacks.frame(stackId, i)));
+            }
+        }
+        return new ExceptionGroup(identities.classById(type).name(), identities.locationById(throwLocation),
+                catchLocation, counts[slot], errors[slot],
+                rate(buckets, bucketStamps, slot * windowBuckets, bucket), Collections.unmodifiableList(frames));
+    }
+
+    public static class Builder implements ClassExclusionFilter {
+        protected final YouthVirtualMachine virtualMachine;
+        protected final List<String> classExclusions = new ArrayList<>();
+        protected int capacity = 256;
+        protected int maxDepth = 16;
+        protected int maxStacks = 4096;
+        protected long bucketMillis = 1000;
+        protected int windowBuckets = 60;
+        protected boolean notifyCaught = true;
+        protected boolean notifyUncaught = true;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        @Override
+        public void addClassExclusionFilter(String classPattern) {
+            classExclusions.add(classPattern);
+        }
+
+        @Override
+        public void addClassExclusionFilters(Collection<String> classPatterns) {
+            classExclusions.addAll(classPatterns);
+        }
+
+        /**
+         * Skips exceptions thrown in classes matching the patterns.
+         */
+        public Builder exclude(String... classPatterns) {
+            addClassExclusionFilters(Arrays.asList(classPatterns));
+            return this;
+        }
+
+        /**
+         * Groups counted at once.
+         */
+        public Builder capacity(int value) {
+            this.capacity = value;
+            return this;
+        }
+
+        /**
+         * Top frames captured per group, zero disables stacks.
+         */
+        public Builder maxDepth(int value) {
+            this.maxDepth = value;
+            return this;
+        }
+
+        /**
+         * Distinct stacks stored, later groups have no stack.
+         */
+        public Builder maxStacks(int value) {
+            this.maxStacks = value;
+            return this;
+        }
+
+        /**
+         * The rate window is {@code buckets} buckets of {@code bucketMillis} each.
+         */
+        public Builder window(long bucketMillis, int buckets) {
+            this.bucketMillis = bucketMillis;
+            this.windowBuckets = buckets;
+            return this;
+        }
+
+        public Builder notifyCaught(boolean value) {
+            this.notifyCaught = value;
+            return this;
+        }
+
+        public Builder notifyUncaught(boolean value) {
+            this.notifyUncaught = value;
+            return this;
+        }
+
+        public ExceptionAnalytics build() {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+            }
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+            }
+            if (bucketMillis <= 0 || windowBuckets <= 0) {
+                throw new IllegalArgumentException(String.format("Window must be positive: %d buckets of %d ms",
+                        windowBuckets, bucketMillis));
+            }
+            if (!notifyCaught && !notifyUncaught) {
+                throw new IllegalArgumentException("Neither caught nor uncaught exceptions are requested");
+            }
+            return new ExceptionAnalytics(this);
+        }
+    }
+}
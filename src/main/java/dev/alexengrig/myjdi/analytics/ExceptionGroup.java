@@ -0,0 +1,78 @@
+package dev.alexengrig.myjdi.analytics;
+
+import dev.alexengrig.myjdi.snapshot.LocationIdentity;
+
+import java.util.List;
+
+/**
+ * Exceptions of one type thrown at one location and caught at one location.
+ * The count may overestimate the real one by at most {@link #error()}, see {@link ExceptionAnalytics}.
+ */
+public final class ExceptionGroup {
+    private final String exceptionType;
+    private final LocationIdentity throwLocation;
+    private final LocationIdentity catchLocation;
+    private final long count;
+    private final long error;
+    private final double ratePerSecond;
+    private final List<String> stack;
+
+    public ExceptionGroup(String exceptionType, LocationIdentity throwLocation, LocationIdentity catchLocation,
+                          long count, long error, double ratePerSecond, List<String> stack) {
+        this.exceptionType = exceptionType;
+        this.throwLocation = throwLocation;
+        this.catchLocation = catchLocation;
+        this.count = count;
+        this.error = error;
+        this.ratePerSecond = ratePerSecond;
+        this.stack = stack;
+    }
+
+    public String exceptionType() {
+        return exceptionType;
+    }
+
+    public LocationIdentity throwLocation() {
+        return throwLocation;
+    }
+
+    /**
+     * @return catch location or {@code null} if uncaught
+     */
+    public LocationIdentity catchLocation() {
+        return catchLocation;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long error() {
+        return error;
+    }
+
+    /**
+     * Rate over the rolling window.
+     */
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * Top frames of the first exception of the group, innermost first; empty if not captured.
+     */
+    public List<String> stack() {
+        return stack;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s at %s, caught at %s: %d (error %d), %.1f/s, stack: %s",
+                exceptionType, format(throwLocation), catchLocation == null ? "<uncaught>" : format(catchLocation),
+                count, error, ratePerSecond, stack);
+    }
+
+    private static String format(LocationIdentity location) {
+        return location.declaringType().name() + "." + location.method().name() + ":" + location.lineNumber();
+    }
+}
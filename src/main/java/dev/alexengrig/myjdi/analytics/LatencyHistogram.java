@@ -0,0 +1,72 @@
+package dev.alexengrig.myjdi.analytics;
+
+/**
+ * Histogram of durations in power-of-two nanosecond buckets: bucket {@code i} holds durations
+ * below {@code 2^i} nanoseconds and not below {@code 2^(i-1)}. Percentiles are upper bounds of their bucket.
+ * Not thread-safe.
+ */
+public class LatencyHistogram {
+    protected final long[] buckets = new long[64];
+    protected long count;
+    protected long totalNanos;
+    protected long maxNanos;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[64 - Long.numberOfLeadingZeros(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @param fraction from 0 to 1
+     */
+    public long percentileNanos(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= Math.max(1, rank)) {
+                return i == 0 ? 0 : Math.min(maxNanos, (1L << i) - 1);
+            }
+        }
+        return maxNanos;
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(buckets, 0, copy.buckets, 0, buckets.length);
+        copy.count = count;
+        copy.totalNanos = totalNanos;
+        copy.maxNanos = maxNanos;
+        return copy;
+    }
+
+    public long[] buckets() {
+        return buckets.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d, total %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms", count, totalNanos / 1e6,
+                percentileNanos(0.5) / 1e6, percentileNanos(0.99) / 1e6, maxNanos / 1e6);
+    }
+}
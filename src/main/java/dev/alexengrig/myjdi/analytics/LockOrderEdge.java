@@ -0,0 +1,54 @@
+package dev.alexengrig.myjdi.analytics;
+
+import java.util.List;
+
+/**
+ * A monitor of one class was acquired while a monitor of another class was held.
+ * The thread and stack are of the first acquisition seen in this order.
+ */
+public final class LockOrderEdge {
+    private final String heldClass;
+    private final String acquiredClass;
+    private final String thread;
+    private final List<String> stack;
+    private final long count;
+
+    public LockOrderEdge(String heldClass, String acquiredClass, String thread, List<String> stack, long count) {
+        this.heldClass = heldClass;
+        this.acquiredClass = acquiredClass;
+        this.thread = thread;
+        this.stack = stack;
+        this.count = count;
+    }
+
+    public String heldClass() {
+        return heldClass;
+    }
+
+    public String acquiredClass() {
+        return acquiredClass;
+    }
+
+    public String thread() {
+        return thread;
+    }
+
+    /**
+     * Top frames at the acquisition, innermost first; empty if not captured.
+     */
+    public List<String> stack() {
+        return stack;
+    }
+
+    /**
+     * Times the order was observed until the edge was reported.
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s in %s (%d times), stack: %s", heldClass, acquiredClass, thread, count, stack);
+    }
+}
@@ -0,0 +1,408 @@
+package dev.alexengrig.myjdi.analytics;
+
+import com.sun.jdi.*;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.MonitorContendedEnteredRequest;
+import dev.alexengrig.myjdi.event.YouthMonitorContendedEnteredEvent;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.profile.FrameTable;
+import dev.alexengrig.myjdi.profile.StackTable;
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Learns the order in which threads acquire monitors, keyed by monitor class, and reports cycles in it
+ * as possible deadlocks before they happen.
+ * Orders come from two sources: contended entered events, which suspend only their thread to read the monitors
+ * it already owns, and periodic samples of {@link ThreadReference#ownedMonitorsAndFrames()}, where a monitor
+ * locked in a deeper frame was acquired earlier and monitors of one frame are listed in locking order,
+ * as HotSpot does. Each new edge runs a search from its target back to its source,
+ * so a cycle is reported once, by the edge that closes it.
+ * <p>
+ * Monitors of one class nested in each other make a self edge; it is an inversion only if instances
+ * are locked in no fixed order, so self edges are reported only on demand.
+ */
+public class LockOrderGraph {
+    private static final Log log = Log.getLog(LockOrderGraph.class);
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final long samplePeriodMillis;
+    protected final int maxDepth;
+    protected final boolean reportSelfEdges;
+    protected final List<Consumer<LockOrderInversion>> listeners;
+    protected final IdentityTable identities = new IdentityTable();
+    protected final FrameTable frameTable = new FrameTable(identities, true);
+    protected final StackTable stacks;
+    protected final LongObjectHashMap<Edge> edges = new LongObjectHashMap<>();
+    protected final List<LockOrderInversion> inversions = new ArrayList<>();
+    protected int[][] successors = new int[64][];
+    protected int[] successorCounts = new int[64];
+    protected int[] visited = new int[64];
+    protected int[] parents = new int[64];
+    protected int visitEpoch;
+    protected MonitorContendedEnteredRequest request;
+    protected ScheduledExecutorService sampler;
+    protected ScheduledFuture<?> task;
+    protected boolean subscribed;
+
+    protected LockOrderGraph(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.samplePeriodMillis = builder.samplePeriodMillis;
+        this.maxDepth = builder.maxDepth;
+        this.reportSelfEdges = builder.reportSelfEdges;
+        this.listeners = new ArrayList<>(builder.listeners);
+        this.stacks = new StackTable(builder.maxStacks);
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * Sampling needs {@link VirtualMachine#canGetMonitorFrameInfo()} and is skipped without it.
+     *
+     * @throws UnsupportedOperationException if the VM cannot request monitor events or get owned monitors
+     */
+    public synchronized void start() {
+        if (request != null) {
+            throw new IllegalStateException("The graph is already started");
+        }
+        if (!virtualMachine.canRequestMonitorEvents() || !virtualMachine.canGetOwnedMonitorInfo()) {
+            throw new UnsupportedOperationException("The VM cannot request monitor events or get owned monitors");
+        }
+        if (!subscribed) {
+            virtualMachine.eventSubscriptionManager().subscribeOnMonitorContendedEntered(this::onContendedEntered);
+            subscribed = true;
+        }
+        request = virtualMachine.eventRequestManager().createMonitorContendedEnteredRequest();
+        request.setSuspendPolicy(EventRequest.SUSPEND_EVENT_THREAD);
+        request.putProperty(LockOrderGraph.class, this);
+        request.enable();
+        if (samplePeriodMillis > 0 && virtualMachine.canGetMonitorFrameInfo()) {
+            sampler = Executors.newSingleThreadScheduledExecutor(
+                    Concurrency.daemonThreadFactory("myjdi-lock-order-sampler-"));
+            task = sampler.scheduleWithFixedDelay(this::sample, samplePeriodMillis, samplePeriodMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (request == null) {
+            return;
+        }
+        virtualMachine.eventRequestManager().deleteEventRequest(request);
+        request = null;
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    protected synchronized void onContendedEntered(YouthMonitorContendedEnteredEvent event) {
+        if (request == null || event.request() == null || event.request().getProperty(LockOrderGraph.class) != this) {
+            return;
+        }
+        ThreadReference thread = event.thread();
+        try {
+            ObjectReference acquired = event.monitor();
+            int to = identities.internClass(acquired.referenceType()).id();
+            for (ObjectReference owned : thread.ownedMonitors()) {
+                if (owned.uniqueID() != acquired.uniqueID()) {
+                    addEdge(identities.internClass(owned.referenceType()).id(), to, thread);
+                }
+            }
+        } catch (IncompatibleThreadStateException | ObjectCollectedException e) {
+            // the thread is gone
+        }
+    }
+
+    protected void sample() {
+        try {
+            for (ThreadReference thread : virtualMachine.allThreads()) {
+                sample(thread);
+            }
+        } catch (VMDisconnectedException e) {
+            log.info("VM is disconnected, lock order sampling is stopped.");
+            task.cancel(false);
+        } catch (RuntimeException e) {
+            log.warning("Lock order sampling failed.", e);
+        }
+    }
+
+    protected void sample(ThreadReference thread) {
+        try {
+            thread.suspend();
+        } catch (ObjectCollectedException e) {
+            return;
+        }
+        try {
+            List<MonitorInfo> monitors = thread.ownedMonitorsAndFrames();
+            if (monitors.size() < 2) {
+                return;
+            }
+            synchronized (this) {
+                for (int i = 0; i < monitors.size(); i++) {
+                    for (int j = i + 1; j < monitors.size(); j++) {
+                        // a deeper frame is older, HotSpot lists monitors of one frame in locking order
+                        MonitorInfo earlier = monitors.get(i);
+                        MonitorInfo later = monitors.get(j);
+                        if (earlier.stackDepth() < later.stackDepth()) {
+                            earlier = later;
+                            later = monitors.get(i);
+                        }
+                        addEdge(identities.internClass(earlier.monitor().referenceType()).id(),
+                                identities.internClass(later.monitor().referenceType()).id(), thread);
+                    }
+                }
+            }
+        } catch (IncompatibleThreadStateException | ObjectCollectedException | IllegalThreadStateException e) {
+            // the thread finished or is not started
+        } finally {
+            try {
+                thread.resume();
+            } catch (ObjectCollectedException ignore) {
+                // the thread is gone
+            }
+        }
+    }
+
+    /**
+     * Must be called with the thread suspended, a new edge captures its stack.
+     */
+    protected void addEdge(int from, int to, ThreadReference thread) {
+        long key = (long) from << 32 | to;
+        Edge edge = edges.get(key);
+        if (edge != null) {
+            edge.count++;
+            return;
+        }
+        edge = new Edge(from, to, threadName(thread), captureStack(thread));
+        edges.put(key, edge);
+        if (from == to) {
+            if (reportSelfEdges) {
+                report(Collections.singletonList(edge));
+            }
+            return;
+        }
+        int[] path = path(to, from);
+        addSuccessor(from, to);
+        if (path != null) {
+            List<Edge> cycle = new ArrayList<>(path.length);
+            for (int i = 0; i + 1 < path.length; i++) {
+                cycle.add(edges.get((long) path[i] << 32 | path[i + 1]));
+            }
+            cycle.add(edge);
+            report(cycle);
+        }
+    }
+
+    protected void addSuccessor(int from, int to) {
+        ensureCapacity(Math.max(from, to) + 1);
+        int[] list = successors[from];
+        if (list == null) {
+            list = successors[from] = new int[4];
+        } else if (successorCounts[from] == list.length) {
+            list = successors[from] = Arrays.copyOf(list, list.length << 1);
+        }
+        list[successorCounts[from]++] = to;
+    }
+
+    protected void ensureCapacity(int size) {
+        if (size > successors.length) {
+            int length = Math.max(size, successors.length << 1);
+            successors = Arrays.copyOf(successors, length);
+            successorCounts = Arrays.copyOf(successorCounts, length);
+            visited = Arrays.copyOf(visited, length);
+            parents = Arrays.copyOf(parents, length);
+        }
+    }
+
+    /**
+     * Breadth-first search over the classes.
+     *
+     * @return classes from the source to the target or {@code null} if the target is not reachable
+     */
+    protected int[] path(int source, int target) {
+        ensureCapacity(Math.max(source, target) + 1);
+        int epoch = ++visitEpoch;
+        int[] queue = new int[16];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        visited[source] = epoch;
+        parents[source] = -1;
+        while (head < tail) {
+            int node = queue[head++];
+            if (node == target) {
+                int length = 0;
+                for (int at = node; at >= 0; at = parents[at]) {
+                    length++;
+                }
+                int[] path = new int[length];
+                for (int at = node; at >= 0; at = parents[at]) {
+                    path[--length] = at;
+                }
+                return path;
+            }
+            for (int i = 0; i < successorCounts[node]; i++) {
+                int next = successors[node][i];
+                if (visited[next] != epoch) {
+                    visited[next] = epoch;
+                    parents[next] = node;
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail << 1);
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+
+    protected void report(List<Edge> cycle) {
+        List<LockOrderEdge> reported = new ArrayList<>(cycle.size());
+        for (Edge edge : cycle) {
+            reported.add(view(edge));
+        }
+        LockOrderInversion inversion = new LockOrderInversion(Collections.unmodifiableList(reported));
+        inversions.add(inversion);
+        log.warning("{}", inversion);
+        for (Consumer<LockOrderInversion> listener : listeners) {
+            listener.accept(inversion);
+        }
+    }
+
+    protected LockOrderEdge view(Edge edge) {
+        List<String> frames;
+        if (edge.stackId < 0) {
+            frames = Collections.emptyList();
+        } else {
+            frames = new ArrayList<>(stacks.length(edge.stackId));
+            for (int i = 0; i < stacks.length(edge.stackId); i++) {
+                frames.add(frameTable.name(stacks.frame(edge.stackId, i)));
+            }
+            frames = Collections.unmodifiableList(frames);
+        }
+        return new LockOrderEdge(identities.classById(edge.from).name(), identities.classById(edge.to).name(),
+                edge.thread, frames, edge.count);
+    }
+
+    protected int captureStack(ThreadReference thread) {
+        if (maxDepth == 0) {
+            return -1;
+        }
+        try {
+            int count = Math.min(maxDepth, thread.frameCount());
+            List<StackFrame> frames = thread.frames(0, count);
+            int[] stack = new int[count];
+            for (int i = 0; i < count; i++) {
+                stack[i] = frameTable.intern(frames.get(i).location());
+            }
+            return stacks.intern(stack, count);
+        } catch (IncompatibleThreadStateException | ObjectCollectedException e) {
+            return -1;
+        }
+    }
+
+    protected static String threadName(ThreadReference thread) {
+        try {
+            return thread.name();
+        } catch (ObjectCollectedException e) {
+            return "<collected>";
+        }
+    }
+
+    public synchronized List<LockOrderInversion> inversions() {
+        return new ArrayList<>(inversions);
+    }
+
+    /**
+     * All learned orders.
+     */
+    public synchronized List<LockOrderEdge> edges() {
+        List<LockOrderEdge> result = new ArrayList<>(edges.size());
+        edges.forEachValue(edge -> result.add(view(edge)));
+        return result;
+    }
+
+    protected static class Edge {
+        protected final int from;
+        protected final int to;
+        protected final String thread;
+        protected final int stackId;
+        protected long count = 1;
+
+        protected Edge(int from, int to, String thread, int stackId) {
+            this.from = from;
+            this.to = to;
+            this.thread = thread;
+            this.stackId = stackId;
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected final List<Consumer<LockOrderInversion>> listeners = new ArrayList<>();
+        protected long samplePeriodMillis = 1000;
+        protected int maxDepth = 16;
+        protected int maxStacks = 4096;
+        protected boolean reportSelfEdges;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Period of owned monitor samples, zero disables sampling.
+         */
+        public Builder samplePeriodMillis(long value) {
+            this.samplePeriodMillis = value;
+            return this;
+        }
+
+        /**
+         * Top frames captured per edge, zero disables stacks.
+         */
+        public Builder maxDepth(int value) {
+            this.maxDepth = value;
+            return this;
+        }
+
+        public Builder maxStacks(int value) {
+            this.maxStacks = value;
+            return this;
+        }
+
+        public Builder reportSelfEdges(boolean value) {
+            this.reportSelfEdges = value;
+            return this;
+        }
+
+        /**
+         * Called on the thread that found the inversion, while the graph is locked.
+         */
+        public Builder onInversion(Consumer<LockOrderInversion> listener) {
+            listeners.add(Objects.requireNonNull(listener, "The listener must not be null"));
+            return this;
+        }
+
+        public LockOrderGraph build() {
+            if (samplePeriodMillis < 0) {
+                throw new IllegalArgumentException("Sample period must not be negative: " + samplePeriodMillis);
+            }
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+            }
+            return new LockOrderGraph(this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.alexengrig.myjdi.analytics;
+
+import java.util.List;
+
+/**
+ * A cycle in the lock acquisition order: threads following these edges at once can deadlock.
+ */
+public final class LockOrderInversion {
+    private final List<LockOrderEdge> edges;
+
+    public LockOrderInversion(List<LockOrderEdge> edges) {
+        this.edges = edges;
+    }
+
+    /**
+     * Edges of the cycle, the one that closed it last.
+     */
+    public List<LockOrderEdge> edges() {
+        return edges;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Lock-order inversion:");
+        for (LockOrderEdge edge : edges) {
+            builder.append(System.lineSeparator()).append("  ").append(edge);
+        }
+        return builder.toString();
+    }
+}
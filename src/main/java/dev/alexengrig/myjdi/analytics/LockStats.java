@@ -0,0 +1,40 @@
+package dev.alexengrig.myjdi.analytics;
+
+/**
+ * Blocked and wait times of a monitor class or of an acquiring location.
+ * The histograms are copies.
+ */
+public final class LockStats {
+    private final String name;
+    private final LatencyHistogram blocked;
+    private final LatencyHistogram waited;
+
+    public LockStats(String name, LatencyHistogram blocked, LatencyHistogram waited) {
+        this.name = name;
+        this.blocked = blocked;
+        this.waited = waited;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Time from contended enter to entered.
+     */
+    public LatencyHistogram blocked() {
+        return blocked;
+    }
+
+    /**
+     * Time from wait to waited.
+     */
+    public LatencyHistogram waited() {
+        return waited;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: blocked %s; waited %s", name, blocked, waited);
+    }
+}
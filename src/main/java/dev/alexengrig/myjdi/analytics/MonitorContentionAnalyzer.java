@@ -0,0 +1,271 @@
+package dev.alexengrig.myjdi.analytics;
+
+import com.sun.jdi.Location;
+import com.sun.jdi.ObjectCollectedException;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.request.*;
+import dev.alexengrig.myjdi.event.*;
+import dev.alexengrig.myjdi.filter.ClassExclusionFilter;
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.snapshot.LocationIdentity;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Pairs contended enter with entered and wait with waited events of each thread,
+ * a thread blocks or waits on one monitor at a time, and aggregates the durations
+ * per monitor class and per acquiring location.
+ * The requests never suspend, so durations are measured when the debugger handles the events
+ * and include the delivery jitter of both of them.
+ */
+public class MonitorContentionAnalyzer {
+    protected final YouthVirtualMachine virtualMachine;
+    protected final List<String> classExclusions;
+    protected final IdentityTable identities = new IdentityTable();
+    protected final LongLongHashMap enterStarts = new LongLongHashMap();
+    protected final LongLongHashMap enterKeys = new LongLongHashMap();
+    protected final LongLongHashMap waitStarts = new LongLongHashMap();
+    protected final LongLongHashMap waitKeys = new LongLongHashMap();
+    protected final LongObjectHashMap<LatencyHistogram[]> byClass = new LongObjectHashMap<>();
+    protected final LongObjectHashMap<LatencyHistogram[]> byLocation = new LongObjectHashMap<>();
+    protected final List<EventRequest> requests = new ArrayList<>();
+    protected long timedOutWaits;
+    protected boolean running;
+    protected boolean subscribed;
+
+    protected MonitorContentionAnalyzer(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.classExclusions = new ArrayList<>(builder.classExclusions);
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the VM cannot request monitor events
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("The analyzer is already started");
+        }
+        if (!virtualMachine.canRequestMonitorEvents()) {
+            throw new UnsupportedOperationException("The VM cannot request monitor events");
+        }
+        if (!subscribed) {
+            YouthEventSubscriptionManager subscriptionManager = virtualMachine.eventSubscriptionManager();
+            subscriptionManager.subscribeOnMonitorContendedEnter(this::onContendedEnter);
+            subscriptionManager.subscribeOnMonitorContendedEntered(this::onContendedEntered);
+            subscriptionManager.subscribeOnMonitorWait(this::onWait);
+            subscriptionManager.subscribeOnMonitorWaited(this::onWaited);
+            subscriptionManager.subscribeOnThreadDeath(this::onThreadDeath);
+            subscribed = true;
+        }
+        EventRequestManager requestManager = virtualMachine.eventRequestManager();
+        requests.add(requestManager.createMonitorContendedEnterRequest());
+        requests.add(requestManager.createMonitorContendedEnteredRequest());
+        requests.add(requestManager.createMonitorWaitRequest());
+        requests.add(requestManager.createMonitorWaitedRequest());
+        for (EventRequest request : requests) {
+            for (String pattern : classExclusions) {
+                addClassExclusionFilter(request, pattern);
+            }
+            request.setSuspendPolicy(EventRequest.SUSPEND_NONE);
+            request.putProperty(MonitorContentionAnalyzer.class, this);
+            request.enable();
+        }
+        running = true;
+    }
+
+    protected static void addClassExclusionFilter(EventRequest request, String pattern) {
+        if (request instanceof MonitorContendedEnterRequest) {
+            ((MonitorContendedEnterRequest) request).addClassExclusionFilter(pattern);
+        } else if (request instanceof MonitorContendedEnteredRequest) {
+            ((MonitorContendedEnteredRequest) request).addClassExclusionFilter(pattern);
+        } else if (request instanceof MonitorWaitRequest) {
+            ((MonitorWaitRequest) request).addClassExclusionFilter(pattern);
+        } else if (request instanceof MonitorWaitedRequest) {
+            ((MonitorWaitedRequest) request).addClassExclusionFilter(pattern);
+        }
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        virtualMachine.eventRequestManager().deleteEventRequests(requests);
+        requests.clear();
+        enterStarts.clear();
+        enterKeys.clear();
+        waitStarts.clear();
+        waitKeys.clear();
+    }
+
+    protected boolean isOwn(YouthEvent event) {
+        return running && event.request() != null
+                && event.request().getProperty(MonitorContentionAnalyzer.class) == this;
+    }
+
+    protected synchronized void onContendedEnter(YouthMonitorContendedEnterEvent event) {
+        if (isOwn(event)) {
+            long key = key(event.monitor(), event.location());
+            if (key >= 0) {
+                long thread = event.thread().uniqueID();
+                enterStarts.put(thread, System.nanoTime());
+                enterKeys.put(thread, key);
+            }
+        }
+    }
+
+    protected synchronized void onContendedEntered(YouthMonitorContendedEnteredEvent event) {
+        if (isOwn(event)) {
+            complete(event.thread().uniqueID(), enterStarts, enterKeys, 0);
+        }
+    }
+
+    protected synchronized void onWait(YouthMonitorWaitEvent event) {
+        if (isOwn(event)) {
+            long key = key(event.monitor(), event.location());
+            if (key >= 0) {
+                long thread = event.thread().uniqueID();
+                waitStarts.put(thread, System.nanoTime());
+                waitKeys.put(thread, key);
+            }
+        }
+    }
+
+    protected synchronized void onWaited(YouthMonitorWaitedEvent event) {
+        if (isOwn(event)) {
+            if (event.timedout()) {
+                timedOutWaits++;
+            }
+            complete(event.thread().uniqueID(), waitStarts, waitKeys, 1);
+        }
+    }
+
+    protected synchronized void onThreadDeath(YouthThreadDeathEvent event) {
+        long thread = event.thread().uniqueID();
+        enterStarts.remove(thread, 0);
+        enterKeys.remove(thread, 0);
+        waitStarts.remove(thread, 0);
+        waitKeys.remove(thread, 0);
+    }
+
+    /**
+     * @return monitor class id and location id packed, or {@code -1} if the monitor is collected
+     */
+    protected long key(ObjectReference monitor, Location acquiredAt) {
+        try {
+            int type = identities.internClass(monitor.referenceType()).id();
+            int location = identities.internLocation(acquiredAt).id();
+            return (long) type << 32 | location;
+        } catch (ObjectCollectedException e) {
+            return -1;
+        }
+    }
+
+    protected void complete(long thread, LongLongHashMap starts, LongLongHashMap keys, int kind) {
+        long start = starts.remove(thread, -1);
+        long key = keys.remove(thread, -1);
+        if (start < 0 || key < 0) {
+            // started before the analyzer
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        histograms(byClass, key >>> 32)[kind].record(duration);
+        histograms(byLocation, key & 0xFFFFFFFFL)[kind].record(duration);
+    }
+
+    protected static LatencyHistogram[] histograms(LongObjectHashMap<LatencyHistogram[]> map, long id) {
+        LatencyHistogram[] histograms = map.get(id);
+        if (histograms == null) {
+            histograms = new LatencyHistogram[]{new LatencyHistogram(), new LatencyHistogram()};
+            map.put(id, histograms);
+        }
+        return histograms;
+    }
+
+    /**
+     * Monitor classes by total blocked time, longest first.
+     */
+    public synchronized List<LockStats> hottestClasses(int limit) {
+        return top(byClass, id -> identities.classById(id).name(), limit);
+    }
+
+    /**
+     * Acquiring locations by total blocked time, longest first.
+     */
+    public synchronized List<LockStats> hottestLocations(int limit) {
+        return top(byLocation, id -> {
+            LocationIdentity location = identities.locationById(id);
+            return location.declaringType().name() + "." + location.method().name() + ":" + location.lineNumber();
+        }, limit);
+    }
+
+    /**
+     * Monitor classes by total wait time, longest first.
+     */
+    public synchronized List<LockStats> longestWaitingClasses(int limit) {
+        List<LockStats> stats = top(byClass, id -> identities.classById(id).name(), Integer.MAX_VALUE);
+        return sortAndLimit(stats, s -> s.waited().totalNanos(), limit);
+    }
+
+    public synchronized long timedOutWaits() {
+        return timedOutWaits;
+    }
+
+    protected List<LockStats> top(LongObjectHashMap<LatencyHistogram[]> map, IdName names, int limit) {
+        List<LockStats> stats = new ArrayList<>(map.size());
+        map.forEach((id, histograms) -> stats.add(new LockStats(names.name((int) id),
+                histograms[0].copy(), histograms[1].copy())));
+        return sortAndLimit(stats, s -> s.blocked().totalNanos(), limit);
+    }
+
+    protected static List<LockStats> sortAndLimit(List<LockStats> stats, ToLongFunction<LockStats> weight,
+                                                  int limit) {
+        stats.sort(Comparator.comparingLong(weight).reversed());
+        return stats.size() > limit ? new ArrayList<>(stats.subList(0, limit)) : stats;
+    }
+
+    @FunctionalInterface
+    protected interface IdName {
+        String name(int id);
+    }
+
+    public static class Builder implements ClassExclusionFilter {
+        protected final YouthVirtualMachine virtualMachine;
+        protected final List<String> classExclusions = new ArrayList<>();
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        @Override
+        public void addClassExclusionFilter(String classPattern) {
+            classExclusions.add(classPattern);
+        }
+
+        @Override
+        public void addClassExclusionFilters(Collection<String> classPatterns) {
+            classExclusions.addAll(classPatterns);
+        }
+
+        /**
+         * Skips monitors used in classes matching the patterns.
+         */
+        public Builder exclude(String... classPatterns) {
+            addClassExclusionFilters(Arrays.asList(classPatterns));
+            return this;
+        }
+
+        public MonitorContentionAnalyzer build() {
+            return new MonitorContentionAnalyzer(this);
+        }
+    }
+}
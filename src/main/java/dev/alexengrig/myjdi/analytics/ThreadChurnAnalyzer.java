@@ -0,0 +1,418 @@
+package dev.alexengrig.myjdi.analytics;
+
+import com.sun.jdi.*;
+import com.sun.jdi.request.BreakpointRequest;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.EventRequestManager;
+import dev.alexengrig.myjdi.event.YouthBreakpointEvent;
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.event.YouthThreadDeathEvent;
+import dev.alexengrig.myjdi.event.YouthThreadStartEvent;
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.snapshot.LocationIdentity;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks thread creation and lifetimes to find code that starts a thread per task.
+ * Threads are grouped into pools by their names, explicit patterns first and then with digit runs
+ * replaced by {@code #}, and by the location calling {@link Thread#start()}, caught by a breakpoint
+ * that suspends only the starting thread. Memory is fixed: pools and sites are capped and
+ * lifetimes go to log2 histograms, so only the live threads are kept one by one.
+ */
+public class ThreadChurnAnalyzer {
+    protected static final long UNKNOWN_SITE = -1;
+    protected static final long OTHER_SITE = -2;
+    protected static final String OTHER_POOL = "<other>";
+    protected static final int CALLER_FRAMES = 4;
+    protected static final int MAX_PENDING_CREATORS = 4096;
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final long shortLivedNanos;
+    protected final boolean creatorLocations;
+    protected final int maxPools;
+    protected final int maxSites;
+    protected final Map<String, Pattern> poolPatterns;
+    protected final IdentityTable identities = new IdentityTable();
+    protected final Map<String, Counters> pools = new HashMap<>();
+    protected final LongObjectHashMap<Counters> sites = new LongObjectHashMap<>();
+    protected final LongLongHashMap creators = new LongLongHashMap();
+    protected final LongLongHashMap starts = new LongLongHashMap();
+    protected final LongLongHashMap threadSites = new LongLongHashMap();
+    protected final LongObjectHashMap<Counters> threadPools = new LongObjectHashMap<>();
+    protected final List<EventRequest> requests = new ArrayList<>();
+    protected volatile boolean running;
+    protected boolean subscribed;
+    protected long startedAt;
+    protected long stoppedAt;
+
+    protected ThreadChurnAnalyzer(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.shortLivedNanos = TimeUnit.MILLISECONDS.toNanos(builder.shortLivedMillis);
+        this.creatorLocations = builder.creatorLocations;
+        this.maxPools = builder.maxPools;
+        this.maxSites = builder.maxSites;
+        this.poolPatterns = new LinkedHashMap<>(builder.poolPatterns);
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("The analyzer is already started");
+        }
+        if (!subscribed) {
+            YouthEventSubscriptionManager subscriptionManager = virtualMachine.eventSubscriptionManager();
+            subscriptionManager.subscribeOnThreadStart(this::onThreadStart);
+            subscriptionManager.subscribeOnThreadDeath(this::onThreadDeath);
+            subscriptionManager.subscribeOnBreakpoint(this::onStart);
+            subscribed = true;
+        }
+        EventRequestManager requestManager = virtualMachine.eventRequestManager();
+        requests.add(requestManager.createThreadStartRequest());
+        requests.add(requestManager.createThreadDeathRequest());
+        for (EventRequest request : requests) {
+            request.setSuspendPolicy(EventRequest.SUSPEND_NONE);
+        }
+        if (creatorLocations) {
+            BreakpointRequest request = createStartBreakpoint(requestManager);
+            if (request != null) {
+                request.setSuspendPolicy(EventRequest.SUSPEND_EVENT_THREAD);
+                requests.add(request);
+            }
+        }
+        for (EventRequest request : requests) {
+            request.putProperty(ThreadChurnAnalyzer.class, this);
+            request.enable();
+        }
+        startedAt = System.nanoTime();
+        stoppedAt = 0;
+        running = true;
+    }
+
+    /**
+     * @return breakpoint at the entry of {@link Thread#start()} or {@code null} if the method has no code
+     */
+    protected BreakpointRequest createStartBreakpoint(EventRequestManager requestManager) {
+        for (ReferenceType type : virtualMachine.classesByName(Thread.class.getName())) {
+            for (Method method : type.methodsByName("start", "()V")) {
+                Location location = method.location();
+                if (location != null && location.codeIndex() >= 0) {
+                    return requestManager.createBreakpointRequest(location);
+                }
+            }
+        }
+        return null;
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        stoppedAt = System.nanoTime();
+        virtualMachine.eventRequestManager().deleteEventRequests(requests);
+        requests.clear();
+        creators.clear();
+        starts.clear();
+        threadSites.clear();
+        threadPools.clear();
+    }
+
+    protected boolean isOwn(YouthEvent event) {
+        return running && event.request() != null
+                && event.request().getProperty(ThreadChurnAnalyzer.class) == this;
+    }
+
+    /**
+     * Remembers the caller of {@link Thread#start()}, the started thread is {@code this} of the top frame.
+     */
+    protected void onStart(YouthBreakpointEvent event) {
+        if (!isOwn(event)) {
+            return;
+        }
+        ThreadReference thread = event.thread();
+        try {
+            ObjectReference started = thread.frame(0).thisObject();
+            int count = thread.frameCount();
+            if (started == null || count < 2) {
+                return;
+            }
+            // skips overrides of start() calling the super method
+            Location caller = null;
+            for (StackFrame frame : thread.frames(1, Math.min(CALLER_FRAMES, count - 1))) {
+                Method method = frame.location().method();
+                if (!method.name().equals("start") || !method.signature().equals("()V")) {
+                    caller = frame.location();
+                    break;
+                }
+            }
+            if (caller != null) {
+                synchronized (this) {
+                    if (creators.size() >= MAX_PENDING_CREATORS) {
+                        // starts that failed, the thread was already started
+                        creators.clear();
+                    }
+                    creators.put(started.uniqueID(), identities.internLocation(caller).id());
+                }
+            }
+        } catch (IncompatibleThreadStateException | ObjectCollectedException e) {
+            // the thread is gone
+        }
+    }
+
+    protected void onThreadStart(YouthThreadStartEvent event) {
+        if (!isOwn(event)) {
+            return;
+        }
+        ThreadReference thread = event.thread();
+        String name;
+        try {
+            name = thread.name();
+        } catch (ObjectCollectedException e) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            long uniqueId = thread.uniqueID();
+            Counters pool = pool(name);
+            starts.put(uniqueId, now);
+            threadPools.put(uniqueId, pool);
+            long siteId = creators.remove(uniqueId, UNKNOWN_SITE);
+            if (sites.get(siteId) == null && sites.size() >= maxSites) {
+                siteId = OTHER_SITE;
+            }
+            threadSites.put(uniqueId, siteId);
+            pool.started();
+            counters(sites, siteId).started();
+        }
+    }
+
+    protected synchronized void onThreadDeath(YouthThreadDeathEvent event) {
+        if (!isOwn(event)) {
+            return;
+        }
+        long uniqueId = event.thread().uniqueID();
+        long start = starts.remove(uniqueId, -1);
+        Counters pool = threadPools.remove(uniqueId);
+        long siteId = threadSites.remove(uniqueId, UNKNOWN_SITE);
+        creators.remove(uniqueId, 0);
+        if (start < 0 || pool == null) {
+            // started before the analyzer
+            return;
+        }
+        long lifetime = System.nanoTime() - start;
+        boolean shortLived = lifetime < shortLivedNanos;
+        pool.died(lifetime, shortLived);
+        counters(sites, siteId).died(lifetime, shortLived);
+    }
+
+    protected Counters pool(String threadName) {
+        String name = null;
+        for (Map.Entry<String, Pattern> entry : poolPatterns.entrySet()) {
+            if (entry.getValue().matcher(threadName).matches()) {
+                name = entry.getKey();
+                break;
+            }
+        }
+        if (name == null) {
+            name = normalize(threadName);
+        }
+        Counters pool = pools.get(name);
+        if (pool == null) {
+            if (pools.size() >= maxPools) {
+                name = OTHER_POOL;
+                pool = pools.get(name);
+            }
+            if (pool == null) {
+                pool = new Counters();
+                pools.put(name, pool);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Replaces runs of digits with {@code #}: {@code pool-3-thread-12} becomes {@code pool-#-thread-#}.
+     */
+    protected static String normalize(String threadName) {
+        StringBuilder builder = new StringBuilder(threadName.length());
+        boolean digits = false;
+        for (int i = 0; i < threadName.length(); i++) {
+            char c = threadName.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (!digits) {
+                    builder.append('#');
+                    digits = true;
+                }
+            } else {
+                builder.append(c);
+                digits = false;
+            }
+        }
+        return builder.toString();
+    }
+
+    protected static Counters counters(LongObjectHashMap<Counters> map, long id) {
+        Counters counters = map.get(id);
+        if (counters == null) {
+            counters = new Counters();
+            map.put(id, counters);
+        }
+        return counters;
+    }
+
+    /**
+     * Pools by threads created, most first.
+     */
+    public synchronized List<ThreadPoolStats> pools() {
+        double seconds = elapsedNanos() / 1e9;
+        List<ThreadPoolStats> stats = new ArrayList<>(pools.size());
+        for (Map.Entry<String, Counters> entry : pools.entrySet()) {
+            Counters counters = entry.getValue();
+            stats.add(new ThreadPoolStats(entry.getKey(), counters.created, counters.live, counters.peakLive,
+                    counters.shortLived, seconds > 0 ? counters.created / seconds : 0, counters.lifetimes.copy()));
+        }
+        stats.sort(Comparator.comparingLong(ThreadPoolStats::created).reversed());
+        return stats;
+    }
+
+    /**
+     * Locations starting the most short-lived threads, most first.
+     */
+    public synchronized List<ThreadChurnSite> shortLivedHotSpots(int limit) {
+        List<ThreadChurnSite> hotSpots = new ArrayList<>(sites.size());
+        sites.forEach((id, counters) -> {
+            if (counters.shortLived > 0) {
+                hotSpots.add(new ThreadChurnSite(siteName(id), counters.created, counters.shortLived,
+                        counters.lifetimes.copy()));
+            }
+        });
+        hotSpots.sort(Comparator.comparingLong(ThreadChurnSite::shortLived).reversed()
+                .thenComparing(Comparator.comparingLong(ThreadChurnSite::created).reversed()));
+        return hotSpots.size() > limit ? new ArrayList<>(hotSpots.subList(0, limit)) : hotSpots;
+    }
+
+    protected String siteName(long id) {
+        if (id == UNKNOWN_SITE) {
+            return "<unknown>";
+        }
+        if (id == OTHER_SITE) {
+            return "<other>";
+        }
+        LocationIdentity location = identities.locationById((int) id);
+        return location.declaringType().name() + "." + location.method().name() + ":" + location.lineNumber();
+    }
+
+    /**
+     * Threads started per second since the analyzer started.
+     */
+    public synchronized double creationRatePerSecond() {
+        long created = 0;
+        for (Counters pool : pools.values()) {
+            created += pool.created;
+        }
+        double seconds = elapsedNanos() / 1e9;
+        return seconds > 0 ? created / seconds : 0;
+    }
+
+    protected long elapsedNanos() {
+        if (startedAt == 0) {
+            return 0;
+        }
+        return (running || stoppedAt == 0 ? System.nanoTime() : stoppedAt) - startedAt;
+    }
+
+    protected static class Counters {
+        protected final LatencyHistogram lifetimes = new LatencyHistogram();
+        protected long created;
+        protected long live;
+        protected long peakLive;
+        protected long shortLived;
+
+        protected void started() {
+            created++;
+            peakLive = Math.max(peakLive, ++live);
+        }
+
+        protected void died(long lifetime, boolean shortLived) {
+            live--;
+            lifetimes.record(lifetime);
+            if (shortLived) {
+                this.shortLived++;
+            }
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected final Map<String, Pattern> poolPatterns = new LinkedHashMap<>();
+        protected long shortLivedMillis = 100;
+        protected boolean creatorLocations = true;
+        protected int maxPools = 256;
+        protected int maxSites = 1024;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Groups threads whose names match the regular expression into the pool, before the digit-run grouping.
+         */
+        public Builder pool(String name, String regex) {
+            this.poolPatterns.put(Objects.requireNonNull(name, "The pool name must not be null"),
+                    Pattern.compile(regex));
+            return this;
+        }
+
+        /**
+         * Threads dying sooner are short-lived.
+         */
+        public Builder shortLivedMillis(long value) {
+            this.shortLivedMillis = value;
+            return this;
+        }
+
+        /**
+         * Breaks on {@link Thread#start()} to find the creating locations, the starting thread is suspended briefly.
+         */
+        public Builder creatorLocations(boolean value) {
+            this.creatorLocations = value;
+            return this;
+        }
+
+        /**
+         * Further pools are counted as {@code <other>}.
+         */
+        public Builder maxPools(int value) {
+            this.maxPools = value;
+            return this;
+        }
+
+        /**
+         * Further creating locations are counted as {@code <other>}.
+         */
+        public Builder maxSites(int value) {
+            this.maxSites = value;
+            return this;
+        }
+
+        public ThreadChurnAnalyzer build() {
+            if (shortLivedMillis <= 0) {
+                throw new IllegalArgumentException("Short-lived threshold must be positive: " + shortLivedMillis);
+            }
+            if (maxPools <= 0 || maxSites <= 0) {
+                throw new IllegalArgumentException("Max pools and sites must be positive: " + maxPools + ", " + maxSites);
+            }
+            return new ThreadChurnAnalyzer(this);
+        }
+    }
+}
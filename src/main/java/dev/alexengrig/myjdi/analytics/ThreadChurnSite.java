@@ -0,0 +1,43 @@
+package dev.alexengrig.myjdi.analytics;
+
+/**
+ * Location calling {@link Thread#start()} and the threads started there.
+ * The histogram is a copy.
+ */
+public final class ThreadChurnSite {
+    private final String location;
+    private final long created;
+    private final long shortLived;
+    private final LatencyHistogram lifetimes;
+
+    public ThreadChurnSite(String location, long created, long shortLived, LatencyHistogram lifetimes) {
+        this.location = location;
+        this.created = created;
+        this.shortLived = shortLived;
+        this.lifetimes = lifetimes;
+    }
+
+    /**
+     * {@code class.method:line} or {@code <unknown>} for threads started without {@link Thread#start()}.
+     */
+    public String location() {
+        return location;
+    }
+
+    public long created() {
+        return created;
+    }
+
+    public long shortLived() {
+        return shortLived;
+    }
+
+    public LatencyHistogram lifetimes() {
+        return lifetimes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: created %d, short-lived %d, lifetimes %s", location, created, shortLived, lifetimes);
+    }
+}
@@ -0,0 +1,69 @@
+package dev.alexengrig.myjdi.analytics;
+
+/**
+ * Threads sharing a name pattern, e.g. {@code pool-#-thread-#}, since the analyzer started.
+ * The histogram is a copy.
+ */
+public final class ThreadPoolStats {
+    private final String name;
+    private final long created;
+    private final long live;
+    private final long peakLive;
+    private final long shortLived;
+    private final double creationRatePerSecond;
+    private final LatencyHistogram lifetimes;
+
+    public ThreadPoolStats(String name, long created, long live, long peakLive, long shortLived,
+                           double creationRatePerSecond, LatencyHistogram lifetimes) {
+        this.name = name;
+        this.created = created;
+        this.live = live;
+        this.peakLive = peakLive;
+        this.shortLived = shortLived;
+        this.creationRatePerSecond = creationRatePerSecond;
+        this.lifetimes = lifetimes;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long created() {
+        return created;
+    }
+
+    /**
+     * Threads started since the analyzer started and still alive.
+     */
+    public long live() {
+        return live;
+    }
+
+    public long peakLive() {
+        return peakLive;
+    }
+
+    /**
+     * Threads that died sooner than the short-lived threshold.
+     */
+    public long shortLived() {
+        return shortLived;
+    }
+
+    public double creationRatePerSecond() {
+        return creationRatePerSecond;
+    }
+
+    /**
+     * Lifetimes of the threads that died.
+     */
+    public LatencyHistogram lifetimes() {
+        return lifetimes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: created %d (%.1f/s), live %d, peak %d, short-lived %d, lifetimes %s",
+                name, created, creationRatePerSecond, live, peakLive, shortLived, lifetimes);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.alexengrig.myjdi.capture;
+
+import dev.alexengrig.myjdi.snapshot.MethodIdentity;
+import dev.alexengrig.myjdi.snapshot.ValueSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy of the values captured for one method.
+ * The histogram counts primitives and strings by value and other objects by type,
+ * values that do not fit into it are only counted as {@link #untracked()}.
+ */
+public final class MethodReturnValues {
+    private final MethodIdentity method;
+    private final long count;
+    private final List<ValueSnapshot> recent;
+    private final Map<String, Long> histogram;
+    private final long untracked;
+
+    public MethodReturnValues(MethodIdentity method, long count, List<ValueSnapshot> recent,
+                              Map<String, Long> histogram, long untracked) {
+        this.method = method;
+        this.count = count;
+        this.recent = recent;
+        this.histogram = histogram;
+        this.untracked = untracked;
+    }
+
+    public MethodIdentity method() {
+        return method;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Latest values, oldest first.
+     */
+    public List<ValueSnapshot> recent() {
+        return recent;
+    }
+
+    /**
+     * Counts by value, most frequent first.
+     */
+    public Map<String, Long> histogram() {
+        return histogram;
+    }
+
+    public long untracked() {
+        return untracked;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s.%s%s: %d values, histogram: %s, untracked: %d, recent: %s",
+                method.declaringType().name(), method.name(), method.signature(),
+                count, histogram, untracked, recent);
+    }
+}
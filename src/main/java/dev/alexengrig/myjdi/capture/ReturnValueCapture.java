@@ -0,0 +1,239 @@
+package dev.alexengrig.myjdi.capture;
+
+import com.sun.jdi.Method;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.request.ClassPrepareRequest;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.EventRequestManager;
+import com.sun.jdi.request.MethodExitRequest;
+import dev.alexengrig.myjdi.event.YouthClassPrepareEvent;
+import dev.alexengrig.myjdi.event.YouthMethodExitEvent;
+import dev.alexengrig.myjdi.snapshot.MethodIdentity;
+import dev.alexengrig.myjdi.snapshot.SnapshotFactory;
+import dev.alexengrig.myjdi.snapshot.ValueSnapshot;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+
+/**
+ * Captures return values of chosen methods.
+ * There is one class-filtered exit request per class and it suspends only the event thread,
+ * exits of other methods of the class are dropped by a lookup in the set of resolved {@link Method}s.
+ * Values become {@link ValueSnapshot}s before the thread is resumed and are kept
+ * as a bounded histogram and a ring of recent values per method, so readers never see single events.
+ */
+public class ReturnValueCapture {
+    protected final YouthVirtualMachine virtualMachine;
+    protected final Map<String, Set<String>> methodNamesByClass;
+    protected final int recentValues;
+    protected final int maxHistogramSize;
+    protected final SnapshotFactory snapshotFactory = new SnapshotFactory();
+    protected final Map<Method, MethodValues> methods = new HashMap<>();
+    protected final List<EventRequest> requests = new ArrayList<>();
+    protected boolean running;
+    protected boolean subscribed;
+
+    protected ReturnValueCapture(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.methodNamesByClass = new LinkedHashMap<>(builder.methodNamesByClass);
+        this.recentValues = builder.recentValues;
+        this.maxHistogramSize = builder.maxHistogramSize;
+        this.snapshotFactory.setMaxStringLength(builder.maxStringLength);
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the VM cannot get return values
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("The capture is already started");
+        }
+        if (!virtualMachine.canGetMethodReturnValues()) {
+            throw new UnsupportedOperationException("The VM cannot get method return values");
+        }
+        if (!subscribed) {
+            YouthEventSubscriptionManager subscriptionManager = virtualMachine.eventSubscriptionManager();
+            subscriptionManager.subscribeOnClassPrepare(this::onClassPrepare);
+            subscriptionManager.subscribeOnMethodExit(this::onExit);
+            subscribed = true;
+        }
+        EventRequestManager requestManager = virtualMachine.eventRequestManager();
+        for (String className : methodNamesByClass.keySet()) {
+            ClassPrepareRequest prepareRequest = requestManager.createClassPrepareRequest();
+            prepareRequest.addClassFilter(className);
+            MethodExitRequest exitRequest = requestManager.createMethodExitRequest();
+            exitRequest.addClassFilter(className);
+            exitRequest.setSuspendPolicy(EventRequest.SUSPEND_EVENT_THREAD);
+            for (EventRequest request : Arrays.asList(prepareRequest, exitRequest)) {
+                request.putProperty(ReturnValueCapture.class, this);
+                request.enable();
+                requests.add(request);
+            }
+            for (ReferenceType type : virtualMachine.classesByName(className)) {
+                resolve(type);
+            }
+        }
+        running = true;
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        virtualMachine.eventRequestManager().deleteEventRequests(requests);
+        requests.clear();
+    }
+
+    protected synchronized void onClassPrepare(YouthClassPrepareEvent event) {
+        if (running && isOwn(event.request())) {
+            resolve(event.referenceType());
+        }
+    }
+
+    protected void resolve(ReferenceType type) {
+        Set<String> names = methodNamesByClass.get(type.name());
+        if (names == null) {
+            return;
+        }
+        for (Method method : type.methods()) {
+            if (names.contains(method.name()) && !methods.containsKey(method)) {
+                methods.put(method, new MethodValues(snapshotFactory.identityTable().internMethod(method),
+                        recentValues));
+            }
+        }
+    }
+
+    protected synchronized void onExit(YouthMethodExitEvent event) {
+        if (!running || !isOwn(event.request())) {
+            return;
+        }
+        MethodValues values = methods.get(event.method());
+        if (values != null) {
+            values.add(snapshotFactory.value(event.returnValue()), maxHistogramSize);
+        }
+    }
+
+    protected boolean isOwn(EventRequest request) {
+        return request != null && request.getProperty(ReturnValueCapture.class) == this;
+    }
+
+    public synchronized List<MethodReturnValues> values() {
+        List<MethodReturnValues> result = new ArrayList<>(methods.size());
+        for (MethodValues values : methods.values()) {
+            result.add(values.copy());
+        }
+        return result;
+    }
+
+    /**
+     * Key of the value in a histogram.
+     */
+    protected static String histogramKey(ValueSnapshot value) {
+        return value.tag() == ValueSnapshot.OBJECT ? value.type().name() : value.toString();
+    }
+
+    protected static class MethodValues {
+        protected final MethodIdentity method;
+        protected final ValueSnapshot[] recent;
+        protected final Map<String, long[]> histogram = new HashMap<>();
+        protected long count;
+        protected long untracked;
+
+        protected MethodValues(MethodIdentity method, int recentValues) {
+            this.method = method;
+            this.recent = new ValueSnapshot[recentValues];
+        }
+
+        protected void add(ValueSnapshot value, int maxHistogramSize) {
+            if (recent.length > 0) {
+                recent[(int) (count % recent.length)] = value;
+            }
+            count++;
+            String key = histogramKey(value);
+            long[] counter = histogram.get(key);
+            if (counter != null) {
+                counter[0]++;
+            } else if (histogram.size() < maxHistogramSize) {
+                histogram.put(key, new long[]{1});
+            } else {
+                untracked++;
+            }
+        }
+
+        protected MethodReturnValues copy() {
+            int size = (int) Math.min(count, recent.length);
+            List<ValueSnapshot> latest = new ArrayList<>(size);
+            for (long i = count - size; i < count; i++) {
+                latest.add(recent[(int) (i % recent.length)]);
+            }
+            List<Map.Entry<String, long[]>> entries = new ArrayList<>(histogram.entrySet());
+            entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<String, long[]> entry : entries) {
+                counts.put(entry.getKey(), entry.getValue()[0]);
+            }
+            return new MethodReturnValues(method, count, Collections.unmodifiableList(latest),
+                    Collections.unmodifiableMap(counts), untracked);
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected final Map<String, Set<String>> methodNamesByClass = new LinkedHashMap<>();
+        protected int recentValues = 16;
+        protected int maxHistogramSize = 64;
+        protected int maxStringLength = 64;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Captures all overloads of the method, the class name must be exact.
+         */
+        public Builder method(String className, String methodName) {
+            methodNamesByClass.computeIfAbsent(className, name -> new HashSet<>()).add(methodName);
+            return this;
+        }
+
+        /**
+         * Size of the ring of the latest values per method.
+         */
+        public Builder recentValues(int value) {
+            this.recentValues = value;
+            return this;
+        }
+
+        /**
+         * Distinct values counted per method.
+         */
+        public Builder maxHistogramSize(int value) {
+            this.maxHistogramSize = value;
+            return this;
+        }
+
+        public Builder maxStringLength(int value) {
+            this.maxStringLength = value;
+            return this;
+        }
+
+        public ReturnValueCapture build() {
+            if (methodNamesByClass.isEmpty()) {
+                throw new IllegalArgumentException("No methods to capture");
+            }
+            if (recentValues < 0) {
+                throw new IllegalArgumentException("Recent values must not be negative: " + recentValues);
+            }
+            if (maxHistogramSize < 0) {
+                throw new IllegalArgumentException("Max histogram size must not be negative: " + maxHistogramSize);
+            }
+            return new ReturnValueCapture(this);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dev.alexengrig.myjdi.dump;
+
+import java.util.Objects;
+
+/**
+ * Monitor object in a thread dump, by unique id and type.
+ */
+public final class DumpedMonitor {
+    private final long uniqueId;
+    private final String type;
+
+    public DumpedMonitor(long uniqueId, String type) {
+        this.uniqueId = uniqueId;
+        this.type = Objects.requireNonNull(type, "The type must not be null");
+    }
+
+    public long uniqueId() {
+        return uniqueId;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DumpedMonitor)) return false;
+        DumpedMonitor that = (DumpedMonitor) o;
+        return uniqueId == that.uniqueId && type.equals(that.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(uniqueId);
+    }
+
+    @Override
+    public String toString() {
+        return type + "(id=" + uniqueId + ")";
+    }
+}
@@ -0,0 +1,109 @@
+package dev.alexengrig.myjdi.dump;
+
+import java.util.*;
+
+/**
+ * Threads of a VM at one moment and the deadlocks among them.
+ * Blocked threads point at the owners of their monitors; as a thread blocks on one monitor at a time,
+ * this wait-for graph has at most one edge per thread and its cycles are found by following the edges.
+ */
+public final class ThreadDump {
+    private final long timestamp;
+    private final long suspendedNanos;
+    private final List<ThreadState> threads;
+    private final List<List<ThreadState>> deadlocks;
+
+    /**
+     * @param timestamp      milliseconds since the epoch
+     * @param suspendedNanos how long the VM was suspended to take the dump
+     */
+    public ThreadDump(long timestamp, long suspendedNanos, List<ThreadState> threads) {
+        this.timestamp = timestamp;
+        this.suspendedNanos = suspendedNanos;
+        this.threads = Collections.unmodifiableList(new ArrayList<>(threads));
+        this.deadlocks = findDeadlocks(this.threads);
+    }
+
+    protected static List<List<ThreadState>> findDeadlocks(List<ThreadState> threads) {
+        Map<Long, Integer> indices = new HashMap<>(threads.size() * 2);
+        for (int i = 0; i < threads.size(); i++) {
+            indices.put(threads.get(i).uniqueId(), i);
+        }
+        int[] next = new int[threads.size()];
+        for (int i = 0; i < next.length; i++) {
+            ThreadState thread = threads.get(i);
+            Integer owner = thread.isBlocked() ? indices.get(thread.contendedOwnerId()) : null;
+            next[i] = owner == null || owner == i ? -1 : owner;
+        }
+        // 0 - not visited, 1 - on the current path, 2 - done
+        byte[] colors = new byte[next.length];
+        List<List<ThreadState>> deadlocks = new ArrayList<>();
+        for (int start = 0; start < next.length; start++) {
+            int at = start;
+            while (at >= 0 && colors[at] == 0) {
+                colors[at] = 1;
+                at = next[at];
+            }
+            if (at >= 0 && colors[at] == 1) {
+                List<ThreadState> cycle = new ArrayList<>();
+                int member = at;
+                do {
+                    cycle.add(threads.get(member));
+                    member = next[member];
+                } while (member != at);
+                deadlocks.add(Collections.unmodifiableList(cycle));
+            }
+            for (at = start; at >= 0 && colors[at] == 1; at = next[at]) {
+                colors[at] = 2;
+            }
+        }
+        return Collections.unmodifiableList(deadlocks);
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public long suspendedNanos() {
+        return suspendedNanos;
+    }
+
+    public List<ThreadState> threads() {
+        return threads;
+    }
+
+    /**
+     * Cycles of blocked threads, each one starts at an arbitrary member.
+     */
+    public List<List<ThreadState>> deadlocks() {
+        return deadlocks;
+    }
+
+    public ThreadState thread(long uniqueId) {
+        for (ThreadState thread : threads) {
+            if (thread.uniqueId() == uniqueId) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Thread dump at %tFT%<tT.%<tL, %d threads, suspended %.3f ms",
+                timestamp, threads.size(), suspendedNanos / 1e6));
+        for (ThreadState thread : threads) {
+            builder.append(System.lineSeparator()).append(System.lineSeparator()).append(thread);
+        }
+        for (List<ThreadState> deadlock : deadlocks) {
+            builder.append(System.lineSeparator()).append(System.lineSeparator()).append("Deadlock:");
+            for (ThreadState thread : deadlock) {
+                builder.append(System.lineSeparator()).append("  \"").append(thread.name())
+                        .append("\" waits for ").append(thread.contendedMonitor())
+                        .append(" owned by id=").append(thread.contendedOwnerId());
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package dev.alexengrig.myjdi.dump;
+
+import com.sun.jdi.ThreadReference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Differences between two dumps of the same VM, threads are matched by their unique ids.
+ * Threads that stayed blocked or waiting with the same stack are reported as possibly stuck.
+ */
+public final class ThreadDumpDiff {
+    private final ThreadDump before;
+    private final ThreadDump after;
+    private final List<ThreadState> started;
+    private final List<ThreadState> finished;
+    private final List<ThreadState> statusChanged;
+    private final List<ThreadState> stuck;
+
+    private ThreadDumpDiff(ThreadDump before, ThreadDump after, List<ThreadState> started,
+                           List<ThreadState> finished, List<ThreadState> statusChanged, List<ThreadState> stuck) {
+        this.before = before;
+        this.after = after;
+        this.started = Collections.unmodifiableList(started);
+        this.finished = Collections.unmodifiableList(finished);
+        this.statusChanged = Collections.unmodifiableList(statusChanged);
+        this.stuck = Collections.unmodifiableList(stuck);
+    }
+
+    public static ThreadDumpDiff between(ThreadDump before, ThreadDump after) {
+        List<ThreadState> started = new ArrayList<>();
+        List<ThreadState> statusChanged = new ArrayList<>();
+        List<ThreadState> stuck = new ArrayList<>();
+        for (ThreadState thread : after.threads()) {
+            ThreadState previous = before.thread(thread.uniqueId());
+            if (previous == null) {
+                started.add(thread);
+            } else if (previous.status() != thread.status()) {
+                statusChanged.add(thread);
+            } else if (thread.status() != ThreadReference.THREAD_STATUS_RUNNING && !thread.frames().isEmpty()
+                    && previous.frames().equals(thread.frames())) {
+                stuck.add(thread);
+            }
+        }
+        List<ThreadState> finished = new ArrayList<>();
+        for (ThreadState thread : before.threads()) {
+            if (after.thread(thread.uniqueId()) == null) {
+                finished.add(thread);
+            }
+        }
+        return new ThreadDumpDiff(before, after, started, finished, statusChanged, stuck);
+    }
+
+    public ThreadDump before() {
+        return before;
+    }
+
+    public ThreadDump after() {
+        return after;
+    }
+
+    /**
+     * Threads of the later dump only.
+     */
+    public List<ThreadState> started() {
+        return started;
+    }
+
+    /**
+     * Threads of the earlier dump only.
+     */
+    public List<ThreadState> finished() {
+        return finished;
+    }
+
+    /**
+     * Threads of the later dump whose status differs from the earlier one.
+     */
+    public List<ThreadState> statusChanged() {
+        return statusChanged;
+    }
+
+    /**
+     * Threads of the later dump that are not running and have not moved since the earlier one.
+     */
+    public List<ThreadState> stuck() {
+        return stuck;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Thread dump diff over %d ms: %d started, %d finished, %d changed, %d stuck",
+                after.timestamp() - before.timestamp(), started.size(), finished.size(),
+                statusChanged.size(), stuck.size()));
+        for (ThreadState thread : started) {
+            append(builder, "+ ", thread);
+        }
+        for (ThreadState thread : finished) {
+            append(builder, "- ", thread);
+        }
+        for (ThreadState thread : statusChanged) {
+            append(builder, "~ ", thread);
+        }
+        for (ThreadState thread : stuck) {
+            append(builder, "! ", thread);
+        }
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, String prefix, ThreadState thread) {
+        builder.append(System.lineSeparator()).append(prefix).append('"').append(thread.name())
+                .append("\" id=").append(thread.uniqueId()).append(' ')
+                .append(ThreadState.statusName(thread.status()));
+    }
+}
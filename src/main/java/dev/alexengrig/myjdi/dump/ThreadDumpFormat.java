@@ -0,0 +1,19 @@
+package dev.alexengrig.myjdi.dump;
+
+/**
+ * Layout of a binary thread dump.
+ * <p>
+ * An 8-byte header (magic, version) is followed by varints: timestamp, suspended nanoseconds,
+ * a table of the distinct strings and the threads. A thread is its unique id, name index, zigzag status,
+ * frame count and frame indices, owned monitor count and monitors, the contended monitor or a zero id,
+ * and the unique id of its owner. A monitor is a unique id and a type index.
+ * Frames repeat across threads, so the string table keeps a dump of many similar threads small.
+ */
+public final class ThreadDumpFormat {
+    public static final int MAGIC = 0x4D594454;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+
+    private ThreadDumpFormat() {
+    }
+}
@@ -0,0 +1,66 @@
+package dev.alexengrig.myjdi.dump;
+
+import dev.alexengrig.myjdi.util.VarInts;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decodes thread dumps written by {@link ThreadDumpWriter}.
+ */
+public final class ThreadDumpReader {
+    private ThreadDumpReader() {
+    }
+
+    public static ThreadDump read(Path path) throws IOException {
+        return decode(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    public static ThreadDump decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < ThreadDumpFormat.HEADER_SIZE || buffer.getInt() != ThreadDumpFormat.MAGIC) {
+            throw new IOException("Not a thread dump");
+        }
+        int version = buffer.getInt();
+        if (version != ThreadDumpFormat.VERSION) {
+            throw new IOException("Unsupported thread dump version: " + version);
+        }
+        long timestamp = VarInts.readVarLong(buffer);
+        long suspendedNanos = VarInts.readVarLong(buffer);
+        String[] strings = new String[VarInts.readVarInt(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = VarInts.readString(buffer);
+        }
+        int threadCount = VarInts.readVarInt(buffer);
+        List<ThreadState> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            long uniqueId = VarInts.readVarLong(buffer);
+            String name = strings[VarInts.readVarInt(buffer)];
+            int status = (int) VarInts.readZigZag(buffer);
+            int frameCount = VarInts.readVarInt(buffer);
+            List<String> frames = new ArrayList<>(frameCount);
+            for (int j = 0; j < frameCount; j++) {
+                frames.add(strings[VarInts.readVarInt(buffer)]);
+            }
+            int monitorCount = VarInts.readVarInt(buffer);
+            List<DumpedMonitor> monitors = new ArrayList<>(monitorCount);
+            for (int j = 0; j < monitorCount; j++) {
+                monitors.add(new DumpedMonitor(VarInts.readVarLong(buffer), strings[VarInts.readVarInt(buffer)]));
+            }
+            DumpedMonitor contended = null;
+            long ownerId = 0;
+            long contendedId = VarInts.readVarLong(buffer);
+            if (contendedId != 0) {
+                contended = new DumpedMonitor(contendedId, strings[VarInts.readVarInt(buffer)]);
+                ownerId = VarInts.readVarLong(buffer);
+            }
+            threads.add(new ThreadState(uniqueId, name, status, Collections.unmodifiableList(frames),
+                    Collections.unmodifiableList(monitors), contended, ownerId));
+        }
+        return new ThreadDump(timestamp, suspendedNanos, threads);
+    }
+}
@@ -0,0 +1,200 @@
+package dev.alexengrig.myjdi.dump;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Takes consistent dumps of all threads of a VM.
+ * The VM is suspended once, the threads are fetched in parallel, since every JDWP round trip is the cost
+ * and they are independent, and the VM is resumed before the wait-for graph is analyzed.
+ */
+public class ThreadDumpSnapshotter implements AutoCloseable {
+    private static final Log log = Log.getLog(ThreadDumpSnapshotter.class);
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final int maxDepth;
+    protected final boolean logDeadlocks;
+    protected final boolean ownedMonitors;
+    protected final boolean contendedMonitors;
+    protected final ExecutorService fetchers;
+
+    protected ThreadDumpSnapshotter(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.maxDepth = builder.maxDepth;
+        this.logDeadlocks = builder.logDeadlocks;
+        this.ownedMonitors = virtualMachine.canGetOwnedMonitorInfo();
+        this.contendedMonitors = virtualMachine.canGetCurrentContendedMonitor();
+        this.fetchers = Executors.newFixedThreadPool(builder.parallelism,
+                Concurrency.daemonThreadFactory("myjdi-dump-fetcher-"));
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * Suspends the VM, fetches every thread and resumes it.
+     *
+     * @throws VMDisconnectedException if the VM is gone
+     */
+    public ThreadDump take() throws InterruptedException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        List<Future<ThreadState>> futures;
+        virtualMachine.suspend();
+        try {
+            List<ThreadReference> threads = virtualMachine.allThreads();
+            futures = new ArrayList<>(threads.size());
+            for (ThreadReference thread : threads) {
+                futures.add(fetchers.submit(() -> fetch(thread)));
+            }
+            for (Future<ThreadState> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // reported below, the VM must be resumed first
+                }
+            }
+        } finally {
+            virtualMachine.resume();
+        }
+        long suspendedNanos = System.nanoTime() - start;
+        List<ThreadState> states = new ArrayList<>(futures.size());
+        for (Future<ThreadState> future : futures) {
+            try {
+                ThreadState state = future.get();
+                if (state != null) {
+                    states.add(state);
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof VMDisconnectedException) {
+                    throw (VMDisconnectedException) e.getCause();
+                }
+                log.warning("Thread fetching failed.", e.getCause());
+            }
+        }
+        ThreadDump dump = new ThreadDump(timestamp, suspendedNanos, states);
+        if (logDeadlocks) {
+            for (List<ThreadState> deadlock : dump.deadlocks()) {
+                log.warning("Deadlock of {} threads: {}", deadlock.size(), names(deadlock));
+            }
+        }
+        return dump;
+    }
+
+    /**
+     * @return state of the thread or {@code null} if it has been collected
+     */
+    protected ThreadState fetch(ThreadReference thread) {
+        try {
+            String name = thread.name();
+            int status = thread.status();
+            List<String> frames = new ArrayList<>();
+            int count = thread.frameCount();
+            if (count > 0) {
+                for (StackFrame frame : thread.frames(0, maxDepth > 0 ? Math.min(count, maxDepth) : count)) {
+                    frames.add(frameName(frame.location()));
+                }
+            }
+            List<DumpedMonitor> owned = Collections.emptyList();
+            if (ownedMonitors) {
+                owned = new ArrayList<>();
+                for (ObjectReference monitor : thread.ownedMonitors()) {
+                    owned.add(monitor(monitor));
+                }
+            }
+            DumpedMonitor contended = null;
+            long ownerId = 0;
+            ObjectReference monitor = contendedMonitors ? thread.currentContendedMonitor() : null;
+            if (monitor != null) {
+                contended = monitor(monitor);
+                ThreadReference owner = monitor.owningThread();
+                ownerId = owner == null ? 0 : owner.uniqueID();
+            }
+            return new ThreadState(thread.uniqueID(), name, status, Collections.unmodifiableList(frames),
+                    Collections.unmodifiableList(owned), contended, ownerId);
+        } catch (ObjectCollectedException e) {
+            return null;
+        } catch (IncompatibleThreadStateException e) {
+            // cannot happen while the VM is suspended, unless the thread has not started yet
+            return null;
+        }
+    }
+
+    protected static DumpedMonitor monitor(ObjectReference monitor) {
+        return new DumpedMonitor(monitor.uniqueID(), monitor.referenceType().name());
+    }
+
+    protected static String frameName(Location location) {
+        return location.declaringType().name() + '.' + location.method().name() + ':' + location.lineNumber();
+    }
+
+    protected static String names(List<ThreadState> threads) {
+        StringBuilder builder = new StringBuilder();
+        for (ThreadState thread : threads) {
+            if (builder.length() > 0) {
+                builder.append(" -> ");
+            }
+            builder.append('"').append(thread.name()).append('"');
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void close() {
+        fetchers.shutdownNow();
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected int parallelism = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        protected int maxDepth;
+        protected boolean logDeadlocks = true;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Threads fetching thread states concurrently.
+         */
+        public Builder parallelism(int value) {
+            this.parallelism = value;
+            return this;
+        }
+
+        /**
+         * Top frames taken per thread, zero takes the whole stack.
+         */
+        public Builder maxDepth(int value) {
+            this.maxDepth = value;
+            return this;
+        }
+
+        /**
+         * Logs every deadlock found as a warning.
+         */
+        public Builder logDeadlocks(boolean value) {
+            this.logDeadlocks = value;
+            return this;
+        }
+
+        public ThreadDumpSnapshotter build() {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+            }
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+            }
+            return new ThreadDumpSnapshotter(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package dev.alexengrig.myjdi.dump;
+
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes thread dumps in the {@link ThreadDumpFormat}.
+ */
+public final class ThreadDumpWriter {
+    private ThreadDumpWriter() {
+    }
+
+    public static void write(ThreadDump dump, Path path) throws IOException {
+        ByteSink sink = encode(dump);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(sink.array(), 0, sink.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public static ByteSink encode(ThreadDump dump) {
+        Map<String, Integer> indices = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (ThreadState thread : dump.threads()) {
+            index(thread.name(), indices, strings);
+            for (String frame : thread.frames()) {
+                index(frame, indices, strings);
+            }
+            for (DumpedMonitor monitor : thread.ownedMonitors()) {
+                index(monitor.type(), indices, strings);
+            }
+            if (thread.contendedMonitor() != null) {
+                index(thread.contendedMonitor().type(), indices, strings);
+            }
+        }
+        ByteSink sink = new ByteSink(64 + strings.size() * 32 + dump.threads().size() * 64);
+        sink.writeInt(ThreadDumpFormat.MAGIC);
+        sink.writeInt(ThreadDumpFormat.VERSION);
+        sink.writeVarLong(dump.timestamp());
+        sink.writeVarLong(dump.suspendedNanos());
+        sink.writeVarInt(strings.size());
+        for (String string : strings) {
+            sink.writeString(string);
+        }
+        sink.writeVarInt(dump.threads().size());
+        for (ThreadState thread : dump.threads()) {
+            sink.writeVarLong(thread.uniqueId());
+            sink.writeVarInt(indices.get(thread.name()));
+            sink.writeZigZag(thread.status());
+            sink.writeVarInt(thread.frames().size());
+            for (String frame : thread.frames()) {
+                sink.writeVarInt(indices.get(frame));
+            }
+            sink.writeVarInt(thread.ownedMonitors().size());
+            for (DumpedMonitor monitor : thread.ownedMonitors()) {
+                writeMonitor(monitor, indices, sink);
+            }
+            if (thread.contendedMonitor() == null) {
+                sink.writeVarLong(0);
+            } else {
+                writeMonitor(thread.contendedMonitor(), indices, sink);
+                sink.writeVarLong(thread.contendedOwnerId());
+            }
+        }
+        return sink;
+    }
+
+    private static void writeMonitor(DumpedMonitor monitor, Map<String, Integer> indices, ByteSink sink) {
+        sink.writeVarLong(monitor.uniqueId());
+        sink.writeVarInt(indices.get(monitor.type()));
+    }
+
+    private static void index(String string, Map<String, Integer> indices, List<String> strings) {
+        if (!indices.containsKey(string)) {
+            indices.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package dev.alexengrig.myjdi.dump;
+
+import com.sun.jdi.ThreadReference;
+
+import java.util.List;
+
+/**
+ * State of one thread in a {@link ThreadDump}.
+ */
+public final class ThreadState {
+    private final long uniqueId;
+    private final String name;
+    private final int status;
+    private final List<String> frames;
+    private final List<DumpedMonitor> ownedMonitors;
+    private final DumpedMonitor contendedMonitor;
+    private final long contendedOwnerId;
+
+    public ThreadState(long uniqueId, String name, int status, List<String> frames,
+                       List<DumpedMonitor> ownedMonitors, DumpedMonitor contendedMonitor, long contendedOwnerId) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.status = status;
+        this.frames = frames;
+        this.ownedMonitors = ownedMonitors;
+        this.contendedMonitor = contendedMonitor;
+        this.contendedOwnerId = contendedOwnerId;
+    }
+
+    public long uniqueId() {
+        return uniqueId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * One of the {@code ThreadReference.THREAD_STATUS_*} constants.
+     */
+    public int status() {
+        return status;
+    }
+
+    /**
+     * Frames as {@code class.method:line}, innermost first.
+     */
+    public List<String> frames() {
+        return frames;
+    }
+
+    public List<DumpedMonitor> ownedMonitors() {
+        return ownedMonitors;
+    }
+
+    /**
+     * Monitor the thread is blocked on or waits on, {@code null} if none.
+     */
+    public DumpedMonitor contendedMonitor() {
+        return contendedMonitor;
+    }
+
+    /**
+     * Unique id of the owner of the contended monitor, zero if it has none.
+     */
+    public long contendedOwnerId() {
+        return contendedOwnerId;
+    }
+
+    public boolean isBlocked() {
+        return status == ThreadReference.THREAD_STATUS_MONITOR && contendedOwnerId != 0;
+    }
+
+    public static String statusName(int status) {
+        switch (status) {
+            case ThreadReference.THREAD_STATUS_ZOMBIE:
+                return "ZOMBIE";
+            case ThreadReference.THREAD_STATUS_RUNNING:
+                return "RUNNING";
+            case ThreadReference.THREAD_STATUS_SLEEPING:
+                return "SLEEPING";
+            case ThreadReference.THREAD_STATUS_MONITOR:
+                return "MONITOR";
+            case ThreadReference.THREAD_STATUS_WAIT:
+                return "WAIT";
+            case ThreadReference.THREAD_STATUS_NOT_STARTED:
+                return "NOT_STARTED";
+            default:
+                return "UNKNOWN";
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append('"').append(name).append("\" id=").append(uniqueId).append(' ').append(statusName(status));
+        if (contendedMonitor != null) {
+            builder.append(" on ").append(contendedMonitor);
+            if (contendedOwnerId != 0) {
+                builder.append(" owned by id=").append(contendedOwnerId);
+            }
+        }
+        for (String frame : frames) {
+            builder.append(System.lineSeparator()).append("    at ").append(frame);
+        }
+        for (DumpedMonitor monitor : ownedMonitors) {
+            builder.append(System.lineSeparator()).append("    owns ").append(monitor);
+        }
+        return builder.toString();
+    }
+}
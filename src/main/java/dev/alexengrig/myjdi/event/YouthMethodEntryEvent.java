@@ -1,6 +1,7 @@
 package dev.alexengrig.myjdi.event;
 
 import com.sun.jdi.Method;
+import com.sun.jdi.event.BreakpointEvent;
 import com.sun.jdi.event.MethodEntryEvent;
 import dev.alexengrig.myjdi.handle.YouthEventHandler;
 
@@ -25,4 +26,20 @@ public interface YouthMethodEntryEvent extends YouthEvent, MethodEntryEvent {
             return event.method();
         }
     }
+
+    /**
+     * Method entry emulated by a breakpoint, see {@link dev.alexengrig.myjdi.request.MethodBreakpointKind}.
+     * The request is the breakpoint request.
+     */
+    class BreakpointDelegate
+            extends YouthLocatableEventDelegate<BreakpointEvent>
+            implements YouthMethodEntryEvent {
+        public BreakpointDelegate(BreakpointEvent event) {
+            super(event);
+        }
+
+        public Method method() {
+            return event.location().method();
+        }
+    }
 }
@@ -2,6 +2,7 @@ package dev.alexengrig.myjdi.event;
 
 import com.sun.jdi.Method;
 import com.sun.jdi.Value;
+import com.sun.jdi.event.BreakpointEvent;
 import com.sun.jdi.event.MethodExitEvent;
 import dev.alexengrig.myjdi.handle.YouthEventHandler;
 
@@ -30,4 +31,27 @@ public interface YouthMethodExitEvent extends YouthEvent, MethodExitEvent {
             return event.returnValue();
         }
     }
+
+    /**
+     * Method exit emulated by a breakpoint, see {@link dev.alexengrig.myjdi.request.MethodBreakpointKind}.
+     * The request is the breakpoint request.
+     */
+    class BreakpointDelegate
+            extends YouthLocatableEventDelegate<BreakpointEvent>
+            implements YouthMethodExitEvent {
+        public BreakpointDelegate(BreakpointEvent event) {
+            super(event);
+        }
+
+        public Method method() {
+            return event.location().method();
+        }
+
+        /**
+         * The value is still on the operand stack at a breakpoint, where JDI cannot read it.
+         */
+        public Value returnValue() {
+            throw new UnsupportedOperationException("The return value is not available at a breakpoint");
+        }
+    }
 }
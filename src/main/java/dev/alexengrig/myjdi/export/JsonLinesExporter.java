@@ -0,0 +1,229 @@
+package dev.alexengrig.myjdi.export;
+
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.snapshot.SnapshotFactory;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriber;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exports every event it receives as JSON Lines files.
+ * The handler thread only takes the snapshot and enqueues it, formatting and I/O run on a background thread
+ * that writes whole batches of lines and starts a new file when the current one would exceed its size.
+ */
+public class JsonLinesExporter implements YouthEventSubscriber<YouthEvent>, Closeable {
+    private static final Log log = Log.getLog(JsonLinesExporter.class);
+
+    protected static final String FILE_SUFFIX = ".jsonl";
+    protected static final int DRAIN_SIZE = 1024;
+    protected static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    protected final JsonLinesSettings settings;
+    protected final SnapshotFactory snapshotFactory;
+    protected final BlockingQueue<YouthEventSnapshot> queue;
+    protected final ByteSink batch;
+    protected final SnapshotJsonFormatter formatter;
+    protected final ArrayDeque<Path> files;
+    protected final long flushIntervalNanos;
+    protected final Thread writerThread;
+    protected final AtomicLong dropped = new AtomicLong();
+    protected volatile boolean running;
+    protected volatile long exported;
+    protected long nextFileIndex;
+    protected FileChannel channel;
+    protected long fileSize;
+
+    public JsonLinesExporter(JsonLinesSettings settings, SnapshotFactory snapshotFactory) throws IOException {
+        this.settings = settings;
+        this.snapshotFactory = snapshotFactory;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        this.batch = new ByteSink(settings.batchSize() + (settings.batchSize() >> 2));
+        this.formatter = new SnapshotJsonFormatter(batch);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.flushIntervalMillis());
+        Files.createDirectories(settings.directory());
+        this.files = new ArrayDeque<>(existingFiles());
+        this.nextFileIndex = files.isEmpty() ? 0 : fileIndex(files.getLast()) + 1;
+        this.writerThread = new Thread(this::writeLoop, "myjdi-json-exporter");
+        this.writerThread.setDaemon(true);
+    }
+
+    public static JsonLinesExporter export(YouthEventSubscriptionManager subscriptionManager,
+                                           JsonLinesSettings settings, SnapshotFactory snapshotFactory)
+            throws IOException {
+        JsonLinesExporter exporter = new JsonLinesExporter(settings, snapshotFactory);
+        exporter.start();
+        subscriptionManager.subscribeOnAll(exporter);
+        return exporter;
+    }
+
+    public void start() {
+        running = true;
+        writerThread.start();
+    }
+
+    @Override
+    public void accept(YouthEvent event) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        enqueue(snapshotFactory.create(event));
+    }
+
+    public void enqueue(YouthEventSnapshot snapshot) {
+        if (settings.overflowPolicy() == OverflowPolicy.DROP) {
+            if (!queue.offer(snapshot)) {
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            // the writer may stop on an I/O error, waiting for it must not freeze the handler
+            while (running) {
+                if (queue.offer(snapshot, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.incrementAndGet();
+    }
+
+    public long exported() {
+        return exported;
+    }
+
+    /**
+     * Events not exported because the queue was full or the writer stopped.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    protected void writeLoop() {
+        List<YouthEventSnapshot> drained = new ArrayList<>(DRAIN_SIZE);
+        long lastWrite = System.nanoTime();
+        try {
+            while (running || !queue.isEmpty()) {
+                YouthEventSnapshot first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    drained.add(first);
+                    queue.drainTo(drained, DRAIN_SIZE - 1);
+                    for (YouthEventSnapshot snapshot : drained) {
+                        formatter.format(snapshot);
+                        if (batch.size() >= settings.batchSize()) {
+                            writeBatch();
+                            lastWrite = System.nanoTime();
+                        }
+                    }
+                    exported += drained.size();
+                    drained.clear();
+                }
+                long now = System.nanoTime();
+                if (first == null || now - lastWrite >= flushIntervalNanos) {
+                    writeBatch();
+                    lastWrite = now;
+                }
+            }
+            writeBatch();
+        } catch (IOException e) {
+            running = false;
+            log.severe("JSON Lines export failed, exporting is stopped.", e);
+        } catch (InterruptedException e) {
+            running = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected void writeBatch() throws IOException {
+        if (batch.size() == 0) {
+            return;
+        }
+        if (channel == null || fileSize > 0 && fileSize + batch.size() > settings.maxFileSize()) {
+            rotate();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch.array(), 0, batch.size());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        fileSize += batch.size();
+        batch.reset();
+    }
+
+    protected void rotate() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path path = settings.directory().resolve(String.format("%s%08d%s",
+                settings.filePrefix(), nextFileIndex++, FILE_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        fileSize = 0;
+        files.add(path);
+        while (settings.maxFiles() > 0 && files.size() > settings.maxFiles()) {
+            Files.deleteIfExists(files.poll());
+        }
+    }
+
+    protected List<Path> existingFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(settings.directory())) {
+            return paths.filter(this::isExportFile)
+                    .sorted(Comparator.comparingLong(this::fileIndex))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    protected boolean isExportFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.length() > settings.filePrefix().length() + FILE_SUFFIX.length()
+                && name.startsWith(settings.filePrefix()) && name.endsWith(FILE_SUFFIX)
+                && name.substring(settings.filePrefix().length(), name.length() - FILE_SUFFIX.length())
+                .chars().allMatch(Character::isDigit);
+    }
+
+    protected long fileIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(settings.filePrefix().length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    /**
+     * Stops accepting events, writes the queued ones and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package dev.alexengrig.myjdi.export;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+public class JsonLinesSettings {
+    public static final String DEFAULT_FILE_PREFIX = "events-";
+    public static final long DEFAULT_MAX_FILE_SIZE = 256L << 20;
+    public static final int DEFAULT_BATCH_SIZE = 1 << 20;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    protected final Path directory;
+    protected final String filePrefix;
+    protected final long maxFileSize;
+    protected final int maxFiles;
+    protected final int batchSize;
+    protected final int queueCapacity;
+    protected final long flushIntervalMillis;
+    protected final OverflowPolicy overflowPolicy;
+
+    protected JsonLinesSettings(Builder builder) {
+        this.directory = builder.directory;
+        this.filePrefix = builder.filePrefix;
+        this.maxFileSize = builder.maxFileSize;
+        this.maxFiles = builder.maxFiles;
+        this.batchSize = builder.batchSize;
+        this.queueCapacity = builder.queueCapacity;
+        this.flushIntervalMillis = builder.flushIntervalMillis;
+        this.overflowPolicy = builder.overflowPolicy;
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public String filePrefix() {
+        return filePrefix;
+    }
+
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Number of files kept after rotation, zero keeps all of them.
+     */
+    public int maxFiles() {
+        return maxFiles;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public long flushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public static class Builder {
+        protected final Path directory;
+        protected String filePrefix = DEFAULT_FILE_PREFIX;
+        protected long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        protected int maxFiles;
+        protected int batchSize = DEFAULT_BATCH_SIZE;
+        protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        protected long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+        protected OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+        protected Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "The directory must not be null");
+        }
+
+        public Builder filePrefix(String value) {
+            this.filePrefix = Objects.requireNonNull(value, "The file prefix must not be null");
+            return this;
+        }
+
+        public Builder maxFileSize(long value) {
+            this.maxFileSize = value;
+            return this;
+        }
+
+        public Builder maxFiles(int value) {
+            this.maxFiles = value;
+            return this;
+        }
+
+        public Builder batchSize(int value) {
+            this.batchSize = value;
+            return this;
+        }
+
+        public Builder queueCapacity(int value) {
+            this.queueCapacity = value;
+            return this;
+        }
+
+        public Builder flushIntervalMillis(long value) {
+            this.flushIntervalMillis = value;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy value) {
+            this.overflowPolicy = Objects.requireNonNull(value, "The overflow policy must not be null");
+            return this;
+        }
+
+        public JsonLinesSettings build() {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+            if (maxFileSize < batchSize) {
+                throw new IllegalArgumentException("Max file size must fit a batch: " + maxFileSize);
+            }
+            if (maxFiles < 0) {
+                throw new IllegalArgumentException("Max files must not be negative: " + maxFiles);
+            }
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+            }
+            return new JsonLinesSettings(this);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.alexengrig.myjdi.export;
+
+/**
+ * What an exporter does with an event when its queue is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Drops the event and counts it, the event handler thread never waits.
+     */
+    DROP,
+    /**
+     * Waits for queue space, slowing the debuggee down instead of losing events;
+     * drops and counts the event once the writer has stopped.
+     */
+    BLOCK
+}
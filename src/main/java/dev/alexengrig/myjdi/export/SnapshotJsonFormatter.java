@@ -0,0 +1,197 @@
+package dev.alexengrig.myjdi.export;
+
+import dev.alexengrig.myjdi.snapshot.*;
+import dev.alexengrig.myjdi.util.ByteSink;
+import dev.alexengrig.myjdi.util.JsonWriter;
+
+/**
+ * Writes snapshots as single-line JSON objects:
+ * {@code {"ts":..,"kind":"STEP","thread":{"id":..,"name":".."},"location":{..},..}}.
+ */
+public class SnapshotJsonFormatter implements YouthEventSnapshotHandler {
+    protected final JsonWriter json;
+
+    public SnapshotJsonFormatter(ByteSink sink) {
+        this.json = new JsonWriter(sink);
+    }
+
+    /**
+     * Appends the snapshot and a line feed to the sink.
+     */
+    public void format(YouthEventSnapshot snapshot) {
+        json.beginObject()
+                .name("ts").value(snapshot.timestamp())
+                .name("kind").value(snapshot.kind().name());
+        if (snapshot.thread() != null) {
+            json.name("thread").beginObject()
+                    .name("id").value(snapshot.thread().uniqueId())
+                    .name("name").value(snapshot.thread().name())
+                    .endObject();
+        }
+        if (snapshot instanceof YouthLocatableEventSnapshot) {
+            writeLocation("location", ((YouthLocatableEventSnapshot) snapshot).location());
+        }
+        snapshot.accept(this);
+        json.endObject().newLine();
+    }
+
+    protected void writeLocation(String name, LocationIdentity location) {
+        json.name(name);
+        if (location == null) {
+            json.nullValue();
+            return;
+        }
+        MethodIdentity method = location.method();
+        json.beginObject()
+                .name("class").value(method.declaringType().name())
+                .name("method").value(method.name())
+                .name("signature").value(method.signature())
+                .name("line").value(location.lineNumber())
+                .name("codeIndex").value(location.codeIndex())
+                .endObject();
+    }
+
+    protected void writeField(FieldIdentity field) {
+        json.name("field").beginObject()
+                .name("class").value(field.declaringType().name())
+                .name("name").value(field.name())
+                .name("type").value(field.typeName())
+                .endObject();
+    }
+
+    protected void writeObject(String name, ClassIdentity type, long uniqueId) {
+        json.name(name).beginObject()
+                .name("type").value(type.name())
+                .name("id").value(uniqueId)
+                .endObject();
+    }
+
+    /**
+     * Primitives and strings as JSON values, other objects as type and id.
+     */
+    protected void writeValue(String name, ValueSnapshot value) {
+        json.name(name);
+        if (value == null || value.tag() == ValueSnapshot.NULL) {
+            json.nullValue();
+            return;
+        }
+        switch (value.tag()) {
+            case ValueSnapshot.VOID:
+                json.value("void");
+                break;
+            case ValueSnapshot.BOOLEAN:
+                json.value(value.bits() != 0);
+                break;
+            case ValueSnapshot.CHAR:
+                json.value(String.valueOf((char) value.bits()));
+                break;
+            case ValueSnapshot.FLOAT:
+            case ValueSnapshot.DOUBLE:
+                json.value(value.asDouble());
+                break;
+            case ValueSnapshot.STRING:
+                json.value(value.text());
+                break;
+            case ValueSnapshot.OBJECT:
+                json.beginObject()
+                        .name("type").value(value.type().name())
+                        .name("id").value(value.uniqueId())
+                        .endObject();
+                break;
+            default:
+                json.value(value.bits());
+        }
+    }
+
+    @Override
+    public void handleException(YouthExceptionEventSnapshot snapshot) {
+        writeObject("exception", snapshot.exceptionType(), snapshot.exceptionId());
+        writeLocation("catchLocation", snapshot.catchLocation());
+    }
+
+    @Override
+    public void handleBreakpoint(YouthBreakpointEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleStep(YouthStepEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleAccessWatchpoint(YouthAccessWatchpointEventSnapshot snapshot) {
+        writeField(snapshot.field());
+        json.name("objectId").value(snapshot.objectId());
+        writeValue("value", snapshot.valueCurrent());
+    }
+
+    @Override
+    public void handleModificationWatchpoint(YouthModificationWatchpointEventSnapshot snapshot) {
+        writeField(snapshot.field());
+        json.name("objectId").value(snapshot.objectId());
+        writeValue("value", snapshot.valueCurrent());
+        writeValue("valueToBe", snapshot.valueToBe());
+    }
+
+    @Override
+    public void handleMethodExit(YouthMethodExitEventSnapshot snapshot) {
+        if (snapshot.returnValue() != null) {
+            writeValue("returnValue", snapshot.returnValue());
+        }
+    }
+
+    @Override
+    public void handleMethodEntry(YouthMethodEntryEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleMonitorWaited(YouthMonitorWaitedEventSnapshot snapshot) {
+        writeObject("monitor", snapshot.monitorType(), snapshot.monitorId());
+        json.name("timedOut").value(snapshot.timedOut());
+    }
+
+    @Override
+    public void handleMonitorWait(YouthMonitorWaitEventSnapshot snapshot) {
+        writeObject("monitor", snapshot.monitorType(), snapshot.monitorId());
+        json.name("timeout").value(snapshot.timeout());
+    }
+
+    @Override
+    public void handleMonitorContendedEntered(YouthMonitorContendedEnteredEventSnapshot snapshot) {
+        writeObject("monitor", snapshot.monitorType(), snapshot.monitorId());
+    }
+
+    @Override
+    public void handleMonitorContendedEnter(YouthMonitorContendedEnterEventSnapshot snapshot) {
+        writeObject("monitor", snapshot.monitorType(), snapshot.monitorId());
+    }
+
+    @Override
+    public void handleClassUnload(YouthClassUnloadEventSnapshot snapshot) {
+        json.name("class").value(snapshot.type().name());
+    }
+
+    @Override
+    public void handleClassPrepare(YouthClassPrepareEventSnapshot snapshot) {
+        json.name("class").value(snapshot.type().name());
+    }
+
+    @Override
+    public void handleThreadDeath(YouthThreadDeathEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleThreadStart(YouthThreadStartEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleVmDeath(YouthVMDeathEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleVmDisconnect(YouthVMDisconnectEventSnapshot snapshot) {
+    }
+
+    @Override
+    public void handleVmStart(YouthVMStartEventSnapshot snapshot) {
+    }
+}
@@ -2,16 +2,21 @@ package dev.alexengrig.myjdi.handle;
 
 import com.sun.jdi.VMDisconnectedException;
 import dev.alexengrig.myjdi.event.*;
+import dev.alexengrig.myjdi.log.Log;
 import dev.alexengrig.myjdi.queue.YouthEventIterator;
 import dev.alexengrig.myjdi.queue.YouthEventQueue;
+import dev.alexengrig.myjdi.queue.YouthEventSet;
+import dev.alexengrig.myjdi.request.MethodBreakpointKind;
 import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
 
-import java.util.logging.Logger;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MyEventHandler implements YouthEventHandler {
-    private static final Logger log = Logger.getLogger(MyEventHandler.class.getName());
+    private static final Log log = Log.getLog(MyEventHandler.class);
 
     protected final YouthVirtualMachine virtualMachine;
+    protected final List<YouthEventSetListener> eventSetListeners = new CopyOnWriteArrayList<>();
     protected boolean running;
     protected boolean disconnected;
     protected boolean died;
@@ -26,16 +31,23 @@ public class MyEventHandler implements YouthEventHandler {
         running = true;
         disconnected = died = interrupted = false;
         final YouthEventQueue queue = virtualMachine.eventQueue();
+        YouthEventSet eventSet;
         YouthEventIterator iterator;
         YouthEvent event;
         while (running) {
             try {
-                iterator = queue.remove().eventIterator();
+                eventSet = queue.remove();
+                long start = System.nanoTime();
+                iterator = eventSet.eventIterator();
                 while (iterator.hasNext()) {
                     event = iterator.next();
                     event.accept(this);
                 }
-                virtualMachine.resume();
+                // resumes only what the event set suspended, threads suspended by others stay suspended
+                eventSet.resume();
+                if (!eventSetListeners.isEmpty()) {
+                    notifyEventSetListeners(eventSet, System.nanoTime() - start);
+                }
             } catch (VMDisconnectedException ignore) {
                 handleVMDisconnectedException();
             } catch (InterruptedException ignore) {
@@ -45,6 +57,17 @@ public class MyEventHandler implements YouthEventHandler {
         }
     }
 
+    @Override
+    public void addEventSetListener(YouthEventSetListener listener) {
+        eventSetListeners.add(listener);
+    }
+
+    protected void notifyEventSetListeners(YouthEventSet eventSet, long handlingNanos) {
+        for (YouthEventSetListener listener : eventSetListeners) {
+            listener.onEventSet(eventSet, handlingNanos);
+        }
+    }
+
     /***
      * A VMDisconnectedException has happened while dealing with
      * another event. We need to flush the event queue, dealing only
@@ -55,12 +78,13 @@ public class MyEventHandler implements YouthEventHandler {
         FlushHandler flushHandler = new FlushHandler();
         while (running) {
             try {
-                YouthEventIterator iterator = virtualMachine.eventQueue().remove().eventIterator();
+                YouthEventSet eventSet = virtualMachine.eventQueue().remove();
+                YouthEventIterator iterator = eventSet.eventIterator();
                 while (iterator.hasNext()) {
                     YouthEvent event = iterator.next();
                     event.accept(flushHandler);
                 }
-                virtualMachine.resume();
+                eventSet.resume();
             } catch (InterruptedException ignore) {
                 handleInterruptedException();
                 Thread.currentThread().interrupt();
@@ -106,7 +130,20 @@ public class MyEventHandler implements YouthEventHandler {
 
     @Override
     public void handleBreakpoint(YouthBreakpointEvent event) {
-        virtualMachine.eventSubscriptionManager().notifyOfBreakpoint(event);
+        Object kind = event.request().getProperty(MethodBreakpointKind.class);
+        if (kind == null) {
+            virtualMachine.eventSubscriptionManager().notifyOfBreakpoint(event);
+            return;
+        }
+        // the breakpoint emulates method events
+        if (kind != MethodBreakpointKind.EXIT) {
+            virtualMachine.eventSubscriptionManager().notifyOfMethodEntry(
+                    new YouthMethodEntryEvent.BreakpointDelegate(event));
+        }
+        if (kind != MethodBreakpointKind.ENTRY) {
+            virtualMachine.eventSubscriptionManager().notifyOfMethodExit(
+                    new YouthMethodExitEvent.BreakpointDelegate(event));
+        }
     }
 
     @Override
@@ -3,6 +3,10 @@ package dev.alexengrig.myjdi.handle;
 import dev.alexengrig.myjdi.event.*;
 
 public interface YouthEventHandler extends Runnable {
+    default void addEventSetListener(YouthEventSetListener listener) {
+        throw new UnsupportedOperationException();
+    }
+
     void handleException(YouthExceptionEvent event);
 
     void handleBreakpoint(YouthBreakpointEvent event);
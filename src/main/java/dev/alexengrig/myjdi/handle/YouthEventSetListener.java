@@ -0,0 +1,15 @@
+package dev.alexengrig.myjdi.handle;
+
+import dev.alexengrig.myjdi.queue.YouthEventSet;
+
+/**
+ * Notified on the handler thread after an event set is handled and resumed.
+ */
+@FunctionalInterface
+public interface YouthEventSetListener {
+    /**
+     * @param handlingNanos time from taking the set off the queue to its resume,
+     *                      the part of the suspension the debugger is responsible for
+     */
+    void onEventSet(YouthEventSet eventSet, long handlingNanos);
+}
@@ -0,0 +1,51 @@
+package dev.alexengrig.myjdi.heap;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * String value held by several {@code java.lang.String} instances.
+ */
+public final class DuplicateString {
+    private final String value;
+    private final long count;
+    private final long wastedBytes;
+    private final List<String> holders;
+
+    public DuplicateString(String value, long count, long wastedBytes, List<String> holders) {
+        this.value = value;
+        this.count = count;
+        this.wastedBytes = wastedBytes;
+        this.holders = Collections.unmodifiableList(holders);
+    }
+
+    /**
+     * The value, shortened if it is long.
+     */
+    public String value() {
+        return value;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Estimated bytes of all instances but one.
+     */
+    public long wastedBytes() {
+        return wastedBytes;
+    }
+
+    /**
+     * Sample fields holding the instances, as {@code Class.field} or {@code Type[]}.
+     */
+    public List<String> holders() {
+        return holders;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d x \"%s\": wasted %,d B, held by %s", count, value, wastedBytes, holders);
+    }
+}
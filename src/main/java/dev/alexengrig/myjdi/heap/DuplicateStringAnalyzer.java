@@ -0,0 +1,415 @@
+package dev.alexengrig.myjdi.heap;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Finds {@code java.lang.String} values held by many instances.
+ * JDWP cannot page instances, so they are listed at once and consumed from the end in chunks, dropping
+ * the mirrors of each chunk; the values of a few chunks at a time are fetched in parallel.
+ * Values are counted by 64-bit hash in a fixed {@link OffHeapCountTable}, allocated once per analyzer;
+ * only a bounded set of the most wasteful candidates, kept in a min-heap by waste, holds its text
+ * and sample instances, so the memory does not depend on the heap.
+ * Sizes are estimates for a 64-bit VM with compressed references and compact strings.
+ */
+public class DuplicateStringAnalyzer implements AutoCloseable {
+    protected static final int STRING_SIZE = 24;
+    protected static final int ARRAY_HEADER = 16;
+    protected static final int MAX_VALUE_LENGTH = 120;
+    protected static final int SAMPLES = 3;
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final long maxStrings;
+    protected final int chunkSize;
+    protected final int parallelism;
+    protected final int tableCapacity;
+    protected final int maxCandidates;
+    protected final int maxHolders;
+    protected final boolean suspend;
+    protected final ExecutorService workers;
+    protected OffHeapCountTable table;
+
+    protected DuplicateStringAnalyzer(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.maxStrings = builder.maxStrings;
+        this.chunkSize = builder.chunkSize;
+        this.parallelism = builder.parallelism;
+        this.tableCapacity = builder.tableCapacity;
+        this.maxCandidates = builder.maxCandidates;
+        this.maxHolders = builder.maxHolders;
+        this.suspend = builder.suspend;
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                Concurrency.daemonThreadFactory("myjdi-string-fetcher-"));
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * Analyses of one analyzer run one at a time, as they share its count table.
+     *
+     * @param limit values reported
+     * @throws UnsupportedOperationException if the VM cannot list instances
+     */
+    public synchronized DuplicateStringReport analyze(int limit) throws InterruptedException {
+        if (!virtualMachine.canGetInstanceInfo()) {
+            throw new UnsupportedOperationException("The VM cannot list instances");
+        }
+        long start = System.nanoTime();
+        if (suspend) {
+            virtualMachine.suspend();
+        }
+        try {
+            List<ReferenceType> types = virtualMachine.classesByName(String.class.getName());
+            if (table == null) {
+                table = new OffHeapCountTable(tableCapacity);
+            } else {
+                table.clear();
+            }
+            Pass pass = new Pass();
+            for (ReferenceType type : types) {
+                pass.run(type);
+            }
+            return pass.report(limit, System.nanoTime() - start);
+        } finally {
+            if (suspend) {
+                virtualMachine.resume();
+            }
+        }
+    }
+
+    /**
+     * State of one analysis, confined to the calling thread.
+     */
+    protected class Pass {
+        protected final Map<Long, Candidate> candidates = new HashMap<>();
+        protected final Candidate[] heap = new Candidate[maxCandidates];
+        protected long strings;
+        protected long untracked;
+
+        protected void run(ReferenceType type) throws InterruptedException {
+            List<ObjectReference> instances = type.instances(maxStrings);
+            if (!(instances instanceof ArrayList)) {
+                instances = new ArrayList<>(instances);
+            }
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            while (!instances.isEmpty() || !inFlight.isEmpty()) {
+                while (inFlight.size() < parallelism * 2 && !instances.isEmpty()) {
+                    List<ObjectReference> tail = instances.subList(Math.max(0, instances.size() - chunkSize),
+                            instances.size());
+                    List<ObjectReference> chunk = new ArrayList<>(tail);
+                    tail.clear();
+                    inFlight.add(workers.submit(() -> fetch(chunk)));
+                }
+                Chunk chunk = Concurrency.get(inFlight.poll(), "String fetching failed");
+                for (int i = 0; i < chunk.values.length; i++) {
+                    if (chunk.values[i] != null) {
+                        add(chunk.values[i], chunk.strings.get(i));
+                    }
+                }
+            }
+        }
+
+        protected void add(String value, ObjectReference string) {
+            strings++;
+            int size = size(value);
+            long hash = hash(value);
+            int count = table.increment(hash, size);
+            if (count < 0) {
+                untracked++;
+                return;
+            }
+            if (count < 2) {
+                return;
+            }
+            long wasted = (long) (count - 1) * size;
+            Candidate candidate = candidates.get(hash);
+            if (candidate == null) {
+                int index = candidates.size();
+                if (index == maxCandidates) {
+                    if (wasted <= heap[0].wasted) {
+                        return;
+                    }
+                    candidates.remove(heap[0].hash);
+                    index = 0;
+                }
+                candidate = new Candidate(hash, shorten(value));
+                candidate.wasted = wasted;
+                candidates.put(hash, candidate);
+                heap[index] = candidate;
+                candidate.index = index;
+                siftUp(index);
+            }
+            candidate.count = count;
+            candidate.wasted = wasted;
+            // waste only grows
+            siftDown(candidate.index);
+            if (candidate.samples.size() < SAMPLES) {
+                candidate.samples.add(string);
+            }
+        }
+
+        protected void siftUp(int index) {
+            Candidate candidate = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent].wasted <= candidate.wasted) {
+                    break;
+                }
+                place(heap[parent], index);
+                index = parent;
+            }
+            place(candidate, index);
+        }
+
+        protected void siftDown(int index) {
+            Candidate candidate = heap[index];
+            int size = candidates.size();
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1].wasted < heap[child].wasted) {
+                    child++;
+                }
+                if (candidate.wasted <= heap[child].wasted) {
+                    break;
+                }
+                place(heap[child], index);
+                index = child;
+            }
+            place(candidate, index);
+        }
+
+        protected void place(Candidate candidate, int index) {
+            heap[index] = candidate;
+            candidate.index = index;
+        }
+
+        protected DuplicateStringReport report(int limit, long durationNanos) {
+            long[] totals = new long[2];
+            table.forEach((count, size) -> {
+                totals[0] += (long) count * size;
+                totals[1] += (long) (count - 1) * size;
+            });
+            List<Candidate> sorted = new ArrayList<>(candidates.values());
+            sorted.sort(Comparator.comparingLong((Candidate c) -> c.wasted).reversed());
+            List<DuplicateString> top = new ArrayList<>(Math.min(limit, sorted.size()));
+            for (Candidate candidate : sorted.subList(0, Math.min(limit, sorted.size()))) {
+                top.add(new DuplicateString(candidate.value, candidate.count, candidate.wasted,
+                        holders(candidate.samples)));
+            }
+            return new DuplicateStringReport(strings, table.size(), untracked, totals[0], totals[1],
+                    durationNanos, top);
+        }
+    }
+
+    protected Chunk fetch(List<ObjectReference> strings) {
+        String[] values = new String[strings.size()];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                values[i] = ((StringReference) strings.get(i)).value();
+            } catch (ObjectCollectedException e) {
+                // skipped
+            }
+        }
+        return new Chunk(strings, values);
+    }
+
+    /**
+     * Fields or arrays referring to the sample instances.
+     */
+    protected List<String> holders(List<ObjectReference> samples) {
+        Set<String> holders = new LinkedHashSet<>();
+        for (ObjectReference sample : samples) {
+            try {
+                for (ObjectReference referrer : sample.referringObjects(maxHolders)) {
+                    holders.add(holder(referrer, sample));
+                    if (holders.size() >= maxHolders) {
+                        return new ArrayList<>(holders);
+                    }
+                }
+            } catch (ObjectCollectedException e) {
+                // the sample is gone
+            }
+        }
+        return new ArrayList<>(holders);
+    }
+
+    protected static String holder(ObjectReference referrer, ObjectReference string) {
+        ReferenceType type = referrer.referenceType();
+        if (referrer instanceof ArrayReference) {
+            return type.name();
+        }
+        if (referrer instanceof ClassObjectReference) {
+            ReferenceType reflected = ((ClassObjectReference) referrer).reflectedType();
+            for (Field field : reflected.fields()) {
+                if (field.isStatic() && string.equals(reflected.getValue(field))) {
+                    return "static " + reflected.name() + '.' + field.name();
+                }
+            }
+            return type.name();
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.allFields()) {
+            if (!field.isStatic() && field.typeName().equals(String.class.getName())) {
+                fields.add(field);
+            }
+        }
+        for (Map.Entry<Field, Value> entry : referrer.getValues(fields).entrySet()) {
+            if (string.equals(entry.getValue())) {
+                return entry.getKey().declaringType().name() + '.' + entry.getKey().name();
+            }
+        }
+        return type.name();
+    }
+
+    /**
+     * A string and its array: Latin-1 values take a byte per char, others two.
+     */
+    protected static int size(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        long bytes = (long) value.length() * (latin1 ? 1 : 2);
+        return (int) Math.min(Integer.MAX_VALUE, STRING_SIZE + ((ARRAY_HEADER + bytes + 7) & ~7L));
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, mixed with the length.
+     */
+    protected static long hash(String value) {
+        long hash = 0xCBF29CE484222325L ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    protected static String shorten(String value) {
+        return value.length() <= MAX_VALUE_LENGTH ? value
+                : value.substring(0, MAX_VALUE_LENGTH) + "...(" + value.length() + " chars)";
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        synchronized (this) {
+            table = null;
+        }
+    }
+
+    protected static class Chunk {
+        protected final List<ObjectReference> strings;
+        protected final String[] values;
+
+        protected Chunk(List<ObjectReference> strings, String[] values) {
+            this.strings = strings;
+            this.values = values;
+        }
+    }
+
+    protected static class Candidate {
+        protected final long hash;
+        protected final String value;
+        protected final List<ObjectReference> samples = new ArrayList<>(SAMPLES);
+        protected long count;
+        protected long wasted;
+        protected int index;
+
+        protected Candidate(long hash, String value) {
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected long maxStrings;
+        protected int chunkSize = 1024;
+        protected int parallelism = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        protected int tableCapacity = 1 << 22;
+        protected int maxCandidates = 1024;
+        protected int maxHolders = 4;
+        protected boolean suspend = true;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Strings listed, zero lists all of them.
+         */
+        public Builder maxStrings(long value) {
+            this.maxStrings = value;
+            return this;
+        }
+
+        /**
+         * Strings fetched per task.
+         */
+        public Builder chunkSize(int value) {
+            this.chunkSize = value;
+            return this;
+        }
+
+        public Builder parallelism(int value) {
+            this.parallelism = value;
+            return this;
+        }
+
+        /**
+         * Slots of the off-heap table, a power of two taking 16 bytes each; 3/4 of them are used.
+         */
+        public Builder tableCapacity(int value) {
+            this.tableCapacity = value;
+            return this;
+        }
+
+        /**
+         * Duplicated values kept with their text while counting.
+         */
+        public Builder maxCandidates(int value) {
+            this.maxCandidates = value;
+            return this;
+        }
+
+        /**
+         * Holder fields reported per value.
+         */
+        public Builder maxHolders(int value) {
+            this.maxHolders = value;
+            return this;
+        }
+
+        /**
+         * Suspends the VM during the analysis, {@code true} by default.
+         */
+        public Builder suspend(boolean value) {
+            this.suspend = value;
+            return this;
+        }
+
+        public DuplicateStringAnalyzer build() {
+            if (maxStrings < 0) {
+                throw new IllegalArgumentException("Max strings must not be negative: " + maxStrings);
+            }
+            if (chunkSize <= 0 || parallelism <= 0 || maxCandidates <= 0 || maxHolders <= 0) {
+                throw new IllegalArgumentException("Chunk size, parallelism and limits must be positive");
+            }
+            if (Integer.bitCount(tableCapacity) != 1 || tableCapacity > 1 << 26) {
+                throw new IllegalArgumentException("Table capacity must be a power of two up to 2^26: "
+                        + tableCapacity);
+            }
+            return new DuplicateStringAnalyzer(this);
+        }
+    }
+}
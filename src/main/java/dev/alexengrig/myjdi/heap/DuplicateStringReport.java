@@ -0,0 +1,79 @@
+package dev.alexengrig.myjdi.heap;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a {@link DuplicateStringAnalyzer} pass.
+ */
+public final class DuplicateStringReport {
+    private final long strings;
+    private final long distinct;
+    private final long untracked;
+    private final long totalBytes;
+    private final long wastedBytes;
+    private final long durationNanos;
+    private final List<DuplicateString> top;
+
+    public DuplicateStringReport(long strings, long distinct, long untracked, long totalBytes, long wastedBytes,
+                                 long durationNanos, List<DuplicateString> top) {
+        this.strings = strings;
+        this.distinct = distinct;
+        this.untracked = untracked;
+        this.totalBytes = totalBytes;
+        this.wastedBytes = wastedBytes;
+        this.durationNanos = durationNanos;
+        this.top = Collections.unmodifiableList(top);
+    }
+
+    /**
+     * Strings analyzed.
+     */
+    public long strings() {
+        return strings;
+    }
+
+    public long distinct() {
+        return distinct;
+    }
+
+    /**
+     * Strings not counted because the table was full.
+     */
+    public long untracked() {
+        return untracked;
+    }
+
+    /**
+     * Estimated bytes of the counted strings and their arrays.
+     */
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    public long wastedBytes() {
+        return wastedBytes;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Values by wasted bytes, most first.
+     */
+    public List<DuplicateString> top() {
+        return top;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(
+                "%,d strings, %,d distinct, %,d untracked: %,d B, %,d B wasted, analyzed in %.1f ms",
+                strings, distinct, untracked, totalBytes, wastedBytes, durationNanos / 1e6));
+        for (DuplicateString duplicate : top) {
+            builder.append(System.lineSeparator()).append("  ").append(duplicate);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package dev.alexengrig.myjdi.heap;
+
+/**
+ * Instances of a class in a {@link HeapHistogram} and the change since an earlier one.
+ */
+public final class HeapClassCount {
+    private final String name;
+    private final long count;
+    private final long delta;
+
+    public HeapClassCount(String name, long count, long delta) {
+        this.name = name;
+        this.count = count;
+        this.delta = delta;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Zero in a histogram that is not a diff.
+     */
+    public long delta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        return delta == 0 ? String.format("%,14d  %s", count, name)
+                : String.format("%,14d %+,12d  %s", count, delta, name);
+    }
+}
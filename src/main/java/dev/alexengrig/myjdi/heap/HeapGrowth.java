@@ -0,0 +1,60 @@
+package dev.alexengrig.myjdi.heap;
+
+/**
+ * Class whose instance count grew over the kept histograms.
+ */
+public final class HeapGrowth {
+    private final String name;
+    private final long firstCount;
+    private final long lastCount;
+    private final int grownIntervals;
+    private final int intervals;
+    private final double perMinute;
+
+    public HeapGrowth(String name, long firstCount, long lastCount, int grownIntervals, int intervals,
+                      double perMinute) {
+        this.name = name;
+        this.firstCount = firstCount;
+        this.lastCount = lastCount;
+        this.grownIntervals = grownIntervals;
+        this.intervals = intervals;
+        this.perMinute = perMinute;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long firstCount() {
+        return firstCount;
+    }
+
+    public long lastCount() {
+        return lastCount;
+    }
+
+    public long growth() {
+        return lastCount - firstCount;
+    }
+
+    /**
+     * Intervals between consecutive histograms in which the count grew.
+     */
+    public int grownIntervals() {
+        return grownIntervals;
+    }
+
+    public int intervals() {
+        return intervals;
+    }
+
+    public double perMinute() {
+        return perMinute;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d -> %d (%+d, %.1f/min), grew in %d of %d intervals",
+                name, firstCount, lastCount, growth(), perMinute, grownIntervals, intervals);
+    }
+}
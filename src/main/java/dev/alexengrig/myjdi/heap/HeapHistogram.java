@@ -0,0 +1,159 @@
+package dev.alexengrig.myjdi.heap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instance counts of all loaded classes at one moment, indexed by dense class ids.
+ * Classes of the same name from different loaders are counted together.
+ * The id to name table is shared between the histograms of a {@link HeapHistogramSampler}.
+ */
+public final class HeapHistogram {
+    private final long timestamp;
+    private final long durationNanos;
+    final long[] counts;
+    private final String[] names;
+    private final long totalInstances;
+
+    HeapHistogram(long timestamp, long durationNanos, long[] counts, String[] names) {
+        this.timestamp = timestamp;
+        this.durationNanos = durationNanos;
+        this.counts = counts;
+        this.names = names;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalInstances = total;
+    }
+
+    /**
+     * Milliseconds since the epoch.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * How long counting took.
+     */
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    public int classCount() {
+        return counts.length;
+    }
+
+    public long totalInstances() {
+        return totalInstances;
+    }
+
+    /**
+     * @return instances of the class or zero if it is not loaded
+     */
+    public long count(String className) {
+        for (int id = 0; id < counts.length; id++) {
+            if (names[id].equals(className)) {
+                return counts[id];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Classes with the most instances, most first.
+     */
+    public List<HeapClassCount> top(int limit) {
+        int[] ids = topIds(counts, limit);
+        List<HeapClassCount> top = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            top.add(new HeapClassCount(names[id], counts[id], 0));
+        }
+        return top;
+    }
+
+    /**
+     * Classes that gained the most instances since the earlier histogram of the same sampler, most first.
+     */
+    public List<HeapClassCount> diff(HeapHistogram before, int limit) {
+        long[] deltas = new long[counts.length];
+        for (int id = 0; id < counts.length; id++) {
+            deltas[id] = counts[id] - (id < before.counts.length ? before.counts[id] : 0);
+        }
+        int[] ids = topIds(deltas, limit);
+        List<HeapClassCount> diff = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            if (deltas[id] > 0) {
+                diff.add(new HeapClassCount(names[id], counts[id], deltas[id]));
+            }
+        }
+        return diff;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Ids of the largest values, largest first, selected with a bounded min-heap.
+     */
+    static int[] topIds(long[] values, int limit) {
+        int size = Math.min(limit, values.length);
+        int[] heap = new int[size];
+        int count = 0;
+        for (int id = 0; id < values.length && size > 0; id++) {
+            if (count < size) {
+                heap[count] = id;
+                siftUp(heap, count++, values);
+            } else if (values[id] > values[heap[0]]) {
+                heap[0] = id;
+                siftDown(heap, count, values);
+            }
+        }
+        // pops the minimum to the end
+        for (int end = count - 1; end > 0; end--) {
+            int min = heap[0];
+            heap[0] = heap[end];
+            heap[end] = min;
+            siftDown(heap, end, values);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, long[] values) {
+        int id = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (values[heap[parent]] <= values[id]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = id;
+    }
+
+    private static void siftDown(int[] heap, int size, long[] values) {
+        int id = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && values[heap[child + 1]] < values[heap[child]]) {
+                child++;
+            }
+            if (values[heap[child]] >= values[id]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = id;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Heap histogram at %tFT%<tT.%<tL: %d classes, %d instances, counted in %.1f ms",
+                timestamp, counts.length, totalInstances, durationNanos / 1e6);
+    }
+}
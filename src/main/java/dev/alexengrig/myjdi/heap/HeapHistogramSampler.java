@@ -0,0 +1,297 @@
+package dev.alexengrig.myjdi.heap;
+
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.VMDisconnectedException;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Counts instances of all loaded classes with {@link YouthVirtualMachine#instanceCounts(List)}.
+ * The classes are split into size-capped chunks counted in parallel, a failing chunk, e.g. with a class
+ * unloaded meanwhile, is split further. Histograms can be taken periodically, the latest ones are kept
+ * as primitive arrays to find classes whose instance counts grow steadily.
+ */
+public class HeapHistogramSampler {
+    private static final Log log = Log.getLog(HeapHistogramSampler.class);
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final int chunkSize;
+    protected final int parallelism;
+    protected final long periodMillis;
+    protected final Map<String, Integer> classIds = new HashMap<>();
+    protected final HeapHistogram[] history;
+    protected String[] names = new String[1024];
+    protected int classCount;
+    protected int historyStart;
+    protected int historySize;
+    protected ExecutorService counters;
+    protected ScheduledExecutorService scheduler;
+
+    protected HeapHistogramSampler(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.chunkSize = builder.chunkSize;
+        this.parallelism = builder.parallelism;
+        this.periodMillis = builder.periodMillis;
+        this.history = new HeapHistogram[builder.historySize];
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * Takes a histogram and adds it to the history.
+     *
+     * @throws UnsupportedOperationException if the VM cannot count instances
+     */
+    public HeapHistogram take() throws InterruptedException {
+        if (!virtualMachine.canGetInstanceInfo()) {
+            throw new UnsupportedOperationException("The VM cannot count instances");
+        }
+        ExecutorService executor;
+        synchronized (this) {
+            if (counters == null) {
+                counters = Executors.newFixedThreadPool(parallelism,
+                        Concurrency.daemonThreadFactory("myjdi-heap-counter-"));
+            }
+            executor = counters;
+        }
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        List<ReferenceType> types = virtualMachine.allClasses();
+        int[] ids = new int[types.size()];
+        String[] table;
+        int tableSize;
+        synchronized (this) {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = classId(types.get(i).name());
+            }
+            table = names;
+            tableSize = classCount;
+        }
+        List<Future<long[]>> futures = new ArrayList<>(types.size() / chunkSize + 1);
+        for (int from = 0; from < types.size(); from += chunkSize) {
+            List<ReferenceType> chunk = types.subList(from, Math.min(types.size(), from + chunkSize));
+            futures.add(executor.submit(() -> count(chunk)));
+        }
+        long[] counts = new long[tableSize];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            for (long count : Concurrency.get(future, "Instance counting failed")) {
+                counts[ids[offset++]] += count;
+            }
+        }
+        HeapHistogram histogram = new HeapHistogram(timestamp, System.nanoTime() - start, counts, table);
+        synchronized (this) {
+            if (historySize == history.length) {
+                history[historyStart] = histogram;
+                historyStart = (historyStart + 1) % history.length;
+            } else {
+                history[(historyStart + historySize++) % history.length] = histogram;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Counts the chunk, splitting it on failure; classes that cannot be counted count as zero.
+     */
+    protected long[] count(List<ReferenceType> types) {
+        try {
+            return virtualMachine.instanceCounts(types);
+        } catch (VMDisconnectedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (types.size() == 1) {
+                return new long[1];
+            }
+            int half = types.size() >>> 1;
+            long[] left = count(types.subList(0, half));
+            long[] right = count(types.subList(half, types.size()));
+            long[] counts = Arrays.copyOf(left, types.size());
+            System.arraycopy(right, 0, counts, half, right.length);
+            return counts;
+        }
+    }
+
+    protected int classId(String name) {
+        Integer id = classIds.get(name);
+        if (id == null) {
+            if (classCount == names.length) {
+                // histograms keep the old table, its first entries never change
+                names = Arrays.copyOf(names, names.length << 1);
+            }
+            id = classCount++;
+            names[id] = name;
+            classIds.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Takes histograms with the period until stopped.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("The sampler is already started");
+        }
+        if (periodMillis <= 0) {
+            throw new IllegalStateException("No period is set");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Concurrency.daemonThreadFactory("myjdi-heap-histogram-"));
+        scheduler.scheduleWithFixedDelay(this::tick, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    protected void tick() {
+        try {
+            HeapHistogram histogram = take();
+            log.info("{}", histogram);
+        } catch (VMDisconnectedException e) {
+            log.info("VM is disconnected, heap histograms are stopped.");
+            stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warning("Heap histogram failed.", e);
+        }
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (counters != null) {
+            counters.shutdownNow();
+            counters = null;
+        }
+    }
+
+    /**
+     * Kept histograms, oldest first.
+     */
+    public synchronized List<HeapHistogram> history() {
+        List<HeapHistogram> result = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            result.add(history[(historyStart + i) % history.length]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the latest histogram or {@code null} if none is taken
+     */
+    public synchronized HeapHistogram latest() {
+        return historySize == 0 ? null : history[(historyStart + historySize - 1) % history.length];
+    }
+
+    /**
+     * Classes whose instance counts never shrank over the kept histograms and grew in at least
+     * the given share of the intervals between them, by growth, most first.
+     *
+     * @param minGrownShare from 0 to 1
+     */
+    public synchronized List<HeapGrowth> growing(double minGrownShare, int limit) {
+        if (historySize < 2) {
+            return Collections.emptyList();
+        }
+        HeapHistogram first = history[historyStart];
+        HeapHistogram last = latest();
+        int intervals = historySize - 1;
+        double minutes = Math.max(1, last.timestamp() - first.timestamp()) / 60_000.0;
+        long[] growths = new long[last.counts.length];
+        int[] grown = new int[last.counts.length];
+        for (int id = 0; id < growths.length; id++) {
+            long previous = count(first, id);
+            boolean shrank = false;
+            for (int i = 1; i < historySize && !shrank; i++) {
+                long current = count(history[(historyStart + i) % history.length], id);
+                if (current > previous) {
+                    grown[id]++;
+                } else if (current < previous) {
+                    shrank = true;
+                }
+                previous = current;
+            }
+            long growth = last.counts[id] - count(first, id);
+            growths[id] = shrank || growth <= 0 || grown[id] < minGrownShare * intervals ? 0 : growth;
+        }
+        List<HeapGrowth> result = new ArrayList<>();
+        for (int id : HeapHistogram.topIds(growths, limit)) {
+            if (growths[id] > 0) {
+                result.add(new HeapGrowth(last.name(id), count(first, id), last.counts[id], grown[id], intervals,
+                        growths[id] / minutes));
+            }
+        }
+        return result;
+    }
+
+    protected static long count(HeapHistogram histogram, int id) {
+        return id < histogram.counts.length ? histogram.counts[id] : 0;
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected int chunkSize = 2048;
+        protected int parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        protected int historySize = 16;
+        protected long periodMillis;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Classes counted per JDWP command.
+         */
+        public Builder chunkSize(int value) {
+            this.chunkSize = value;
+            return this;
+        }
+
+        /**
+         * Chunks counted concurrently.
+         */
+        public Builder parallelism(int value) {
+            this.parallelism = value;
+            return this;
+        }
+
+        /**
+         * Histograms kept to find growing classes.
+         */
+        public Builder historySize(int value) {
+            this.historySize = value;
+            return this;
+        }
+
+        /**
+         * Period of {@link #start()}.
+         */
+        public Builder periodMillis(long value) {
+            this.periodMillis = value;
+            return this;
+        }
+
+        public HeapHistogramSampler build() {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+            }
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+            }
+            if (historySize < 2) {
+                throw new IllegalArgumentException("History size must be at least 2: " + historySize);
+            }
+            if (periodMillis < 0) {
+                throw new IllegalArgumentException("Period must not be negative: " + periodMillis);
+            }
+            return new HeapHistogramSampler(this);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package dev.alexengrig.myjdi.heap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Objects reachable from a root, node 0, and the references between them, in primitive arrays.
+ * Retained sizes come from the dominator tree of this subgraph: references from outside of it are unknown,
+ * so an object also referenced from elsewhere is still counted as retained, hence an estimate.
+ */
+public final class ObjectGraph {
+    private final long[] uniqueIds;
+    private final int[] types;
+    private final int[] depths;
+    private final long[] shallowSizes;
+    private final List<String> typeNames;
+    private final int nodeCount;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final int edgeCount;
+    private final boolean truncated;
+    private int[] dominators;
+    private long[] retainedSizes;
+
+    ObjectGraph(long[] uniqueIds, int[] types, int[] depths, long[] shallowSizes, List<String> typeNames,
+                int nodeCount, int[] edgeSources, int[] edgeTargets, int edgeCount, boolean truncated) {
+        this.uniqueIds = uniqueIds;
+        this.types = types;
+        this.depths = depths;
+        this.shallowSizes = shallowSizes;
+        this.typeNames = typeNames;
+        this.nodeCount = nodeCount;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeCount = edgeCount;
+        this.truncated = truncated;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Whether the depth or node limit may have stopped the walk before the whole graph was reached.
+     */
+    public boolean truncated() {
+        return truncated;
+    }
+
+    public long uniqueId(int node) {
+        return uniqueIds[node];
+    }
+
+    public String type(int node) {
+        return typeNames.get(types[node]);
+    }
+
+    public int depth(int node) {
+        return depths[node];
+    }
+
+    public long shallowSize(int node) {
+        return shallowSizes[node];
+    }
+
+    public int edgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public long totalShallowSize() {
+        long total = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            total += shallowSizes[node];
+        }
+        return total;
+    }
+
+    public synchronized long retainedSize(int node) {
+        computeDominators();
+        return retainedSizes[node];
+    }
+
+    /**
+     * @return the node every path from the root to this one passes, the root for itself
+     */
+    public synchronized int immediateDominator(int node) {
+        computeDominators();
+        return dominators[node];
+    }
+
+    public ObjectGraphNode node(int node) {
+        return new ObjectGraphNode(uniqueIds[node], type(node), depths[node], shallowSizes[node], retainedSize(node));
+    }
+
+    /**
+     * Objects by retained size, largest first, the root included.
+     */
+    public synchronized List<ObjectGraphNode> largestRetained(int limit) {
+        computeDominators();
+        int[] top = HeapHistogram.topIds(Arrays.copyOf(retainedSizes, nodeCount), limit);
+        List<ObjectGraphNode> nodes = new ArrayList<>(top.length);
+        for (int node : top) {
+            nodes.add(node(node));
+        }
+        return nodes;
+    }
+
+    List<String> typeNames() {
+        return typeNames;
+    }
+
+    int typeId(int node) {
+        return types[node];
+    }
+
+    /**
+     * Cooper, Harvey and Kennedy's iterative algorithm over the reverse postorder,
+     * then sizes are summed up the dominator tree in postorder.
+     */
+    private void computeDominators() {
+        if (dominators != null) {
+            return;
+        }
+        int[] successorStarts = new int[nodeCount + 1];
+        int[] predecessorStarts = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            successorStarts[edgeSources[edge] + 1]++;
+            predecessorStarts[edgeTargets[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            successorStarts[node + 1] += successorStarts[node];
+            predecessorStarts[node + 1] += predecessorStarts[node];
+        }
+        int[] successors = new int[edgeCount];
+        int[] predecessors = new int[edgeCount];
+        int[] successorFill = Arrays.copyOf(successorStarts, nodeCount);
+        int[] predecessorFill = Arrays.copyOf(predecessorStarts, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            successors[successorFill[edgeSources[edge]]++] = edgeTargets[edge];
+            predecessors[predecessorFill[edgeTargets[edge]]++] = edgeSources[edge];
+        }
+        // iterative depth-first search for the postorder
+        int[] postorder = new int[nodeCount];
+        int[] postIndex = new int[nodeCount];
+        Arrays.fill(postIndex, -1);
+        boolean[] visited = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int[] next = new int[nodeCount];
+        int visitedCount = 0;
+        if (nodeCount > 0) {
+            int top = 0;
+            stack[0] = 0;
+            next[0] = successorStarts[0];
+            visited[0] = true;
+            while (top >= 0) {
+                int node = stack[top];
+                if (next[node] < successorStarts[node + 1]) {
+                    int successor = successors[next[node]++];
+                    if (!visited[successor]) {
+                        visited[successor] = true;
+                        stack[++top] = successor;
+                        next[successor] = successorStarts[successor];
+                    }
+                } else {
+                    postIndex[node] = visitedCount;
+                    postorder[visitedCount++] = node;
+                    top--;
+                }
+            }
+        }
+        int[] idom = new int[nodeCount];
+        Arrays.fill(idom, -1);
+        if (nodeCount > 0) {
+            idom[0] = 0;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = visitedCount - 2; i >= 0; i--) {
+                int node = postorder[i];
+                int dominator = -1;
+                for (int p = predecessorStarts[node]; p < predecessorStarts[node + 1]; p++) {
+                    int predecessor = predecessors[p];
+                    if (idom[predecessor] < 0) {
+                        continue;
+                    }
+                    dominator = dominator < 0 ? predecessor : intersect(predecessor, dominator, idom, postIndex);
+                }
+                if (dominator >= 0 && idom[node] != dominator) {
+                    idom[node] = dominator;
+                    changed = true;
+                }
+            }
+        }
+        long[] retained = Arrays.copyOf(shallowSizes, nodeCount);
+        for (int i = 0; i < visitedCount - 1; i++) {
+            int node = postorder[i];
+            retained[idom[node]] += retained[node];
+        }
+        this.dominators = idom;
+        this.retainedSizes = retained;
+    }
+
+    private static int intersect(int a, int b, int[] idom, int[] postIndex) {
+        while (a != b) {
+            while (postIndex[a] < postIndex[b]) {
+                a = idom[a];
+            }
+            while (postIndex[b] < postIndex[a]) {
+                b = idom[b];
+            }
+        }
+        return a;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Object graph of %s(id=%d): %d objects, %d references, shallow %,d B%s",
+                nodeCount == 0 ? "?" : type(0), nodeCount == 0 ? 0 : uniqueIds[0], nodeCount, edgeCount,
+                totalShallowSize(), truncated ? ", truncated" : "");
+    }
+}
@@ -0,0 +1,18 @@
+package dev.alexengrig.myjdi.heap;
+
+/**
+ * Layout of an exported {@link ObjectGraph}.
+ * <p>
+ * An 8-byte header (magic, version) is followed by varints: the truncated flag, the type names,
+ * the nodes and the edges. A node is its unique id as a zigzag delta from the previous node,
+ * type index, shallow size and depth. Edges are in the walk order, the source as a zigzag delta
+ * from the previous source and the target as a zigzag delta from the source, so most edges take two bytes.
+ */
+public final class ObjectGraphFormat {
+    public static final int MAGIC = 0x4D594F47;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+
+    private ObjectGraphFormat() {
+    }
+}
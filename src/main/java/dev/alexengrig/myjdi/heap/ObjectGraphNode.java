@@ -0,0 +1,49 @@
+package dev.alexengrig.myjdi.heap;
+
+/**
+ * Object of an {@link ObjectGraph} with its estimated sizes.
+ */
+public final class ObjectGraphNode {
+    private final long uniqueId;
+    private final String type;
+    private final int depth;
+    private final long shallowSize;
+    private final long retainedSize;
+
+    public ObjectGraphNode(long uniqueId, String type, int depth, long shallowSize, long retainedSize) {
+        this.uniqueId = uniqueId;
+        this.type = type;
+        this.depth = depth;
+        this.shallowSize = shallowSize;
+        this.retainedSize = retainedSize;
+    }
+
+    public long uniqueId() {
+        return uniqueId;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    /**
+     * References from the root on the shortest path.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public long shallowSize() {
+        return shallowSize;
+    }
+
+    public long retainedSize() {
+        return retainedSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(id=%d) depth %d: shallow %,d B, retained %,d B",
+                type, uniqueId, depth, shallowSize, retainedSize);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.alexengrig.myjdi.heap;
+
+import dev.alexengrig.myjdi.util.VarInts;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes object graphs written by {@link ObjectGraphWriter}.
+ */
+public final class ObjectGraphReader {
+    private ObjectGraphReader() {
+    }
+
+    public static ObjectGraph read(Path path) throws IOException {
+        return decode(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    public static ObjectGraph decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < ObjectGraphFormat.HEADER_SIZE || buffer.getInt() != ObjectGraphFormat.MAGIC) {
+            throw new IOException("Not an object graph");
+        }
+        int version = buffer.getInt();
+        if (version != ObjectGraphFormat.VERSION) {
+            throw new IOException("Unsupported object graph version: " + version);
+        }
+        boolean truncated = VarInts.readVarInt(buffer) != 0;
+        int typeCount = VarInts.readVarInt(buffer);
+        List<String> typeNames = new ArrayList<>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            typeNames.add(VarInts.readString(buffer));
+        }
+        int nodeCount = VarInts.readVarInt(buffer);
+        long[] uniqueIds = new long[nodeCount];
+        int[] types = new int[nodeCount];
+        long[] shallowSizes = new long[nodeCount];
+        int[] depths = new int[nodeCount];
+        long previousId = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            previousId += VarInts.readZigZag(buffer);
+            uniqueIds[node] = previousId;
+            types[node] = VarInts.readVarInt(buffer);
+            shallowSizes[node] = VarInts.readVarLong(buffer);
+            depths[node] = VarInts.readVarInt(buffer);
+        }
+        int edgeCount = VarInts.readVarInt(buffer);
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int source = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            source += (int) VarInts.readZigZag(buffer);
+            sources[edge] = source;
+            targets[edge] = source + (int) VarInts.readZigZag(buffer);
+        }
+        return new ObjectGraph(uniqueIds, types, depths, shallowSizes, typeNames, nodeCount,
+                sources, targets, edgeCount, truncated);
+    }
+}
@@ -0,0 +1,355 @@
+package dev.alexengrig.myjdi.heap;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Walks the objects reachable from a root breadth-first, level by level.
+ * The objects of a level are fetched in batches on a worker pool, each object with one JDWP command
+ * for all its reference fields or a few for array ranges, and the results are merged on the calling thread,
+ * which deduplicates objects by unique id. Class objects, class loaders, threads and thread groups
+ * are not entered. Shallow sizes are estimates for a 64-bit VM with compressed references.
+ */
+public class ObjectGraphWalker implements AutoCloseable {
+    protected static final int OBJECT_HEADER = 12;
+    protected static final int ARRAY_HEADER = 16;
+    protected static final int REFERENCE_SIZE = 4;
+    protected static final int BATCH_SIZE = 64;
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final int maxDepth;
+    protected final int maxNodes;
+    protected final int maxArrayElements;
+    protected final int arrayChunk;
+    protected final boolean suspend;
+    protected final ExecutorService workers;
+    protected final ConcurrentMap<ReferenceType, Layout> layouts = new ConcurrentHashMap<>();
+
+    protected ObjectGraphWalker(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.maxDepth = builder.maxDepth;
+        this.maxNodes = builder.maxNodes;
+        this.maxArrayElements = builder.maxArrayElements;
+        this.arrayChunk = builder.arrayChunk;
+        this.suspend = builder.suspend;
+        this.workers = Executors.newFixedThreadPool(builder.parallelism,
+                Concurrency.daemonThreadFactory("myjdi-graph-walker-"));
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    public ObjectGraph walk(ObjectReference root) throws InterruptedException {
+        Objects.requireNonNull(root, "The root must not be null");
+        if (suspend) {
+            virtualMachine.suspend();
+        }
+        try {
+            return new Walk(root).run();
+        } finally {
+            if (suspend) {
+                virtualMachine.resume();
+            }
+        }
+    }
+
+    /**
+     * State of one walk, confined to the calling thread.
+     */
+    protected class Walk {
+        protected final LongLongHashMap nodes = new LongLongHashMap(1024);
+        protected final Map<String, Integer> typeIds = new HashMap<>();
+        protected final List<String> typeNames = new ArrayList<>();
+        protected long[] uniqueIds = new long[1024];
+        protected int[] types = new int[1024];
+        protected int[] depths = new int[1024];
+        protected long[] shallowSizes = new long[1024];
+        protected int nodeCount;
+        protected int[] edgeSources = new int[1024];
+        protected int[] edgeTargets = new int[1024];
+        protected int edgeCount;
+        protected boolean truncated;
+        protected List<ObjectReference> frontier = new ArrayList<>();
+
+        protected Walk(ObjectReference root) {
+            addNode(root.uniqueID(), 0);
+            frontier.add(root);
+        }
+
+        protected ObjectGraph run() throws InterruptedException {
+            int first = 0;
+            for (int depth = 0; !frontier.isEmpty(); depth++) {
+                boolean expand = depth < maxDepth;
+                List<Future<List<Fetched>>> futures = new ArrayList<>(frontier.size() / BATCH_SIZE + 1);
+                for (int from = 0; from < frontier.size(); from += BATCH_SIZE) {
+                    List<ObjectReference> batch = frontier.subList(from, Math.min(frontier.size(), from + BATCH_SIZE));
+                    futures.add(workers.submit(() -> fetch(batch, expand)));
+                }
+                List<ObjectReference> next = new ArrayList<>();
+                int node = first;
+                first = nodeCount;
+                for (Future<List<Fetched>> future : futures) {
+                    for (Fetched fetched : Concurrency.get(future, "Object fetching failed")) {
+                        types[node] = typeId(fetched.type);
+                        shallowSizes[node] = fetched.shallowSize;
+                        for (ObjectReference child : fetched.children) {
+                            long target = nodes.get(child.uniqueID(), -1);
+                            if (target < 0) {
+                                if (nodeCount == maxNodes) {
+                                    truncated = true;
+                                    continue;
+                                }
+                                target = addNode(child.uniqueID(), depth + 1);
+                                next.add(child);
+                            }
+                            addEdge(node, (int) target);
+                        }
+                        if (!expand && fetched.hasReferences) {
+                            truncated = true;
+                        }
+                        node++;
+                    }
+                }
+                frontier = next;
+            }
+            return new ObjectGraph(uniqueIds, types, depths, shallowSizes, typeNames, nodeCount,
+                    edgeSources, edgeTargets, edgeCount, truncated);
+        }
+
+        protected int addNode(long uniqueId, int depth) {
+            if (nodeCount == uniqueIds.length) {
+                int capacity = nodeCount << 1;
+                uniqueIds = Arrays.copyOf(uniqueIds, capacity);
+                types = Arrays.copyOf(types, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+                shallowSizes = Arrays.copyOf(shallowSizes, capacity);
+            }
+            uniqueIds[nodeCount] = uniqueId;
+            depths[nodeCount] = depth;
+            nodes.put(uniqueId, nodeCount);
+            return nodeCount++;
+        }
+
+        protected void addEdge(int source, int target) {
+            if (edgeCount == edgeSources.length) {
+                edgeSources = Arrays.copyOf(edgeSources, edgeCount << 1);
+                edgeTargets = Arrays.copyOf(edgeTargets, edgeCount << 1);
+            }
+            edgeSources[edgeCount] = source;
+            edgeTargets[edgeCount] = target;
+            edgeCount++;
+        }
+
+        protected int typeId(String type) {
+            Integer id = typeIds.get(type);
+            if (id == null) {
+                id = typeNames.size();
+                typeNames.add(type);
+                typeIds.put(type, id);
+            }
+            return id;
+        }
+    }
+
+    protected List<Fetched> fetch(List<ObjectReference> batch, boolean expand) {
+        List<Fetched> result = new ArrayList<>(batch.size());
+        for (ObjectReference object : batch) {
+            result.add(fetch(object, expand));
+        }
+        return result;
+    }
+
+    protected Fetched fetch(ObjectReference object, boolean expand) {
+        try {
+            ReferenceType type = object.referenceType();
+            if (object instanceof ArrayReference) {
+                return fetchArray((ArrayReference) object, type, expand);
+            }
+            Layout layout = layouts.computeIfAbsent(type, ObjectGraphWalker::layout);
+            boolean enter = !layout.referenceFields.isEmpty() && !isOpaque(object);
+            List<ObjectReference> children = Collections.emptyList();
+            if (expand && enter) {
+                children = new ArrayList<>(layout.referenceFields.size());
+                for (Value value : object.getValues(layout.referenceFields).values()) {
+                    if (value instanceof ObjectReference) {
+                        children.add((ObjectReference) value);
+                    }
+                }
+            }
+            return new Fetched(type.name(), layout.shallowSize, children, enter);
+        } catch (ObjectCollectedException e) {
+            return new Fetched("<collected>", 0, Collections.emptyList(), false);
+        }
+    }
+
+    protected Fetched fetchArray(ArrayReference array, ReferenceType type, boolean expand) {
+        String signature = type.signature();
+        int length = array.length();
+        char component = signature.charAt(1);
+        boolean references = component == 'L' || component == '[';
+        long size = align(ARRAY_HEADER + (long) length * (references ? REFERENCE_SIZE : primitiveSize(component)));
+        List<ObjectReference> children = Collections.emptyList();
+        if (expand && references && length > 0) {
+            int limit = Math.min(length, maxArrayElements);
+            children = new ArrayList<>();
+            for (int from = 0; from < limit; from += arrayChunk) {
+                for (Value value : array.getValues(from, Math.min(arrayChunk, limit - from))) {
+                    if (value instanceof ObjectReference) {
+                        children.add((ObjectReference) value);
+                    }
+                }
+            }
+        }
+        return new Fetched(type.name(), size, children, references && length > 0);
+    }
+
+    /**
+     * Mirrors of VM structures rather than data, their references lead to most of the heap.
+     */
+    protected static boolean isOpaque(ObjectReference object) {
+        return object instanceof ClassObjectReference || object instanceof ClassLoaderReference
+                || object instanceof ThreadReference || object instanceof ThreadGroupReference;
+    }
+
+    protected static Layout layout(ReferenceType type) {
+        List<Field> referenceFields = new ArrayList<>();
+        long size = OBJECT_HEADER;
+        for (Field field : type.allFields()) {
+            if (field.isStatic()) {
+                continue;
+            }
+            char kind = field.signature().charAt(0);
+            if (kind == 'L' || kind == '[') {
+                referenceFields.add(field);
+                size += REFERENCE_SIZE;
+            } else {
+                size += primitiveSize(kind);
+            }
+        }
+        return new Layout(referenceFields, align(size));
+    }
+
+    protected static int primitiveSize(char signature) {
+        switch (signature) {
+            case 'J':
+            case 'D':
+                return 8;
+            case 'I':
+            case 'F':
+                return 4;
+            case 'S':
+            case 'C':
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+    protected static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    protected static class Layout {
+        protected final List<Field> referenceFields;
+        protected final long shallowSize;
+
+        protected Layout(List<Field> referenceFields, long shallowSize) {
+            this.referenceFields = referenceFields;
+            this.shallowSize = shallowSize;
+        }
+    }
+
+    protected static class Fetched {
+        protected final String type;
+        protected final long shallowSize;
+        protected final List<ObjectReference> children;
+        protected final boolean hasReferences;
+
+        protected Fetched(String type, long shallowSize, List<ObjectReference> children, boolean hasReferences) {
+            this.type = type;
+            this.shallowSize = shallowSize;
+            this.children = children;
+            this.hasReferences = hasReferences;
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected int maxDepth = 16;
+        protected int maxNodes = 100_000;
+        protected int maxArrayElements = 100_000;
+        protected int arrayChunk = 4096;
+        protected int parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        protected boolean suspend = true;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * References followed from the root.
+         */
+        public Builder maxDepth(int value) {
+            this.maxDepth = value;
+            return this;
+        }
+
+        public Builder maxNodes(int value) {
+            this.maxNodes = value;
+            return this;
+        }
+
+        /**
+         * Leading elements of an object array followed, the size still counts all of them.
+         */
+        public Builder maxArrayElements(int value) {
+            this.maxArrayElements = value;
+            return this;
+        }
+
+        /**
+         * Array elements fetched per JDWP command.
+         */
+        public Builder arrayChunk(int value) {
+            this.arrayChunk = value;
+            return this;
+        }
+
+        /**
+         * Objects fetched concurrently, in batches.
+         */
+        public Builder parallelism(int value) {
+            this.parallelism = value;
+            return this;
+        }
+
+        /**
+         * Suspends the VM during the walk for a consistent graph, {@code true} by default.
+         */
+        public Builder suspend(boolean value) {
+            this.suspend = value;
+            return this;
+        }
+
+        public ObjectGraphWalker build() {
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+            }
+            if (maxNodes <= 0 || maxArrayElements < 0 || arrayChunk <= 0 || parallelism <= 0) {
+                throw new IllegalArgumentException("Limits, chunk and parallelism must be positive");
+            }
+            return new ObjectGraphWalker(this);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dev.alexengrig.myjdi.heap;
+
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Encodes object graphs in the {@link ObjectGraphFormat}.
+ */
+public final class ObjectGraphWriter {
+    private ObjectGraphWriter() {
+    }
+
+    public static void write(ObjectGraph graph, Path path) throws IOException {
+        ByteSink sink = encode(graph);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(sink.array(), 0, sink.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public static ByteSink encode(ObjectGraph graph) {
+        ByteSink sink = new ByteSink(64 + graph.nodeCount() * 8 + graph.edgeCount() * 2);
+        sink.writeInt(ObjectGraphFormat.MAGIC);
+        sink.writeInt(ObjectGraphFormat.VERSION);
+        sink.writeVarInt(graph.truncated() ? 1 : 0);
+        List<String> typeNames = graph.typeNames();
+        sink.writeVarInt(typeNames.size());
+        for (String typeName : typeNames) {
+            sink.writeString(typeName);
+        }
+        sink.writeVarInt(graph.nodeCount());
+        long previousId = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            sink.writeZigZag(graph.uniqueId(node) - previousId);
+            previousId = graph.uniqueId(node);
+            sink.writeVarInt(graph.typeId(node));
+            sink.writeVarLong(graph.shallowSize(node));
+            sink.writeVarInt(graph.depth(node));
+        }
+        sink.writeVarInt(graph.edgeCount());
+        int previousSource = 0;
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int source = graph.edgeSource(edge);
+            sink.writeZigZag(source - previousSource);
+            sink.writeZigZag(graph.edgeTarget(edge) - source);
+            previousSource = source;
+        }
+        return sink;
+    }
+}
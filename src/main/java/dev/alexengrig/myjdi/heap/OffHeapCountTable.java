@@ -0,0 +1,90 @@
+package dev.alexengrig.myjdi.heap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-capacity open-addressing table in direct memory from 64-bit hashes to a count and a size.
+ * A slot is 16 bytes: the hash, zero meaning empty, the count and the size. The table never grows,
+ * hashes that do not fit are rejected, so its memory is known upfront; it is cleared for reuse instead.
+ */
+final class OffHeapCountTable {
+    static final int SLOT_SIZE = 16;
+    static final float MAX_LOAD = 0.75f;
+
+    private final ByteBuffer slots;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+
+    OffHeapCountTable(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        this.mask = capacity - 1;
+        this.maxSize = (int) (capacity * MAX_LOAD);
+    }
+
+    /**
+     * Counts one more occurrence of the hash.
+     *
+     * @return new count or {@code -1} if the hash is new and the table is full
+     */
+    int increment(long hash, int sizeValue) {
+        hash = hash == 0 ? 1 : hash;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (true) {
+            int offset = index * SLOT_SIZE;
+            long slotHash = slots.getLong(offset);
+            if (slotHash == hash) {
+                int count = slots.getInt(offset + 8) + 1;
+                slots.putInt(offset + 8, count);
+                return count;
+            }
+            if (slotHash == 0) {
+                if (size == maxSize) {
+                    return -1;
+                }
+                slots.putLong(offset, hash);
+                slots.putInt(offset + 8, 1);
+                slots.putInt(offset + 12, sizeValue);
+                size++;
+                return 1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+        for (int offset = 0; offset < slots.capacity(); offset += SLOT_SIZE) {
+            slots.putLong(offset, 0);
+        }
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    void forEach(Slot action) {
+        for (int index = 0; index <= mask; index++) {
+            int offset = index * SLOT_SIZE;
+            if (slots.getLong(offset) != 0) {
+                action.accept(slots.getInt(offset + 8), slots.getInt(offset + 12));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Slot {
+        void accept(int count, int size);
+    }
+}
@@ -0,0 +1,47 @@
+package dev.alexengrig.myjdi.heap;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chain of references from a GC root to an object, explaining why the object is alive.
+ */
+public final class ReferencePath {
+    private final String root;
+    private final List<String> links;
+
+    public ReferencePath(String root, List<String> links) {
+        this.root = root;
+        this.links = Collections.unmodifiableList(links);
+    }
+
+    /**
+     * A static field, a thread stack slot or a thread.
+     */
+    public String root() {
+        return root;
+    }
+
+    /**
+     * Objects from the root to the target, each with the field or index referring to the next one.
+     */
+    public List<String> links() {
+        return links;
+    }
+
+    /**
+     * References from the root to the target.
+     */
+    public int length() {
+        return links.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(root);
+        for (String link : links) {
+            builder.append(System.lineSeparator()).append("  -> ").append(link);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,494 @@
+package dev.alexengrig.myjdi.heap;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Finds the shortest chains of references holding objects alive.
+ * The search meets the roots from both sides: thread stacks are collected first, then a breadth-first search
+ * runs backward from the target through {@link ObjectReference#referringObjects(long)}, fetched in parallel
+ * per level, until it reaches a stack slot, a live thread or a class mirror whose static field holds
+ * the object, which is how HotSpot reports static references. Links held only by the referent
+ * of a {@link java.lang.ref.Reference} do not keep objects alive and are skipped.
+ * Referrers are cached for the pass. A suspended VM cannot collect them; when the VM keeps running,
+ * they are pinned with {@link ObjectReference#disableCollection()} in parallel batches until the pass ends.
+ * JDWP does not count pins, so such a pass unpins every referrer it visits, including ones the caller pinned;
+ * targets are never pinned or unpinned.
+ */
+public class ReferrerPathFinder implements AutoCloseable {
+    protected static final int BATCH_SIZE = 64;
+    protected static final String REFERENCE_CLASS = "java.lang.ref.Reference";
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final int maxReferrers;
+    protected final int maxDepth;
+    protected final int maxObjects;
+    protected final boolean suspend;
+    protected final ExecutorService workers;
+
+    protected ReferrerPathFinder(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.maxReferrers = builder.maxReferrers;
+        this.maxDepth = builder.maxDepth;
+        this.maxObjects = builder.maxObjects;
+        this.suspend = builder.suspend;
+        this.workers = Executors.newFixedThreadPool(builder.parallelism,
+                Concurrency.daemonThreadFactory("myjdi-referrer-finder-"));
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    /**
+     * @return up to {@code maxPaths} paths, shortest first
+     * @throws UnsupportedOperationException if the VM cannot get referring objects
+     */
+    public List<ReferencePath> find(ObjectReference target, int maxPaths) throws InterruptedException {
+        return findAll(Collections.singletonList(target), maxPaths).get(0);
+    }
+
+    /**
+     * Searches the targets in one pass, sharing the stack roots and the referrers fetched.
+     *
+     * @return paths of each target, in the order of the targets
+     */
+    public List<List<ReferencePath>> findAll(List<ObjectReference> targets, int maxPaths)
+            throws InterruptedException {
+        if (!virtualMachine.canGetInstanceInfo()) {
+            throw new UnsupportedOperationException("The VM cannot get referring objects");
+        }
+        if (suspend) {
+            virtualMachine.suspend();
+        }
+        Pass pass = null;
+        try {
+            pass = new Pass(targets);
+            List<List<ReferencePath>> result = new ArrayList<>(targets.size());
+            for (ObjectReference target : targets) {
+                result.add(pass.search(target, maxPaths));
+            }
+            return result;
+        } finally {
+            try {
+                if (pass != null) {
+                    pass.unpin();
+                }
+            } finally {
+                if (suspend) {
+                    virtualMachine.resume();
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches of one pass, confined to the calling thread.
+     */
+    protected class Pass {
+        protected final LongObjectHashMap<List<ObjectReference>> referrers = new LongObjectHashMap<>();
+        protected final LongObjectHashMap<String> stackRoots = new LongObjectHashMap<>();
+        protected final LongObjectHashMap<ObjectReference> pinned = new LongObjectHashMap<>();
+        protected final LongObjectHashMap<ObjectReference> targets = new LongObjectHashMap<>();
+        protected final Map<ReferenceType, Boolean> referenceTypes = new HashMap<>();
+
+        protected Pass(List<ObjectReference> targets) throws InterruptedException {
+            for (ObjectReference target : targets) {
+                this.targets.put(target.uniqueID(), target);
+            }
+            collectStackRoots();
+        }
+
+        protected void collectStackRoots() throws InterruptedException {
+            List<Future<Map<Long, String>>> futures = new ArrayList<>();
+            for (ThreadReference thread : virtualMachine.allThreads()) {
+                futures.add(workers.submit(() -> stackRoots(thread)));
+            }
+            for (Future<Map<Long, String>> future : futures) {
+                for (Map.Entry<Long, String> entry : Concurrency.get(future, "Referrer search failed").entrySet()) {
+                    if (stackRoots.get(entry.getKey()) == null) {
+                        stackRoots.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+
+        protected List<ReferencePath> search(ObjectReference target, int maxPaths) throws InterruptedException {
+            List<ReferencePath> paths = new ArrayList<>();
+            LongObjectHashMap<ObjectReference> parents = new LongObjectHashMap<>();
+            parents.put(target.uniqueID(), target);
+            String targetRoot = root(target);
+            if (targetRoot != null) {
+                paths.add(path(targetRoot, target, parents));
+            }
+            List<ObjectReference> frontier = Collections.singletonList(target);
+            for (int depth = 0; depth < maxDepth && !frontier.isEmpty() && paths.size() < maxPaths; depth++) {
+                fetchReferrers(frontier);
+                List<ObjectReference> next = new ArrayList<>();
+                for (ObjectReference object : frontier) {
+                    for (ObjectReference referrer : referrers.get(object.uniqueID())) {
+                        if (paths.size() >= maxPaths) {
+                            break;
+                        }
+                        if (parents.get(referrer.uniqueID()) != null || isWeakLink(referrer, object)) {
+                            continue;
+                        }
+                        if (referrer instanceof ClassObjectReference) {
+                            String field = staticFieldHolding((ClassObjectReference) referrer, object);
+                            if (field != null) {
+                                paths.add(path("static " + field, object, parents));
+                                continue;
+                            }
+                        }
+                        if (parents.size() >= maxObjects) {
+                            continue;
+                        }
+                        parents.put(referrer.uniqueID(), object);
+                        String root = root(referrer);
+                        if (root != null) {
+                            paths.add(path(root, referrer, parents));
+                        }
+                        // a thread is reachable from most objects, other holders may have more paths
+                        if (!(referrer instanceof ThreadReference)) {
+                            next.add(referrer);
+                        }
+                    }
+                }
+                pin(next);
+                frontier = next;
+            }
+            return paths;
+        }
+
+        /**
+         * @return the root description if the object is held by a stack or is a live thread, otherwise {@code null}
+         */
+        protected String root(ObjectReference object) {
+            String stackRoot = stackRoots.get(object.uniqueID());
+            if (stackRoot != null) {
+                return stackRoot;
+            }
+            if (object instanceof ThreadReference) {
+                try {
+                    ThreadReference thread = (ThreadReference) object;
+                    int status = thread.status();
+                    if (status != ThreadReference.THREAD_STATUS_ZOMBIE
+                            && status != ThreadReference.THREAD_STATUS_NOT_STARTED) {
+                        return "live thread \"" + thread.name() + '"';
+                    }
+                } catch (ObjectCollectedException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        protected void fetchReferrers(List<ObjectReference> objects) throws InterruptedException {
+            List<ObjectReference> missing = new ArrayList<>();
+            for (ObjectReference object : objects) {
+                if (referrers.get(object.uniqueID()) == null) {
+                    missing.add(object);
+                }
+            }
+            List<Future<List<List<ObjectReference>>>> futures = new ArrayList<>();
+            for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+                List<ObjectReference> batch = missing.subList(from, Math.min(missing.size(), from + BATCH_SIZE));
+                futures.add(workers.submit(() -> referrersOf(batch)));
+            }
+            int index = 0;
+            for (Future<List<List<ObjectReference>>> future : futures) {
+                for (List<ObjectReference> objectReferrers : Concurrency.get(future, "Referrer search failed")) {
+                    referrers.put(missing.get(index++).uniqueID(), objectReferrers);
+                }
+            }
+        }
+
+        protected void pin(List<ObjectReference> objects) throws InterruptedException {
+            if (suspend) {
+                // no collection runs while the VM is suspended
+                return;
+            }
+            List<ObjectReference> unpinned = new ArrayList<>(objects.size());
+            for (ObjectReference object : objects) {
+                if (pinned.get(object.uniqueID()) == null && targets.get(object.uniqueID()) == null) {
+                    pinned.put(object.uniqueID(), object);
+                    unpinned.add(object);
+                }
+            }
+            runBatches(unpinned, ObjectReference::disableCollection);
+        }
+
+        protected void unpin() throws InterruptedException {
+            List<ObjectReference> objects = new ArrayList<>(pinned.size());
+            pinned.forEachValue(objects::add);
+            pinned.clear();
+            runBatches(objects, ObjectReference::enableCollection);
+        }
+
+        /**
+         * A referent link of a reference object, unless another field of it holds the object too.
+         */
+        protected boolean isWeakLink(ObjectReference referrer, ObjectReference object) {
+            try {
+                ReferenceType type = referrer.referenceType();
+                if (!referenceTypes.computeIfAbsent(type, ReferrerPathFinder::isReferenceType)) {
+                    return false;
+                }
+                for (Map.Entry<Field, Value> entry : referrer.getValues(referenceFields(type)).entrySet()) {
+                    if (object.equals(entry.getValue())
+                            && !(entry.getKey().name().equals("referent")
+                            && entry.getKey().declaringType().name().equals(REFERENCE_CLASS))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (ObjectCollectedException e) {
+                return true;
+            }
+        }
+
+        protected ReferencePath path(String root, ObjectReference holder, LongObjectHashMap<ObjectReference> parents) {
+            List<String> links = new ArrayList<>();
+            ObjectReference object = holder;
+            while (true) {
+                ObjectReference next = parents.get(object.uniqueID());
+                if (next == null || next.equals(object)) {
+                    links.add(describe(object, null));
+                    return new ReferencePath(root, links);
+                }
+                links.add(describe(object, next));
+                object = next;
+            }
+        }
+    }
+
+    protected List<List<ObjectReference>> referrersOf(List<ObjectReference> objects) {
+        List<List<ObjectReference>> result = new ArrayList<>(objects.size());
+        for (ObjectReference object : objects) {
+            try {
+                result.add(object.referringObjects(maxReferrers));
+            } catch (ObjectCollectedException e) {
+                result.add(Collections.emptyList());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Objects held by the frames of the thread, {@code this} and visible local variables.
+     * Frames of classes compiled without local variable tables contribute {@code this} only.
+     */
+    protected Map<Long, String> stackRoots(ThreadReference thread) {
+        Map<Long, String> roots = new HashMap<>();
+        boolean suspended = false;
+        try {
+            if (!suspend) {
+                thread.suspend();
+                suspended = true;
+            }
+            String name = thread.name();
+            List<StackFrame> frames = thread.frames();
+            for (StackFrame frame : frames) {
+                Location location = frame.location();
+                String prefix = "thread \"" + name + "\" at " + location.declaringType().name() + '.'
+                        + location.method().name() + ':' + location.lineNumber();
+                ObjectReference self = frame.thisObject();
+                if (self != null) {
+                    roots.putIfAbsent(self.uniqueID(), prefix + " this");
+                }
+                try {
+                    for (Map.Entry<LocalVariable, Value> entry :
+                            frame.getValues(frame.visibleVariables()).entrySet()) {
+                        if (entry.getValue() instanceof ObjectReference) {
+                            roots.putIfAbsent(((ObjectReference) entry.getValue()).uniqueID(),
+                                    prefix + " local " + entry.getKey().name());
+                        }
+                    }
+                } catch (AbsentInformationException e) {
+                    // no local variable table
+                }
+            }
+        } catch (IncompatibleThreadStateException | ObjectCollectedException | IllegalThreadStateException e) {
+            // the thread is not running Java code
+        } finally {
+            if (suspended) {
+                thread.resume();
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * @return {@code Class.field} of the static field holding the object or {@code null} if none does
+     */
+    protected static String staticFieldHolding(ClassObjectReference mirror, ObjectReference object) {
+        try {
+            ReferenceType type = mirror.reflectedType();
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.fields()) {
+                if (field.isStatic() && isReference(field)) {
+                    fields.add(field);
+                }
+            }
+            if (fields.isEmpty()) {
+                return null;
+            }
+            for (Map.Entry<Field, Value> entry : type.getValues(fields).entrySet()) {
+                if (object.equals(entry.getValue())) {
+                    return type.name() + '.' + entry.getKey().name();
+                }
+            }
+            return null;
+        } catch (ObjectCollectedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code Type(id=..)} followed by the field or index referring to the next object, if any.
+     */
+    protected static String describe(ObjectReference object, ObjectReference next) {
+        try {
+            String name = object.referenceType().name() + "(id=" + object.uniqueID() + ")";
+            if (next == null) {
+                return name;
+            }
+            if (object instanceof ArrayReference) {
+                List<Value> values = ((ArrayReference) object).getValues();
+                for (int i = 0; i < values.size(); i++) {
+                    if (next.equals(values.get(i))) {
+                        return name + "[" + i + "]";
+                    }
+                }
+                return name + "[?]";
+            }
+            for (Map.Entry<Field, Value> entry : object.getValues(referenceFields(object.referenceType())).entrySet()) {
+                if (next.equals(entry.getValue())) {
+                    return name + "." + entry.getKey().name();
+                }
+            }
+            return name + ".?";
+        } catch (ObjectCollectedException e) {
+            return "<collected>";
+        }
+    }
+
+    protected static List<Field> referenceFields(ReferenceType type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.allFields()) {
+            if (!field.isStatic() && isReference(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    protected static boolean isReference(Field field) {
+        char kind = field.signature().charAt(0);
+        return kind == 'L' || kind == '[';
+    }
+
+    protected static boolean isReferenceType(ReferenceType type) {
+        if (!(type instanceof ClassType)) {
+            return false;
+        }
+        for (ClassType at = (ClassType) type; at != null; at = at.superclass()) {
+            if (at.name().equals(REFERENCE_CLASS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void runBatches(List<ObjectReference> objects, ObjectAction action) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < objects.size(); from += BATCH_SIZE) {
+            List<ObjectReference> batch = objects.subList(from, Math.min(objects.size(), from + BATCH_SIZE));
+            futures.add(workers.submit(() -> {
+                for (ObjectReference object : batch) {
+                    try {
+                        action.apply(object);
+                    } catch (ObjectCollectedException e) {
+                        // nothing to pin or unpin
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            Concurrency.get(future, "Referrer search failed");
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    @FunctionalInterface
+    protected interface ObjectAction {
+        void apply(ObjectReference object);
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected int maxReferrers = 64;
+        protected int maxDepth = 16;
+        protected int maxObjects = 100_000;
+        protected int parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        protected boolean suspend = true;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Referrers fetched per object.
+         */
+        public Builder maxReferrers(int value) {
+            this.maxReferrers = value;
+            return this;
+        }
+
+        /**
+         * References followed back from the target.
+         */
+        public Builder maxDepth(int value) {
+            this.maxDepth = value;
+            return this;
+        }
+
+        /**
+         * Objects visited per target.
+         */
+        public Builder maxObjects(int value) {
+            this.maxObjects = value;
+            return this;
+        }
+
+        public Builder parallelism(int value) {
+            this.parallelism = value;
+            return this;
+        }
+
+        /**
+         * Suspends the VM during the pass, {@code true} by default; otherwise each thread is suspended
+         * while its stack is read, and referrers are pinned, then unpinned even if the caller pinned them.
+         */
+        public Builder suspend(boolean value) {
+            this.suspend = value;
+            return this;
+        }
+
+        public ReferrerPathFinder build() {
+            if (maxReferrers <= 0 || maxDepth <= 0 || maxObjects <= 0 || parallelism <= 0) {
+                throw new IllegalArgumentException("Limits and parallelism must be positive");
+            }
+            return new ReferrerPathFinder(this);
+        }
+    }
+}
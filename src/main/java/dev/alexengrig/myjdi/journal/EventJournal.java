@@ -0,0 +1,130 @@
+package dev.alexengrig.myjdi.journal;
+
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.snapshot.SnapshotFactory;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriber;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every event it receives into a {@link JournalWriter}.
+ * The handler thread only takes the snapshot and enqueues it, encoding and I/O run on a background thread.
+ * The handler never waits for the writer: when the queue is full the event is dropped and counted.
+ */
+public class EventJournal implements YouthEventSubscriber<YouthEvent>, Closeable {
+    private static final Log log = Log.getLog(EventJournal.class);
+
+    protected static final int BATCH_SIZE = 1024;
+
+    protected final SnapshotFactory snapshotFactory;
+    protected final JournalWriter writer;
+    protected final BlockingQueue<YouthEventSnapshot> queue;
+    protected final long flushIntervalNanos;
+    protected final Thread writerThread;
+    protected volatile boolean running;
+    protected final AtomicLong dropped = new AtomicLong();
+    protected volatile long written;
+
+    public EventJournal(JournalSettings settings, SnapshotFactory snapshotFactory) throws IOException {
+        this.snapshotFactory = snapshotFactory;
+        this.writer = new JournalWriter(settings);
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.flushIntervalMillis());
+        this.writerThread = new Thread(this::writeLoop, "myjdi-journal-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    public static EventJournal record(YouthEventSubscriptionManager subscriptionManager, JournalSettings settings,
+                                      SnapshotFactory snapshotFactory) throws IOException {
+        EventJournal journal = new EventJournal(settings, snapshotFactory);
+        journal.start();
+        subscriptionManager.subscribeOnAll(journal);
+        return journal;
+    }
+
+    public void start() {
+        running = true;
+        writerThread.start();
+    }
+
+    @Override
+    public void accept(YouthEvent event) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(snapshotFactory.create(event))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long written() {
+        return written;
+    }
+
+    /**
+     * Events not recorded because the writer fell behind or stopped.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    protected void writeLoop() {
+        List<YouthEventSnapshot> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.nanoTime();
+        try {
+            while (running || !queue.isEmpty()) {
+                YouthEventSnapshot first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    for (YouthEventSnapshot snapshot : batch) {
+                        writer.append(snapshot);
+                    }
+                    written += batch.size();
+                    batch.clear();
+                }
+                long now = System.nanoTime();
+                if (first == null || now - lastFlush >= flushIntervalNanos) {
+                    writer.flush();
+                    lastFlush = now;
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+            log.severe("Journal writing failed, recording is stopped.", e);
+        } catch (InterruptedException e) {
+            running = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops accepting events, writes the queued ones and closes the segment.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.alexengrig.myjdi.journal;
+
+public final class JournalBlock {
+    private final long segmentIndex;
+    private final int offset;
+    private final int storedLength;
+    private final int rawLength;
+    private final int count;
+    private final int flags;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+
+    public JournalBlock(long segmentIndex, int offset, int storedLength, int rawLength, int count, int flags,
+                        long firstTimestamp, long lastTimestamp) {
+        this.segmentIndex = segmentIndex;
+        this.offset = offset;
+        this.storedLength = storedLength;
+        this.rawLength = rawLength;
+        this.count = count;
+        this.flags = flags;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public long segmentIndex() {
+        return segmentIndex;
+    }
+
+    /**
+     * Offset of the block header within its segment.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    public int storedLength() {
+        return storedLength;
+    }
+
+    public int rawLength() {
+        return rawLength;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isCompressed() {
+        return (flags & JournalFormat.FLAG_COMPRESSED) != 0;
+    }
+
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalBlock{segment=" + segmentIndex + ", offset=" + offset + ", count=" + count + "}";
+    }
+}
@@ -0,0 +1,57 @@
+package dev.alexengrig.myjdi.journal;
+
+import dev.alexengrig.myjdi.snapshot.SnapshotFormat;
+
+import java.nio.file.Path;
+
+/**
+ * On-disk layout of journal segments.
+ * <p>
+ * A segment starts with a {@value #SEGMENT_HEADER_SIZE}-byte header: magic, journal version, snapshot format version,
+ * segment index, creation timestamp and the offset where written data ends.
+ * Blocks follow back to back, each with a {@value #BLOCK_HEADER_SIZE}-byte header: stored length, raw length,
+ * event count, flags, first and last event timestamps. A block payload is a self-contained span of the
+ * {@link SnapshotFormat}, deflated when {@link #FLAG_COMPRESSED} is set. A zero stored length marks the end.
+ * <p>
+ * Next to each segment an index file holds an {@value #INDEX_HEADER_SIZE}-byte header (magic, version)
+ * followed by one {@link JournalIndexEntry} per block.
+ */
+public final class JournalFormat {
+    public static final int MAGIC = 0x4D594A4A;
+    public static final int VERSION = 1;
+
+    public static final int SEGMENT_HEADER_SIZE = 32;
+    public static final int SEGMENT_END_OFFSET = 24;
+    public static final int BLOCK_HEADER_SIZE = 32;
+
+    public static final int FLAG_COMPRESSED = 1;
+
+    public static final int INDEX_MAGIC = 0x4D594A49;
+    public static final int INDEX_HEADER_SIZE = 8;
+
+    public static final String SEGMENT_PREFIX = "segment-";
+    public static final String SEGMENT_SUFFIX = ".myj";
+    public static final String INDEX_SUFFIX = ".myi";
+
+    private JournalFormat() {
+    }
+
+    public static String segmentName(long index) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    public static Path indexPath(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return segmentPath.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    public static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    public static long segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,53 @@
+package dev.alexengrig.myjdi.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class JournalIndex {
+    private JournalIndex() {
+    }
+
+    /**
+     * Index entries of the segment's blocks.
+     * Blocks without an entry, like those of a segment recorded before indexing or still being written,
+     * get an entry that matches every query.
+     */
+    public static List<JournalIndexEntry> read(JournalSegment segment) throws IOException {
+        List<JournalIndexEntry> entries = new ArrayList<>();
+        int end = segment.end();
+        Path indexPath = JournalFormat.indexPath(segment.path());
+        int nextOffset = JournalFormat.SEGMENT_HEADER_SIZE;
+        if (Files.exists(indexPath)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+            if (buffer.remaining() >= JournalFormat.INDEX_HEADER_SIZE) {
+                int magic = buffer.getInt();
+                int version = buffer.getInt();
+                if (magic != JournalFormat.INDEX_MAGIC || version > JournalFormat.VERSION) {
+                    throw new IOException(String.format("Unsupported journal index: %s.", indexPath));
+                }
+                while (buffer.remaining() >= JournalIndexEntry.SIZE) {
+                    JournalIndexEntry entry = JournalIndexEntry.read(buffer);
+                    if (entry.offset() >= end) {
+                        break;
+                    }
+                    entries.add(entry);
+                    nextOffset = entry.offset() + JournalFormat.BLOCK_HEADER_SIZE
+                            + segment.block(entry.offset()).storedLength();
+                }
+            }
+        }
+        while (nextOffset + JournalFormat.BLOCK_HEADER_SIZE <= end) {
+            JournalBlock block = segment.block(nextOffset);
+            if (block.storedLength() == 0) {
+                break;
+            }
+            entries.add(JournalIndexEntry.unindexed(block));
+            nextOffset += JournalFormat.BLOCK_HEADER_SIZE + block.storedLength();
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,202 @@
+package dev.alexengrig.myjdi.journal;
+
+import dev.alexengrig.myjdi.snapshot.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Summary of one journal block: time range, event kinds, and Bloom filters of thread unique ids and class names.
+ * A query skips every block whose summary cannot match.
+ * Classes are hashed by name, as identity ids are stable only within a recording session
+ * and sessions appended to one journal reuse them.
+ */
+public final class JournalIndexEntry {
+    static final int BLOOM_WORDS = 16;
+    static final int SIZE = 32 + 2 * BLOOM_WORDS * 8;
+    private static final int BLOOM_MASK = BLOOM_WORDS * 64 - 1;
+
+    private final int offset;
+    private final int count;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final int kindMask;
+    private final long[] threadBloom;
+    private final long[] classBloom;
+
+    JournalIndexEntry(int offset, int count, long firstTimestamp, long lastTimestamp, int kindMask,
+                      long[] threadBloom, long[] classBloom) {
+        this.offset = offset;
+        this.count = count;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.kindMask = kindMask;
+        this.threadBloom = threadBloom;
+        this.classBloom = classBloom;
+    }
+
+    /**
+     * Entry that matches everything, for blocks of segments without an index.
+     */
+    static JournalIndexEntry unindexed(JournalBlock block) {
+        long[] all = new long[BLOOM_WORDS];
+        Arrays.fill(all, -1L);
+        return new JournalIndexEntry(block.offset(), block.count(), block.firstTimestamp(), block.lastTimestamp(),
+                -1, all, all);
+    }
+
+    static JournalIndexEntry read(ByteBuffer buffer) {
+        int offset = buffer.getInt();
+        int count = buffer.getInt();
+        long firstTimestamp = buffer.getLong();
+        long lastTimestamp = buffer.getLong();
+        int kindMask = buffer.getInt();
+        buffer.getInt();
+        long[] threadBloom = new long[BLOOM_WORDS];
+        for (int i = 0; i < BLOOM_WORDS; i++) {
+            threadBloom[i] = buffer.getLong();
+        }
+        long[] classBloom = new long[BLOOM_WORDS];
+        for (int i = 0; i < BLOOM_WORDS; i++) {
+            classBloom[i] = buffer.getLong();
+        }
+        return new JournalIndexEntry(offset, count, firstTimestamp, lastTimestamp, kindMask, threadBloom, classBloom);
+    }
+
+    void write(ByteBuffer buffer) {
+        buffer.putInt(offset)
+                .putInt(count)
+                .putLong(firstTimestamp)
+                .putLong(lastTimestamp)
+                .putInt(kindMask)
+                .putInt(0);
+        for (long word : threadBloom) {
+            buffer.putLong(word);
+        }
+        for (long word : classBloom) {
+            buffer.putLong(word);
+        }
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public boolean overlaps(long fromTimestamp, long toTimestamp) {
+        return firstTimestamp <= toTimestamp && lastTimestamp >= fromTimestamp;
+    }
+
+    public boolean mayContainKinds(int mask) {
+        return (kindMask & mask) != 0;
+    }
+
+    public boolean mayContainThread(long uniqueId) {
+        return mayContain(threadBloom, mix(uniqueId));
+    }
+
+    public boolean mayContainClass(String className) {
+        return mayContain(classBloom, mix(className.hashCode()));
+    }
+
+    static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    static void add(long[] bloom, long hash) {
+        int first = (int) hash & BLOOM_MASK;
+        int second = (int) (hash >>> 32) & BLOOM_MASK;
+        bloom[first >>> 6] |= 1L << first;
+        bloom[second >>> 6] |= 1L << second;
+    }
+
+    static boolean mayContain(long[] bloom, long hash) {
+        int first = (int) hash & BLOOM_MASK;
+        int second = (int) (hash >>> 32) & BLOOM_MASK;
+        return (bloom[first >>> 6] & (1L << first)) != 0 && (bloom[second >>> 6] & (1L << second)) != 0;
+    }
+
+    /**
+     * Classes a snapshot is indexed under: the class of its location and the type it is about.
+     */
+    public static boolean referencesClass(YouthEventSnapshot snapshot, String className) {
+        if (snapshot instanceof YouthLocatableEventSnapshot
+                && ((YouthLocatableEventSnapshot) snapshot).location().declaringType().name().equals(className)) {
+            return true;
+        }
+        ClassIdentity subject = subjectClass(snapshot);
+        return subject != null && subject.name().equals(className);
+    }
+
+    static ClassIdentity subjectClass(YouthEventSnapshot snapshot) {
+        switch (snapshot.kind()) {
+            case EXCEPTION:
+                return ((YouthExceptionEventSnapshot) snapshot).exceptionType();
+            case ACCESS_WATCHPOINT:
+                return ((YouthAccessWatchpointEventSnapshot) snapshot).field().declaringType();
+            case MODIFICATION_WATCHPOINT:
+                return ((YouthModificationWatchpointEventSnapshot) snapshot).field().declaringType();
+            case MONITOR_WAITED:
+                return ((YouthMonitorWaitedEventSnapshot) snapshot).monitorType();
+            case MONITOR_WAIT:
+                return ((YouthMonitorWaitEventSnapshot) snapshot).monitorType();
+            case MONITOR_CONTENDED_ENTERED:
+                return ((YouthMonitorContendedEnteredEventSnapshot) snapshot).monitorType();
+            case MONITOR_CONTENDED_ENTER:
+                return ((YouthMonitorContendedEnterEventSnapshot) snapshot).monitorType();
+            case CLASS_UNLOAD:
+                return ((YouthClassUnloadEventSnapshot) snapshot).type();
+            case CLASS_PREPARE:
+                return ((YouthClassPrepareEventSnapshot) snapshot).type();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Accumulates the entry of the block being written.
+     */
+    static class Builder {
+        private final long[] threadBloom = new long[BLOOM_WORDS];
+        private final long[] classBloom = new long[BLOOM_WORDS];
+        private int kindMask;
+
+        void add(YouthEventSnapshot snapshot) {
+            kindMask |= snapshot.kind().mask();
+            if (snapshot.thread() != null) {
+                JournalIndexEntry.add(threadBloom, mix(snapshot.thread().uniqueId()));
+            }
+            if (snapshot instanceof YouthLocatableEventSnapshot) {
+                String name = ((YouthLocatableEventSnapshot) snapshot).location().declaringType().name();
+                JournalIndexEntry.add(classBloom, mix(name.hashCode()));
+            }
+            ClassIdentity subject = subjectClass(snapshot);
+            if (subject != null) {
+                JournalIndexEntry.add(classBloom, mix(subject.name().hashCode()));
+            }
+        }
+
+        JournalIndexEntry build(int offset, int count, long firstTimestamp, long lastTimestamp) {
+            return new JournalIndexEntry(offset, count, firstTimestamp, lastTimestamp, kindMask,
+                    threadBloom.clone(), classBloom.clone());
+        }
+
+        void reset() {
+            Arrays.fill(threadBloom, 0);
+            Arrays.fill(classBloom, 0);
+            kindMask = 0;
+        }
+    }
+}
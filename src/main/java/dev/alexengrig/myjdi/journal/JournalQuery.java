@@ -0,0 +1,184 @@
+package dev.alexengrig.myjdi.journal;
+
+import dev.alexengrig.myjdi.snapshot.SnapshotDecoder;
+import dev.alexengrig.myjdi.snapshot.SnapshotKind;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Query over a recorded journal.
+ * Blocks are skipped by their {@link JournalIndexEntry}, the rest are decoded one at a time
+ * and their snapshots filtered exactly.
+ */
+public class JournalQuery {
+    protected final Path directory;
+    protected final Long threadUniqueId;
+    protected final long fromTimestamp;
+    protected final long toTimestamp;
+    protected final int kindMask;
+    protected final String className;
+
+    protected JournalQuery(Builder builder) {
+        this.directory = builder.directory;
+        this.threadUniqueId = builder.threadUniqueId;
+        this.fromTimestamp = builder.fromTimestamp;
+        this.toTimestamp = builder.toTimestamp;
+        this.kindMask = builder.kindMask;
+        this.className = builder.className;
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Lazy stream of matching snapshots in recording order.
+     * Segments are mapped while the stream is consumed, close it to unmap them.
+     */
+    public Stream<YouthEventSnapshot> stream() throws IOException {
+        Matches matches = new Matches(JournalReader.segments(directory));
+        return StreamSupport.stream(matches, false).onClose(matches::close);
+    }
+
+    /**
+     * @return number of matching snapshots
+     */
+    public long count() throws IOException {
+        try (Stream<YouthEventSnapshot> snapshots = stream()) {
+            return snapshots.count();
+        }
+    }
+
+    protected boolean mayMatch(JournalIndexEntry entry) {
+        return entry.overlaps(fromTimestamp, toTimestamp)
+                && entry.mayContainKinds(kindMask)
+                && (threadUniqueId == null || entry.mayContainThread(threadUniqueId))
+                && (className == null || entry.mayContainClass(className));
+    }
+
+    protected boolean matches(YouthEventSnapshot snapshot) {
+        return snapshot.timestamp() >= fromTimestamp
+                && snapshot.timestamp() <= toTimestamp
+                && (kindMask & snapshot.kind().mask()) != 0
+                && (threadUniqueId == null
+                || snapshot.thread() != null && snapshot.thread().uniqueId() == threadUniqueId)
+                && (className == null || JournalIndexEntry.referencesClass(snapshot, className));
+    }
+
+    protected class Matches extends Spliterators.AbstractSpliterator<YouthEventSnapshot> {
+        protected final Iterator<Path> paths;
+        protected final SnapshotDecoder decoder = new SnapshotDecoder();
+        protected JournalSegment segment;
+        protected Iterator<JournalIndexEntry> entries = Collections.emptyIterator();
+        protected Iterator<YouthEventSnapshot> snapshots = Collections.emptyIterator();
+
+        protected Matches(List<Path> paths) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL | IMMUTABLE);
+            this.paths = paths.iterator();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super YouthEventSnapshot> action) {
+            try {
+                while (true) {
+                    while (snapshots.hasNext()) {
+                        YouthEventSnapshot snapshot = snapshots.next();
+                        if (matches(snapshot)) {
+                            action.accept(snapshot);
+                            return true;
+                        }
+                    }
+                    if (entries.hasNext()) {
+                        JournalIndexEntry entry = entries.next();
+                        if (mayMatch(entry)) {
+                            snapshots = segment.decode(segment.block(entry.offset()), decoder).iterator();
+                        }
+                    } else if (paths.hasNext()) {
+                        closeSegment();
+                        segment = JournalSegment.open(paths.next());
+                        entries = JournalIndex.read(segment).iterator();
+                    } else {
+                        closeSegment();
+                        return false;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        protected void closeSegment() throws IOException {
+            if (segment != null) {
+                segment.close();
+                segment = null;
+            }
+        }
+
+        protected void close() {
+            try {
+                closeSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public static class Builder {
+        protected final Path directory;
+        protected Long threadUniqueId;
+        protected long fromTimestamp = Long.MIN_VALUE;
+        protected long toTimestamp = Long.MAX_VALUE;
+        protected int kindMask = -1;
+        protected String className;
+
+        protected Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "The directory must not be null");
+        }
+
+        public Builder thread(long uniqueId) {
+            this.threadUniqueId = uniqueId;
+            return this;
+        }
+
+        /**
+         * Inclusive range of epoch nanoseconds.
+         */
+        public Builder between(long fromTimestamp, long toTimestamp) {
+            this.fromTimestamp = fromTimestamp;
+            this.toTimestamp = toTimestamp;
+            return this;
+        }
+
+        public Builder kinds(SnapshotKind... kinds) {
+            int mask = 0;
+            for (SnapshotKind kind : kinds) {
+                mask |= kind.mask();
+            }
+            this.kindMask = mask;
+            return this;
+        }
+
+        /**
+         * Events located in the class or about it: its exceptions, fields, monitors, preparation and unloading.
+         */
+        public Builder className(String value) {
+            this.className = Objects.requireNonNull(value, "The class name must not be null");
+            return this;
+        }
+
+        public JournalQuery build() {
+            if (fromTimestamp > toTimestamp) {
+                throw new IllegalArgumentException(String.format("The time range is empty: %d > %d.",
+                        fromTimestamp, toTimestamp));
+            }
+            return new JournalQuery(this);
+        }
+    }
+}
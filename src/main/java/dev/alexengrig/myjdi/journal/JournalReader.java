@@ -0,0 +1,25 @@
+package dev.alexengrig.myjdi.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class JournalReader {
+    private JournalReader() {
+    }
+
+    /**
+     * Segment files of the journal directory in recording order.
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalFormat::isSegment)
+                    .sorted(Comparator.comparingLong(JournalFormat::segmentIndex))
+                    .collect(Collectors.toList());
+        }
+    }
+}
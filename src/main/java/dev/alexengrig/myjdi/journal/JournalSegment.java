@@ -0,0 +1,145 @@
+package dev.alexengrig.myjdi.journal;
+
+import dev.alexengrig.myjdi.snapshot.SnapshotDecoder;
+import dev.alexengrig.myjdi.snapshot.SnapshotFormat;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only mapping of one journal segment.
+ * Block payloads are independent, so {@link #decode(JournalBlock)} may be called from several threads at once.
+ */
+public class JournalSegment implements Closeable {
+    protected final Path path;
+    protected final FileChannel channel;
+    protected final MappedByteBuffer buffer;
+    protected final long index;
+    protected final long createdTimestamp;
+
+    protected JournalSegment(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int magic = buffer.getInt(0);
+        if (magic != JournalFormat.MAGIC) {
+            channel.close();
+            throw new IOException(String.format("Not a journal segment: %s.", path));
+        }
+        int version = buffer.get(4) & 0xFF;
+        int snapshotVersion = buffer.get(5) & 0xFF;
+        if (version > JournalFormat.VERSION || snapshotVersion > SnapshotFormat.VERSION) {
+            channel.close();
+            throw new IOException(String.format("Unsupported journal segment version: %d/%d.", version, snapshotVersion));
+        }
+        this.index = buffer.getLong(8);
+        this.createdTimestamp = buffer.getLong(16);
+    }
+
+    public static JournalSegment open(Path path) throws IOException {
+        return new JournalSegment(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long index() {
+        return index;
+    }
+
+    public long createdTimestamp() {
+        return createdTimestamp;
+    }
+
+    /**
+     * Offset where written data ends, re-read on every call so a live segment can be followed.
+     */
+    public int end() {
+        return (int) buffer.getLong(JournalFormat.SEGMENT_END_OFFSET);
+    }
+
+    public List<JournalBlock> blocks() {
+        List<JournalBlock> blocks = new ArrayList<>();
+        int end = end();
+        int offset = JournalFormat.SEGMENT_HEADER_SIZE;
+        while (offset + JournalFormat.BLOCK_HEADER_SIZE <= end) {
+            JournalBlock block = block(offset);
+            if (block.storedLength() == 0) {
+                break;
+            }
+            blocks.add(block);
+            offset += JournalFormat.BLOCK_HEADER_SIZE + block.storedLength();
+        }
+        return blocks;
+    }
+
+    public JournalBlock block(int offset) {
+        return new JournalBlock(index, offset,
+                buffer.getInt(offset),
+                buffer.getInt(offset + 4),
+                buffer.getInt(offset + 8),
+                buffer.getInt(offset + 12),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24));
+    }
+
+    /**
+     * Raw snapshot stream of the block, a view of the mapping unless the block is compressed.
+     */
+    public ByteBuffer payload(JournalBlock block) throws IOException {
+        ByteBuffer view = buffer.duplicate();
+        view.position(block.offset() + JournalFormat.BLOCK_HEADER_SIZE);
+        view.limit(block.offset() + JournalFormat.BLOCK_HEADER_SIZE + block.storedLength());
+        if (!block.isCompressed()) {
+            return view.slice();
+        }
+        byte[] stored = new byte[block.storedLength()];
+        view.get(stored);
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            int length = inflater.inflate(raw);
+            if (length != raw.length) {
+                throw new IOException(String.format("Corrupted block %s: %d of %d bytes inflated.",
+                        block, length, raw.length));
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(String.format("Corrupted block %s.", block), e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    public List<YouthEventSnapshot> decode(JournalBlock block) throws IOException {
+        return decode(block, new SnapshotDecoder());
+    }
+
+    public List<YouthEventSnapshot> decode(JournalBlock block, SnapshotDecoder decoder) throws IOException {
+        ByteBuffer payload = payload(block);
+        List<YouthEventSnapshot> snapshots = new ArrayList<>(block.count());
+        decoder.reset();
+        YouthEventSnapshot snapshot;
+        while ((snapshot = decoder.decode(payload)) != null) {
+            snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,109 @@
+package dev.alexengrig.myjdi.journal;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+public class JournalSettings {
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+    public static final int DEFAULT_BLOCK_SIZE = 64 << 10;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    protected final Path directory;
+    protected final long segmentSize;
+    protected final int blockSize;
+    protected final boolean compressed;
+    protected final int queueCapacity;
+    protected final long flushIntervalMillis;
+
+    protected JournalSettings(Builder builder) {
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.blockSize = builder.blockSize;
+        this.compressed = builder.compressed;
+        this.queueCapacity = builder.queueCapacity;
+        this.flushIntervalMillis = builder.flushIntervalMillis;
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public long segmentSize() {
+        return segmentSize;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public boolean compressed() {
+        return compressed;
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public long flushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public static class Builder {
+        protected final Path directory;
+        protected long segmentSize = DEFAULT_SEGMENT_SIZE;
+        protected int blockSize = DEFAULT_BLOCK_SIZE;
+        protected boolean compressed;
+        protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        protected long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+        protected Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "The directory must not be null");
+        }
+
+        public Builder segmentSize(long value) {
+            this.segmentSize = value;
+            return this;
+        }
+
+        public Builder blockSize(int value) {
+            this.blockSize = value;
+            return this;
+        }
+
+        public Builder compressed(boolean value) {
+            this.compressed = value;
+            return this;
+        }
+
+        public Builder queueCapacity(int value) {
+            this.queueCapacity = value;
+            return this;
+        }
+
+        public Builder flushIntervalMillis(long value) {
+            this.flushIntervalMillis = value;
+            return this;
+        }
+
+        public JournalSettings build() {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+            }
+            if (segmentSize < JournalFormat.SEGMENT_HEADER_SIZE + 2L * (JournalFormat.BLOCK_HEADER_SIZE + blockSize)) {
+                throw new IllegalArgumentException("Segment size must fit at least two blocks: " + segmentSize);
+            }
+            if (segmentSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Segment size must fit a single mapping: " + segmentSize);
+            }
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+            }
+            return new JournalSettings(this);
+        }
+    }
+}
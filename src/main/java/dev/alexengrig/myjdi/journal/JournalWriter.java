@@ -0,0 +1,197 @@
+package dev.alexengrig.myjdi.journal;
+
+import dev.alexengrig.myjdi.snapshot.SnapshotEncoder;
+import dev.alexengrig.myjdi.snapshot.SnapshotFormat;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+/**
+ * Appends snapshots to memory-mapped segment files in the {@link JournalFormat}
+ * and writes the sparse index of every sealed block next to its segment.
+ * Not thread-safe, {@link EventJournal} drives it from a single background thread.
+ */
+public class JournalWriter implements Closeable {
+    protected final JournalSettings settings;
+    protected final SnapshotEncoder encoder;
+    protected final ByteSink block;
+    protected final Deflater deflater;
+    protected final JournalIndexEntry.Builder indexBuilder;
+    protected final ByteBuffer indexBuffer;
+    protected byte[] compressed;
+    protected int blockCount;
+    protected long firstTimestamp;
+    protected long lastTimestamp;
+    protected long nextSegmentIndex;
+    protected Path segmentPath;
+    protected FileChannel channel;
+    protected MappedByteBuffer segment;
+    protected FileChannel indexChannel;
+
+    public JournalWriter(JournalSettings settings) throws IOException {
+        this.settings = settings;
+        this.encoder = new SnapshotEncoder();
+        this.block = new ByteSink(settings.blockSize() + (settings.blockSize() >> 2));
+        this.deflater = settings.compressed() ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.compressed = settings.compressed() ? new byte[settings.blockSize()] : null;
+        this.indexBuilder = new JournalIndexEntry.Builder();
+        this.indexBuffer = ByteBuffer.allocate(JournalIndexEntry.SIZE);
+        Files.createDirectories(settings.directory());
+        this.nextSegmentIndex = lastSegmentIndex(settings.directory()) + 1;
+    }
+
+    protected static long lastSegmentIndex(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalFormat::isSegment)
+                    .mapToLong(JournalFormat::segmentIndex)
+                    .max()
+                    .orElse(-1);
+        }
+    }
+
+    public void append(YouthEventSnapshot snapshot) throws IOException {
+        if (blockCount == 0) {
+            encoder.reset();
+            firstTimestamp = snapshot.timestamp();
+        }
+        encoder.encode(snapshot, block);
+        indexBuilder.add(snapshot);
+        lastTimestamp = snapshot.timestamp();
+        blockCount++;
+        if (block.size() >= settings.blockSize()) {
+            sealBlock();
+        }
+    }
+
+    /**
+     * Seals the pending block and forces the current segment to the storage device.
+     */
+    public void flush() throws IOException {
+        sealBlock();
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    protected void sealBlock() throws IOException {
+        if (blockCount == 0) {
+            return;
+        }
+        byte[] payload = block.array();
+        int rawLength = block.size();
+        int storedLength = rawLength;
+        int flags = 0;
+        if (deflater != null) {
+            int length = deflate(payload, rawLength);
+            if (length < rawLength) {
+                payload = compressed;
+                storedLength = length;
+                flags |= JournalFormat.FLAG_COMPRESSED;
+            }
+        }
+        ensureSpace(JournalFormat.BLOCK_HEADER_SIZE + storedLength);
+        int offset = segment.position();
+        segment.putInt(storedLength)
+                .putInt(rawLength)
+                .putInt(blockCount)
+                .putInt(flags)
+                .putLong(firstTimestamp)
+                .putLong(lastTimestamp);
+        segment.put(payload, 0, storedLength);
+        segment.putLong(JournalFormat.SEGMENT_END_OFFSET, segment.position());
+        writeIndexEntry(indexBuilder.build(offset, blockCount, firstTimestamp, lastTimestamp));
+        indexBuilder.reset();
+        block.reset();
+        blockCount = 0;
+    }
+
+    protected void writeIndexEntry(JournalIndexEntry entry) throws IOException {
+        indexBuffer.clear();
+        entry.write(indexBuffer);
+        indexBuffer.flip();
+        while (indexBuffer.hasRemaining()) {
+            indexChannel.write(indexBuffer);
+        }
+    }
+
+    protected int deflate(byte[] input, int length) {
+        deflater.reset();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+        int size = 0;
+        while (!deflater.finished()) {
+            if (size == compressed.length) {
+                if (size >= length) {
+                    // incompressible, the block is stored raw
+                    return length;
+                }
+                compressed = Arrays.copyOf(compressed, compressed.length << 1);
+            }
+            size += deflater.deflate(compressed, size, compressed.length - size);
+        }
+        return size;
+    }
+
+    protected void ensureSpace(int size) throws IOException {
+        if (segment == null || segment.remaining() < size) {
+            closeSegment();
+            openSegment(Math.max(settings.segmentSize(), JournalFormat.SEGMENT_HEADER_SIZE + (long) size));
+        }
+    }
+
+    protected void openSegment(long size) throws IOException {
+        long index = nextSegmentIndex++;
+        segmentPath = settings.directory().resolve(JournalFormat.segmentName(index));
+        channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segment.putInt(JournalFormat.MAGIC)
+                .put((byte) JournalFormat.VERSION)
+                .put((byte) SnapshotFormat.VERSION)
+                .putShort((short) 0)
+                .putLong(index)
+                .putLong(firstTimestamp)
+                .putLong(JournalFormat.SEGMENT_HEADER_SIZE);
+        indexChannel = FileChannel.open(JournalFormat.indexPath(segmentPath), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(JournalFormat.INDEX_HEADER_SIZE);
+        header.putInt(JournalFormat.INDEX_MAGIC).putInt(JournalFormat.VERSION).flip();
+        while (header.hasRemaining()) {
+            indexChannel.write(header);
+        }
+    }
+
+    protected void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+            channel.close();
+            channel = null;
+            indexChannel.close();
+            indexChannel = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sealBlock();
+        } finally {
+            closeSegment();
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+}
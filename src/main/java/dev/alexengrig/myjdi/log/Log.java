@@ -0,0 +1,150 @@
+package dev.alexengrig.myjdi.log;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logging facade over {@code java.util.logging} for hot paths.
+ * A disabled level costs one level check; an enabled one enqueues the pattern and up to three arguments,
+ * which a background writer substitutes for {@code {}} placeholders and publishes.
+ * Strings, primitive wrappers and enums are formatted later on the writer thread; other arguments,
+ * such as JDI mirrors that query the VM and fail once it is gone, are turned into strings by the caller.
+ */
+public final class Log {
+    private final Logger logger;
+
+    private Log(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static Log getLog(Class<?> type) {
+        return new Log(Logger.getLogger(type.getName()));
+    }
+
+    /**
+     * Records dropped because the writer queue was full.
+     */
+    public static long dropped() {
+        return LogWriter.INSTANCE.dropped();
+    }
+
+    public boolean isEnabled(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public boolean isFineEnabled() {
+        return logger.isLoggable(Level.FINE);
+    }
+
+    public void fine(String message) {
+        log(Level.FINE, message, 0, null, null, null, null);
+    }
+
+    public void fine(String pattern, Object argument) {
+        log(Level.FINE, pattern, 1, argument, null, null, null);
+    }
+
+    public void fine(String pattern, Object first, Object second) {
+        log(Level.FINE, pattern, 2, first, second, null, null);
+    }
+
+    public void fine(String pattern, Object first, Object second, Object third) {
+        log(Level.FINE, pattern, 3, first, second, third, null);
+    }
+
+    public void fine(String message, Throwable thrown) {
+        log(Level.FINE, message, 0, null, null, null, thrown);
+    }
+
+    public boolean isInfoEnabled() {
+        return logger.isLoggable(Level.INFO);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, 0, null, null, null, null);
+    }
+
+    public void info(String pattern, Object argument) {
+        log(Level.INFO, pattern, 1, argument, null, null, null);
+    }
+
+    public void info(String pattern, Object first, Object second) {
+        log(Level.INFO, pattern, 2, first, second, null, null);
+    }
+
+    public void info(String pattern, Object first, Object second, Object third) {
+        log(Level.INFO, pattern, 3, first, second, third, null);
+    }
+
+    public void info(String message, Throwable thrown) {
+        log(Level.INFO, message, 0, null, null, null, thrown);
+    }
+
+    public boolean isWarningEnabled() {
+        return logger.isLoggable(Level.WARNING);
+    }
+
+    public void warning(String message) {
+        log(Level.WARNING, message, 0, null, null, null, null);
+    }
+
+    public void warning(String pattern, Object argument) {
+        log(Level.WARNING, pattern, 1, argument, null, null, null);
+    }
+
+    public void warning(String pattern, Object first, Object second) {
+        log(Level.WARNING, pattern, 2, first, second, null, null);
+    }
+
+    public void warning(String pattern, Object first, Object second, Object third) {
+        log(Level.WARNING, pattern, 3, first, second, third, null);
+    }
+
+    public void warning(String message, Throwable thrown) {
+        log(Level.WARNING, message, 0, null, null, null, thrown);
+    }
+
+    public boolean isSevereEnabled() {
+        return logger.isLoggable(Level.SEVERE);
+    }
+
+    public void severe(String message) {
+        log(Level.SEVERE, message, 0, null, null, null, null);
+    }
+
+    public void severe(String pattern, Object argument) {
+        log(Level.SEVERE, pattern, 1, argument, null, null, null);
+    }
+
+    public void severe(String pattern, Object first, Object second) {
+        log(Level.SEVERE, pattern, 2, first, second, null, null);
+    }
+
+    public void severe(String pattern, Object first, Object second, Object third) {
+        log(Level.SEVERE, pattern, 3, first, second, third, null);
+    }
+
+    public void severe(String message, Throwable thrown) {
+        log(Level.SEVERE, message, 0, null, null, null, thrown);
+    }
+
+    private void log(Level level, String pattern, int arguments, Object first, Object second, Object third,
+                     Throwable thrown) {
+        if (logger.isLoggable(level)) {
+            LogWriter.INSTANCE.enqueue(new LogEntry(logger, level, pattern, arguments,
+                    freeze(first), freeze(second), freeze(third), thrown));
+        }
+    }
+
+    private static Object freeze(Object argument) {
+        if (argument == null || argument instanceof String || argument instanceof Number
+                || argument instanceof Boolean || argument instanceof Character || argument instanceof Enum) {
+            return argument;
+        }
+        try {
+            return argument.toString();
+        } catch (RuntimeException e) {
+            return "<" + argument.getClass().getName() + ": " + e + ">";
+        }
+    }
+}
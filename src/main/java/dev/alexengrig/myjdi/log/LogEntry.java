@@ -0,0 +1,32 @@
+package dev.alexengrig.myjdi.log;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Unformatted record handed from the logging thread to the {@link LogWriter}.
+ */
+final class LogEntry {
+    final Logger logger;
+    final Level level;
+    final String pattern;
+    final int arguments;
+    final Object first;
+    final Object second;
+    final Object third;
+    final Throwable thrown;
+    final long millis;
+
+    LogEntry(Logger logger, Level level, String pattern, int arguments, Object first, Object second, Object third,
+             Throwable thrown) {
+        this.logger = logger;
+        this.level = level;
+        this.pattern = pattern;
+        this.arguments = arguments;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        this.thrown = thrown;
+        this.millis = System.currentTimeMillis();
+    }
+}
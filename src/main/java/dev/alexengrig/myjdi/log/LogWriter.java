@@ -0,0 +1,122 @@
+package dev.alexengrig.myjdi.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Background thread that formats queued {@link LogEntry}s and publishes them to {@code java.util.logging}.
+ * A full queue drops the entry rather than blocking the logging thread, drops are reported once the queue drains.
+ * A record that fails to format or publish is replaced by a placeholder, so the writer never dies on one.
+ */
+final class LogWriter {
+    static final int QUEUE_CAPACITY = Integer.getInteger("myjdi.log.queueCapacity", 8192);
+    static final LogWriter INSTANCE = new LogWriter(QUEUE_CAPACITY);
+
+    private static final Logger log = Logger.getLogger(LogWriter.class.getName());
+    private static final int BATCH_SIZE = 256;
+
+    private final BlockingQueue<LogEntry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong unreported = new AtomicLong();
+    private final StringBuilder message = new StringBuilder(256);
+    private final Thread thread;
+
+    private LogWriter(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::writeLoop, "myjdi-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "myjdi-log-flusher"));
+    }
+
+    void enqueue(LogEntry entry) {
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+            unreported.incrementAndGet();
+        }
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        List<LogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                LogEntry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    publish(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Publishes what is left in the queue on shutdown.
+     */
+    private synchronized void drain() {
+        List<LogEntry> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        publish(batch);
+    }
+
+    private synchronized void publish(List<LogEntry> batch) {
+        for (LogEntry entry : batch) {
+            try {
+                entry.logger.log(record(entry, format(entry)));
+            } catch (RuntimeException e) {
+                try {
+                    entry.logger.log(record(entry, "Unpublishable log record \"" + entry.pattern + "\": " + e));
+                } catch (RuntimeException ignored) {
+                    // the handler itself fails, nothing left to report to
+                }
+            }
+        }
+        long lost = unreported.getAndSet(0);
+        if (lost > 0) {
+            log.warning(String.format("%d log records dropped, the queue of %d was full.", lost, QUEUE_CAPACITY));
+        }
+    }
+
+    private static LogRecord record(LogEntry entry, String message) {
+        LogRecord record = new LogRecord(entry.level, message);
+        record.setLoggerName(entry.logger.getName());
+        record.setMillis(entry.millis);
+        record.setThrown(entry.thrown);
+        // the caller is not inferred, it would be this thread
+        record.setSourceClassName(entry.logger.getName());
+        record.setSourceMethodName(null);
+        return record;
+    }
+
+    /**
+     * Replaces each {@code {}} of the pattern with the next argument.
+     */
+    private String format(LogEntry entry) {
+        String pattern = entry.pattern;
+        message.setLength(0);
+        int argument = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = pattern.indexOf("{}", start)) >= 0 && argument < entry.arguments) {
+            message.append(pattern, start, placeholder);
+            message.append(argument == 0 ? entry.first : argument == 1 ? entry.second : entry.third);
+            argument++;
+            start = placeholder + 2;
+        }
+        return message.append(pattern, start, pattern.length()).toString();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.alexengrig.myjdi.profile;
+
+/**
+ * Period in which classes were prepared faster than the burst threshold.
+ */
+public final class ClassLoadingBurst {
+    private final long startNanos;
+    private final long durationNanos;
+    private final int classes;
+    private final String topPackage;
+
+    public ClassLoadingBurst(long startNanos, long durationNanos, int classes, String topPackage) {
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.classes = classes;
+        this.topPackage = topPackage;
+    }
+
+    /**
+     * Since the profiler started.
+     */
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    public int classes() {
+        return classes;
+    }
+
+    /**
+     * Package with the most classes prepared in the burst.
+     */
+    public String topPackage() {
+        return topPackage;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f ms +%.3f ms: %d classes, mostly %s",
+                startNanos / 1e6, durationNanos / 1e6, classes, topPackage);
+    }
+}
@@ -0,0 +1,425 @@
+package dev.alexengrig.myjdi.profile;
+
+import com.sun.jdi.ClassLoaderReference;
+import com.sun.jdi.ObjectCollectedException;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.EventRequestManager;
+import dev.alexengrig.myjdi.event.YouthClassPrepareEvent;
+import dev.alexengrig.myjdi.event.YouthClassUnloadEvent;
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.ByteSink;
+import dev.alexengrig.myjdi.util.JsonWriter;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records when classes are prepared and unloaded, by class loader and by package.
+ * The requests never suspend, so the debuggee loads classes at its own pace and the timestamps
+ * are taken when the debugger handles the events. Start it before the event handler to profile the startup.
+ * The timeline is kept in primitive arrays up to its capacity, the counters are kept for all events.
+ */
+public class ClassLoadingProfiler {
+    protected static final String BOOTSTRAP_LOADER = "<bootstrap>";
+    protected static final String UNKNOWN_LOADER = "<unknown>";
+    protected static final int FLUSH_SIZE = 1 << 16;
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final long burstWindowNanos;
+    protected final int burstThreshold;
+    protected final int maxEvents;
+    protected final Map<String, ClassEntry> classes = new HashMap<>();
+    protected final List<ClassEntry> classesById = new ArrayList<>();
+    protected final Map<String, Counters> packages = new HashMap<>();
+    protected final LongObjectHashMap<Counters> loadersByUniqueId = new LongObjectHashMap<>();
+    protected final List<Counters> loaders = new ArrayList<>();
+    protected final List<EventRequest> requests = new ArrayList<>();
+    protected final Counters bootstrapLoader;
+    protected final Counters unknownLoader;
+    protected long[] times = new long[1024];
+    /**
+     * Class id shifted left by one, the low bit is set for unloads.
+     */
+    protected int[] events = new int[1024];
+    protected int[] eventLoaders = new int[1024];
+    protected int eventCount;
+    protected long droppedEvents;
+    protected long prepared;
+    protected long unloaded;
+    protected long startedAt;
+    protected volatile boolean running;
+    protected boolean subscribed;
+
+    protected ClassLoadingProfiler(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.burstWindowNanos = TimeUnit.MILLISECONDS.toNanos(builder.burstWindowMillis);
+        this.burstThreshold = builder.burstThreshold;
+        this.maxEvents = builder.maxEvents;
+        this.bootstrapLoader = loader(BOOTSTRAP_LOADER);
+        this.unknownLoader = loader(UNKNOWN_LOADER);
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("The profiler is already started");
+        }
+        if (!subscribed) {
+            YouthEventSubscriptionManager subscriptionManager = virtualMachine.eventSubscriptionManager();
+            subscriptionManager.subscribeOnClassPrepare(this::onClassPrepare);
+            subscriptionManager.subscribeOnClassUnload(this::onClassUnload);
+            subscribed = true;
+        }
+        EventRequestManager requestManager = virtualMachine.eventRequestManager();
+        requests.add(requestManager.createClassPrepareRequest());
+        requests.add(requestManager.createClassUnloadRequest());
+        for (EventRequest request : requests) {
+            request.setSuspendPolicy(EventRequest.SUSPEND_NONE);
+            request.putProperty(ClassLoadingProfiler.class, this);
+            request.enable();
+        }
+        if (startedAt == 0) {
+            startedAt = System.nanoTime();
+        }
+        running = true;
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        virtualMachine.eventRequestManager().deleteEventRequests(requests);
+        requests.clear();
+    }
+
+    protected boolean isOwn(YouthEvent event) {
+        return running && event.request() != null
+                && event.request().getProperty(ClassLoadingProfiler.class) == this;
+    }
+
+    protected void onClassPrepare(YouthClassPrepareEvent event) {
+        if (!isOwn(event)) {
+            return;
+        }
+        long now = System.nanoTime();
+        ReferenceType type = event.referenceType();
+        ClassLoaderReference classLoader = null;
+        String loaderType = null;
+        boolean collected = false;
+        try {
+            classLoader = type.classLoader();
+            if (classLoader != null) {
+                loaderType = classLoader.referenceType().name();
+            }
+        } catch (ObjectCollectedException e) {
+            collected = true;
+        }
+        synchronized (this) {
+            Counters loader;
+            if (collected) {
+                loader = unknownLoader;
+            } else if (classLoader == null) {
+                loader = bootstrapLoader;
+            } else {
+                loader = loadersByUniqueId.get(classLoader.uniqueID());
+                if (loader == null) {
+                    loader = loader(loaderType + "@" + classLoader.uniqueID());
+                    loadersByUniqueId.put(classLoader.uniqueID(), loader);
+                }
+            }
+            ClassEntry entry = classEntry(type.name());
+            entry.prepared++;
+            entry.loader = loader;
+            entry.packageCounters.prepared++;
+            loader.prepared++;
+            prepared++;
+            record(now, entry.id << 1, loader.id);
+        }
+    }
+
+    protected synchronized void onClassUnload(YouthClassUnloadEvent event) {
+        if (!isOwn(event)) {
+            return;
+        }
+        long now = System.nanoTime();
+        ClassEntry entry = classEntry(event.className());
+        // the event has no loader, the class is attributed to the loader of its last preparation
+        Counters loader = entry.loader != null ? entry.loader : unknownLoader;
+        entry.unloaded++;
+        entry.packageCounters.unloaded++;
+        loader.unloaded++;
+        unloaded++;
+        record(now, entry.id << 1 | 1, loader.id);
+    }
+
+    protected void record(long now, int event, int loader) {
+        if (eventCount == maxEvents) {
+            droppedEvents++;
+            return;
+        }
+        if (eventCount == times.length) {
+            int capacity = (int) Math.min(maxEvents, (long) times.length << 1);
+            times = Arrays.copyOf(times, capacity);
+            events = Arrays.copyOf(events, capacity);
+            eventLoaders = Arrays.copyOf(eventLoaders, capacity);
+        }
+        times[eventCount] = now - startedAt;
+        events[eventCount] = event;
+        eventLoaders[eventCount] = loader;
+        eventCount++;
+    }
+
+    protected ClassEntry classEntry(String name) {
+        ClassEntry entry = classes.get(name);
+        if (entry == null) {
+            entry = new ClassEntry(classesById.size(), name, packageCounters(name));
+            classes.put(name, entry);
+            classesById.add(entry);
+        }
+        return entry;
+    }
+
+    protected Counters packageCounters(String className) {
+        int index = className.lastIndexOf('.');
+        String name = index < 0 ? "<default>" : className.substring(0, index);
+        Counters counters = packages.get(name);
+        if (counters == null) {
+            counters = new Counters(-1, name);
+            packages.put(name, counters);
+        }
+        return counters;
+    }
+
+    protected Counters loader(String name) {
+        Counters counters = new Counters(loaders.size(), name);
+        loaders.add(counters);
+        return counters;
+    }
+
+    public synchronized long prepared() {
+        return prepared;
+    }
+
+    public synchronized long unloaded() {
+        return unloaded;
+    }
+
+    /**
+     * Events not added to the full timeline, they are still counted.
+     */
+    public synchronized long droppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * Class loaders by classes prepared, most first.
+     */
+    public synchronized List<ClassLoadingStats> byLoader() {
+        List<ClassLoadingStats> stats = new ArrayList<>(loaders.size());
+        for (Counters loader : loaders) {
+            if (loader.prepared > 0 || loader.unloaded > 0) {
+                stats.add(loader.stats());
+            }
+        }
+        return sorted(stats, ClassLoadingStats::prepared, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Packages by classes prepared, most first.
+     */
+    public synchronized List<ClassLoadingStats> byPackage(int limit) {
+        List<ClassLoadingStats> stats = new ArrayList<>(packages.size());
+        for (Counters counters : packages.values()) {
+            stats.add(counters.stats());
+        }
+        return sorted(stats, ClassLoadingStats::prepared, limit);
+    }
+
+    /**
+     * Class names unloaded and prepared again, a sign of leaking or regenerated classes
+     * churning the metaspace, by the number of unloads, most first.
+     */
+    public synchronized List<ClassLoadingStats> churn(int limit) {
+        List<ClassLoadingStats> stats = new ArrayList<>();
+        for (ClassEntry entry : classesById) {
+            if (entry.unloaded > 0 && entry.prepared > 1) {
+                stats.add(new ClassLoadingStats(entry.name, entry.prepared, entry.unloaded));
+            }
+        }
+        return sorted(stats, ClassLoadingStats::unloaded, limit);
+    }
+
+    protected static List<ClassLoadingStats> sorted(List<ClassLoadingStats> stats,
+                                                    ToLongFunction<ClassLoadingStats> weight, int limit) {
+        stats.sort(Comparator.comparingLong(weight).reversed());
+        return stats.size() > limit ? new ArrayList<>(stats.subList(0, limit)) : stats;
+    }
+
+    /**
+     * Periods of the timeline where the burst threshold of classes was prepared within the burst window,
+     * overlapping windows are merged.
+     */
+    public synchronized List<ClassLoadingBurst> bursts() {
+        int[] prepares = new int[eventCount];
+        int count = 0;
+        for (int i = 0; i < eventCount; i++) {
+            if ((events[i] & 1) == 0) {
+                prepares[count++] = i;
+            }
+        }
+        List<ClassLoadingBurst> bursts = new ArrayList<>();
+        int first = 0;
+        int burstStart = -1;
+        int burstEnd = -1;
+        for (int last = 0; last < count; last++) {
+            while (times[prepares[last]] - times[prepares[first]] > burstWindowNanos) {
+                first++;
+            }
+            if (last - first + 1 >= burstThreshold) {
+                if (burstStart >= 0 && first <= burstEnd) {
+                    burstEnd = last;
+                } else {
+                    if (burstStart >= 0) {
+                        bursts.add(burst(prepares, burstStart, burstEnd));
+                    }
+                    burstStart = first;
+                    burstEnd = last;
+                }
+            }
+        }
+        if (burstStart >= 0) {
+            bursts.add(burst(prepares, burstStart, burstEnd));
+        }
+        return bursts;
+    }
+
+    protected ClassLoadingBurst burst(int[] prepares, int from, int to) {
+        Map<Counters, Integer> counts = new HashMap<>();
+        Counters top = null;
+        int topCount = 0;
+        for (int i = from; i <= to; i++) {
+            Counters counters = classesById.get(events[prepares[i]] >>> 1).packageCounters;
+            int packageCount = counts.merge(counters, 1, Integer::sum);
+            if (packageCount > topCount) {
+                top = counters;
+                topCount = packageCount;
+            }
+        }
+        long start = times[prepares[from]];
+        return new ClassLoadingBurst(start, times[prepares[to]] - start, to - from + 1,
+                top == null ? null : top.name);
+    }
+
+    /**
+     * Writes the timeline as JSON Lines:
+     * {@code {"t":<nanos since start>,"kind":"prepare|unload","class":"..","loader":".."}}.
+     */
+    public synchronized void writeTimeline(Path path) throws IOException {
+        ByteSink sink = new ByteSink(FLUSH_SIZE + 1024);
+        JsonWriter json = new JsonWriter(sink);
+        try (OutputStream output = Files.newOutputStream(path)) {
+            for (int i = 0; i < eventCount; i++) {
+                json.beginObject()
+                        .name("t").value(times[i])
+                        .name("kind").value((events[i] & 1) == 0 ? "prepare" : "unload")
+                        .name("class").value(classesById.get(events[i] >>> 1).name)
+                        .name("loader").value(loaders.get(eventLoaders[i]).name)
+                        .endObject().newLine();
+                if (sink.size() >= FLUSH_SIZE) {
+                    output.write(sink.array(), 0, sink.size());
+                    sink.reset();
+                }
+            }
+            output.write(sink.array(), 0, sink.size());
+        }
+    }
+
+    protected static class Counters {
+        protected final int id;
+        protected final String name;
+        protected long prepared;
+        protected long unloaded;
+
+        protected Counters(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        protected ClassLoadingStats stats() {
+            return new ClassLoadingStats(name, prepared, unloaded);
+        }
+    }
+
+    protected static class ClassEntry {
+        protected final int id;
+        protected final String name;
+        protected final Counters packageCounters;
+        protected Counters loader;
+        protected int prepared;
+        protected int unloaded;
+
+        protected ClassEntry(int id, String name, Counters packageCounters) {
+            this.id = id;
+            this.name = name;
+            this.packageCounters = packageCounters;
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected long burstWindowMillis = 100;
+        protected int burstThreshold = 200;
+        protected int maxEvents = 1 << 20;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        public Builder burstWindowMillis(long value) {
+            this.burstWindowMillis = value;
+            return this;
+        }
+
+        /**
+         * Classes prepared within the burst window that make a burst.
+         */
+        public Builder burstThreshold(int value) {
+            this.burstThreshold = value;
+            return this;
+        }
+
+        /**
+         * Capacity of the timeline.
+         */
+        public Builder maxEvents(int value) {
+            this.maxEvents = value;
+            return this;
+        }
+
+        public ClassLoadingProfiler build() {
+            if (burstWindowMillis <= 0) {
+                throw new IllegalArgumentException("Burst window must be positive: " + burstWindowMillis);
+            }
+            if (burstThreshold <= 0) {
+                throw new IllegalArgumentException("Burst threshold must be positive: " + burstThreshold);
+            }
+            if (maxEvents <= 0) {
+                throw new IllegalArgumentException("Max events must be positive: " + maxEvents);
+            }
+            return new ClassLoadingProfiler(this);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package dev.alexengrig.myjdi.profile;
+
+/**
+ * Classes prepared and unloaded by a class loader, in a package or under one class name.
+ */
+public final class ClassLoadingStats {
+    private final String name;
+    private final long prepared;
+    private final long unloaded;
+
+    public ClassLoadingStats(String name, long prepared, long unloaded) {
+        this.name = name;
+        this.prepared = prepared;
+        this.unloaded = unloaded;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long prepared() {
+        return prepared;
+    }
+
+    public long unloaded() {
+        return unloaded;
+    }
+
+    public long live() {
+        return prepared - unloaded;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: prepared %d, unloaded %d", name, prepared, unloaded);
+    }
+}
@@ -0,0 +1,75 @@
+package dev.alexengrig.myjdi.profile;
+
+import com.sun.jdi.Location;
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.snapshot.MethodIdentity;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns stack frames into dense ids, by method or by method and line.
+ * Not thread-safe, a profiler folds stacks on a single thread.
+ */
+public class FrameTable {
+    protected final IdentityTable identities;
+    protected final boolean lineNumbers;
+    protected final LongLongHashMap idsByKey = new LongLongHashMap(1024);
+    protected final Map<String, Integer> syntheticIds = new HashMap<>();
+    protected final List<String> names = new ArrayList<>();
+
+    public FrameTable(boolean lineNumbers) {
+        this(new IdentityTable(), lineNumbers);
+    }
+
+    public FrameTable(IdentityTable identities, boolean lineNumbers) {
+        this.identities = identities;
+        this.lineNumbers = lineNumbers;
+    }
+
+    public int intern(Location location) {
+        MethodIdentity method = identities.internMethod(location.method());
+        int line = lineNumbers ? location.lineNumber() : 0;
+        return intern(method, line);
+    }
+
+    public int intern(MethodIdentity method, int line) {
+        long key = (long) method.id() << 32 | (line & 0xFFFFFFFFL);
+        long id = idsByKey.get(key, -1);
+        if (id < 0) {
+            id = names.size();
+            idsByKey.put(key, id);
+            String name = method.declaringType().name() + "." + method.name();
+            names.add(lineNumbers ? name + ":" + line : name);
+        }
+        return (int) id;
+    }
+
+    /**
+     * Interns a synthetic frame, like a thread name at the root of its stacks.
+     */
+    public int intern(String name) {
+        Integer id = syntheticIds.get(name);
+        if (id == null) {
+            id = names.size();
+            syntheticIds.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    public String name(int frame) {
+        return names.get(frame);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public IdentityTable identities() {
+        return identities;
+    }
+}
@@ -0,0 +1,41 @@
+package dev.alexengrig.myjdi.profile;
+
+/**
+ * Aggregated timing of one method.
+ * Inclusive time counts only the outermost activation of a recursive method.
+ */
+public final class MethodTiming {
+    private final String method;
+    private final long calls;
+    private final long inclusiveNanos;
+    private final long exclusiveNanos;
+
+    public MethodTiming(String method, long calls, long inclusiveNanos, long exclusiveNanos) {
+        this.method = method;
+        this.calls = calls;
+        this.inclusiveNanos = inclusiveNanos;
+        this.exclusiveNanos = exclusiveNanos;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public long calls() {
+        return calls;
+    }
+
+    public long inclusiveNanos() {
+        return inclusiveNanos;
+    }
+
+    public long exclusiveNanos() {
+        return exclusiveNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, inclusive %.3f ms, exclusive %.3f ms",
+                method, calls, inclusiveNanos / 1e6, exclusiveNanos / 1e6);
+    }
+}
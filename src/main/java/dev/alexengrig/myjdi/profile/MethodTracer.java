@@ -0,0 +1,293 @@
+package dev.alexengrig.myjdi.profile;
+
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.EventRequestManager;
+import com.sun.jdi.request.MethodEntryRequest;
+import com.sun.jdi.request.MethodExitRequest;
+import dev.alexengrig.myjdi.event.YouthMethodEntryEvent;
+import dev.alexengrig.myjdi.event.YouthMethodExitEvent;
+import dev.alexengrig.myjdi.event.YouthThreadDeathEvent;
+import dev.alexengrig.myjdi.filter.ClassExclusionFilter;
+import dev.alexengrig.myjdi.filter.ClassPatternFilter;
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Pairs method entry and exit events on per-thread shadow stacks and aggregates call counts,
+ * inclusive and exclusive time per method and per call path. Nothing is kept per event.
+ * Class filters go to the JDI requests, so filtered methods never reach the debugger.
+ * JDI combines the filters of one request with AND, so each include pattern gets its own pair of entry
+ * and exit requests carrying every exclusion; patterns covered by a wider prefix pattern are dropped,
+ * other overlapping patterns report the methods they share twice.
+ * <p>
+ * Times are taken when the debugger handles an event, so with the default {@link EventRequest#SUSPEND_NONE}
+ * they include delivery jitter but not debugger pauses of the debuggee.
+ */
+public class MethodTracer {
+    protected final YouthVirtualMachine virtualMachine;
+    protected final List<String> classPatterns;
+    protected final List<String> classExclusions;
+    protected final int suspendPolicy;
+    protected final IdentityTable identities = new IdentityTable();
+    protected final FrameTable frameTable = new FrameTable(identities, false);
+    protected final StackTree tree = new StackTree();
+    protected final LongLongHashMap calls = new LongLongHashMap(1024);
+    protected final LongLongHashMap inclusiveNanos = new LongLongHashMap(1024);
+    protected final LongLongHashMap exclusiveNanos = new LongLongHashMap(1024);
+    protected final LongObjectHashMap<ShadowStack> stacks = new LongObjectHashMap<>();
+    protected final List<EventRequest> requests = new ArrayList<>();
+    protected volatile boolean running;
+    protected boolean subscribed;
+
+    protected MethodTracer(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.classPatterns = new ArrayList<>(builder.getClassPatterns());
+        this.classExclusions = new ArrayList<>(builder.classExclusions);
+        this.suspendPolicy = builder.suspendPolicy;
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("The tracer is already started");
+        }
+        if (!subscribed) {
+            YouthEventSubscriptionManager subscriptionManager = virtualMachine.eventSubscriptionManager();
+            subscriptionManager.subscribeOnMethodEntry(this::onEntry);
+            subscriptionManager.subscribeOnMethodExit(this::onExit);
+            subscriptionManager.subscribeOnThreadDeath(this::onThreadDeath);
+            subscribed = true;
+        }
+        EventRequestManager requestManager = virtualMachine.eventRequestManager();
+        List<String> patterns = widestPatterns(classPatterns);
+        // no pattern traces every class
+        if (patterns.isEmpty()) {
+            patterns.add(null);
+        }
+        for (String pattern : patterns) {
+            MethodEntryRequest entryRequest = requestManager.createMethodEntryRequest();
+            MethodExitRequest exitRequest = requestManager.createMethodExitRequest();
+            if (pattern != null) {
+                entryRequest.addClassFilter(pattern);
+                exitRequest.addClassFilter(pattern);
+            }
+            for (String exclusion : classExclusions) {
+                entryRequest.addClassExclusionFilter(exclusion);
+                exitRequest.addClassExclusionFilter(exclusion);
+            }
+            requests.add(entryRequest);
+            requests.add(exitRequest);
+        }
+        for (EventRequest request : requests) {
+            request.setSuspendPolicy(suspendPolicy);
+            request.putProperty(MethodTracer.class, this);
+            request.enable();
+        }
+        running = true;
+    }
+
+    /**
+     * Deletes the requests, calls still open are dropped.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        virtualMachine.eventRequestManager().deleteEventRequests(requests);
+        requests.clear();
+        stacks.clear();
+    }
+
+    /**
+     * Patterns without duplicates and without the ones a prefix pattern like {@code "a.*"} already covers.
+     */
+    protected static List<String> widestPatterns(List<String> patterns) {
+        List<String> widest = new ArrayList<>();
+        for (String pattern : new LinkedHashSet<>(patterns)) {
+            boolean covered = false;
+            for (String other : patterns) {
+                if (!other.equals(pattern) && other.endsWith("*")
+                        && pattern.startsWith(other.substring(0, other.length() - 1))) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                widest.add(pattern);
+            }
+        }
+        return widest;
+    }
+
+    protected synchronized void onEntry(YouthMethodEntryEvent event) {
+        if (!running || event.request() == null || event.request().getProperty(MethodTracer.class) != this) {
+            return;
+        }
+        long now = System.nanoTime();
+        long threadId = event.thread().uniqueID();
+        ShadowStack stack = stacks.get(threadId);
+        if (stack == null) {
+            stack = new ShadowStack();
+            stacks.put(threadId, stack);
+        }
+        int frame = frameTable.intern(identities.internMethod(event.method()), 0);
+        int parent = stack.depth == 0 ? 0 : stack.nodes[stack.depth - 1];
+        int node = tree.child(parent, frame);
+        tree.addCount(node, 1);
+        stack.push(frame, node, now);
+    }
+
+    /**
+     * Exits of calls entered before the tracer started are ignored. Calls above the exiting one
+     * had no exit of their own, they were unwound by an exception and end now too.
+     */
+    protected synchronized void onExit(YouthMethodExitEvent event) {
+        if (!running || event.request() == null || event.request().getProperty(MethodTracer.class) != this) {
+            return;
+        }
+        long now = System.nanoTime();
+        ShadowStack stack = stacks.get(event.thread().uniqueID());
+        if (stack == null) {
+            return;
+        }
+        int frame = frameTable.intern(identities.internMethod(event.method()), 0);
+        int index = stack.lastIndexOf(frame);
+        if (index < 0) {
+            return;
+        }
+        while (stack.depth > index) {
+            int top = --stack.depth;
+            long elapsed = now - stack.starts[top];
+            long exclusive = elapsed - stack.childNanos[top];
+            int topFrame = stack.frames[top];
+            calls.addTo(topFrame, 1);
+            exclusiveNanos.addTo(topFrame, exclusive);
+            if (stack.lastIndexOf(topFrame, top) < 0) {
+                inclusiveNanos.addTo(topFrame, elapsed);
+            }
+            tree.addTotal(stack.nodes[top], elapsed);
+            tree.addSelf(stack.nodes[top], exclusive);
+            if (top > 0) {
+                stack.childNanos[top - 1] += elapsed;
+            }
+        }
+    }
+
+    protected synchronized void onThreadDeath(YouthThreadDeathEvent event) {
+        stacks.remove(event.thread().uniqueID());
+    }
+
+    /**
+     * Timings of completed calls, by exclusive time descending.
+     */
+    public synchronized List<MethodTiming> methodTimings() {
+        List<MethodTiming> timings = new ArrayList<>(calls.size());
+        calls.forEach((frame, count) -> timings.add(new MethodTiming(frameTable.name((int) frame), count,
+                inclusiveNanos.get(frame, 0), exclusiveNanos.get(frame, 0))));
+        timings.sort(Comparator.comparingLong(MethodTiming::exclusiveNanos).reversed());
+        return timings;
+    }
+
+    /**
+     * Writes the call tree as indented lines of method, calls, inclusive and exclusive milliseconds.
+     */
+    public synchronized void writeCallTree(Writer writer) throws IOException {
+        int size = tree.size();
+        int[] childCounts = new int[size + 1];
+        for (int node = 1; node < size; node++) {
+            childCounts[tree.parent(node) + 1]++;
+        }
+        for (int i = 1; i <= size; i++) {
+            childCounts[i] += childCounts[i - 1];
+        }
+        int[] children = new int[size];
+        int[] fill = Arrays.copyOf(childCounts, size);
+        for (int node = 1; node < size; node++) {
+            children[fill[tree.parent(node)]++] = node;
+        }
+        Deque<long[]> pending = new ArrayDeque<>();
+        for (int i = childCounts[1] - 1; i >= childCounts[0]; i--) {
+            pending.push(new long[]{children[i], 0});
+        }
+        StringBuilder line = new StringBuilder();
+        while (!pending.isEmpty()) {
+            long[] item = pending.pop();
+            int node = (int) item[0];
+            int depth = (int) item[1];
+            line.setLength(0);
+            for (int i = 0; i < depth; i++) {
+                line.append("  ");
+            }
+            line.append(frameTable.name(tree.frame(node)))
+                    .append(String.format(" calls=%d inclusive=%.3fms exclusive=%.3fms%n",
+                            tree.count(node), tree.totalWeight(node) / 1e6, tree.selfWeight(node) / 1e6));
+            writer.append(line);
+            for (int i = childCounts[node + 1] - 1; i >= childCounts[node]; i--) {
+                pending.push(new long[]{children[i], depth + 1});
+            }
+        }
+    }
+
+    /**
+     * Writes the call tree in the collapsed-stack format with exclusive nanoseconds as weights.
+     */
+    public synchronized void writeCollapsed(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            tree.writeCollapsed(frameTable, writer);
+        }
+    }
+
+    public static class Builder extends ClassPatternFilter implements ClassExclusionFilter {
+        protected final YouthVirtualMachine virtualMachine;
+        protected final List<String> classExclusions = new ArrayList<>();
+        protected int suspendPolicy = EventRequest.SUSPEND_NONE;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        @Override
+        public void addClassExclusionFilter(String classPattern) {
+            classExclusions.add(classPattern);
+        }
+
+        @Override
+        public void addClassExclusionFilters(Collection<String> classPatterns) {
+            classExclusions.addAll(classPatterns);
+        }
+
+        public Builder include(String... classPatterns) {
+            addClassFilters(Arrays.asList(classPatterns));
+            return this;
+        }
+
+        public Builder exclude(String... classPatterns) {
+            addClassExclusionFilters(Arrays.asList(classPatterns));
+            return this;
+        }
+
+        public Builder suspendPolicy(int value) {
+            this.suspendPolicy = value;
+            return this;
+        }
+
+        public MethodTracer build() {
+            return new MethodTracer(this);
+        }
+    }
+}
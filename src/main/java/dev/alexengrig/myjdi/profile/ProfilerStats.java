@@ -0,0 +1,87 @@
+package dev.alexengrig.myjdi.profile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a sampling session, both on the debugger side and as time the debuggee threads spent suspended.
+ */
+public final class ProfilerStats {
+    private final long elapsedNanos;
+    private final long ticks;
+    private final long missedTicks;
+    private final long samples;
+    private final long tickNanos;
+    private final long maxTickNanos;
+    private final long suspendedNanos;
+    private final long maxSuspendedNanos;
+
+    ProfilerStats(long elapsedNanos, long ticks, long missedTicks, long samples,
+                  long tickNanos, long maxTickNanos, long suspendedNanos, long maxSuspendedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        this.ticks = ticks;
+        this.missedTicks = missedTicks;
+        this.samples = samples;
+        this.tickNanos = tickNanos;
+        this.maxTickNanos = maxTickNanos;
+        this.suspendedNanos = suspendedNanos;
+        this.maxSuspendedNanos = maxSuspendedNanos;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    /**
+     * Ticks skipped because the previous one took longer than the sampling period.
+     */
+    public long missedTicks() {
+        return missedTicks;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public double meanTickNanos() {
+        return ticks == 0 ? 0 : (double) tickNanos / ticks;
+    }
+
+    public long maxTickNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * Mean time a sampled thread stays suspended for one sample.
+     */
+    public double meanSuspendedNanos() {
+        return samples == 0 ? 0 : (double) suspendedNanos / samples;
+    }
+
+    public long maxSuspendedNanos() {
+        return maxSuspendedNanos;
+    }
+
+    /**
+     * Share of the sampled threads' wall time spent suspended by sampling, the debuggee slowdown it causes.
+     */
+    public double debuggeeOverhead() {
+        if (samples == 0 || elapsedNanos == 0) {
+            return 0;
+        }
+        double threadsPerTick = (double) samples / ticks;
+        return suspendedNanos / (elapsedNanos * threadsPerTick);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d samples in %d ticks (%d missed) over %d ms; tick mean %.1f us, max %.1f us; "
+                        + "suspension mean %.1f us, max %.1f us; debuggee overhead %.2f%%",
+                samples, ticks, missedTicks, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                meanTickNanos() / 1e3, maxTickNanos / 1e3,
+                meanSuspendedNanos() / 1e3, maxSuspendedNanos / 1e3, debuggeeOverhead() * 100);
+    }
+}
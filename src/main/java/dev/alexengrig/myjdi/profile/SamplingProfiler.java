@@ -0,0 +1,315 @@
+package dev.alexengrig.myjdi.profile;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Samples debuggee stacks at a fixed rate without any event requests.
+ * Each tick suspends only the threads in the wanted states, each one on its own and in parallel,
+ * fetches their top frames and resumes them; the stacks are folded into a {@link StackTree} of sample counts.
+ */
+public class SamplingProfiler {
+    private static final Log log = Log.getLog(SamplingProfiler.class);
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final long periodNanos;
+    protected final int parallelism;
+    protected final int statusMask;
+    protected final Predicate<ThreadReference> threadFilter;
+    protected final int maxDepth;
+    protected final boolean threadRoots;
+    protected final long threadRefreshNanos;
+    protected final FrameTable frameTable;
+    protected final StackTree tree = new StackTree();
+    protected final AtomicLong suspendedNanos = new AtomicLong();
+    protected final AtomicLong maxSuspendedNanos = new AtomicLong();
+    protected ScheduledExecutorService scheduler;
+    protected ExecutorService fetchers;
+    protected volatile ScheduledFuture<?> task;
+    protected List<ThreadReference> threads = new ArrayList<>();
+    protected long threadsRefreshed;
+    protected int[] stack = new int[256];
+    protected long startedAt;
+    protected long stoppedAt;
+    protected long ticks;
+    protected long missedTicks;
+    protected long samples;
+    protected long tickNanos;
+    protected long maxTickNanos;
+
+    protected SamplingProfiler(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.periodNanos = TimeUnit.SECONDS.toNanos(1) / builder.frequency;
+        this.parallelism = builder.parallelism;
+        this.statusMask = builder.statusMask;
+        this.threadFilter = builder.threadFilter;
+        this.maxDepth = builder.maxDepth;
+        this.threadRoots = builder.threadRoots;
+        this.threadRefreshNanos = TimeUnit.MILLISECONDS.toNanos(builder.threadRefreshMillis);
+        this.frameTable = new FrameTable(builder.lineNumbers);
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("The profiler is already started");
+        }
+        fetchers = Executors.newFixedThreadPool(parallelism, Concurrency.daemonThreadFactory("myjdi-sampler-fetcher-"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(Concurrency.daemonThreadFactory("myjdi-sampler-"));
+        startedAt = System.nanoTime();
+        task = scheduler.scheduleAtFixedRate(this::tick, 0, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops sampling and logs the session statistics.
+     */
+    public void stop() throws InterruptedException {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = scheduler;
+            if (stopping == null) {
+                return;
+            }
+            stopping.shutdown();
+        }
+        stopping.awaitTermination(1, TimeUnit.MINUTES);
+        fetchers.shutdownNow();
+        synchronized (this) {
+            stoppedAt = System.nanoTime();
+            scheduler = null;
+        }
+        log.info("Sampling stopped: {}", stats());
+    }
+
+    protected void tick() {
+        long start = System.nanoTime();
+        try {
+            if (start - threadsRefreshed >= threadRefreshNanos) {
+                threads = virtualMachine.allThreads();
+                threadsRefreshed = start;
+            }
+            List<Future<Location[]>> futures = new ArrayList<>(threads.size());
+            List<ThreadReference> sampled = new ArrayList<>(threads.size());
+            for (ThreadReference thread : threads) {
+                if (threadFilter.test(thread)) {
+                    futures.add(fetchers.submit(() -> sample(thread)));
+                    sampled.add(thread);
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Location[] locations = futures.get(i).get();
+                if (locations != null) {
+                    fold(sampled.get(i), locations);
+                }
+            }
+        } catch (VMDisconnectedException e) {
+            log.info("VM is disconnected, sampling is stopped.");
+            task.cancel(false);
+        } catch (InterruptedException | RejectedExecutionException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof VMDisconnectedException) {
+                log.info("VM is disconnected, sampling is stopped.");
+                task.cancel(false);
+            } else {
+                log.warning("Sampling failed.", e.getCause());
+            }
+        } finally {
+            long duration = System.nanoTime() - start;
+            synchronized (this) {
+                ticks++;
+                tickNanos += duration;
+                maxTickNanos = Math.max(maxTickNanos, duration);
+                missedTicks += duration / periodNanos;
+            }
+        }
+    }
+
+    /**
+     * Suspends only this thread and only if it is in a wanted state.
+     *
+     * @return frame locations top first or {@code null} if the thread was skipped
+     */
+    protected Location[] sample(ThreadReference thread) {
+        try {
+            int status = thread.status();
+            if (status < 0 || (statusMask & 1 << status) == 0) {
+                return null;
+            }
+            long start = System.nanoTime();
+            thread.suspend();
+            try {
+                int count = thread.frameCount();
+                if (count == 0) {
+                    return null;
+                }
+                List<StackFrame> frames = thread.frames(0, maxDepth > 0 ? Math.min(count, maxDepth) : count);
+                Location[] locations = new Location[frames.size()];
+                for (int i = 0; i < locations.length; i++) {
+                    locations[i] = frames.get(i).location();
+                }
+                return locations;
+            } finally {
+                thread.resume();
+                long suspended = System.nanoTime() - start;
+                suspendedNanos.addAndGet(suspended);
+                maxSuspendedNanos.accumulateAndGet(suspended, Math::max);
+            }
+        } catch (IncompatibleThreadStateException | ObjectCollectedException | IllegalThreadStateException e) {
+            // the thread finished or is not started
+            return null;
+        }
+    }
+
+    protected synchronized void fold(ThreadReference thread, Location[] locations) {
+        int length = locations.length + (threadRoots ? 1 : 0);
+        if (length > stack.length) {
+            stack = new int[Math.max(length, stack.length << 1)];
+        }
+        int position = 0;
+        if (threadRoots) {
+            stack[position++] = frameTable.intern(threadName(thread));
+        }
+        for (int i = locations.length - 1; i >= 0; i--) {
+            stack[position++] = frameTable.intern(locations[i]);
+        }
+        tree.add(stack, length, 1);
+        samples++;
+    }
+
+    protected String threadName(ThreadReference thread) {
+        try {
+            return thread.name();
+        } catch (ObjectCollectedException e) {
+            return "<collected>";
+        }
+    }
+
+    public synchronized ProfilerStats stats() {
+        long end = scheduler != null || stoppedAt == 0 ? System.nanoTime() : stoppedAt;
+        return new ProfilerStats(startedAt == 0 ? 0 : end - startedAt, ticks, missedTicks, samples,
+                tickNanos, maxTickNanos, suspendedNanos.get(), maxSuspendedNanos.get());
+    }
+
+    public synchronized void writeCollapsed(Writer writer) throws IOException {
+        tree.writeCollapsed(frameTable, writer);
+    }
+
+    public void writeCollapsed(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeCollapsed(writer);
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected int frequency = 100;
+        protected int parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        protected int statusMask = 1 << ThreadReference.THREAD_STATUS_RUNNING;
+        protected Predicate<ThreadReference> threadFilter = thread -> true;
+        protected int maxDepth = 128;
+        protected boolean lineNumbers;
+        protected boolean threadRoots;
+        protected long threadRefreshMillis = 1000;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        /**
+         * Samples per second.
+         */
+        public Builder frequency(int value) {
+            this.frequency = value;
+            return this;
+        }
+
+        /**
+         * Threads fetching stacks concurrently.
+         */
+        public Builder parallelism(int value) {
+            this.parallelism = value;
+            return this;
+        }
+
+        /**
+         * Thread states to sample, {@link ThreadReference#THREAD_STATUS_RUNNING} by default.
+         */
+        public Builder statuses(int... values) {
+            int mask = 0;
+            for (int status : values) {
+                if (status < 0 || status > 30) {
+                    throw new IllegalArgumentException("Unexpected thread status: " + status);
+                }
+                mask |= 1 << status;
+            }
+            this.statusMask = mask;
+            return this;
+        }
+
+        public Builder threadFilter(Predicate<ThreadReference> value) {
+            this.threadFilter = Objects.requireNonNull(value, "The thread filter must not be null");
+            return this;
+        }
+
+        /**
+         * Top frames taken per sample, zero takes the whole stack.
+         */
+        public Builder maxDepth(int value) {
+            this.maxDepth = value;
+            return this;
+        }
+
+        /**
+         * Frames per line instead of per method.
+         */
+        public Builder lineNumbers(boolean value) {
+            this.lineNumbers = value;
+            return this;
+        }
+
+        /**
+         * Roots each stack at a frame named after its thread.
+         */
+        public Builder threadRoots(boolean value) {
+            this.threadRoots = value;
+            return this;
+        }
+
+        public Builder threadRefreshMillis(long value) {
+            this.threadRefreshMillis = value;
+            return this;
+        }
+
+        public SamplingProfiler build() {
+            if (frequency <= 0 || frequency > 10_000) {
+                throw new IllegalArgumentException("Frequency must be in 1..10000 Hz: " + frequency);
+            }
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+            }
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+            }
+            return new SamplingProfiler(this);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.alexengrig.myjdi.profile;
+
+import java.util.Arrays;
+
+/**
+ * Active calls of one thread in parallel primitive arrays, innermost last.
+ */
+final class ShadowStack {
+    int[] frames = new int[64];
+    int[] nodes = new int[64];
+    long[] starts = new long[64];
+    long[] childNanos = new long[64];
+    int depth;
+
+    void push(int frame, int node, long start) {
+        if (depth == frames.length) {
+            int length = depth << 1;
+            frames = Arrays.copyOf(frames, length);
+            nodes = Arrays.copyOf(nodes, length);
+            starts = Arrays.copyOf(starts, length);
+            childNanos = Arrays.copyOf(childNanos, length);
+        }
+        frames[depth] = frame;
+        nodes[depth] = node;
+        starts[depth] = start;
+        childNanos[depth] = 0;
+        depth++;
+    }
+
+    /**
+     * @return index of the innermost call of the frame or {@code -1}
+     */
+    int lastIndexOf(int frame) {
+        return lastIndexOf(frame, depth);
+    }
+
+    int lastIndexOf(int frame, int below) {
+        for (int i = below - 1; i >= 0; i--) {
+            if (frames[i] == frame) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
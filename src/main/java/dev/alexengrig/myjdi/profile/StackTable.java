@@ -0,0 +1,110 @@
+package dev.alexengrig.myjdi.profile;
+
+import java.util.Arrays;
+
+/**
+ * Hash-consed table of stacks of frame ids: equal stacks share one dense id and one copy of their frames.
+ * Frames of all stacks live in a single pool, so a stack costs no objects. Not thread-safe.
+ */
+public class StackTable {
+    protected final int maxStacks;
+    protected int[] pool = new int[1024];
+    protected int poolSize;
+    protected int[] offsets = new int[65];
+    protected int[] hashes = new int[64];
+    /**
+     * Open-addressing table of stack ids plus one, zero is a free slot.
+     */
+    protected int[] slots = new int[128];
+    protected int size;
+
+    public StackTable(int maxStacks) {
+        this.maxStacks = maxStacks;
+    }
+
+    /**
+     * @param frames frame ids, outermost or innermost first as long as the caller is consistent
+     * @return id of the stack or {@code -1} if the table is full
+     */
+    public int intern(int[] frames, int length) {
+        int hash = hash(frames, length);
+        int mask = slots.length - 1;
+        int index = hash & mask;
+        while (slots[index] != 0) {
+            int id = slots[index] - 1;
+            if (hashes[id] == hash && equals(id, frames, length)) {
+                return id;
+            }
+            index = (index + 1) & mask;
+        }
+        if (size == maxStacks) {
+            return -1;
+        }
+        int id = size++;
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size << 1);
+            offsets = Arrays.copyOf(offsets, (size << 1) + 1);
+        }
+        if (poolSize + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(poolSize + length, pool.length << 1));
+        }
+        System.arraycopy(frames, 0, pool, poolSize, length);
+        poolSize += length;
+        offsets[id + 1] = poolSize;
+        hashes[id] = hash;
+        slots[index] = id + 1;
+        if (size << 1 > slots.length) {
+            rehash(slots.length << 1);
+        }
+        return id;
+    }
+
+    protected void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int index = hashes[id] & mask;
+            while (slots[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            slots[index] = id + 1;
+        }
+    }
+
+    protected boolean equals(int id, int[] frames, int length) {
+        int offset = offsets[id];
+        if (offsets[id + 1] - offset != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (pool[offset + i] != frames[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static int hash(int[] frames, int length) {
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + frames[i];
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    public int length(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    public int frame(int id, int index) {
+        return pool[offsets[id] + index];
+    }
+
+    public int[] frames(int id) {
+        return Arrays.copyOfRange(pool, offsets[id], offsets[id + 1]);
+    }
+
+    public int size() {
+        return size;
+    }
+}
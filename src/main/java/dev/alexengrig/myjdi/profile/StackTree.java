@@ -0,0 +1,137 @@
+package dev.alexengrig.myjdi.profile;
+
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Tree of stacks of interned frames with a self and a total weight per node, e.g. sample counts or nanoseconds,
+ * and a count of how often each node was entered.
+ * Node 0 is the root, children are found by {@code (parent << 32) | frame} in a primitive map.
+ */
+public class StackTree {
+    protected final LongLongHashMap children = new LongLongHashMap(1024);
+    protected int[] parents = new int[1024];
+    protected int[] frames = new int[1024];
+    protected long[] selfWeights = new long[1024];
+    protected long[] totalWeights = new long[1024];
+    protected long[] counts = new long[1024];
+    protected int size = 1;
+
+    public StackTree() {
+        parents[0] = -1;
+        frames[0] = -1;
+    }
+
+    /**
+     * Adds the weight to the stack given root first.
+     *
+     * @return node of the stack's top frame
+     */
+    public int add(int[] stack, int length, long weight) {
+        int node = 0;
+        totalWeights[0] += weight;
+        for (int i = 0; i < length; i++) {
+            node = child(node, stack[i]);
+            totalWeights[node] += weight;
+        }
+        selfWeights[node] += weight;
+        return node;
+    }
+
+    /**
+     * Child of the node for the frame, created with zero weights if absent.
+     */
+    public int child(int node, int frame) {
+        long key = (long) node << 32 | (frame & 0xFFFFFFFFL);
+        long child = children.get(key, -1);
+        if (child < 0) {
+            child = size;
+            ensureCapacity(size + 1);
+            parents[size] = node;
+            frames[size] = frame;
+            size++;
+            children.put(key, child);
+        }
+        return (int) child;
+    }
+
+    public void addSelf(int node, long weight) {
+        selfWeights[node] += weight;
+    }
+
+    public void addTotal(int node, long weight) {
+        totalWeights[node] += weight;
+    }
+
+    public void addCount(int node, long count) {
+        counts[node] += count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    public int frame(int node) {
+        return frames[node];
+    }
+
+    public long selfWeight(int node) {
+        return selfWeights[node];
+    }
+
+    public long totalWeight(int node) {
+        return totalWeights[node];
+    }
+
+    public long count(int node) {
+        return counts[node];
+    }
+
+    /**
+     * Writes the collapsed-stack format of flame graph tools: one {@code frame;frame;frame weight} line
+     * per node with a self weight.
+     */
+    public void writeCollapsed(FrameTable frameTable, Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        int[] path = new int[64];
+        for (int node = 1; node < size; node++) {
+            if (selfWeights[node] == 0) {
+                continue;
+            }
+            int depth = 0;
+            for (int current = node; current > 0; current = parents[current]) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth << 1);
+                }
+                path[depth++] = frames[current];
+            }
+            line.setLength(0);
+            for (int i = depth - 1; i >= 0; i--) {
+                line.append(frameTable.name(path[i]));
+                if (i > 0) {
+                    line.append(';');
+                }
+            }
+            line.append(' ').append(selfWeights[node]).append('\n');
+            writer.append(line);
+        }
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > parents.length) {
+            int length = parents.length << 1;
+            parents = Arrays.copyOf(parents, length);
+            frames = Arrays.copyOf(frames, length);
+            selfWeights = Arrays.copyOf(selfWeights, length);
+            totalWeights = Arrays.copyOf(totalWeights, length);
+            counts = Arrays.copyOf(counts, length);
+        }
+    }
+}
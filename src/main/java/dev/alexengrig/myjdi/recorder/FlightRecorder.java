@@ -0,0 +1,154 @@
+package dev.alexengrig.myjdi.recorder;
+
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.snapshot.*;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriber;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the last events of every live debuggee thread and dumps them when the thread throws.
+ * Rings are keyed by {@link com.sun.jdi.ThreadReference#uniqueID()} and dropped on thread death,
+ * so memory is bounded by the live threads times the ring capacity.
+ * Snapshots are taken and dumps read identities under the recorder's lock, so dumps may run on any thread
+ * as long as the snapshot factory is not shared with components taking snapshots outside that lock.
+ */
+public class FlightRecorder implements YouthEventSubscriber<YouthEvent> {
+    private static final Log log = Log.getLog(FlightRecorder.class);
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    protected final SnapshotFactory snapshotFactory;
+    protected final int capacity;
+    protected final Consumer<FlightRecording> dumpListener;
+    protected final LongObjectHashMap<ThreadRing> rings = new LongObjectHashMap<>();
+    protected boolean dumpOnException = true;
+    protected boolean uncaughtOnly;
+
+    public FlightRecorder(SnapshotFactory snapshotFactory) {
+        this(snapshotFactory, DEFAULT_CAPACITY, recording -> log.info("{}", recording));
+    }
+
+    public FlightRecorder(SnapshotFactory snapshotFactory, int capacity, Consumer<FlightRecording> dumpListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.snapshotFactory = snapshotFactory;
+        this.capacity = capacity;
+        this.dumpListener = dumpListener;
+    }
+
+    public static FlightRecorder record(YouthEventSubscriptionManager subscriptionManager,
+                                        SnapshotFactory snapshotFactory) {
+        FlightRecorder recorder = new FlightRecorder(snapshotFactory);
+        subscriptionManager.subscribeOnAll(recorder);
+        return recorder;
+    }
+
+    public void setDumpOnException(boolean dumpOnException) {
+        this.dumpOnException = dumpOnException;
+    }
+
+    /**
+     * Dumps only for exceptions without a catch location.
+     */
+    public void setUncaughtOnly(boolean uncaughtOnly) {
+        this.uncaughtOnly = uncaughtOnly;
+    }
+
+    @Override
+    public synchronized void accept(YouthEvent event) {
+        // the factory interns identities, dumps read them under the same lock
+        record(snapshotFactory.create(event));
+    }
+
+    /**
+     * Records a snapshot taken by this recorder's factory, dumps refer back to its identity table.
+     */
+    public synchronized void record(YouthEventSnapshot snapshot) {
+        ThreadIdentity thread = snapshot.thread();
+        if (thread == null) {
+            return;
+        }
+        ThreadRing ring = rings.get(thread.uniqueId());
+        if (ring == null) {
+            ring = new ThreadRing(thread.uniqueId(), thread.id(), capacity);
+            rings.put(thread.uniqueId(), ring);
+        }
+        int location = snapshot instanceof YouthLocatableEventSnapshot
+                ? ((YouthLocatableEventSnapshot) snapshot).location().id()
+                : -1;
+        int subject = -1;
+        long detail = 0;
+        switch (snapshot.kind()) {
+            case EXCEPTION:
+                YouthExceptionEventSnapshot exception = (YouthExceptionEventSnapshot) snapshot;
+                subject = exception.exceptionType().id();
+                detail = exception.exceptionId();
+                break;
+            case ACCESS_WATCHPOINT:
+                YouthAccessWatchpointEventSnapshot access = (YouthAccessWatchpointEventSnapshot) snapshot;
+                subject = access.field().id();
+                detail = access.objectId();
+                break;
+            case MODIFICATION_WATCHPOINT:
+                YouthModificationWatchpointEventSnapshot modification = (YouthModificationWatchpointEventSnapshot) snapshot;
+                subject = modification.field().id();
+                detail = modification.objectId();
+                break;
+            case MONITOR_WAITED:
+                subject = ((YouthMonitorWaitedEventSnapshot) snapshot).monitorType().id();
+                detail = ((YouthMonitorWaitedEventSnapshot) snapshot).monitorId();
+                break;
+            case MONITOR_WAIT:
+                subject = ((YouthMonitorWaitEventSnapshot) snapshot).monitorType().id();
+                detail = ((YouthMonitorWaitEventSnapshot) snapshot).monitorId();
+                break;
+            case MONITOR_CONTENDED_ENTERED:
+                subject = ((YouthMonitorContendedEnteredEventSnapshot) snapshot).monitorType().id();
+                detail = ((YouthMonitorContendedEnteredEventSnapshot) snapshot).monitorId();
+                break;
+            case MONITOR_CONTENDED_ENTER:
+                subject = ((YouthMonitorContendedEnterEventSnapshot) snapshot).monitorType().id();
+                detail = ((YouthMonitorContendedEnterEventSnapshot) snapshot).monitorId();
+                break;
+            case CLASS_PREPARE:
+                subject = ((YouthClassPrepareEventSnapshot) snapshot).type().id();
+                break;
+            default:
+                break;
+        }
+        ring.add(snapshot.timestamp(), snapshot.kind(), location, subject, detail);
+        if (snapshot.kind() == SnapshotKind.THREAD_DEATH) {
+            rings.remove(thread.uniqueId());
+        } else if (dumpOnException && snapshot.kind() == SnapshotKind.EXCEPTION
+                && (!uncaughtOnly || ((YouthExceptionEventSnapshot) snapshot).catchLocation() == null)) {
+            dumpListener.accept(dump(ring));
+        }
+    }
+
+    /**
+     * @return recording of the thread or {@code null} if nothing is recorded for it
+     */
+    public synchronized FlightRecording dump(long threadUniqueId) {
+        ThreadRing ring = rings.get(threadUniqueId);
+        return ring != null ? dump(ring) : null;
+    }
+
+    public synchronized List<FlightRecording> dumpAll() {
+        List<FlightRecording> recordings = new ArrayList<>(rings.size());
+        rings.forEachValue(ring -> recordings.add(dump(ring)));
+        return recordings;
+    }
+
+    protected FlightRecording dump(ThreadRing ring) {
+        IdentityTable identities = snapshotFactory.identityTable();
+        return new FlightRecording(ring.uniqueId, identities.threadById(ring.threadId).name(), ring.total(),
+                ring.entries(identities));
+    }
+}
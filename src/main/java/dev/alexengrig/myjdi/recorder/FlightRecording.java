@@ -0,0 +1,107 @@
+package dev.alexengrig.myjdi.recorder;
+
+import dev.alexengrig.myjdi.snapshot.LocationIdentity;
+import dev.alexengrig.myjdi.snapshot.SnapshotKind;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dump of the last events of one thread, oldest first.
+ */
+public final class FlightRecording {
+    private final long threadUniqueId;
+    private final String threadName;
+    private final long total;
+    private final List<Entry> entries;
+
+    FlightRecording(long threadUniqueId, String threadName, long total, List<Entry> entries) {
+        this.threadUniqueId = threadUniqueId;
+        this.threadName = threadName;
+        this.total = total;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public long threadUniqueId() {
+        return threadUniqueId;
+    }
+
+    public String threadName() {
+        return threadName;
+    }
+
+    /**
+     * Events recorded for the thread, including those already overwritten.
+     */
+    public long total() {
+        return total;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append("Last ").append(entries.size()).append(" of ").append(total)
+                .append(" events of thread ").append(threadName).append(" (id=").append(threadUniqueId).append("):");
+        for (Entry entry : entries) {
+            builder.append(System.lineSeparator()).append("    ").append(entry);
+        }
+        return builder.toString();
+    }
+
+    public static final class Entry {
+        private final long timestamp;
+        private final SnapshotKind kind;
+        private final LocationIdentity location;
+        private final String subject;
+        private final long detail;
+
+        Entry(long timestamp, SnapshotKind kind, LocationIdentity location, String subject, long detail) {
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.location = location;
+            this.subject = subject;
+            this.detail = detail;
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public SnapshotKind kind() {
+            return kind;
+        }
+
+        /**
+         * Location of a locatable event, otherwise {@code null}.
+         */
+        public LocationIdentity location() {
+            return location;
+        }
+
+        /**
+         * Exception or monitor class, watched field or prepared class, otherwise {@code null}.
+         */
+        public String subject() {
+            return subject;
+        }
+
+        /**
+         * Unique id of the exception, monitor or watched object, otherwise zero.
+         */
+        public long detail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return timestamp + " " + kind
+                    + (location != null ? " at " + location : "")
+                    + (subject != null ? " " + subject : "")
+                    + (detail != 0 ? " (id=" + detail + ")" : "");
+        }
+    }
+}
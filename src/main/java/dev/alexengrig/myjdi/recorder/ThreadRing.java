@@ -0,0 +1,71 @@
+package dev.alexengrig.myjdi.recorder;
+
+import dev.alexengrig.myjdi.snapshot.IdentityTable;
+import dev.alexengrig.myjdi.snapshot.SnapshotKind;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Last events of one thread in parallel primitive arrays, overwritten oldest first.
+ */
+final class ThreadRing {
+    final long uniqueId;
+    final int threadId;
+    private final long[] timestamps;
+    private final byte[] kinds;
+    private final int[] locations;
+    private final int[] subjects;
+    private final long[] details;
+    private long total;
+
+    ThreadRing(long uniqueId, int threadId, int capacity) {
+        this.uniqueId = uniqueId;
+        this.threadId = threadId;
+        this.timestamps = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.locations = new int[capacity];
+        this.subjects = new int[capacity];
+        this.details = new long[capacity];
+    }
+
+    void add(long timestamp, SnapshotKind kind, int location, int subject, long detail) {
+        int index = (int) (total % timestamps.length);
+        timestamps[index] = timestamp;
+        kinds[index] = (byte) kind.code();
+        locations[index] = location;
+        subjects[index] = subject;
+        details[index] = detail;
+        total++;
+    }
+
+    long total() {
+        return total;
+    }
+
+    List<FlightRecording.Entry> entries(IdentityTable identities) {
+        int size = (int) Math.min(total, timestamps.length);
+        List<FlightRecording.Entry> entries = new ArrayList<>(size);
+        for (long i = total - size; i < total; i++) {
+            int index = (int) (i % timestamps.length);
+            SnapshotKind kind = SnapshotKind.of(kinds[index]);
+            entries.add(new FlightRecording.Entry(timestamps[index], kind,
+                    locations[index] < 0 ? null : identities.locationById(locations[index]),
+                    subject(identities, kind, subjects[index]), details[index]));
+        }
+        return entries;
+    }
+
+    private static String subject(IdentityTable identities, SnapshotKind kind, int id) {
+        if (id < 0) {
+            return null;
+        }
+        switch (kind) {
+            case ACCESS_WATCHPOINT:
+            case MODIFICATION_WATCHPOINT:
+                return identities.fieldById(id).toString();
+            default:
+                return identities.classById(id).name();
+        }
+    }
+}
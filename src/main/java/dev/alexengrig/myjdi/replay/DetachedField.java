@@ -0,0 +1,125 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.Field;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.Type;
+import dev.alexengrig.myjdi.snapshot.FieldIdentity;
+
+public class DetachedField extends DetachedMirror implements Field {
+    protected final FieldIdentity identity;
+    protected final DetachedReferenceType declaringType;
+
+    public DetachedField(FieldIdentity identity, DetachedReferenceType declaringType) {
+        this.identity = identity;
+        this.declaringType = declaringType;
+    }
+
+    public FieldIdentity identity() {
+        return identity;
+    }
+
+    @Override
+    public String name() {
+        return identity.name();
+    }
+
+    @Override
+    public String typeName() {
+        return identity.typeName();
+    }
+
+    @Override
+    public Type type() {
+        throw detached();
+    }
+
+    @Override
+    public String signature() {
+        throw detached();
+    }
+
+    @Override
+    public String genericSignature() {
+        throw detached();
+    }
+
+    @Override
+    public ReferenceType declaringType() {
+        return declaringType;
+    }
+
+    @Override
+    public boolean isTransient() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isVolatile() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isEnumConstant() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isStatic() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isFinal() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isSynthetic() {
+        throw detached();
+    }
+
+    @Override
+    public int modifiers() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPrivate() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPackagePrivate() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isProtected() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPublic() {
+        throw detached();
+    }
+
+    @Override
+    public int compareTo(Field that) {
+        return toString().compareTo(that.toString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DetachedField && identity.equals(((DetachedField) o).identity);
+    }
+
+    @Override
+    public int hashCode() {
+        return identity.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return identity.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.AbsentInformationException;
+import com.sun.jdi.Location;
+import com.sun.jdi.Method;
+import com.sun.jdi.ReferenceType;
+import dev.alexengrig.myjdi.snapshot.LocationIdentity;
+
+public class DetachedLocation extends DetachedMirror implements Location {
+    protected final LocationIdentity identity;
+    protected final DetachedMethod method;
+
+    public DetachedLocation(LocationIdentity identity, DetachedMethod method) {
+        this.identity = identity;
+        this.method = method;
+    }
+
+    public LocationIdentity identity() {
+        return identity;
+    }
+
+    @Override
+    public ReferenceType declaringType() {
+        return method.declaringType();
+    }
+
+    @Override
+    public Method method() {
+        return method;
+    }
+
+    @Override
+    public long codeIndex() {
+        return identity.codeIndex();
+    }
+
+    @Override
+    public String sourceName() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public String sourceName(String stratum) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public String sourcePath() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public String sourcePath(String stratum) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public int lineNumber() {
+        return identity.lineNumber();
+    }
+
+    @Override
+    public int lineNumber(String stratum) {
+        return identity.lineNumber();
+    }
+
+    @Override
+    public int compareTo(Location that) {
+        int result = method.compareTo(that.method());
+        return result != 0 ? result : Long.compare(codeIndex(), that.codeIndex());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DetachedLocation && identity.equals(((DetachedLocation) o).identity);
+    }
+
+    @Override
+    public int hashCode() {
+        return identity.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return identity.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.snapshot.MethodIdentity;
+
+import java.util.List;
+
+public class DetachedMethod extends DetachedMirror implements Method {
+    protected final MethodIdentity identity;
+    protected final DetachedReferenceType declaringType;
+
+    public DetachedMethod(MethodIdentity identity, DetachedReferenceType declaringType) {
+        this.identity = identity;
+        this.declaringType = declaringType;
+    }
+
+    public MethodIdentity identity() {
+        return identity;
+    }
+
+    @Override
+    public String name() {
+        return identity.name();
+    }
+
+    @Override
+    public String signature() {
+        return identity.signature();
+    }
+
+    @Override
+    public String genericSignature() {
+        throw detached();
+    }
+
+    @Override
+    public ReferenceType declaringType() {
+        return declaringType;
+    }
+
+    @Override
+    public String returnTypeName() {
+        throw detached();
+    }
+
+    @Override
+    public Type returnType() {
+        throw detached();
+    }
+
+    @Override
+    public List<String> argumentTypeNames() {
+        throw detached();
+    }
+
+    @Override
+    public List<Type> argumentTypes() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isAbstract() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isSynchronized() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isNative() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isVarArgs() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isBridge() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isConstructor() {
+        return "<init>".equals(identity.name());
+    }
+
+    @Override
+    public boolean isStaticInitializer() {
+        return "<clinit>".equals(identity.name());
+    }
+
+    @Override
+    public boolean isObsolete() {
+        return false;
+    }
+
+    @Override
+    public List<Location> allLineLocations() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<Location> allLineLocations(String stratum, String sourceName) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<Location> locationsOfLine(int lineNumber) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<Location> locationsOfLine(String stratum, String sourceName, int lineNumber)
+            throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public Location locationOfCodeIndex(long codeIndex) {
+        throw detached();
+    }
+
+    @Override
+    public List<LocalVariable> variables() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<LocalVariable> variablesByName(String name) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<LocalVariable> arguments() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public byte[] bytecodes() {
+        throw detached();
+    }
+
+    @Override
+    public Location location() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isStatic() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isFinal() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isSynthetic() {
+        throw detached();
+    }
+
+    @Override
+    public int modifiers() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPrivate() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPackagePrivate() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isProtected() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPublic() {
+        throw detached();
+    }
+
+    @Override
+    public int compareTo(Method that) {
+        return toString().compareTo(that.toString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DetachedMethod && identity.equals(((DetachedMethod) o).identity);
+    }
+
+    @Override
+    public int hashCode() {
+        return identity.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return identity.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.Mirror;
+import com.sun.jdi.VirtualMachine;
+
+/**
+ * Mirror rebuilt from a snapshot, it answers what was recorded and fails on anything that needs a live VM.
+ */
+public abstract class DetachedMirror implements Mirror {
+    protected static UnsupportedOperationException detached() {
+        return new UnsupportedOperationException("The mirror is detached from the virtual machine");
+    }
+
+    @Override
+    public VirtualMachine virtualMachine() {
+        throw detached();
+    }
+}
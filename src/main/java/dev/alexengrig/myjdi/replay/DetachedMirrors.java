@@ -0,0 +1,95 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.Value;
+import dev.alexengrig.myjdi.snapshot.*;
+
+import java.util.Arrays;
+
+/**
+ * Caches detached mirrors by identity id, so replayed events share them like live events share JDI mirrors.
+ * A cached mirror is replaced when the id is redefined, as sessions of one journal reuse ids.
+ * Confined to the replaying thread.
+ */
+public class DetachedMirrors {
+    protected DetachedReferenceType[] types = new DetachedReferenceType[64];
+    protected DetachedMethod[] methods = new DetachedMethod[64];
+    protected DetachedField[] fields = new DetachedField[16];
+    protected DetachedLocation[] locations = new DetachedLocation[64];
+    protected DetachedThreadReference[] threads = new DetachedThreadReference[16];
+
+    public DetachedReferenceType referenceType(ClassIdentity identity) {
+        types = grow(types, identity.id());
+        DetachedReferenceType type = types[identity.id()];
+        if (type == null || !type.identity().equals(identity)) {
+            types[identity.id()] = type = new DetachedReferenceType(identity);
+        }
+        return type;
+    }
+
+    public DetachedMethod method(MethodIdentity identity) {
+        methods = grow(methods, identity.id());
+        DetachedMethod method = methods[identity.id()];
+        if (method == null || !method.identity().equals(identity)) {
+            methods[identity.id()] = method = new DetachedMethod(identity, referenceType(identity.declaringType()));
+        }
+        return method;
+    }
+
+    public DetachedField field(FieldIdentity identity) {
+        fields = grow(fields, identity.id());
+        DetachedField field = fields[identity.id()];
+        if (field == null || !field.identity().equals(identity)) {
+            fields[identity.id()] = field = new DetachedField(identity, referenceType(identity.declaringType()));
+        }
+        return field;
+    }
+
+    public DetachedLocation location(LocationIdentity identity) {
+        if (identity == null) {
+            return null;
+        }
+        locations = grow(locations, identity.id());
+        DetachedLocation location = locations[identity.id()];
+        if (location == null || !location.identity().equals(identity)) {
+            locations[identity.id()] = location = new DetachedLocation(identity, method(identity.method()));
+        }
+        return location;
+    }
+
+    public DetachedThreadReference thread(ThreadIdentity identity) {
+        if (identity == null) {
+            return null;
+        }
+        threads = grow(threads, identity.id());
+        DetachedThreadReference thread = threads[identity.id()];
+        if (thread == null || !thread.identity().equals(identity)) {
+            threads[identity.id()] = thread = new DetachedThreadReference(identity);
+        }
+        return thread;
+    }
+
+    public DetachedObjectReference object(ClassIdentity type, long uniqueId) {
+        return uniqueId != 0 ? new DetachedObjectReference(uniqueId, referenceType(type)) : null;
+    }
+
+    public DetachedObjectReference object(long uniqueId) {
+        return uniqueId != 0 ? new DetachedObjectReference(uniqueId, null) : null;
+    }
+
+    /**
+     * Object values become {@link DetachedObjectReference}s, strings and primitives {@link DetachedValue}s.
+     */
+    public Value value(ValueSnapshot snapshot) {
+        if (snapshot == null || snapshot.tag() == ValueSnapshot.NULL) {
+            return null;
+        } else if (snapshot.tag() == ValueSnapshot.OBJECT) {
+            return object(snapshot.type(), snapshot.uniqueId());
+        } else {
+            return new DetachedValue(snapshot);
+        }
+    }
+
+    protected static <T> T[] grow(T[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length << 1));
+    }
+}
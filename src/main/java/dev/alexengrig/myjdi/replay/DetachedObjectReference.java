@@ -0,0 +1,104 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.*;
+
+import java.util.List;
+import java.util.Map;
+
+public class DetachedObjectReference extends DetachedMirror implements ObjectReference {
+    protected final long uniqueId;
+    protected final DetachedReferenceType referenceType;
+
+    public DetachedObjectReference(long uniqueId, DetachedReferenceType referenceType) {
+        this.uniqueId = uniqueId;
+        this.referenceType = referenceType;
+    }
+
+    @Override
+    public ReferenceType referenceType() {
+        if (referenceType == null) {
+            throw detached();
+        }
+        return referenceType;
+    }
+
+    @Override
+    public Type type() {
+        return referenceType();
+    }
+
+    @Override
+    public long uniqueID() {
+        return uniqueId;
+    }
+
+    @Override
+    public Value getValue(Field field) {
+        throw detached();
+    }
+
+    @Override
+    public Map<Field, Value> getValues(List<? extends Field> fields) {
+        throw detached();
+    }
+
+    @Override
+    public void setValue(Field field, Value value) {
+        throw detached();
+    }
+
+    @Override
+    public Value invokeMethod(ThreadReference thread, Method method, List<? extends Value> arguments, int options) {
+        throw detached();
+    }
+
+    @Override
+    public void disableCollection() {
+        throw detached();
+    }
+
+    @Override
+    public void enableCollection() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isCollected() {
+        throw detached();
+    }
+
+    @Override
+    public List<ThreadReference> waitingThreads() {
+        throw detached();
+    }
+
+    @Override
+    public ThreadReference owningThread() {
+        throw detached();
+    }
+
+    @Override
+    public int entryCount() {
+        throw detached();
+    }
+
+    @Override
+    public List<ObjectReference> referringObjects(long maxReferrers) {
+        throw detached();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DetachedObjectReference && uniqueId == ((DetachedObjectReference) o).uniqueId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(uniqueId);
+    }
+
+    @Override
+    public String toString() {
+        return "instance of " + (referenceType != null ? referenceType.name() : "?") + "(id=" + uniqueId + ")";
+    }
+}
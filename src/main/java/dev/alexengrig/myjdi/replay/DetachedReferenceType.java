@@ -0,0 +1,260 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.snapshot.ClassIdentity;
+
+import java.util.List;
+import java.util.Map;
+
+public class DetachedReferenceType extends DetachedMirror implements ReferenceType {
+    protected final ClassIdentity identity;
+
+    public DetachedReferenceType(ClassIdentity identity) {
+        this.identity = identity;
+    }
+
+    public ClassIdentity identity() {
+        return identity;
+    }
+
+    @Override
+    public String name() {
+        return identity.name();
+    }
+
+    @Override
+    public String signature() {
+        throw detached();
+    }
+
+    @Override
+    public String genericSignature() {
+        throw detached();
+    }
+
+    @Override
+    public ClassLoaderReference classLoader() {
+        throw detached();
+    }
+
+    @Override
+    public String sourceName() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<String> sourceNames(String stratum) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<String> sourcePaths(String stratum) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public String sourceDebugExtension() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public boolean isStatic() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isAbstract() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isFinal() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPrepared() {
+        return true;
+    }
+
+    @Override
+    public boolean isVerified() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isInitialized() {
+        throw detached();
+    }
+
+    @Override
+    public boolean failedToInitialize() {
+        throw detached();
+    }
+
+    @Override
+    public List<Field> fields() {
+        throw detached();
+    }
+
+    @Override
+    public List<Field> visibleFields() {
+        throw detached();
+    }
+
+    @Override
+    public List<Field> allFields() {
+        throw detached();
+    }
+
+    @Override
+    public Field fieldByName(String fieldName) {
+        throw detached();
+    }
+
+    @Override
+    public List<Method> methods() {
+        throw detached();
+    }
+
+    @Override
+    public List<Method> visibleMethods() {
+        throw detached();
+    }
+
+    @Override
+    public List<Method> allMethods() {
+        throw detached();
+    }
+
+    @Override
+    public List<Method> methodsByName(String name) {
+        throw detached();
+    }
+
+    @Override
+    public List<Method> methodsByName(String name, String signature) {
+        throw detached();
+    }
+
+    @Override
+    public List<ReferenceType> nestedTypes() {
+        throw detached();
+    }
+
+    @Override
+    public Value getValue(Field field) {
+        throw detached();
+    }
+
+    @Override
+    public Map<Field, Value> getValues(List<? extends Field> fields) {
+        throw detached();
+    }
+
+    @Override
+    public ClassObjectReference classObject() {
+        throw detached();
+    }
+
+    @Override
+    public List<Location> allLineLocations() throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<Location> allLineLocations(String stratum, String sourceName) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<Location> locationsOfLine(int lineNumber) throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<Location> locationsOfLine(String stratum, String sourceName, int lineNumber)
+            throws AbsentInformationException {
+        throw new AbsentInformationException();
+    }
+
+    @Override
+    public List<String> availableStrata() {
+        throw detached();
+    }
+
+    @Override
+    public String defaultStratum() {
+        throw detached();
+    }
+
+    @Override
+    public List<ObjectReference> instances(long maxInstances) {
+        throw detached();
+    }
+
+    @Override
+    public int majorVersion() {
+        throw detached();
+    }
+
+    @Override
+    public int minorVersion() {
+        throw detached();
+    }
+
+    @Override
+    public int constantPoolCount() {
+        throw detached();
+    }
+
+    @Override
+    public byte[] constantPool() {
+        throw detached();
+    }
+
+    @Override
+    public int modifiers() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPrivate() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPackagePrivate() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isProtected() {
+        throw detached();
+    }
+
+    @Override
+    public boolean isPublic() {
+        throw detached();
+    }
+
+    @Override
+    public int compareTo(ReferenceType that) {
+        return name().compareTo(that.name());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DetachedReferenceType && identity.equals(((DetachedReferenceType) o).identity);
+    }
+
+    @Override
+    public int hashCode() {
+        return identity.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "class " + identity.name() + " (detached)";
+    }
+}
@@ -0,0 +1,124 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.MonitorInfo;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.StackFrame;
+import com.sun.jdi.ThreadGroupReference;
+import com.sun.jdi.ThreadReference;
+import com.sun.jdi.Value;
+import dev.alexengrig.myjdi.snapshot.ThreadIdentity;
+
+import java.util.List;
+
+public class DetachedThreadReference extends DetachedObjectReference implements ThreadReference {
+    protected final ThreadIdentity identity;
+
+    public DetachedThreadReference(ThreadIdentity identity) {
+        super(identity.uniqueId(), null);
+        this.identity = identity;
+    }
+
+    public ThreadIdentity identity() {
+        return identity;
+    }
+
+    @Override
+    public String name() {
+        return identity.name();
+    }
+
+    @Override
+    public void suspend() {
+        throw detached();
+    }
+
+    @Override
+    public void resume() {
+        throw detached();
+    }
+
+    @Override
+    public int suspendCount() {
+        throw detached();
+    }
+
+    @Override
+    public void stop(ObjectReference throwable) {
+        throw detached();
+    }
+
+    @Override
+    public void interrupt() {
+        throw detached();
+    }
+
+    @Override
+    public int status() {
+        return THREAD_STATUS_UNKNOWN;
+    }
+
+    @Override
+    public boolean isSuspended() {
+        return false;
+    }
+
+    @Override
+    public boolean isAtBreakpoint() {
+        return false;
+    }
+
+    @Override
+    public ThreadGroupReference threadGroup() {
+        throw detached();
+    }
+
+    @Override
+    public int frameCount() {
+        throw detached();
+    }
+
+    @Override
+    public List<StackFrame> frames() {
+        throw detached();
+    }
+
+    @Override
+    public StackFrame frame(int index) {
+        throw detached();
+    }
+
+    @Override
+    public List<StackFrame> frames(int start, int length) {
+        throw detached();
+    }
+
+    @Override
+    public List<ObjectReference> ownedMonitors() {
+        throw detached();
+    }
+
+    @Override
+    public List<MonitorInfo> ownedMonitorsAndFrames() {
+        throw detached();
+    }
+
+    @Override
+    public ObjectReference currentContendedMonitor() {
+        throw detached();
+    }
+
+    @Override
+    public void popFrames(StackFrame frame) {
+        throw detached();
+    }
+
+    @Override
+    public void forceEarlyReturn(Value value) {
+        throw detached();
+    }
+
+    @Override
+    public String toString() {
+        return "instance of java.lang.Thread(name='" + identity.name() + "', id=" + uniqueId + ")";
+    }
+}
@@ -0,0 +1,40 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.Type;
+import com.sun.jdi.Value;
+import dev.alexengrig.myjdi.snapshot.ValueSnapshot;
+
+/**
+ * Recorded primitive or string value, only its snapshot and text are available.
+ */
+public class DetachedValue extends DetachedMirror implements Value {
+    protected final ValueSnapshot snapshot;
+
+    public DetachedValue(ValueSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public ValueSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public Type type() {
+        throw detached();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DetachedValue && snapshot.equals(((DetachedValue) o).snapshot);
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+}
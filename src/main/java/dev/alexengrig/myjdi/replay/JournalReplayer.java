@@ -0,0 +1,160 @@
+package dev.alexengrig.myjdi.replay;
+
+import dev.alexengrig.myjdi.journal.JournalBlock;
+import dev.alexengrig.myjdi.journal.JournalReader;
+import dev.alexengrig.myjdi.journal.JournalSegment;
+import dev.alexengrig.myjdi.snapshot.SnapshotDecoder;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.Concurrency;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded journal into a subscription manager.
+ * Blocks are decoded ahead on a worker pool while the calling thread dispatches them in recording order.
+ */
+public class JournalReplayer {
+    protected final Path directory;
+    protected final ReplayMode mode;
+    protected final double speed;
+    protected final int parallelism;
+
+    protected JournalReplayer(Builder builder) {
+        this.directory = builder.directory;
+        this.mode = builder.mode;
+        this.speed = builder.mode == ReplayMode.REAL_TIME ? 1 : builder.speed;
+        this.parallelism = builder.parallelism;
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * @return number of replayed events
+     */
+    public long replay(YouthEventSubscriptionManager subscriptionManager) throws IOException, InterruptedException {
+        List<JournalSegment> segments = new ArrayList<>();
+        ExecutorService decoders = Executors.newFixedThreadPool(parallelism,
+                Concurrency.daemonThreadFactory("myjdi-replay-decoder-"));
+        try {
+            ArrayDeque<Future<List<YouthEventSnapshot>>> window = new ArrayDeque<>();
+            ThreadLocal<SnapshotDecoder> decoder = ThreadLocal.withInitial(SnapshotDecoder::new);
+            SubscriptionNotifier notifier = new SubscriptionNotifier(subscriptionManager);
+            DetachedMirrors mirrors = new DetachedMirrors();
+            Pacer pacer = new Pacer();
+            int lookahead = parallelism * 2;
+            long replayed = 0;
+            for (Path path : JournalReader.segments(directory)) {
+                JournalSegment segment = JournalSegment.open(path);
+                segments.add(segment);
+                for (JournalBlock block : segment.blocks()) {
+                    window.add(decoders.submit(() -> segment.decode(block, decoder.get())));
+                    if (window.size() > lookahead) {
+                        replayed += dispatch(await(window.poll()), notifier, mirrors, pacer);
+                    }
+                }
+            }
+            while (!window.isEmpty()) {
+                replayed += dispatch(await(window.poll()), notifier, mirrors, pacer);
+            }
+            return replayed;
+        } finally {
+            decoders.shutdownNow();
+            for (JournalSegment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    protected int dispatch(List<YouthEventSnapshot> snapshots, SubscriptionNotifier notifier,
+                           DetachedMirrors mirrors, Pacer pacer) {
+        for (YouthEventSnapshot snapshot : snapshots) {
+            if (mode != ReplayMode.AS_FAST_AS_POSSIBLE) {
+                pacer.await(snapshot.timestamp());
+            }
+            ReplayedEvents.of(snapshot, mirrors).accept(notifier);
+        }
+        return snapshots.size();
+    }
+
+    protected static List<YouthEventSnapshot> await(Future<List<YouthEventSnapshot>> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Block decoding failed", cause);
+        }
+    }
+
+    protected class Pacer {
+        protected long originTimestamp;
+        protected long originNanos;
+        protected boolean started;
+
+        protected void await(long timestamp) {
+            if (!started) {
+                started = true;
+                originTimestamp = timestamp;
+                originNanos = System.nanoTime();
+                return;
+            }
+            long target = originNanos + (long) ((timestamp - originTimestamp) / speed);
+            long delay;
+            while ((delay = target - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+        }
+    }
+
+    public static class Builder {
+        protected final Path directory;
+        protected ReplayMode mode = ReplayMode.AS_FAST_AS_POSSIBLE;
+        protected double speed = 1;
+        protected int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        protected Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "The directory must not be null");
+        }
+
+        public Builder mode(ReplayMode value) {
+            this.mode = Objects.requireNonNull(value, "The mode must not be null");
+            return this;
+        }
+
+        /**
+         * Playback speed for {@link ReplayMode#SCALED}, {@code 2} replays twice as fast as recorded.
+         */
+        public Builder speed(double value) {
+            if (!(value > 0)) {
+                throw new IllegalArgumentException("Speed must be positive: " + value);
+            }
+            this.speed = value;
+            return this;
+        }
+
+        public Builder parallelism(int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + value);
+            }
+            this.parallelism = value;
+            return this;
+        }
+
+        public JournalReplayer build() {
+            return new JournalReplayer(this);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package dev.alexengrig.myjdi.replay;
+
+public enum ReplayMode {
+    AS_FAST_AS_POSSIBLE,
+    REAL_TIME,
+    SCALED
+}
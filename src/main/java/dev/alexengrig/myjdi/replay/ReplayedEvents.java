@@ -0,0 +1,360 @@
+package dev.alexengrig.myjdi.replay;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.event.*;
+import dev.alexengrig.myjdi.request.YouthEventRequest;
+import dev.alexengrig.myjdi.snapshot.*;
+
+/**
+ * Youth events rebuilt from recorded snapshots.
+ * They carry detached mirrors: recorded names, ids, lines and values are available,
+ * anything else throws {@link UnsupportedOperationException}. {@link #request()} is always {@code null}.
+ */
+public final class ReplayedEvents {
+    private ReplayedEvents() {
+    }
+
+    public static YouthEvent of(YouthEventSnapshot snapshot, DetachedMirrors mirrors) {
+        switch (snapshot.kind()) {
+            case EXCEPTION:
+                return new ReplayedException((YouthExceptionEventSnapshot) snapshot, mirrors);
+            case BREAKPOINT:
+                return new ReplayedBreakpoint((YouthBreakpointEventSnapshot) snapshot, mirrors);
+            case STEP:
+                return new ReplayedStep((YouthStepEventSnapshot) snapshot, mirrors);
+            case ACCESS_WATCHPOINT:
+                return new ReplayedAccessWatchpoint((YouthAccessWatchpointEventSnapshot) snapshot, mirrors);
+            case MODIFICATION_WATCHPOINT:
+                return new ReplayedModificationWatchpoint((YouthModificationWatchpointEventSnapshot) snapshot, mirrors);
+            case METHOD_EXIT:
+                return new ReplayedMethodExit((YouthMethodExitEventSnapshot) snapshot, mirrors);
+            case METHOD_ENTRY:
+                return new ReplayedMethodEntry((YouthMethodEntryEventSnapshot) snapshot, mirrors);
+            case MONITOR_WAITED:
+                return new ReplayedMonitorWaited((YouthMonitorWaitedEventSnapshot) snapshot, mirrors);
+            case MONITOR_WAIT:
+                return new ReplayedMonitorWait((YouthMonitorWaitEventSnapshot) snapshot, mirrors);
+            case MONITOR_CONTENDED_ENTERED:
+                return new ReplayedMonitorContendedEntered((YouthMonitorContendedEnteredEventSnapshot) snapshot, mirrors);
+            case MONITOR_CONTENDED_ENTER:
+                return new ReplayedMonitorContendedEnter((YouthMonitorContendedEnterEventSnapshot) snapshot, mirrors);
+            case CLASS_UNLOAD:
+                return new ReplayedClassUnload((YouthClassUnloadEventSnapshot) snapshot, mirrors);
+            case CLASS_PREPARE:
+                return new ReplayedClassPrepare((YouthClassPrepareEventSnapshot) snapshot, mirrors);
+            case THREAD_DEATH:
+                return new ReplayedThreadDeath((YouthThreadDeathEventSnapshot) snapshot, mirrors);
+            case THREAD_START:
+                return new ReplayedThreadStart((YouthThreadStartEventSnapshot) snapshot, mirrors);
+            case VM_DEATH:
+                return new ReplayedVMDeath((YouthVMDeathEventSnapshot) snapshot, mirrors);
+            case VM_DISCONNECT:
+                return new ReplayedVMDisconnect((YouthVMDisconnectEventSnapshot) snapshot, mirrors);
+            case VM_START:
+                return new ReplayedVMStart((YouthVMStartEventSnapshot) snapshot, mirrors);
+            default:
+                throw new IllegalArgumentException(String.format("Unexpected snapshot kind: %s.", snapshot.kind()));
+        }
+    }
+
+    public abstract static class ReplayedEvent<S extends YouthEventSnapshot> implements YouthEvent {
+        protected final S snapshot;
+        protected final DetachedMirrors mirrors;
+
+        protected ReplayedEvent(S snapshot, DetachedMirrors mirrors) {
+            this.snapshot = snapshot;
+            this.mirrors = mirrors;
+        }
+
+        public S snapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public YouthEventRequest request() {
+            return null;
+        }
+
+        @Override
+        public VirtualMachine virtualMachine() {
+            throw DetachedMirror.detached();
+        }
+
+        public ThreadReference thread() {
+            return mirrors.thread(snapshot.thread());
+        }
+
+        @Override
+        public String toString() {
+            return snapshot.toString();
+        }
+    }
+
+    public abstract static class ReplayedLocatableEvent<S extends YouthLocatableEventSnapshot> extends ReplayedEvent<S> {
+        protected ReplayedLocatableEvent(S snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        public Location location() {
+            return mirrors.location(snapshot.location());
+        }
+    }
+
+    public static class ReplayedException
+            extends ReplayedLocatableEvent<YouthExceptionEventSnapshot>
+            implements YouthExceptionEvent {
+        public ReplayedException(YouthExceptionEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public ObjectReference exception() {
+            return mirrors.object(snapshot.exceptionType(), snapshot.exceptionId());
+        }
+
+        @Override
+        public Location catchLocation() {
+            return mirrors.location(snapshot.catchLocation());
+        }
+    }
+
+    public static class ReplayedBreakpoint
+            extends ReplayedLocatableEvent<YouthBreakpointEventSnapshot>
+            implements YouthBreakpointEvent {
+        public ReplayedBreakpoint(YouthBreakpointEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+
+    public static class ReplayedStep
+            extends ReplayedLocatableEvent<YouthStepEventSnapshot>
+            implements YouthStepEvent {
+        public ReplayedStep(YouthStepEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+
+    public static class ReplayedAccessWatchpoint
+            extends ReplayedLocatableEvent<YouthAccessWatchpointEventSnapshot>
+            implements YouthAccessWatchpointEvent {
+        public ReplayedAccessWatchpoint(YouthAccessWatchpointEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public Field field() {
+            return mirrors.field(snapshot.field());
+        }
+
+        @Override
+        public ObjectReference object() {
+            return mirrors.object(snapshot.objectId());
+        }
+
+        @Override
+        public Value valueCurrent() {
+            return mirrors.value(snapshot.valueCurrent());
+        }
+    }
+
+    public static class ReplayedModificationWatchpoint
+            extends ReplayedLocatableEvent<YouthModificationWatchpointEventSnapshot>
+            implements YouthModificationWatchpointEvent {
+        public ReplayedModificationWatchpoint(YouthModificationWatchpointEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public Field field() {
+            return mirrors.field(snapshot.field());
+        }
+
+        @Override
+        public ObjectReference object() {
+            return mirrors.object(snapshot.objectId());
+        }
+
+        @Override
+        public Value valueCurrent() {
+            return mirrors.value(snapshot.valueCurrent());
+        }
+
+        @Override
+        public Value valueToBe() {
+            return mirrors.value(snapshot.valueToBe());
+        }
+    }
+
+    public static class ReplayedMethodExit
+            extends ReplayedLocatableEvent<YouthMethodExitEventSnapshot>
+            implements YouthMethodExitEvent {
+        public ReplayedMethodExit(YouthMethodExitEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public Method method() {
+            return mirrors.method(snapshot.method());
+        }
+
+        @Override
+        public Value returnValue() {
+            if (snapshot.returnValue() == null) {
+                throw new UnsupportedOperationException("The return value was not recorded");
+            }
+            return mirrors.value(snapshot.returnValue());
+        }
+    }
+
+    public static class ReplayedMethodEntry
+            extends ReplayedLocatableEvent<YouthMethodEntryEventSnapshot>
+            implements YouthMethodEntryEvent {
+        public ReplayedMethodEntry(YouthMethodEntryEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public Method method() {
+            return mirrors.method(snapshot.method());
+        }
+    }
+
+    public static class ReplayedMonitorWaited
+            extends ReplayedLocatableEvent<YouthMonitorWaitedEventSnapshot>
+            implements YouthMonitorWaitedEvent {
+        public ReplayedMonitorWaited(YouthMonitorWaitedEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public ObjectReference monitor() {
+            return mirrors.object(snapshot.monitorType(), snapshot.monitorId());
+        }
+
+        @Override
+        public boolean timedout() {
+            return snapshot.timedOut();
+        }
+    }
+
+    public static class ReplayedMonitorWait
+            extends ReplayedLocatableEvent<YouthMonitorWaitEventSnapshot>
+            implements YouthMonitorWaitEvent {
+        public ReplayedMonitorWait(YouthMonitorWaitEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public ObjectReference monitor() {
+            return mirrors.object(snapshot.monitorType(), snapshot.monitorId());
+        }
+
+        @Override
+        public long timeout() {
+            return snapshot.timeout();
+        }
+    }
+
+    public static class ReplayedMonitorContendedEntered
+            extends ReplayedLocatableEvent<YouthMonitorContendedEnteredEventSnapshot>
+            implements YouthMonitorContendedEnteredEvent {
+        public ReplayedMonitorContendedEntered(YouthMonitorContendedEnteredEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public ObjectReference monitor() {
+            return mirrors.object(snapshot.monitorType(), snapshot.monitorId());
+        }
+    }
+
+    public static class ReplayedMonitorContendedEnter
+            extends ReplayedLocatableEvent<YouthMonitorContendedEnterEventSnapshot>
+            implements YouthMonitorContendedEnterEvent {
+        public ReplayedMonitorContendedEnter(YouthMonitorContendedEnterEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public ObjectReference monitor() {
+            return mirrors.object(snapshot.monitorType(), snapshot.monitorId());
+        }
+    }
+
+    public static class ReplayedClassUnload
+            extends ReplayedEvent<YouthClassUnloadEventSnapshot>
+            implements YouthClassUnloadEvent {
+        public ReplayedClassUnload(YouthClassUnloadEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public String className() {
+            return snapshot.type().name();
+        }
+
+        @Override
+        public String classSignature() {
+            String name = className();
+            StringBuilder signature = new StringBuilder();
+            while (name.endsWith("[]")) {
+                signature.append('[');
+                name = name.substring(0, name.length() - 2);
+            }
+            return signature.append('L').append(name.replace('.', '/')).append(';').toString();
+        }
+    }
+
+    public static class ReplayedClassPrepare
+            extends ReplayedEvent<YouthClassPrepareEventSnapshot>
+            implements YouthClassPrepareEvent {
+        public ReplayedClassPrepare(YouthClassPrepareEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+
+        @Override
+        public ReferenceType referenceType() {
+            return mirrors.referenceType(snapshot.type());
+        }
+    }
+
+    public static class ReplayedThreadDeath
+            extends ReplayedEvent<YouthThreadDeathEventSnapshot>
+            implements YouthThreadDeathEvent {
+        public ReplayedThreadDeath(YouthThreadDeathEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+
+    public static class ReplayedThreadStart
+            extends ReplayedEvent<YouthThreadStartEventSnapshot>
+            implements YouthThreadStartEvent {
+        public ReplayedThreadStart(YouthThreadStartEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+
+    public static class ReplayedVMDeath
+            extends ReplayedEvent<YouthVMDeathEventSnapshot>
+            implements YouthVMDeathEvent {
+        public ReplayedVMDeath(YouthVMDeathEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+
+    public static class ReplayedVMDisconnect
+            extends ReplayedEvent<YouthVMDisconnectEventSnapshot>
+            implements YouthVMDisconnectEvent {
+        public ReplayedVMDisconnect(YouthVMDisconnectEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+
+    public static class ReplayedVMStart
+            extends ReplayedEvent<YouthVMStartEventSnapshot>
+            implements YouthVMStartEvent {
+        public ReplayedVMStart(YouthVMStartEventSnapshot snapshot, DetachedMirrors mirrors) {
+            super(snapshot, mirrors);
+        }
+    }
+}
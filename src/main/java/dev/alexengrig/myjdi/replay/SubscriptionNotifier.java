@@ -0,0 +1,111 @@
+package dev.alexengrig.myjdi.replay;
+
+import dev.alexengrig.myjdi.event.*;
+import dev.alexengrig.myjdi.handle.YouthEventHandler;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+
+/**
+ * Forwards events straight to the subscription manager, without the VM bookkeeping of the live handler.
+ */
+public class SubscriptionNotifier implements YouthEventHandler {
+    protected final YouthEventSubscriptionManager subscriptionManager;
+
+    public SubscriptionNotifier(YouthEventSubscriptionManager subscriptionManager) {
+        this.subscriptionManager = subscriptionManager;
+    }
+
+    @Override
+    public void run() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void handleException(YouthExceptionEvent event) {
+        subscriptionManager.notifyOfException(event);
+    }
+
+    @Override
+    public void handleBreakpoint(YouthBreakpointEvent event) {
+        subscriptionManager.notifyOfBreakpoint(event);
+    }
+
+    @Override
+    public void handleStep(YouthStepEvent event) {
+        subscriptionManager.notifyOfStep(event);
+    }
+
+    @Override
+    public void handleAccessWatchpoint(YouthAccessWatchpointEvent event) {
+        subscriptionManager.notifyOfAccessWatchpoint(event);
+    }
+
+    @Override
+    public void handleModificationWatchpoint(YouthModificationWatchpointEvent event) {
+        subscriptionManager.notifyOfModificationWatchpoint(event);
+    }
+
+    @Override
+    public void handleMethodExit(YouthMethodExitEvent event) {
+        subscriptionManager.notifyOfMethodExit(event);
+    }
+
+    @Override
+    public void handleMethodEntry(YouthMethodEntryEvent event) {
+        subscriptionManager.notifyOfMethodEntry(event);
+    }
+
+    @Override
+    public void handleMonitorWaited(YouthMonitorWaitedEvent event) {
+        subscriptionManager.notifyOfMonitorWaited(event);
+    }
+
+    @Override
+    public void handleMonitorWait(YouthMonitorWaitEvent event) {
+        subscriptionManager.notifyOfMonitorWait(event);
+    }
+
+    @Override
+    public void handleMonitorContendedEntered(YouthMonitorContendedEnteredEvent event) {
+        subscriptionManager.notifyOfMonitorContendedEntered(event);
+    }
+
+    @Override
+    public void handleMonitorContendedEnter(YouthMonitorContendedEnterEvent event) {
+        subscriptionManager.notifyOfMonitorContendedEnter(event);
+    }
+
+    @Override
+    public void handleClassUnload(YouthClassUnloadEvent event) {
+        subscriptionManager.notifyOfClassUnload(event);
+    }
+
+    @Override
+    public void handleClassPrepare(YouthClassPrepareEvent event) {
+        subscriptionManager.notifyOfClassPrepare(event);
+    }
+
+    @Override
+    public void handleThreadDeath(YouthThreadDeathEvent event) {
+        subscriptionManager.notifyOfThreadDeath(event);
+    }
+
+    @Override
+    public void handleThreadStart(YouthThreadStartEvent event) {
+        subscriptionManager.notifyOfThreadStart(event);
+    }
+
+    @Override
+    public void handleVmDeath(YouthVMDeathEvent event) {
+        subscriptionManager.notifyOfVMDeath(event);
+    }
+
+    @Override
+    public void handleVmDisconnect(YouthVMDisconnectEvent event) {
+        subscriptionManager.notifyOfVMDisconnect(event);
+    }
+
+    @Override
+    public void handleVmStart(YouthVMStartEvent event) {
+        subscriptionManager.notifyOfVMStart(event);
+    }
+}
@@ -0,0 +1,136 @@
+package dev.alexengrig.myjdi.request;
+
+import java.util.Arrays;
+
+/**
+ * Minimal walker over method bytecodes, it only knows instruction lengths and branch targets.
+ */
+final class Bytecodes {
+    private static final int TABLESWITCH = 0xaa;
+    private static final int LOOKUPSWITCH = 0xab;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int WIDE = 0xc4;
+    private static final int IINC = 0x84;
+    private static final int GOTO_W = 0xc8;
+    private static final int JSR_W = 0xc9;
+    private static final byte[] LENGTHS = new byte[256];
+
+    static {
+        Arrays.fill(LENGTHS, (byte) 1);
+        fill(0x10, 0x10, 2); // bipush
+        fill(0x11, 0x11, 3); // sipush
+        fill(0x12, 0x12, 2); // ldc
+        fill(0x13, 0x14, 3); // ldc_w, ldc2_w
+        fill(0x15, 0x19, 2); // loads
+        fill(0x36, 0x3a, 2); // stores
+        fill(IINC, IINC, 3);
+        fill(0x99, 0xa8, 3); // conditional branches, goto, jsr
+        fill(0xa9, 0xa9, 2); // ret
+        fill(0xb2, 0xb8, 3); // field access, invokes
+        fill(0xb9, 0xba, 5); // invokeinterface, invokedynamic
+        fill(0xbb, 0xbb, 3); // new
+        fill(0xbc, 0xbc, 2); // newarray
+        fill(0xbd, 0xbd, 3); // anewarray
+        fill(0xc0, 0xc1, 3); // checkcast, instanceof
+        fill(0xc5, 0xc5, 4); // multianewarray
+        fill(0xc6, 0xc7, 3); // ifnull, ifnonnull
+        fill(GOTO_W, JSR_W, 5);
+    }
+
+    private Bytecodes() {
+    }
+
+    private static void fill(int from, int to, int length) {
+        Arrays.fill(LENGTHS, from, to + 1, (byte) length);
+    }
+
+    /**
+     * @return code indices of the return instructions in ascending order
+     */
+    static int[] returnIndices(byte[] code) {
+        int[] indices = new int[4];
+        int count = 0;
+        for (int index = 0; index < code.length; index += length(code, index)) {
+            int opcode = code[index] & 0xFF;
+            if (opcode >= IRETURN && opcode <= RETURN) {
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, count << 1);
+                }
+                indices[count++] = index;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Tells whether any branch or switch jumps to the index.
+     */
+    static boolean isBranchTarget(byte[] code, int target) {
+        for (int index = 0; index < code.length; index += length(code, index)) {
+            int opcode = code[index] & 0xFF;
+            if (opcode >= 0x99 && opcode <= 0xa8 || opcode == 0xc6 || opcode == 0xc7) {
+                if (index + readShort(code, index + 1) == target) {
+                    return true;
+                }
+            } else if (opcode == GOTO_W || opcode == JSR_W) {
+                if (index + readInt(code, index + 1) == target) {
+                    return true;
+                }
+            } else if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+                int base = switchBase(index);
+                if (index + readInt(code, base) == target) {
+                    return true;
+                }
+                int targets;
+                int offset;
+                int stride;
+                if (opcode == TABLESWITCH) {
+                    targets = readInt(code, base + 8) - readInt(code, base + 4) + 1;
+                    offset = base + 12;
+                    stride = 4;
+                } else {
+                    targets = readInt(code, base + 4);
+                    offset = base + 12;
+                    stride = 8;
+                }
+                for (int i = 0; i < targets; i++) {
+                    if (index + readInt(code, offset + i * stride) == target) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    static int length(byte[] code, int index) {
+        int opcode = code[index] & 0xFF;
+        if (opcode == TABLESWITCH) {
+            int base = switchBase(index);
+            return base - index + 12 + 4 * (readInt(code, base + 8) - readInt(code, base + 4) + 1);
+        } else if (opcode == LOOKUPSWITCH) {
+            int base = switchBase(index);
+            return base - index + 8 + 8 * readInt(code, base + 4);
+        } else if (opcode == WIDE) {
+            return (code[index + 1] & 0xFF) == IINC ? 6 : 4;
+        }
+        return LENGTHS[opcode];
+    }
+
+    /**
+     * Switch operands start at the next 4-byte boundary after the opcode.
+     */
+    private static int switchBase(int index) {
+        return (index + 4) & ~3;
+    }
+
+    private static int readShort(byte[] code, int index) {
+        return (short) ((code[index] & 0xFF) << 8 | code[index + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] code, int index) {
+        return (code[index] & 0xFF) << 24 | (code[index + 1] & 0xFF) << 16
+                | (code[index + 2] & 0xFF) << 8 | code[index + 3] & 0xFF;
+    }
+}
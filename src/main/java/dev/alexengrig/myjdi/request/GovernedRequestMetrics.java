@@ -0,0 +1,83 @@
+package dev.alexengrig.myjdi.request;
+
+/**
+ * Copy of the state of a request under a {@link RequestGovernor}.
+ * Rates are of the last finished window, the hit rate is estimated from reported hits and the count filter.
+ */
+public final class GovernedRequestMetrics {
+    private final String name;
+    private final ThrottleLevel level;
+    private final int suspendPolicy;
+    private final int countFilter;
+    private final long reportedHits;
+    private final long suspendedNanos;
+    private final double hitsPerSecond;
+    private final double suspendedFraction;
+    private final long actions;
+
+    public GovernedRequestMetrics(String name, ThrottleLevel level, int suspendPolicy, int countFilter,
+                                  long reportedHits, long suspendedNanos, double hitsPerSecond,
+                                  double suspendedFraction, long actions) {
+        this.name = name;
+        this.level = level;
+        this.suspendPolicy = suspendPolicy;
+        this.countFilter = countFilter;
+        this.reportedHits = reportedHits;
+        this.suspendedNanos = suspendedNanos;
+        this.hitsPerSecond = hitsPerSecond;
+        this.suspendedFraction = suspendedFraction;
+        this.actions = actions;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public ThrottleLevel level() {
+        return level;
+    }
+
+    public int suspendPolicy() {
+        return suspendPolicy;
+    }
+
+    /**
+     * One if every hit is reported.
+     */
+    public int countFilter() {
+        return countFilter;
+    }
+
+    public long reportedHits() {
+        return reportedHits;
+    }
+
+    public long suspendedNanos() {
+        return suspendedNanos;
+    }
+
+    public double hitsPerSecond() {
+        return hitsPerSecond;
+    }
+
+    /**
+     * Share of the window the debuggee spent suspended by the handling of this request.
+     */
+    public double suspendedFraction() {
+        return suspendedFraction;
+    }
+
+    /**
+     * Throttling and restoring steps taken.
+     */
+    public long actions() {
+        return actions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s, policy %d, every %d, %d reported, %.1f hits/s, suspended %.2f%%, %d actions",
+                name, level, suspendPolicy, countFilter, reportedHits, hitsPerSecond, suspendedFraction * 100,
+                actions);
+    }
+}
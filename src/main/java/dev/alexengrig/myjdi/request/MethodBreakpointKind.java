@@ -0,0 +1,14 @@
+package dev.alexengrig.myjdi.request;
+
+/**
+ * Role of a breakpoint that emulates method events, stored as the request property
+ * under the {@code MethodBreakpointKind.class} key.
+ */
+public enum MethodBreakpointKind {
+    ENTRY,
+    EXIT,
+    /**
+     * The first instruction of the method is a return.
+     */
+    ENTRY_AND_EXIT
+}
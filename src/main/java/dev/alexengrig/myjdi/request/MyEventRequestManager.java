@@ -2,16 +2,22 @@ package dev.alexengrig.myjdi.request;
 
 import com.sun.jdi.AbsentInformationException;
 import com.sun.jdi.Location;
+import com.sun.jdi.Method;
 import com.sun.jdi.ReferenceType;
 import com.sun.jdi.request.BreakpointRequest;
 import com.sun.jdi.request.ClassPrepareRequest;
 import com.sun.jdi.request.EventRequestManager;
 import com.sun.jdi.request.ExceptionRequest;
+import dev.alexengrig.myjdi.log.Log;
 import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MyEventRequestManager extends YouthEventRequestManager.Delegate implements YouthEventRequestManager {
+    private static final Log log = Log.getLog(MyEventRequestManager.class);
+
     protected final YouthVirtualMachine virtualMachine;
 
     public MyEventRequestManager(YouthVirtualMachine virtualMachine, EventRequestManager eventRequestManager) {
@@ -69,4 +75,65 @@ public class MyEventRequestManager extends YouthEventRequestManager.Delegate imp
             }
         });
     }
+
+    @Override
+    public void createMethodBreakpointRequests(String className, String methodName) {
+        for (ReferenceType type : virtualMachine.classesByName(className)) {
+            enableMethodBreakpointRequests(type, methodName);
+        }
+        ClassPrepareRequest classPrepareRequest = createClassPrepareRequest();
+        classPrepareRequest.addClassFilter(className);
+        classPrepareRequest.enable();
+        virtualMachine.eventSubscriptionManager().subscribeOnClassPrepare(event -> {
+            ReferenceType type = event.referenceType();
+            if (className.equals(type.name())) {
+                enableMethodBreakpointRequests(type, methodName);
+            }
+        });
+    }
+
+    protected void enableMethodBreakpointRequests(ReferenceType type, String methodName) {
+        for (Method method : type.methodsByName(methodName)) {
+            for (BreakpointRequest request : createMethodBreakpointRequests(method)) {
+                request.enable();
+            }
+        }
+    }
+
+    /**
+     * Exits are found by scanning the bytecodes for return instructions, so exits by a thrown exception
+     * are not reported. Abstract and native methods have no code and get no breakpoints.
+     *
+     * @throws UnsupportedOperationException if the VM cannot provide bytecodes
+     */
+    @Override
+    public List<BreakpointRequest> createMethodBreakpointRequests(Method method) {
+        if (method.isAbstract() || method.isNative()) {
+            return Collections.emptyList();
+        }
+        if (!virtualMachine.canGetBytecodes()) {
+            throw new UnsupportedOperationException("The VM cannot get bytecodes to find method exits");
+        }
+        byte[] code = method.bytecodes();
+        if (Bytecodes.isBranchTarget(code, 0)) {
+            log.warning("The code of {} loops back to its start, the entry breakpoint hits more than once per call.",
+                    method);
+        }
+        int[] returns = Bytecodes.returnIndices(code);
+        List<BreakpointRequest> requests = new ArrayList<>(returns.length + 1);
+        boolean entryIsExit = returns.length > 0 && returns[0] == 0;
+        requests.add(createMethodBreakpointRequest(method.location(),
+                entryIsExit ? MethodBreakpointKind.ENTRY_AND_EXIT : MethodBreakpointKind.ENTRY));
+        for (int i = entryIsExit ? 1 : 0; i < returns.length; i++) {
+            requests.add(createMethodBreakpointRequest(method.locationOfCodeIndex(returns[i]),
+                    MethodBreakpointKind.EXIT));
+        }
+        return requests;
+    }
+
+    protected BreakpointRequest createMethodBreakpointRequest(Location location, MethodBreakpointKind kind) {
+        BreakpointRequest request = createBreakpointRequest(location);
+        request.putProperty(MethodBreakpointKind.class, kind);
+        return request;
+    }
 }
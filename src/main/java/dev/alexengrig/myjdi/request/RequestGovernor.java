@@ -0,0 +1,427 @@
+package dev.alexengrig.myjdi.request;
+
+import com.sun.jdi.VMDisconnectedException;
+import com.sun.jdi.event.Event;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.InvalidRequestStateException;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.queue.YouthEventSet;
+import dev.alexengrig.myjdi.util.Concurrency;
+import dev.alexengrig.myjdi.vm.YouthVirtualMachine;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps expensive requests within a budget of hits per second and of debuggee time suspended by their handling.
+ * Every window each governed request is checked: over budget it is throttled one step,
+ * first to a lighter suspend policy if the suspension is the problem, then to a growing count filter,
+ * finally disabled for a cooldown; after enough calm windows the steps are undone one by one.
+ * <p>
+ * JDI cannot remove a count filter, so the governor owns the requests and recreates them from their factories.
+ * A count filter also expires the request after its report, so the governor re-arms it on every reported hit.
+ */
+public class RequestGovernor {
+    private static final Log log = Log.getLog(RequestGovernor.class);
+
+    protected final YouthVirtualMachine virtualMachine;
+    protected final double maxHitsPerSecond;
+    protected final double maxSuspendedFraction;
+    protected final long windowNanos;
+    protected final double restoreRatio;
+    protected final int calmWindows;
+    protected final int cooldownWindows;
+    protected final int maxCountFilter;
+    protected final boolean lighterSuspend;
+    protected final List<GovernedRequest> governed = new ArrayList<>();
+    protected ScheduledExecutorService scheduler;
+    protected boolean listening;
+
+    protected RequestGovernor(Builder builder) {
+        this.virtualMachine = builder.virtualMachine;
+        this.maxHitsPerSecond = builder.maxHitsPerSecond;
+        this.maxSuspendedFraction = builder.maxSuspendedFraction;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(builder.windowMillis);
+        this.restoreRatio = builder.restoreRatio;
+        this.calmWindows = builder.calmWindows;
+        this.cooldownWindows = builder.cooldownWindows;
+        this.maxCountFilter = builder.maxCountFilter;
+        this.lighterSuspend = builder.lighterSuspend;
+    }
+
+    public static Builder builder(YouthVirtualMachine virtualMachine) {
+        return new Builder(virtualMachine);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("The governor is already started");
+        }
+        if (!listening) {
+            virtualMachine.eventHandler().addEventSetListener(this::onEventSet);
+            listening = true;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Concurrency.daemonThreadFactory("myjdi-request-governor-"));
+        scheduler.scheduleAtFixedRate(this::evaluate, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Creates and enables a request that the governor may recreate at any time.
+     *
+     * @param factory creates the request with all its filters and its suspend policy, it must not enable it
+     */
+    public synchronized GovernedRequest govern(String name,
+                                               Function<YouthEventRequestManager, ? extends EventRequest> factory) {
+        GovernedRequest request = new GovernedRequest(name, factory);
+        request.rebuild();
+        governed.add(request);
+        return request;
+    }
+
+    /**
+     * Deletes the request and stops governing it.
+     */
+    public synchronized void release(GovernedRequest request) {
+        if (governed.remove(request)) {
+            request.delete();
+        }
+    }
+
+    public synchronized List<GovernedRequestMetrics> metrics() {
+        List<GovernedRequestMetrics> metrics = new ArrayList<>(governed.size());
+        for (GovernedRequest request : governed) {
+            metrics.add(request.metrics());
+        }
+        return metrics;
+    }
+
+    protected synchronized void onEventSet(YouthEventSet eventSet, long handlingNanos) {
+        int count = 0;
+        for (Event event : eventSet) {
+            if (governedRequest(event) != null) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        long suspended = eventSet.suspendPolicy() == EventRequest.SUSPEND_NONE ? 0 : handlingNanos / count;
+        for (Event event : eventSet) {
+            GovernedRequest request = governedRequest(event);
+            if (request != null) {
+                request.hit(event.request(), suspended);
+            }
+        }
+    }
+
+    protected GovernedRequest governedRequest(Event event) {
+        EventRequest request = event.request();
+        if (request == null) {
+            return null;
+        }
+        Object property = request.getProperty(RequestGovernor.class);
+        return property instanceof GovernedRequest && ((GovernedRequest) property).governor() == this
+                ? (GovernedRequest) property
+                : null;
+    }
+
+    protected synchronized void evaluate() {
+        try {
+            for (GovernedRequest request : governed) {
+                request.evaluate();
+            }
+        } catch (VMDisconnectedException e) {
+            log.info("VM is disconnected, governing is stopped.");
+            stop();
+        } catch (RuntimeException e) {
+            log.warning("Governing failed.", e);
+        }
+    }
+
+    protected static int lighter(int suspendPolicy) {
+        return suspendPolicy == EventRequest.SUSPEND_ALL ? EventRequest.SUSPEND_EVENT_THREAD : EventRequest.SUSPEND_NONE;
+    }
+
+    protected static int heavier(int suspendPolicy, int original) {
+        int policy = suspendPolicy == EventRequest.SUSPEND_NONE
+                ? EventRequest.SUSPEND_EVENT_THREAD
+                : EventRequest.SUSPEND_ALL;
+        return original == EventRequest.SUSPEND_EVENT_THREAD && policy == EventRequest.SUSPEND_ALL ? original : policy;
+    }
+
+    /**
+     * Handle of a request owned by the governor, all its state is guarded by the governor.
+     */
+    public class GovernedRequest {
+        protected final String name;
+        protected final Function<YouthEventRequestManager, ? extends EventRequest> factory;
+        protected EventRequest request;
+        protected int originalPolicy = -1;
+        protected int suspendPolicy;
+        protected int countFilter = 1;
+        protected boolean disabled;
+        protected long windowHits;
+        protected long windowSuspendedNanos;
+        protected long reportedHits;
+        protected long suspendedNanos;
+        protected double hitsPerSecond;
+        protected double suspendedFraction;
+        protected int calm;
+        protected int cooldown;
+        protected long actions;
+
+        protected GovernedRequest(String name, Function<YouthEventRequestManager, ? extends EventRequest> factory) {
+            this.name = Objects.requireNonNull(name, "The name must not be null");
+            this.factory = Objects.requireNonNull(factory, "The factory must not be null");
+        }
+
+        protected RequestGovernor governor() {
+            return RequestGovernor.this;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * The current request, it changes when the governor recreates it.
+         */
+        public EventRequest request() {
+            synchronized (RequestGovernor.this) {
+                return request;
+            }
+        }
+
+        public ThrottleLevel level() {
+            synchronized (RequestGovernor.this) {
+                if (disabled) {
+                    return ThrottleLevel.DISABLED;
+                } else if (countFilter > 1) {
+                    return ThrottleLevel.COUNT_FILTER;
+                } else if (suspendPolicy != originalPolicy) {
+                    return ThrottleLevel.LIGHTER_SUSPEND;
+                }
+                return ThrottleLevel.NONE;
+            }
+        }
+
+        protected void hit(EventRequest source, long suspended) {
+            windowHits++;
+            windowSuspendedNanos += suspended;
+            reportedHits++;
+            suspendedNanos += suspended;
+            if (countFilter > 1 && source == request && !disabled) {
+                try {
+                    // enabling again restarts the expired count
+                    request.disable();
+                    request.enable();
+                } catch (InvalidRequestStateException ignore) {
+                    // deleted by a concurrent rebuild
+                }
+            }
+        }
+
+        protected void evaluate() {
+            hitsPerSecond = windowHits * countFilter * 1e9 / windowNanos;
+            suspendedFraction = (double) windowSuspendedNanos / windowNanos;
+            windowHits = 0;
+            windowSuspendedNanos = 0;
+            if (disabled) {
+                if (++cooldown >= cooldownWindows) {
+                    disabled = false;
+                    calm = 0;
+                    act("cooldown is over, enabling again");
+                }
+                return;
+            }
+            boolean overRate = hitsPerSecond > maxHitsPerSecond;
+            boolean overSuspension = suspendedFraction > maxSuspendedFraction;
+            if (overRate || overSuspension) {
+                calm = 0;
+                throttle(overSuspension && !overRate);
+            } else if (hitsPerSecond <= maxHitsPerSecond * restoreRatio
+                    && suspendedFraction <= maxSuspendedFraction * restoreRatio) {
+                if (++calm >= calmWindows) {
+                    calm = 0;
+                    restore();
+                }
+            } else {
+                calm = 0;
+            }
+        }
+
+        protected void throttle(boolean suspensionOnly) {
+            if (lighterSuspend && suspendPolicy != EventRequest.SUSPEND_NONE && suspensionOnly) {
+                int from = suspendPolicy;
+                suspendPolicy = lighter(suspendPolicy);
+                act(String.format("%.1f hits/s, suspended %.2f%%, suspend policy %d -> %d",
+                        hitsPerSecond, suspendedFraction * 100, from, suspendPolicy));
+            } else if (countFilter < maxCountFilter) {
+                int from = countFilter;
+                int needed = (int) Math.min(maxCountFilter, Math.ceil(hitsPerSecond / maxHitsPerSecond));
+                countFilter = Math.min(maxCountFilter, Math.max(countFilter << 1, needed));
+                act(String.format("%.1f hits/s, suspended %.2f%%, count filter %d -> %d",
+                        hitsPerSecond, suspendedFraction * 100, from, countFilter));
+            } else {
+                disabled = true;
+                cooldown = 0;
+                act(String.format("%.1f hits/s, suspended %.2f%%, disabled for %d windows",
+                        hitsPerSecond, suspendedFraction * 100, cooldownWindows));
+            }
+        }
+
+        protected void restore() {
+            if (countFilter > 1) {
+                int from = countFilter;
+                countFilter = countFilter >> 1 < 2 ? 1 : countFilter >> 1;
+                act(String.format("calm, count filter %d -> %d", from, countFilter));
+            } else if (suspendPolicy != originalPolicy) {
+                int from = suspendPolicy;
+                suspendPolicy = heavier(suspendPolicy, originalPolicy);
+                act(String.format("calm, suspend policy %d -> %d", from, suspendPolicy));
+            }
+        }
+
+        protected void act(String reason) {
+            actions++;
+            log.info("Request '{}' is {}: {}.", name, disabled ? "disabled" : "changed", reason);
+            rebuild();
+        }
+
+        protected void rebuild() {
+            delete();
+            EventRequest created = factory.apply(virtualMachine.eventRequestManager());
+            if (originalPolicy < 0) {
+                originalPolicy = created.suspendPolicy();
+                suspendPolicy = originalPolicy;
+            }
+            if (countFilter > 1) {
+                created.addCountFilter(countFilter);
+            }
+            created.setSuspendPolicy(suspendPolicy);
+            created.putProperty(RequestGovernor.class, this);
+            if (!disabled) {
+                created.enable();
+            }
+            request = created;
+        }
+
+        protected void delete() {
+            if (request != null) {
+                virtualMachine.eventRequestManager().deleteEventRequest(request);
+                request = null;
+            }
+        }
+
+        protected GovernedRequestMetrics metrics() {
+            return new GovernedRequestMetrics(name, level(), suspendPolicy, countFilter, reportedHits,
+                    suspendedNanos, hitsPerSecond, suspendedFraction, actions);
+        }
+    }
+
+    public static class Builder {
+        protected final YouthVirtualMachine virtualMachine;
+        protected double maxHitsPerSecond = 1000;
+        protected double maxSuspendedFraction = 0.05;
+        protected long windowMillis = 1000;
+        protected double restoreRatio = 0.5;
+        protected int calmWindows = 5;
+        protected int cooldownWindows = 10;
+        protected int maxCountFilter = 1024;
+        protected boolean lighterSuspend = true;
+
+        protected Builder(YouthVirtualMachine virtualMachine) {
+            this.virtualMachine = Objects.requireNonNull(virtualMachine, "The virtual machine must not be null");
+        }
+
+        public Builder maxHitsPerSecond(double value) {
+            this.maxHitsPerSecond = value;
+            return this;
+        }
+
+        /**
+         * Share of wall time the handling of one request may keep the debuggee suspended.
+         */
+        public Builder maxSuspendedFraction(double value) {
+            this.maxSuspendedFraction = value;
+            return this;
+        }
+
+        public Builder windowMillis(long value) {
+            this.windowMillis = value;
+            return this;
+        }
+
+        /**
+         * A window is calm when both measures are below their budgets times the ratio.
+         */
+        public Builder restoreRatio(double value) {
+            this.restoreRatio = value;
+            return this;
+        }
+
+        /**
+         * Calm windows in a row before one throttling step is undone.
+         */
+        public Builder calmWindows(int value) {
+            this.calmWindows = value;
+            return this;
+        }
+
+        /**
+         * Windows a disabled request stays disabled.
+         */
+        public Builder cooldownWindows(int value) {
+            this.cooldownWindows = value;
+            return this;
+        }
+
+        /**
+         * The largest count filter before disabling.
+         */
+        public Builder maxCountFilter(int value) {
+            this.maxCountFilter = value;
+            return this;
+        }
+
+        /**
+         * Whether the suspend policy may be lightened, subscribers that read frames need suspended threads.
+         */
+        public Builder lighterSuspend(boolean value) {
+            this.lighterSuspend = value;
+            return this;
+        }
+
+        public RequestGovernor build() {
+            if (maxHitsPerSecond <= 0 || maxSuspendedFraction <= 0) {
+                throw new IllegalArgumentException(String.format("Budgets must be positive: %s hits/s, %s suspended",
+                        maxHitsPerSecond, maxSuspendedFraction));
+            }
+            if (windowMillis <= 0) {
+                throw new IllegalArgumentException("Window must be positive: " + windowMillis);
+            }
+            if (restoreRatio <= 0 || restoreRatio > 1) {
+                throw new IllegalArgumentException("Restore ratio must be in (0, 1]: " + restoreRatio);
+            }
+            if (calmWindows <= 0 || cooldownWindows <= 0) {
+                throw new IllegalArgumentException(String.format("Windows must be positive: %d calm, %d cooldown",
+                        calmWindows, cooldownWindows));
+            }
+            if (maxCountFilter < 1) {
+                throw new IllegalArgumentException("Max count filter must be positive: " + maxCountFilter);
+            }
+            return new RequestGovernor(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.alexengrig.myjdi.request;
+
+/**
+ * How hard the {@link RequestGovernor} currently holds a request back, from the lightest.
+ */
+public enum ThrottleLevel {
+    NONE,
+    /**
+     * Suspends fewer threads than it was created with.
+     */
+    LIGHTER_SUSPEND,
+    /**
+     * Reports only every n-th hit.
+     */
+    COUNT_FILTER,
+    /**
+     * Disabled until the cooldown ends.
+     */
+    DISABLED
+}
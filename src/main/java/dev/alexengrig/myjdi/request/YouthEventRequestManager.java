@@ -30,6 +30,22 @@ public interface YouthEventRequestManager extends EventRequestManager {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Emulates method entry and exit events of the named methods with breakpoints,
+     * also for classes that are not loaded yet.
+     */
+    default void createMethodBreakpointRequests(String className, String methodName) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates disabled breakpoints on the first instruction and on every return instruction of the method,
+     * each one marked with its {@link MethodBreakpointKind}.
+     */
+    default List<BreakpointRequest> createMethodBreakpointRequests(Method method) {
+        throw new UnsupportedOperationException();
+    }
+
     class Delegate implements YouthEventRequestManager {
         protected final EventRequestManager requestManager;
 
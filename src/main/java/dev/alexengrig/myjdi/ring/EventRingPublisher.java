@@ -0,0 +1,115 @@
+package dev.alexengrig.myjdi.ring;
+
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.snapshot.SnapshotEncoder;
+import dev.alexengrig.myjdi.snapshot.SnapshotFactory;
+import dev.alexengrig.myjdi.snapshot.SnapshotFormat;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriber;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publishes every event it receives into a shared ring file for {@link EventRingReader}s in other processes.
+ * The only writer is the event handler thread, it never waits for readers: a lagging reader is overrun.
+ */
+public class EventRingPublisher implements YouthEventSubscriber<YouthEvent>, Closeable {
+    protected final SnapshotFactory snapshotFactory;
+    protected final SnapshotEncoder encoder;
+    protected final ByteSink record;
+    protected final RingMemory memory;
+    protected final int maxRecordSize;
+    protected long sequence;
+    protected long published;
+    protected long dropped;
+    protected volatile boolean running = true;
+
+    public EventRingPublisher(Path path, int capacity, SnapshotFactory snapshotFactory) throws IOException {
+        if (capacity < 4096 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two of at least 4096: " + capacity);
+        }
+        this.snapshotFactory = snapshotFactory;
+        this.encoder = new SnapshotEncoder();
+        this.record = new ByteSink();
+        this.maxRecordSize = capacity >> 2;
+        Files.deleteIfExists(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, RingFormat.HEADER_SIZE + (long) capacity);
+        buffer.putInt(0, RingFormat.MAGIC)
+                .putInt(4, RingFormat.VERSION)
+                .putInt(RingFormat.CAPACITY_OFFSET, capacity)
+                .putInt(RingFormat.SNAPSHOT_VERSION_OFFSET, SnapshotFormat.VERSION)
+                .putLong(RingFormat.CREATED_OFFSET, snapshotFactory.clock().getAsLong());
+        this.memory = new RingMemory(channel, buffer, capacity);
+    }
+
+    public static EventRingPublisher publish(YouthEventSubscriptionManager subscriptionManager, Path path,
+                                             int capacity, SnapshotFactory snapshotFactory) throws IOException {
+        EventRingPublisher publisher = new EventRingPublisher(path, capacity, snapshotFactory);
+        subscriptionManager.subscribeOnAll(publisher);
+        return publisher;
+    }
+
+    @Override
+    public void accept(YouthEvent event) {
+        if (running) {
+            publish(snapshotFactory.create(event));
+        }
+    }
+
+    /**
+     * Encodes the snapshot as a self-contained record, so a reader may join at any record.
+     */
+    public void publish(YouthEventSnapshot snapshot) {
+        record.reset();
+        encoder.reset();
+        encoder.encode(snapshot, record);
+        int length = record.size();
+        int size = RingFormat.recordSize(length);
+        if (size > maxRecordSize) {
+            dropped++;
+            return;
+        }
+        int offset = memory.offset(sequence);
+        int remaining = memory.capacity - offset;
+        if (remaining < size) {
+            memory.claim(sequence + remaining + size);
+            memory.putInt(offset, RingFormat.PADDING);
+            sequence += remaining;
+            offset = 0;
+        } else {
+            memory.claim(sequence + size);
+        }
+        memory.putBytes(offset + RingFormat.RECORD_HEADER_SIZE, record.array(), length);
+        memory.putInt(offset, length);
+        sequence += size;
+        memory.publish(sequence);
+        published++;
+    }
+
+    public long published() {
+        return published;
+    }
+
+    /**
+     * Snapshots too large for a quarter of the ring.
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        memory.close();
+    }
+}
@@ -0,0 +1,154 @@
+package dev.alexengrig.myjdi.ring;
+
+import dev.alexengrig.myjdi.snapshot.SnapshotDecoder;
+import dev.alexengrig.myjdi.snapshot.SnapshotFormat;
+import dev.alexengrig.myjdi.snapshot.YouthEventSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Tails a ring file of an {@link EventRingPublisher}, any number of readers may follow the same ring.
+ * Records are decoded in place from the mapping; a record is delivered only if the writer's claim shows
+ * it was not overwritten while being read, otherwise the reader skips to the newest record.
+ * Not thread-safe, each consuming thread opens its own reader.
+ */
+public class EventRingReader implements Closeable {
+    protected static final int BATCH_SIZE = 1024;
+
+    protected final RingMemory memory;
+    protected final ByteBuffer data;
+    protected final long createdTimestamp;
+    protected SnapshotDecoder decoder;
+    protected long position;
+    protected long overruns;
+
+    protected EventRingReader(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int magic = buffer.getInt(0);
+        int version = buffer.getInt(4);
+        int snapshotVersion = buffer.getInt(RingFormat.SNAPSHOT_VERSION_OFFSET);
+        if (magic != RingFormat.MAGIC || version > RingFormat.VERSION || snapshotVersion > SnapshotFormat.VERSION) {
+            channel.close();
+            throw new IOException(String.format("Not a supported event ring: %s.", path));
+        }
+        this.memory = new RingMemory(channel, buffer, buffer.getInt(RingFormat.CAPACITY_OFFSET));
+        this.data = memory.data();
+        this.createdTimestamp = buffer.getLong(RingFormat.CREATED_OFFSET);
+        this.decoder = new SnapshotDecoder();
+        this.position = memory.published();
+    }
+
+    /**
+     * Opens the ring positioned at its newest record.
+     */
+    public static EventRingReader open(Path path) throws IOException {
+        return new EventRingReader(path);
+    }
+
+    public long createdTimestamp() {
+        return createdTimestamp;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Times this reader was lapped by the writer and skipped ahead.
+     */
+    public long overruns() {
+        return overruns;
+    }
+
+    /**
+     * Delivers up to {@code limit} published snapshots.
+     *
+     * @return number of delivered snapshots
+     */
+    public int poll(Consumer<? super YouthEventSnapshot> consumer, int limit) {
+        int delivered = 0;
+        long published = memory.published();
+        while (delivered < limit && position < published) {
+            if (published - position > memory.capacity) {
+                published = overrun();
+                continue;
+            }
+            int offset = memory.offset(position);
+            int length = memory.getInt(offset);
+            YouthEventSnapshot snapshot = null;
+            RuntimeException failure = null;
+            long next;
+            if (length == RingFormat.PADDING) {
+                next = position + memory.capacity - offset;
+            } else if (length < 0 || RingFormat.recordSize(length) > memory.capacity - offset) {
+                next = -1;
+            } else {
+                int start = offset + RingFormat.RECORD_HEADER_SIZE;
+                data.clear();
+                data.position(start);
+                data.limit(start + length);
+                try {
+                    decoder.reset();
+                    snapshot = decoder.decode(data);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                next = position + RingFormat.recordSize(length);
+            }
+            memory.loadFence();
+            if (memory.claimed() - memory.capacity > position) {
+                published = overrun();
+                continue;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (next < 0) {
+                throw new IllegalStateException(String.format("Corrupted ring record at %d: length %d.", position, length));
+            }
+            position = next;
+            if (snapshot != null) {
+                consumer.accept(snapshot);
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Polls until the thread is interrupted, parking for {@code idleMicros} when the ring is drained.
+     */
+    public void tail(Consumer<? super YouthEventSnapshot> consumer, long idleMicros) {
+        long idleNanos = TimeUnit.MICROSECONDS.toNanos(idleMicros);
+        while (!Thread.currentThread().isInterrupted()) {
+            if (poll(consumer, BATCH_SIZE) == 0) {
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    /**
+     * Definitions read from an overwritten record may be torn, so the identities are forgotten too.
+     */
+    protected long overrun() {
+        overruns++;
+        decoder = new SnapshotDecoder();
+        position = memory.published();
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        memory.close();
+    }
+}
@@ -0,0 +1,45 @@
+package dev.alexengrig.myjdi.ring;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Layout of a shared event ring file.
+ * <p>
+ * The {@value #HEADER_SIZE}-byte header holds magic, version, data capacity, snapshot format version
+ * and creation timestamp, then the writer's claimed and published sequences, each on its own cache line.
+ * Sequences count bytes written since creation, the data offset of a sequence is {@code sequence & (capacity - 1)}.
+ * <p>
+ * Records are 8-byte aligned: an int payload length and a self-contained snapshot stream
+ * of {@link dev.alexengrig.myjdi.snapshot.SnapshotFormat}. A {@link #PADDING} length skips to the ring start.
+ */
+public final class RingFormat {
+    public static final int MAGIC = 0x4D594A52;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 192;
+    public static final int CAPACITY_OFFSET = 8;
+    public static final int SNAPSHOT_VERSION_OFFSET = 12;
+    public static final int CREATED_OFFSET = 16;
+    public static final int CLAIMED_OFFSET = 64;
+    public static final int PUBLISHED_OFFSET = 128;
+    public static final int RECORD_HEADER_SIZE = 4;
+    public static final int PADDING = -1;
+    public static final int DEFAULT_CAPACITY = 16 << 20;
+
+    private RingFormat() {
+    }
+
+    public static int recordSize(int payloadLength) {
+        return (RECORD_HEADER_SIZE + payloadLength + 7) & ~7;
+    }
+
+    /**
+     * Ring file in shared memory when {@code /dev/shm} is available, otherwise in the temporary directory.
+     */
+    public static Path defaultPath(String name) {
+        Path shm = Paths.get("/dev/shm");
+        Path directory = Files.isDirectory(shm) ? shm : Paths.get(System.getProperty("java.io.tmpdir"));
+        return directory.resolve(name + ".ring");
+    }
+}
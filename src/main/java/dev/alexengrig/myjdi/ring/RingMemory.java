@@ -0,0 +1,184 @@
+package dev.alexengrig.myjdi.ring;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Mapping of a ring file with ordered access to its sequences.
+ * The hot path only touches mapped memory, without system calls.
+ * <p>
+ * Java 8 has no public API for volatile and ordered access to mapped memory shared with another process,
+ * so this is the only class using {@code sun.misc.Unsafe}. It is reached through method handles:
+ * naming the class makes javac warn about internal proprietary API, and no annotation suppresses that.
+ * The handles are constants, so the JIT inlines them into plain memory accesses and fences.
+ */
+class RingMemory implements Closeable {
+    private static final MethodHandle GET_LONG_VOLATILE;
+    private static final MethodHandle PUT_LONG_VOLATILE;
+    private static final MethodHandle PUT_ORDERED_LONG;
+    private static final MethodHandle LOAD_FENCE;
+    private static final MethodHandle GET_INT;
+    private static final MethodHandle PUT_INT;
+    private static final MethodHandle COPY_MEMORY;
+    private static final MethodHandle GET_LONG;
+    private static final long ADDRESS_OFFSET;
+    private static final long BYTE_ARRAY_OFFSET;
+
+    static {
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            GET_LONG_VOLATILE = handle(type, unsafe, "getLongVolatile", long.class, Object.class, long.class);
+            PUT_LONG_VOLATILE = handle(type, unsafe, "putLongVolatile", void.class, Object.class, long.class,
+                    long.class);
+            PUT_ORDERED_LONG = handle(type, unsafe, "putOrderedLong", void.class, Object.class, long.class,
+                    long.class);
+            LOAD_FENCE = handle(type, unsafe, "loadFence", void.class);
+            GET_INT = handle(type, unsafe, "getInt", int.class, long.class);
+            PUT_INT = handle(type, unsafe, "putInt", void.class, long.class, int.class);
+            COPY_MEMORY = handle(type, unsafe, "copyMemory", void.class, Object.class, long.class, Object.class,
+                    long.class, long.class);
+            GET_LONG = handle(type, unsafe, "getLong", long.class, Object.class, long.class);
+            ADDRESS_OFFSET = (long) handle(type, unsafe, "objectFieldOffset", long.class, Field.class)
+                    .invokeExact(Buffer.class.getDeclaredField("address"));
+            BYTE_ARRAY_OFFSET = (int) handle(type, unsafe, "arrayBaseOffset", int.class, Class.class)
+                    .invokeExact((Class<?>) byte[].class);
+        } catch (Throwable e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    protected final FileChannel channel;
+    protected final MappedByteBuffer buffer;
+    protected final long address;
+    protected final int capacity;
+    protected final int mask;
+
+    RingMemory(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        try {
+            this.address = (long) GET_LONG.invokeExact((Object) buffer, ADDRESS_OFFSET);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    long claimed() {
+        try {
+            return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address + RingFormat.CLAIMED_OFFSET);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    /**
+     * Full fence, readers that see a newer claim must not see data older than it.
+     */
+    void claim(long sequence) {
+        try {
+            PUT_LONG_VOLATILE.invokeExact((Object) null, address + RingFormat.CLAIMED_OFFSET, sequence);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    long published() {
+        try {
+            return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address + RingFormat.PUBLISHED_OFFSET);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    void publish(long sequence) {
+        try {
+            PUT_ORDERED_LONG.invokeExact((Object) null, address + RingFormat.PUBLISHED_OFFSET, sequence);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    /**
+     * Keeps the reads of a record before the claim check that validates them.
+     */
+    void loadFence() {
+        try {
+            LOAD_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    int offset(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    int getInt(int offset) {
+        try {
+            return (int) GET_INT.invokeExact(address + RingFormat.HEADER_SIZE + offset);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    void putInt(int offset, int value) {
+        try {
+            PUT_INT.invokeExact(address + RingFormat.HEADER_SIZE + offset, value);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    void putBytes(int offset, byte[] bytes, int length) {
+        try {
+            COPY_MEMORY.invokeExact((Object) bytes, BYTE_ARRAY_OFFSET, (Object) null,
+                    address + RingFormat.HEADER_SIZE + offset, (long) length);
+        } catch (Throwable e) {
+            throw unexpected(e);
+        }
+    }
+
+    /**
+     * View of the data region, its positions are data offsets.
+     */
+    ByteBuffer data() {
+        ByteBuffer view = buffer.duplicate();
+        view.position(RingFormat.HEADER_SIZE);
+        return view.slice();
+    }
+
+    private static MethodHandle handle(Class<?> type, Object unsafe, String name, Class<?> returnType,
+                                       Class<?>... parameterTypes) throws ReflectiveOperationException {
+        return MethodHandles.lookup()
+                .findVirtual(type, name, MethodType.methodType(returnType, parameterTypes))
+                .bindTo(unsafe);
+    }
+
+    private static RuntimeException unexpected(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,37 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class ClassIdentity {
+    private final int id;
+    private final String name;
+
+    public ClassIdentity(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClassIdentity)) return false;
+        ClassIdentity that = (ClassIdentity) o;
+        return id == that.id && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id + name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class FieldIdentity {
+    private final int id;
+    private final ClassIdentity declaringType;
+    private final String name;
+    private final String typeName;
+
+    public FieldIdentity(int id, ClassIdentity declaringType, String name, String typeName) {
+        this.id = id;
+        this.declaringType = declaringType;
+        this.name = name;
+        this.typeName = typeName;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public ClassIdentity declaringType() {
+        return declaringType;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String typeName() {
+        return typeName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FieldIdentity)) return false;
+        FieldIdentity that = (FieldIdentity) o;
+        return id == that.id
+                && declaringType.equals(that.declaringType)
+                && name.equals(that.name)
+                && typeName.equals(that.typeName);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id + name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return declaringType.name() + "." + name;
+    }
+}
@@ -0,0 +1,129 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns JDI mirrors into detached identities with dense ids.
+ * Lookups happen on every event, so the table is confined to the event handler thread.
+ */
+public class IdentityTable {
+    protected final Map<String, ClassIdentity> classesByName;
+    protected final Map<Method, MethodIdentity> methodsByMirror;
+    protected final Map<Field, FieldIdentity> fieldsByMirror;
+    protected final Map<Location, LocationIdentity> locationsByMirror;
+    protected final LongObjectHashMap<ThreadIdentity> threadsByUniqueId;
+    protected final List<ClassIdentity> classes;
+    protected final List<MethodIdentity> methods;
+    protected final List<FieldIdentity> fields;
+    protected final List<LocationIdentity> locations;
+    protected final List<ThreadIdentity> threads;
+
+    public IdentityTable() {
+        this.classesByName = new HashMap<>();
+        this.methodsByMirror = new HashMap<>();
+        this.fieldsByMirror = new HashMap<>();
+        this.locationsByMirror = new HashMap<>();
+        this.threadsByUniqueId = new LongObjectHashMap<>();
+        this.classes = new ArrayList<>();
+        this.methods = new ArrayList<>();
+        this.fields = new ArrayList<>();
+        this.locations = new ArrayList<>();
+        this.threads = new ArrayList<>();
+    }
+
+    public ClassIdentity internClass(String name) {
+        ClassIdentity identity = classesByName.get(name);
+        if (identity == null) {
+            identity = new ClassIdentity(classes.size(), name);
+            classes.add(identity);
+            classesByName.put(name, identity);
+        }
+        return identity;
+    }
+
+    public ClassIdentity internClass(ReferenceType type) {
+        return internClass(type.name());
+    }
+
+    public MethodIdentity internMethod(Method method) {
+        MethodIdentity identity = methodsByMirror.get(method);
+        if (identity == null) {
+            identity = new MethodIdentity(methods.size(), internClass(method.declaringType()),
+                    method.name(), method.signature());
+            methods.add(identity);
+            methodsByMirror.put(method, identity);
+        }
+        return identity;
+    }
+
+    public FieldIdentity internField(Field field) {
+        FieldIdentity identity = fieldsByMirror.get(field);
+        if (identity == null) {
+            identity = new FieldIdentity(fields.size(), internClass(field.declaringType()),
+                    field.name(), field.typeName());
+            fields.add(identity);
+            fieldsByMirror.put(field, identity);
+        }
+        return identity;
+    }
+
+    public LocationIdentity internLocation(Location location) {
+        LocationIdentity identity = locationsByMirror.get(location);
+        if (identity == null) {
+            identity = new LocationIdentity(locations.size(), internMethod(location.method()),
+                    location.lineNumber(), location.codeIndex());
+            locations.add(identity);
+            locationsByMirror.put(location, identity);
+        }
+        return identity;
+    }
+
+    public ThreadIdentity internThread(ThreadReference thread) {
+        long uniqueId = thread.uniqueID();
+        ThreadIdentity identity = threadsByUniqueId.get(uniqueId);
+        if (identity == null) {
+            identity = new ThreadIdentity(threads.size(), uniqueId, threadName(thread));
+            threads.add(identity);
+            threadsByUniqueId.put(uniqueId, identity);
+        }
+        return identity;
+    }
+
+    protected String threadName(ThreadReference thread) {
+        try {
+            return thread.name();
+        } catch (ObjectCollectedException e) {
+            return "<collected>";
+        }
+    }
+
+    public ClassIdentity classById(int id) {
+        return classes.get(id);
+    }
+
+    public MethodIdentity methodById(int id) {
+        return methods.get(id);
+    }
+
+    public FieldIdentity fieldById(int id) {
+        return fields.get(id);
+    }
+
+    public LocationIdentity locationById(int id) {
+        return locations.get(id);
+    }
+
+    public ThreadIdentity threadById(int id) {
+        return threads.get(id);
+    }
+
+    public ThreadIdentity threadByUniqueId(long uniqueId) {
+        return threadsByUniqueId.get(uniqueId);
+    }
+}
@@ -0,0 +1,56 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class LocationIdentity {
+    private final int id;
+    private final MethodIdentity method;
+    private final int lineNumber;
+    private final long codeIndex;
+
+    public LocationIdentity(int id, MethodIdentity method, int lineNumber, long codeIndex) {
+        this.id = id;
+        this.method = method;
+        this.lineNumber = lineNumber;
+        this.codeIndex = codeIndex;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public ClassIdentity declaringType() {
+        return method.declaringType();
+    }
+
+    public MethodIdentity method() {
+        return method;
+    }
+
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    public long codeIndex() {
+        return codeIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LocationIdentity)) return false;
+        LocationIdentity that = (LocationIdentity) o;
+        return id == that.id
+                && lineNumber == that.lineNumber
+                && codeIndex == that.codeIndex
+                && method.equals(that.method);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id + Long.hashCode(codeIndex);
+    }
+
+    @Override
+    public String toString() {
+        return method.declaringType().name() + ":" + lineNumber;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class MethodIdentity {
+    private final int id;
+    private final ClassIdentity declaringType;
+    private final String name;
+    private final String signature;
+
+    public MethodIdentity(int id, ClassIdentity declaringType, String name, String signature) {
+        this.id = id;
+        this.declaringType = declaringType;
+        this.name = name;
+        this.signature = signature;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public ClassIdentity declaringType() {
+        return declaringType;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String signature() {
+        return signature;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MethodIdentity)) return false;
+        MethodIdentity that = (MethodIdentity) o;
+        return id == that.id
+                && declaringType.equals(that.declaringType)
+                && name.equals(that.name)
+                && signature.equals(that.signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id + name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return declaringType.name() + "." + name + signature;
+    }
+}
@@ -0,0 +1,213 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import dev.alexengrig.myjdi.util.VarInts;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads snapshots written by {@link SnapshotEncoder}.
+ * Definitions are kept across {@link #reset()}, so one decoder can read every span of a stream.
+ * A definition replaces a different one with the same id, as a new session of the stream reuses ids;
+ * an identical one keeps the existing identity, so identities stay shared across spans of a session.
+ */
+public class SnapshotDecoder {
+    protected ClassIdentity[] classes;
+    protected MethodIdentity[] methods;
+    protected FieldIdentity[] fields;
+    protected LocationIdentity[] locations;
+    protected ThreadIdentity[] threads;
+    protected long lastTimestamp;
+
+    public SnapshotDecoder() {
+        this.classes = new ClassIdentity[64];
+        this.methods = new MethodIdentity[64];
+        this.fields = new FieldIdentity[16];
+        this.locations = new LocationIdentity[64];
+        this.threads = new ThreadIdentity[16];
+    }
+
+    public void reset() {
+        lastTimestamp = 0;
+    }
+
+    /**
+     * Decodes the next event of the buffer.
+     *
+     * @return the event or {@code null} if the buffer has no more events
+     */
+    public YouthEventSnapshot decode(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            int tag = buffer.get() & 0xFF;
+            switch (tag) {
+                case SnapshotFormat.DEFINE_CLASS:
+                    readClassDefinition(buffer);
+                    break;
+                case SnapshotFormat.DEFINE_METHOD:
+                    readMethodDefinition(buffer);
+                    break;
+                case SnapshotFormat.DEFINE_FIELD:
+                    readFieldDefinition(buffer);
+                    break;
+                case SnapshotFormat.DEFINE_LOCATION:
+                    readLocationDefinition(buffer);
+                    break;
+                case SnapshotFormat.DEFINE_THREAD:
+                    readThreadDefinition(buffer);
+                    break;
+                default:
+                    return readEvent(SnapshotKind.of(tag), buffer);
+            }
+        }
+        return null;
+    }
+
+    protected YouthEventSnapshot readEvent(SnapshotKind kind, ByteBuffer buffer) {
+        long timestamp = lastTimestamp + VarInts.readZigZag(buffer);
+        lastTimestamp = timestamp;
+        switch (kind) {
+            case EXCEPTION:
+                return new YouthExceptionEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer), optionalLocation(buffer));
+            case BREAKPOINT:
+                return new YouthBreakpointEventSnapshot(timestamp, thread(buffer), location(buffer));
+            case STEP:
+                return new YouthStepEventSnapshot(timestamp, thread(buffer), location(buffer));
+            case ACCESS_WATCHPOINT:
+                return new YouthAccessWatchpointEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        fields[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer), value(buffer));
+            case MODIFICATION_WATCHPOINT:
+                return new YouthModificationWatchpointEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        fields[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer), value(buffer), value(buffer));
+            case METHOD_EXIT:
+                return new YouthMethodExitEventSnapshot(timestamp, thread(buffer), location(buffer), value(buffer));
+            case METHOD_ENTRY:
+                return new YouthMethodEntryEventSnapshot(timestamp, thread(buffer), location(buffer));
+            case MONITOR_WAITED:
+                return new YouthMonitorWaitedEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer), buffer.get() != 0);
+            case MONITOR_WAIT:
+                return new YouthMonitorWaitEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer), VarInts.readVarLong(buffer));
+            case MONITOR_CONTENDED_ENTERED:
+                return new YouthMonitorContendedEnteredEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer));
+            case MONITOR_CONTENDED_ENTER:
+                return new YouthMonitorContendedEnterEventSnapshot(timestamp, thread(buffer), location(buffer),
+                        classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer));
+            case CLASS_UNLOAD:
+                return new YouthClassUnloadEventSnapshot(timestamp, classes[VarInts.readVarInt(buffer)]);
+            case CLASS_PREPARE:
+                return new YouthClassPrepareEventSnapshot(timestamp, optionalThread(buffer), classes[VarInts.readVarInt(buffer)]);
+            case THREAD_DEATH:
+                return new YouthThreadDeathEventSnapshot(timestamp, thread(buffer));
+            case THREAD_START:
+                return new YouthThreadStartEventSnapshot(timestamp, thread(buffer));
+            case VM_DEATH:
+                return new YouthVMDeathEventSnapshot(timestamp);
+            case VM_DISCONNECT:
+                return new YouthVMDisconnectEventSnapshot(timestamp);
+            case VM_START:
+                return new YouthVMStartEventSnapshot(timestamp, optionalThread(buffer));
+            default:
+                throw new IllegalStateException(String.format("Unexpected snapshot kind: %s.", kind));
+        }
+    }
+
+    protected ThreadIdentity thread(ByteBuffer buffer) {
+        return threads[VarInts.readVarInt(buffer)];
+    }
+
+    protected ThreadIdentity optionalThread(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        return id != 0 ? threads[id - 1] : null;
+    }
+
+    protected LocationIdentity location(ByteBuffer buffer) {
+        return locations[VarInts.readVarInt(buffer)];
+    }
+
+    protected LocationIdentity optionalLocation(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        return id != 0 ? locations[id - 1] : null;
+    }
+
+    protected ValueSnapshot value(ByteBuffer buffer) {
+        int tag = buffer.get() & 0xFF;
+        switch (tag) {
+            case SnapshotFormat.NO_VALUE:
+                return null;
+            case ValueSnapshot.NULL:
+                return ValueSnapshot.ofNull();
+            case ValueSnapshot.VOID:
+                return ValueSnapshot.ofVoid();
+            case ValueSnapshot.BOOLEAN:
+            case ValueSnapshot.BYTE:
+            case ValueSnapshot.CHAR:
+            case ValueSnapshot.SHORT:
+            case ValueSnapshot.INT:
+            case ValueSnapshot.LONG:
+                return ValueSnapshot.ofPrimitive((byte) tag, VarInts.readZigZag(buffer));
+            case ValueSnapshot.FLOAT:
+            case ValueSnapshot.DOUBLE:
+                return ValueSnapshot.ofPrimitive((byte) tag, buffer.getLong());
+            case ValueSnapshot.OBJECT:
+                return ValueSnapshot.ofObject(classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer));
+            case ValueSnapshot.STRING:
+                return ValueSnapshot.ofString(classes[VarInts.readVarInt(buffer)], VarInts.readVarLong(buffer),
+                        VarInts.readString(buffer));
+            default:
+                throw new IllegalStateException(String.format("Unexpected value tag: %d.", tag));
+        }
+    }
+
+    protected void readClassDefinition(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        String name = VarInts.readString(buffer);
+        classes = ensureCapacity(classes, id);
+        classes[id] = define(classes[id], new ClassIdentity(id, name));
+    }
+
+    protected void readMethodDefinition(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        ClassIdentity declaringType = classes[VarInts.readVarInt(buffer)];
+        String name = VarInts.readString(buffer);
+        String signature = VarInts.readString(buffer);
+        methods = ensureCapacity(methods, id);
+        methods[id] = define(methods[id], new MethodIdentity(id, declaringType, name, signature));
+    }
+
+    protected void readFieldDefinition(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        ClassIdentity declaringType = classes[VarInts.readVarInt(buffer)];
+        String name = VarInts.readString(buffer);
+        String typeName = VarInts.readString(buffer);
+        fields = ensureCapacity(fields, id);
+        fields[id] = define(fields[id], new FieldIdentity(id, declaringType, name, typeName));
+    }
+
+    protected void readLocationDefinition(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        MethodIdentity method = methods[VarInts.readVarInt(buffer)];
+        int lineNumber = (int) VarInts.readZigZag(buffer);
+        long codeIndex = VarInts.readVarLong(buffer);
+        locations = ensureCapacity(locations, id);
+        locations[id] = define(locations[id], new LocationIdentity(id, method, lineNumber, codeIndex));
+    }
+
+    protected void readThreadDefinition(ByteBuffer buffer) {
+        int id = VarInts.readVarInt(buffer);
+        long uniqueId = VarInts.readVarLong(buffer);
+        String name = VarInts.readString(buffer);
+        threads = ensureCapacity(threads, id);
+        threads[id] = define(threads[id], new ThreadIdentity(id, uniqueId, name));
+    }
+
+    protected static <T> T define(T existing, T definition) {
+        return definition.equals(existing) ? existing : definition;
+    }
+
+    protected static <T> T[] ensureCapacity(T[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length << 1));
+    }
+}
@@ -0,0 +1,264 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.util.BitSet;
+
+/**
+ * Writes snapshots in the {@link SnapshotFormat}.
+ * Identities are defined inline the first time they are referenced after a {@link #reset()},
+ * so every span between two resets can be decoded on its own.
+ */
+public class SnapshotEncoder {
+    protected final BitSet definedClasses;
+    protected final BitSet definedMethods;
+    protected final BitSet definedFields;
+    protected final BitSet definedLocations;
+    protected final BitSet definedThreads;
+    protected long lastTimestamp;
+
+    public SnapshotEncoder() {
+        this.definedClasses = new BitSet();
+        this.definedMethods = new BitSet();
+        this.definedFields = new BitSet();
+        this.definedLocations = new BitSet();
+        this.definedThreads = new BitSet();
+    }
+
+    public void reset() {
+        definedClasses.clear();
+        definedMethods.clear();
+        definedFields.clear();
+        definedLocations.clear();
+        definedThreads.clear();
+        lastTimestamp = 0;
+    }
+
+    public void encode(YouthEventSnapshot snapshot, ByteSink sink) {
+        define(snapshot, sink);
+        SnapshotKind kind = snapshot.kind();
+        sink.writeByte(kind.code());
+        sink.writeZigZag(snapshot.timestamp() - lastTimestamp);
+        lastTimestamp = snapshot.timestamp();
+        if (kind == SnapshotKind.CLASS_PREPARE || kind == SnapshotKind.VM_START) {
+            ThreadIdentity thread = snapshot.thread();
+            sink.writeVarInt(thread != null ? thread.id() + 1 : 0);
+        } else if (snapshot.thread() != null) {
+            sink.writeVarInt(snapshot.thread().id());
+        }
+        if (snapshot instanceof YouthLocatableEventSnapshot) {
+            sink.writeVarInt(((YouthLocatableEventSnapshot) snapshot).location().id());
+        }
+        switch (kind) {
+            case EXCEPTION: {
+                YouthExceptionEventSnapshot exception = (YouthExceptionEventSnapshot) snapshot;
+                sink.writeVarInt(exception.exceptionType().id());
+                sink.writeVarLong(exception.exceptionId());
+                LocationIdentity catchLocation = exception.catchLocation();
+                sink.writeVarInt(catchLocation != null ? catchLocation.id() + 1 : 0);
+                break;
+            }
+            case ACCESS_WATCHPOINT: {
+                YouthAccessWatchpointEventSnapshot access = (YouthAccessWatchpointEventSnapshot) snapshot;
+                sink.writeVarInt(access.field().id());
+                sink.writeVarLong(access.objectId());
+                writeValue(access.valueCurrent(), sink);
+                break;
+            }
+            case MODIFICATION_WATCHPOINT: {
+                YouthModificationWatchpointEventSnapshot modification = (YouthModificationWatchpointEventSnapshot) snapshot;
+                sink.writeVarInt(modification.field().id());
+                sink.writeVarLong(modification.objectId());
+                writeValue(modification.valueCurrent(), sink);
+                writeValue(modification.valueToBe(), sink);
+                break;
+            }
+            case METHOD_EXIT:
+                writeValue(((YouthMethodExitEventSnapshot) snapshot).returnValue(), sink);
+                break;
+            case MONITOR_WAITED: {
+                YouthMonitorWaitedEventSnapshot waited = (YouthMonitorWaitedEventSnapshot) snapshot;
+                sink.writeVarInt(waited.monitorType().id());
+                sink.writeVarLong(waited.monitorId());
+                sink.writeByte(waited.timedOut() ? 1 : 0);
+                break;
+            }
+            case MONITOR_WAIT: {
+                YouthMonitorWaitEventSnapshot wait = (YouthMonitorWaitEventSnapshot) snapshot;
+                sink.writeVarInt(wait.monitorType().id());
+                sink.writeVarLong(wait.monitorId());
+                sink.writeVarLong(wait.timeout());
+                break;
+            }
+            case MONITOR_CONTENDED_ENTERED: {
+                YouthMonitorContendedEnteredEventSnapshot entered = (YouthMonitorContendedEnteredEventSnapshot) snapshot;
+                sink.writeVarInt(entered.monitorType().id());
+                sink.writeVarLong(entered.monitorId());
+                break;
+            }
+            case MONITOR_CONTENDED_ENTER: {
+                YouthMonitorContendedEnterEventSnapshot enter = (YouthMonitorContendedEnterEventSnapshot) snapshot;
+                sink.writeVarInt(enter.monitorType().id());
+                sink.writeVarLong(enter.monitorId());
+                break;
+            }
+            case CLASS_UNLOAD:
+                sink.writeVarInt(((YouthClassUnloadEventSnapshot) snapshot).type().id());
+                break;
+            case CLASS_PREPARE:
+                sink.writeVarInt(((YouthClassPrepareEventSnapshot) snapshot).type().id());
+                break;
+            default:
+                // no payload
+        }
+    }
+
+    protected void define(YouthEventSnapshot snapshot, ByteSink sink) {
+        if (snapshot.thread() != null) {
+            defineThread(snapshot.thread(), sink);
+        }
+        if (snapshot instanceof YouthLocatableEventSnapshot) {
+            defineLocation(((YouthLocatableEventSnapshot) snapshot).location(), sink);
+        }
+        switch (snapshot.kind()) {
+            case EXCEPTION: {
+                YouthExceptionEventSnapshot exception = (YouthExceptionEventSnapshot) snapshot;
+                defineClass(exception.exceptionType(), sink);
+                if (exception.catchLocation() != null) {
+                    defineLocation(exception.catchLocation(), sink);
+                }
+                break;
+            }
+            case ACCESS_WATCHPOINT: {
+                YouthAccessWatchpointEventSnapshot access = (YouthAccessWatchpointEventSnapshot) snapshot;
+                defineField(access.field(), sink);
+                defineValue(access.valueCurrent(), sink);
+                break;
+            }
+            case MODIFICATION_WATCHPOINT: {
+                YouthModificationWatchpointEventSnapshot modification = (YouthModificationWatchpointEventSnapshot) snapshot;
+                defineField(modification.field(), sink);
+                defineValue(modification.valueCurrent(), sink);
+                defineValue(modification.valueToBe(), sink);
+                break;
+            }
+            case METHOD_EXIT:
+                defineValue(((YouthMethodExitEventSnapshot) snapshot).returnValue(), sink);
+                break;
+            case MONITOR_WAITED:
+                defineClass(((YouthMonitorWaitedEventSnapshot) snapshot).monitorType(), sink);
+                break;
+            case MONITOR_WAIT:
+                defineClass(((YouthMonitorWaitEventSnapshot) snapshot).monitorType(), sink);
+                break;
+            case MONITOR_CONTENDED_ENTERED:
+                defineClass(((YouthMonitorContendedEnteredEventSnapshot) snapshot).monitorType(), sink);
+                break;
+            case MONITOR_CONTENDED_ENTER:
+                defineClass(((YouthMonitorContendedEnterEventSnapshot) snapshot).monitorType(), sink);
+                break;
+            case CLASS_UNLOAD:
+                defineClass(((YouthClassUnloadEventSnapshot) snapshot).type(), sink);
+                break;
+            case CLASS_PREPARE:
+                defineClass(((YouthClassPrepareEventSnapshot) snapshot).type(), sink);
+                break;
+            default:
+                // nothing to define
+        }
+    }
+
+    protected void defineClass(ClassIdentity type, ByteSink sink) {
+        if (!definedClasses.get(type.id())) {
+            definedClasses.set(type.id());
+            sink.writeByte(SnapshotFormat.DEFINE_CLASS);
+            sink.writeVarInt(type.id());
+            sink.writeString(type.name());
+        }
+    }
+
+    protected void defineMethod(MethodIdentity method, ByteSink sink) {
+        if (!definedMethods.get(method.id())) {
+            defineClass(method.declaringType(), sink);
+            definedMethods.set(method.id());
+            sink.writeByte(SnapshotFormat.DEFINE_METHOD);
+            sink.writeVarInt(method.id());
+            sink.writeVarInt(method.declaringType().id());
+            sink.writeString(method.name());
+            sink.writeString(method.signature());
+        }
+    }
+
+    protected void defineField(FieldIdentity field, ByteSink sink) {
+        if (!definedFields.get(field.id())) {
+            defineClass(field.declaringType(), sink);
+            definedFields.set(field.id());
+            sink.writeByte(SnapshotFormat.DEFINE_FIELD);
+            sink.writeVarInt(field.id());
+            sink.writeVarInt(field.declaringType().id());
+            sink.writeString(field.name());
+            sink.writeString(field.typeName());
+        }
+    }
+
+    protected void defineLocation(LocationIdentity location, ByteSink sink) {
+        if (!definedLocations.get(location.id())) {
+            defineMethod(location.method(), sink);
+            definedLocations.set(location.id());
+            sink.writeByte(SnapshotFormat.DEFINE_LOCATION);
+            sink.writeVarInt(location.id());
+            sink.writeVarInt(location.method().id());
+            sink.writeZigZag(location.lineNumber());
+            sink.writeVarLong(location.codeIndex());
+        }
+    }
+
+    protected void defineThread(ThreadIdentity thread, ByteSink sink) {
+        if (!definedThreads.get(thread.id())) {
+            definedThreads.set(thread.id());
+            sink.writeByte(SnapshotFormat.DEFINE_THREAD);
+            sink.writeVarInt(thread.id());
+            sink.writeVarLong(thread.uniqueId());
+            sink.writeString(thread.name());
+        }
+    }
+
+    protected void defineValue(ValueSnapshot value, ByteSink sink) {
+        if (value != null && value.type() != null) {
+            defineClass(value.type(), sink);
+        }
+    }
+
+    protected void writeValue(ValueSnapshot value, ByteSink sink) {
+        if (value == null) {
+            sink.writeByte(SnapshotFormat.NO_VALUE);
+            return;
+        }
+        sink.writeByte(value.tag());
+        switch (value.tag()) {
+            case ValueSnapshot.BOOLEAN:
+            case ValueSnapshot.BYTE:
+            case ValueSnapshot.CHAR:
+            case ValueSnapshot.SHORT:
+            case ValueSnapshot.INT:
+            case ValueSnapshot.LONG:
+                sink.writeZigZag(value.bits());
+                break;
+            case ValueSnapshot.FLOAT:
+            case ValueSnapshot.DOUBLE:
+                sink.writeLong(value.bits());
+                break;
+            case ValueSnapshot.OBJECT:
+                sink.writeVarInt(value.type().id());
+                sink.writeVarLong(value.bits());
+                break;
+            case ValueSnapshot.STRING:
+                sink.writeVarInt(value.type().id());
+                sink.writeVarLong(value.bits());
+                sink.writeString(value.text());
+                break;
+            default:
+                // null and void have no payload
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import com.sun.jdi.*;
+import dev.alexengrig.myjdi.event.*;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Takes {@link YouthEventSnapshot}s of live events.
+ * Must be called while the event set is not resumed yet, on the thread that owns the {@link IdentityTable}.
+ */
+public class SnapshotFactory {
+    protected static final int DEFAULT_MAX_STRING_LENGTH = 256;
+
+    protected final IdentityTable identityTable;
+    protected final LongSupplier clock;
+    protected int maxStringLength;
+    protected boolean captureReturnValues;
+
+    public SnapshotFactory() {
+        this(new IdentityTable());
+    }
+
+    public SnapshotFactory(IdentityTable identityTable) {
+        this(identityTable, systemClock());
+    }
+
+    public SnapshotFactory(IdentityTable identityTable, LongSupplier clock) {
+        this.identityTable = identityTable;
+        this.clock = clock;
+        this.maxStringLength = DEFAULT_MAX_STRING_LENGTH;
+        this.captureReturnValues = true;
+    }
+
+    /**
+     * Nanoseconds since the epoch with {@link System#nanoTime()} resolution.
+     */
+    public static LongSupplier systemClock() {
+        final long origin = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+        return () -> origin + System.nanoTime();
+    }
+
+    public IdentityTable identityTable() {
+        return identityTable;
+    }
+
+    public LongSupplier clock() {
+        return clock;
+    }
+
+    public void setMaxStringLength(int maxStringLength) {
+        this.maxStringLength = maxStringLength;
+    }
+
+    public void setCaptureReturnValues(boolean captureReturnValues) {
+        this.captureReturnValues = captureReturnValues;
+    }
+
+    public YouthEventSnapshot create(YouthEvent event) {
+        long timestamp = clock.getAsLong();
+        if (event instanceof YouthExceptionEvent) {
+            return createException(timestamp, (YouthExceptionEvent) event);
+        } else if (event instanceof YouthBreakpointEvent) {
+            return createBreakpoint(timestamp, (YouthBreakpointEvent) event);
+        } else if (event instanceof YouthStepEvent) {
+            return createStep(timestamp, (YouthStepEvent) event);
+        }
+        // vm events
+        else if (event instanceof YouthVMDeathEvent) {
+            return new YouthVMDeathEventSnapshot(timestamp);
+        } else if (event instanceof YouthVMDisconnectEvent) {
+            return new YouthVMDisconnectEventSnapshot(timestamp);
+        } else if (event instanceof YouthVMStartEvent) {
+            return new YouthVMStartEventSnapshot(timestamp, thread(((YouthVMStartEvent) event).thread()));
+        }
+        // class events
+        else if (event instanceof YouthClassUnloadEvent) {
+            return new YouthClassUnloadEventSnapshot(timestamp,
+                    identityTable.internClass(((YouthClassUnloadEvent) event).className()));
+        } else if (event instanceof YouthClassPrepareEvent) {
+            YouthClassPrepareEvent classPrepare = (YouthClassPrepareEvent) event;
+            return new YouthClassPrepareEventSnapshot(timestamp, thread(classPrepare.thread()),
+                    identityTable.internClass(classPrepare.referenceType()));
+        }
+        // method events
+        else if (event instanceof YouthMethodExitEvent) {
+            return createMethodExit(timestamp, (YouthMethodExitEvent) event);
+        } else if (event instanceof YouthMethodEntryEvent) {
+            return createMethodEntry(timestamp, (YouthMethodEntryEvent) event);
+        }
+        // watchpoint events
+        else if (event instanceof YouthAccessWatchpointEvent) {
+            return createAccessWatchpoint(timestamp, (YouthAccessWatchpointEvent) event);
+        } else if (event instanceof YouthModificationWatchpointEvent) {
+            return createModificationWatchpoint(timestamp, (YouthModificationWatchpointEvent) event);
+        }
+        // thread events
+        else if (event instanceof YouthThreadDeathEvent) {
+            return new YouthThreadDeathEventSnapshot(timestamp, thread(((YouthThreadDeathEvent) event).thread()));
+        } else if (event instanceof YouthThreadStartEvent) {
+            return new YouthThreadStartEventSnapshot(timestamp, thread(((YouthThreadStartEvent) event).thread()));
+        }
+        // monitor events
+        else if (event instanceof YouthMonitorWaitedEvent) {
+            return createMonitorWaited(timestamp, (YouthMonitorWaitedEvent) event);
+        } else if (event instanceof YouthMonitorWaitEvent) {
+            return createMonitorWait(timestamp, (YouthMonitorWaitEvent) event);
+        } else if (event instanceof YouthMonitorContendedEnteredEvent) {
+            return createMonitorContendedEntered(timestamp, (YouthMonitorContendedEnteredEvent) event);
+        } else if (event instanceof YouthMonitorContendedEnterEvent) {
+            return createMonitorContendedEnter(timestamp, (YouthMonitorContendedEnterEvent) event);
+        }
+        // unexpected
+        else {
+            throw new IllegalArgumentException(String.format("Unexpected event type: %s.", event.getClass().getName()));
+        }
+    }
+
+    protected YouthExceptionEventSnapshot createException(long timestamp, YouthExceptionEvent event) {
+        ObjectReference exception = event.exception();
+        Location catchLocation = event.catchLocation();
+        return new YouthExceptionEventSnapshot(timestamp, thread(event.thread()), location(event.location()),
+                identityTable.internClass(exception.referenceType()), exception.uniqueID(),
+                catchLocation != null ? location(catchLocation) : null);
+    }
+
+    protected YouthBreakpointEventSnapshot createBreakpoint(long timestamp, YouthBreakpointEvent event) {
+        return new YouthBreakpointEventSnapshot(timestamp, thread(event.thread()), location(event.location()));
+    }
+
+    protected YouthStepEventSnapshot createStep(long timestamp, YouthStepEvent event) {
+        return new YouthStepEventSnapshot(timestamp, thread(event.thread()), location(event.location()));
+    }
+
+    protected YouthMethodExitEventSnapshot createMethodExit(long timestamp, YouthMethodExitEvent event) {
+        ValueSnapshot returnValue = null;
+        if (captureReturnValues && !(event instanceof YouthMethodExitEvent.BreakpointDelegate)) {
+            try {
+                returnValue = value(event.returnValue());
+            } catch (UnsupportedOperationException ignore) {
+                captureReturnValues = false;
+            }
+        }
+        return new YouthMethodExitEventSnapshot(timestamp, thread(event.thread()), location(event.location()),
+                returnValue);
+    }
+
+    protected YouthMethodEntryEventSnapshot createMethodEntry(long timestamp, YouthMethodEntryEvent event) {
+        return new YouthMethodEntryEventSnapshot(timestamp, thread(event.thread()), location(event.location()));
+    }
+
+    protected YouthAccessWatchpointEventSnapshot createAccessWatchpoint(long timestamp,
+                                                                        YouthAccessWatchpointEvent event) {
+        return new YouthAccessWatchpointEventSnapshot(timestamp, thread(event.thread()), location(event.location()),
+                identityTable.internField(event.field()), uniqueId(event.object()), value(event.valueCurrent()));
+    }
+
+    protected YouthModificationWatchpointEventSnapshot createModificationWatchpoint(long timestamp,
+                                                                                    YouthModificationWatchpointEvent event) {
+        return new YouthModificationWatchpointEventSnapshot(timestamp, thread(event.thread()),
+                location(event.location()), identityTable.internField(event.field()), uniqueId(event.object()),
+                value(event.valueCurrent()), value(event.valueToBe()));
+    }
+
+    protected YouthMonitorWaitedEventSnapshot createMonitorWaited(long timestamp, YouthMonitorWaitedEvent event) {
+        ObjectReference monitor = event.monitor();
+        return new YouthMonitorWaitedEventSnapshot(timestamp, thread(event.thread()), location(event.location()),
+                identityTable.internClass(monitor.referenceType()), monitor.uniqueID(), event.timedout());
+    }
+
+    protected YouthMonitorWaitEventSnapshot createMonitorWait(long timestamp, YouthMonitorWaitEvent event) {
+        ObjectReference monitor = event.monitor();
+        return new YouthMonitorWaitEventSnapshot(timestamp, thread(event.thread()), location(event.location()),
+                identityTable.internClass(monitor.referenceType()), monitor.uniqueID(), event.timeout());
+    }
+
+    protected YouthMonitorContendedEnteredEventSnapshot createMonitorContendedEntered(long timestamp,
+                                                                                      YouthMonitorContendedEnteredEvent event) {
+        ObjectReference monitor = event.monitor();
+        return new YouthMonitorContendedEnteredEventSnapshot(timestamp, thread(event.thread()),
+                location(event.location()), identityTable.internClass(monitor.referenceType()), monitor.uniqueID());
+    }
+
+    protected YouthMonitorContendedEnterEventSnapshot createMonitorContendedEnter(long timestamp,
+                                                                                  YouthMonitorContendedEnterEvent event) {
+        ObjectReference monitor = event.monitor();
+        return new YouthMonitorContendedEnterEventSnapshot(timestamp, thread(event.thread()),
+                location(event.location()), identityTable.internClass(monitor.referenceType()), monitor.uniqueID());
+    }
+
+    public ThreadIdentity thread(ThreadReference thread) {
+        if (thread == null) {
+            return null;
+        }
+        return identityTable.internThread(thread);
+    }
+
+    public LocationIdentity location(Location location) {
+        return identityTable.internLocation(location);
+    }
+
+    public ValueSnapshot value(Value value) {
+        if (value == null) {
+            return ValueSnapshot.ofNull();
+        } else if (value instanceof VoidValue) {
+            return ValueSnapshot.ofVoid();
+        } else if (value instanceof BooleanValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.BOOLEAN, ((BooleanValue) value).value() ? 1 : 0);
+        } else if (value instanceof ByteValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.BYTE, ((ByteValue) value).value());
+        } else if (value instanceof CharValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.CHAR, ((CharValue) value).value());
+        } else if (value instanceof ShortValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.SHORT, ((ShortValue) value).value());
+        } else if (value instanceof IntegerValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.INT, ((IntegerValue) value).value());
+        } else if (value instanceof LongValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.LONG, ((LongValue) value).value());
+        } else if (value instanceof FloatValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.FLOAT,
+                    Double.doubleToRawLongBits(((FloatValue) value).value()));
+        } else if (value instanceof DoubleValue) {
+            return ValueSnapshot.ofPrimitive(ValueSnapshot.DOUBLE,
+                    Double.doubleToRawLongBits(((DoubleValue) value).value()));
+        } else if (value instanceof StringReference) {
+            StringReference string = (StringReference) value;
+            return ValueSnapshot.ofString(identityTable.internClass(string.referenceType()), string.uniqueID(),
+                    truncate(string.value()));
+        } else if (value instanceof ObjectReference) {
+            ObjectReference object = (ObjectReference) value;
+            return ValueSnapshot.ofObject(identityTable.internClass(object.referenceType()), object.uniqueID());
+        } else {
+            throw new IllegalArgumentException(String.format("Unexpected value type: %s.", value.getClass().getName()));
+        }
+    }
+
+    protected String truncate(String text) {
+        return text.length() > maxStringLength ? text.substring(0, maxStringLength) : text;
+    }
+
+    protected long uniqueId(ObjectReference object) {
+        return object != null ? object.uniqueID() : 0;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary layout shared by {@link SnapshotEncoder} and {@link SnapshotDecoder}.
+ * <p>
+ * A stream starts with the header ({@code MAGIC}, {@code VERSION}) and continues with records.
+ * Each record begins with a tag byte: event kinds use their {@link SnapshotKind#code()},
+ * identity definitions use the {@code DEFINE_*} tags and always precede the first event referencing them.
+ * Integers are unsigned LEB128 varints, signed deltas are zigzag-encoded,
+ * timestamps are deltas from the previous event of the stream.
+ */
+public final class SnapshotFormat {
+    public static final int MAGIC = 0x4D594A53;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 5;
+
+    public static final int DEFINE_CLASS = 0x20;
+    public static final int DEFINE_METHOD = 0x21;
+    public static final int DEFINE_FIELD = 0x22;
+    public static final int DEFINE_LOCATION = 0x23;
+    public static final int DEFINE_THREAD = 0x24;
+
+    static final int NO_VALUE = 0xFF;
+
+    private SnapshotFormat() {
+    }
+
+    public static void writeHeader(ByteSink sink) {
+        sink.writeInt(MAGIC);
+        sink.writeByte(VERSION);
+    }
+
+    public static void readHeader(ByteBuffer buffer) {
+        int magic = buffer.getInt();
+        if (magic != MAGIC) {
+            throw new IllegalStateException(String.format("Unexpected magic: %08x.", magic));
+        }
+        int version = buffer.get() & 0xFF;
+        if (version > VERSION) {
+            throw new IllegalStateException(String.format("Unsupported snapshot format version: %d.", version));
+        }
+    }
+}
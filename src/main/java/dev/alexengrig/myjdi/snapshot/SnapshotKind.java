@@ -0,0 +1,53 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public enum SnapshotKind {
+    EXCEPTION(1),
+    BREAKPOINT(2),
+    STEP(3),
+    ACCESS_WATCHPOINT(4),
+    MODIFICATION_WATCHPOINT(5),
+    METHOD_EXIT(6),
+    METHOD_ENTRY(7),
+    MONITOR_WAITED(8),
+    MONITOR_WAIT(9),
+    MONITOR_CONTENDED_ENTERED(10),
+    MONITOR_CONTENDED_ENTER(11),
+    CLASS_UNLOAD(12),
+    CLASS_PREPARE(13),
+    THREAD_DEATH(14),
+    THREAD_START(15),
+    VM_DEATH(16),
+    VM_DISCONNECT(17),
+    VM_START(18);
+
+    private static final SnapshotKind[] BY_CODE;
+
+    static {
+        SnapshotKind[] kinds = values();
+        BY_CODE = new SnapshotKind[kinds.length + 1];
+        for (SnapshotKind kind : kinds) {
+            BY_CODE[kind.code] = kind;
+        }
+    }
+
+    private final int code;
+
+    SnapshotKind(int code) {
+        this.code = code;
+    }
+
+    public static SnapshotKind of(int code) {
+        if (code <= 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException(String.format("Unexpected snapshot kind: %d.", code));
+        }
+        return BY_CODE[code];
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public int mask() {
+        return 1 << code;
+    }
+}
@@ -0,0 +1,43 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class ThreadIdentity {
+    private final int id;
+    private final long uniqueId;
+    private final String name;
+
+    public ThreadIdentity(int id, long uniqueId, String name) {
+        this.id = id;
+        this.uniqueId = uniqueId;
+        this.name = name;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public long uniqueId() {
+        return uniqueId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ThreadIdentity)) return false;
+        ThreadIdentity that = (ThreadIdentity) o;
+        return id == that.id && uniqueId == that.uniqueId && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(uniqueId);
+    }
+
+    @Override
+    public String toString() {
+        return name + "(id=" + uniqueId + ")";
+    }
+}
@@ -0,0 +1,148 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+/**
+ * Detached copy of a JDI {@link com.sun.jdi.Value}.
+ * Primitives keep their raw bits, objects keep their type and unique id, strings also keep their text.
+ */
+public final class ValueSnapshot {
+    public static final byte NULL = 0;
+    public static final byte VOID = 1;
+    public static final byte BOOLEAN = 2;
+    public static final byte BYTE = 3;
+    public static final byte CHAR = 4;
+    public static final byte SHORT = 5;
+    public static final byte INT = 6;
+    public static final byte LONG = 7;
+    public static final byte FLOAT = 8;
+    public static final byte DOUBLE = 9;
+    public static final byte OBJECT = 10;
+    public static final byte STRING = 11;
+
+    private static final ValueSnapshot NULL_VALUE = new ValueSnapshot(NULL, 0, null, null);
+    private static final ValueSnapshot VOID_VALUE = new ValueSnapshot(VOID, 0, null, null);
+
+    private final byte tag;
+    private final long bits;
+    private final ClassIdentity type;
+    private final String text;
+
+    private ValueSnapshot(byte tag, long bits, ClassIdentity type, String text) {
+        this.tag = tag;
+        this.bits = bits;
+        this.type = type;
+        this.text = text;
+    }
+
+    public static ValueSnapshot ofNull() {
+        return NULL_VALUE;
+    }
+
+    public static ValueSnapshot ofVoid() {
+        return VOID_VALUE;
+    }
+
+    public static ValueSnapshot ofPrimitive(byte tag, long bits) {
+        if (tag < BOOLEAN || tag > DOUBLE) {
+            throw new IllegalArgumentException(String.format("Unexpected primitive tag: %d.", tag));
+        }
+        return new ValueSnapshot(tag, bits, null, null);
+    }
+
+    public static ValueSnapshot ofObject(ClassIdentity type, long uniqueId) {
+        return new ValueSnapshot(OBJECT, uniqueId, Objects.requireNonNull(type, "The type must not be null"), null);
+    }
+
+    public static ValueSnapshot ofString(ClassIdentity type, long uniqueId, String text) {
+        return new ValueSnapshot(STRING, uniqueId, Objects.requireNonNull(type, "The type must not be null"),
+                Objects.requireNonNull(text, "The text must not be null"));
+    }
+
+    public byte tag() {
+        return tag;
+    }
+
+    public boolean isPrimitive() {
+        return tag >= BOOLEAN && tag <= DOUBLE;
+    }
+
+    public boolean isObject() {
+        return tag == OBJECT || tag == STRING;
+    }
+
+    /**
+     * Raw bits of a primitive ({@link Double#doubleToRawLongBits} for floating point) or unique id of an object.
+     */
+    public long bits() {
+        return bits;
+    }
+
+    public long uniqueId() {
+        return isObject() ? bits : 0;
+    }
+
+    public ClassIdentity type() {
+        return type;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public double asDouble() {
+        switch (tag) {
+            case FLOAT:
+            case DOUBLE:
+                return Double.longBitsToDouble(bits);
+            case BOOLEAN:
+            case BYTE:
+            case CHAR:
+            case SHORT:
+            case INT:
+            case LONG:
+                return bits;
+            default:
+                throw new IllegalStateException("Not a primitive value: " + this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ValueSnapshot)) return false;
+        ValueSnapshot that = (ValueSnapshot) o;
+        return tag == that.tag
+                && bits == that.bits
+                && Objects.equals(type, that.type)
+                && Objects.equals(text, that.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * tag + Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        switch (tag) {
+            case NULL:
+                return "null";
+            case VOID:
+                return "<void value>";
+            case BOOLEAN:
+                return Boolean.toString(bits != 0);
+            case CHAR:
+                return String.valueOf((char) bits);
+            case FLOAT:
+            case DOUBLE:
+                return Double.toString(Double.longBitsToDouble(bits));
+            case OBJECT:
+                return "instance of " + type.name() + "(id=" + bits + ")";
+            case STRING:
+                return "\"" + text + "\"";
+            default:
+                return Long.toString(bits);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthAccessWatchpointEventSnapshot extends YouthLocatableEventSnapshot {
+    private final FieldIdentity field;
+    private final long objectId;
+    private final ValueSnapshot valueCurrent;
+
+    public YouthAccessWatchpointEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            FieldIdentity field, long objectId, ValueSnapshot valueCurrent) {
+        super(timestamp, thread, location);
+        this.field = Objects.requireNonNull(field, "The field must not be null");
+        this.objectId = objectId;
+        this.valueCurrent = Objects.requireNonNull(valueCurrent, "The value current must not be null");
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.ACCESS_WATCHPOINT;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleAccessWatchpoint(this);
+    }
+
+    public FieldIdentity field() {
+        return field;
+    }
+
+    public long objectId() {
+        return objectId;
+    }
+
+    public ValueSnapshot valueCurrent() {
+        return valueCurrent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthAccessWatchpointEventSnapshot)) return false;
+        YouthAccessWatchpointEventSnapshot that = (YouthAccessWatchpointEventSnapshot) o;
+        return locatableEquals(that)
+                && field.equals(that.field)
+                && objectId == that.objectId
+                && valueCurrent.equals(that.valueCurrent);
+    }
+}
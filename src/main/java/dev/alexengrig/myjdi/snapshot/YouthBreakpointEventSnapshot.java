@@ -0,0 +1,25 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class YouthBreakpointEventSnapshot extends YouthLocatableEventSnapshot {
+    public YouthBreakpointEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location) {
+        super(timestamp, thread, location);
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.BREAKPOINT;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleBreakpoint(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthBreakpointEventSnapshot)) return false;
+        YouthBreakpointEventSnapshot that = (YouthBreakpointEventSnapshot) o;
+        return locatableEquals(that);
+    }
+}
@@ -0,0 +1,43 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+/**
+ * The thread is {@code null} when the class was prepared by a system thread the VM does not expose.
+ */
+public final class YouthClassPrepareEventSnapshot extends YouthEventSnapshot {
+    private final ClassIdentity type;
+
+    public YouthClassPrepareEventSnapshot(long timestamp, ThreadIdentity thread, ClassIdentity type) {
+        super(timestamp, thread);
+        this.type = Objects.requireNonNull(type, "The type must not be null");
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.CLASS_PREPARE;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleClassPrepare(this);
+    }
+
+    public ClassIdentity type() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthClassPrepareEventSnapshot)) return false;
+        YouthClassPrepareEventSnapshot that = (YouthClassPrepareEventSnapshot) o;
+        return baseEquals(that)
+                && type.equals(that.type);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " of " + type;
+    }
+}
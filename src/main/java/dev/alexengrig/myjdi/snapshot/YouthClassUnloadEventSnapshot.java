@@ -0,0 +1,40 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthClassUnloadEventSnapshot extends YouthEventSnapshot {
+    private final ClassIdentity type;
+
+    public YouthClassUnloadEventSnapshot(long timestamp, ClassIdentity type) {
+        super(timestamp, null);
+        this.type = Objects.requireNonNull(type, "The type must not be null");
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.CLASS_UNLOAD;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleClassUnload(this);
+    }
+
+    public ClassIdentity type() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthClassUnloadEventSnapshot)) return false;
+        YouthClassUnloadEventSnapshot that = (YouthClassUnloadEventSnapshot) o;
+        return baseEquals(that)
+                && type.equals(that.type);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " of " + type;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.alexengrig.myjdi.snapshot;
+
+/**
+ * Immutable, VM-independent copy of a {@link dev.alexengrig.myjdi.event.YouthEvent}.
+ * Holds only interned identities and primitive values, so it outlives the event set it was taken from.
+ */
+public abstract class YouthEventSnapshot {
+    protected final long timestamp;
+    protected final ThreadIdentity thread;
+
+    protected YouthEventSnapshot(long timestamp, ThreadIdentity thread) {
+        this.timestamp = timestamp;
+        this.thread = thread;
+    }
+
+    public abstract SnapshotKind kind();
+
+    public abstract void accept(YouthEventSnapshotHandler handler);
+
+    /**
+     * Wall-clock time of the event in nanoseconds since the epoch.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Thread of the event or {@code null} for events without a thread.
+     */
+    public ThreadIdentity thread() {
+        return thread;
+    }
+
+    protected boolean baseEquals(YouthEventSnapshot that) {
+        return timestamp == that.timestamp
+                && (thread == null ? that.thread == null : thread.equals(that.thread));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * kind().hashCode() + Long.hashCode(timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return kind() + "@" + timestamp + (thread != null ? " in " + thread : "");
+    }
+}
@@ -0,0 +1,39 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public interface YouthEventSnapshotHandler {
+    void handleException(YouthExceptionEventSnapshot snapshot);
+
+    void handleBreakpoint(YouthBreakpointEventSnapshot snapshot);
+
+    void handleStep(YouthStepEventSnapshot snapshot);
+
+    void handleAccessWatchpoint(YouthAccessWatchpointEventSnapshot snapshot);
+
+    void handleModificationWatchpoint(YouthModificationWatchpointEventSnapshot snapshot);
+
+    void handleMethodExit(YouthMethodExitEventSnapshot snapshot);
+
+    void handleMethodEntry(YouthMethodEntryEventSnapshot snapshot);
+
+    void handleMonitorWaited(YouthMonitorWaitedEventSnapshot snapshot);
+
+    void handleMonitorWait(YouthMonitorWaitEventSnapshot snapshot);
+
+    void handleMonitorContendedEntered(YouthMonitorContendedEnteredEventSnapshot snapshot);
+
+    void handleMonitorContendedEnter(YouthMonitorContendedEnterEventSnapshot snapshot);
+
+    void handleClassUnload(YouthClassUnloadEventSnapshot snapshot);
+
+    void handleClassPrepare(YouthClassPrepareEventSnapshot snapshot);
+
+    void handleThreadDeath(YouthThreadDeathEventSnapshot snapshot);
+
+    void handleThreadStart(YouthThreadStartEventSnapshot snapshot);
+
+    void handleVmDeath(YouthVMDeathEventSnapshot snapshot);
+
+    void handleVmDisconnect(YouthVMDisconnectEventSnapshot snapshot);
+
+    void handleVmStart(YouthVMStartEventSnapshot snapshot);
+}
@@ -0,0 +1,50 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthExceptionEventSnapshot extends YouthLocatableEventSnapshot {
+    private final ClassIdentity exceptionType;
+    private final long exceptionId;
+    private final LocationIdentity catchLocation;
+
+    public YouthExceptionEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            ClassIdentity exceptionType, long exceptionId, LocationIdentity catchLocation) {
+        super(timestamp, thread, location);
+        this.exceptionType = Objects.requireNonNull(exceptionType, "The exception type must not be null");
+        this.exceptionId = exceptionId;
+        this.catchLocation = catchLocation;
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.EXCEPTION;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleException(this);
+    }
+
+    public ClassIdentity exceptionType() {
+        return exceptionType;
+    }
+
+    public long exceptionId() {
+        return exceptionId;
+    }
+
+    public LocationIdentity catchLocation() {
+        return catchLocation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthExceptionEventSnapshot)) return false;
+        YouthExceptionEventSnapshot that = (YouthExceptionEventSnapshot) o;
+        return locatableEquals(that)
+                && exceptionType.equals(that.exceptionType)
+                && exceptionId == that.exceptionId
+                && Objects.equals(catchLocation, that.catchLocation);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public abstract class YouthLocatableEventSnapshot extends YouthEventSnapshot {
+    protected final LocationIdentity location;
+
+    protected YouthLocatableEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location) {
+        super(timestamp, Objects.requireNonNull(thread, "The thread must not be null"));
+        this.location = Objects.requireNonNull(location, "The location must not be null");
+    }
+
+    public LocationIdentity location() {
+        return location;
+    }
+
+    public MethodIdentity method() {
+        return location.method();
+    }
+
+    protected boolean locatableEquals(YouthLocatableEventSnapshot that) {
+        return baseEquals(that) && location.equals(that.location);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " at " + location;
+    }
+}
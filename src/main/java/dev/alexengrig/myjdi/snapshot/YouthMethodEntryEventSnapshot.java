@@ -0,0 +1,25 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class YouthMethodEntryEventSnapshot extends YouthLocatableEventSnapshot {
+    public YouthMethodEntryEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location) {
+        super(timestamp, thread, location);
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.METHOD_ENTRY;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleMethodEntry(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthMethodEntryEventSnapshot)) return false;
+        YouthMethodEntryEventSnapshot that = (YouthMethodEntryEventSnapshot) o;
+        return locatableEquals(that);
+    }
+}
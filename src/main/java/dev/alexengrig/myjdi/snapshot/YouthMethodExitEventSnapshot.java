@@ -0,0 +1,36 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthMethodExitEventSnapshot extends YouthLocatableEventSnapshot {
+    private final ValueSnapshot returnValue;
+
+    public YouthMethodExitEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            ValueSnapshot returnValue) {
+        super(timestamp, thread, location);
+        this.returnValue = returnValue;
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.METHOD_EXIT;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleMethodExit(this);
+    }
+
+    public ValueSnapshot returnValue() {
+        return returnValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthMethodExitEventSnapshot)) return false;
+        YouthMethodExitEventSnapshot that = (YouthMethodExitEventSnapshot) o;
+        return locatableEquals(that)
+                && Objects.equals(returnValue, that.returnValue);
+    }
+}
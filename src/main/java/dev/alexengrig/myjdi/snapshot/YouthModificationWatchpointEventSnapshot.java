@@ -0,0 +1,57 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthModificationWatchpointEventSnapshot extends YouthLocatableEventSnapshot {
+    private final FieldIdentity field;
+    private final long objectId;
+    private final ValueSnapshot valueCurrent;
+    private final ValueSnapshot valueToBe;
+
+    public YouthModificationWatchpointEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            FieldIdentity field, long objectId, ValueSnapshot valueCurrent, ValueSnapshot valueToBe) {
+        super(timestamp, thread, location);
+        this.field = Objects.requireNonNull(field, "The field must not be null");
+        this.objectId = objectId;
+        this.valueCurrent = Objects.requireNonNull(valueCurrent, "The value current must not be null");
+        this.valueToBe = Objects.requireNonNull(valueToBe, "The value to be must not be null");
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.MODIFICATION_WATCHPOINT;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleModificationWatchpoint(this);
+    }
+
+    public FieldIdentity field() {
+        return field;
+    }
+
+    public long objectId() {
+        return objectId;
+    }
+
+    public ValueSnapshot valueCurrent() {
+        return valueCurrent;
+    }
+
+    public ValueSnapshot valueToBe() {
+        return valueToBe;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthModificationWatchpointEventSnapshot)) return false;
+        YouthModificationWatchpointEventSnapshot that = (YouthModificationWatchpointEventSnapshot) o;
+        return locatableEquals(that)
+                && field.equals(that.field)
+                && objectId == that.objectId
+                && valueCurrent.equals(that.valueCurrent)
+                && valueToBe.equals(that.valueToBe);
+    }
+}
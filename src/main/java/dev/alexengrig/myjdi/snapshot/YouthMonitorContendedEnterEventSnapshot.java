@@ -0,0 +1,43 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthMonitorContendedEnterEventSnapshot extends YouthLocatableEventSnapshot {
+    private final ClassIdentity monitorType;
+    private final long monitorId;
+
+    public YouthMonitorContendedEnterEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            ClassIdentity monitorType, long monitorId) {
+        super(timestamp, thread, location);
+        this.monitorType = Objects.requireNonNull(monitorType, "The monitor type must not be null");
+        this.monitorId = monitorId;
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.MONITOR_CONTENDED_ENTER;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleMonitorContendedEnter(this);
+    }
+
+    public ClassIdentity monitorType() {
+        return monitorType;
+    }
+
+    public long monitorId() {
+        return monitorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthMonitorContendedEnterEventSnapshot)) return false;
+        YouthMonitorContendedEnterEventSnapshot that = (YouthMonitorContendedEnterEventSnapshot) o;
+        return locatableEquals(that)
+                && monitorType.equals(that.monitorType)
+                && monitorId == that.monitorId;
+    }
+}
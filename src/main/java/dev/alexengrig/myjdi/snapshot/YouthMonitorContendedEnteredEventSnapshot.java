@@ -0,0 +1,43 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthMonitorContendedEnteredEventSnapshot extends YouthLocatableEventSnapshot {
+    private final ClassIdentity monitorType;
+    private final long monitorId;
+
+    public YouthMonitorContendedEnteredEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            ClassIdentity monitorType, long monitorId) {
+        super(timestamp, thread, location);
+        this.monitorType = Objects.requireNonNull(monitorType, "The monitor type must not be null");
+        this.monitorId = monitorId;
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.MONITOR_CONTENDED_ENTERED;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleMonitorContendedEntered(this);
+    }
+
+    public ClassIdentity monitorType() {
+        return monitorType;
+    }
+
+    public long monitorId() {
+        return monitorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthMonitorContendedEnteredEventSnapshot)) return false;
+        YouthMonitorContendedEnteredEventSnapshot that = (YouthMonitorContendedEnteredEventSnapshot) o;
+        return locatableEquals(that)
+                && monitorType.equals(that.monitorType)
+                && monitorId == that.monitorId;
+    }
+}
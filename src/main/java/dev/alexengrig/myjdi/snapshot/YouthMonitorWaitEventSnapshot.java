@@ -0,0 +1,50 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthMonitorWaitEventSnapshot extends YouthLocatableEventSnapshot {
+    private final ClassIdentity monitorType;
+    private final long monitorId;
+    private final long timeout;
+
+    public YouthMonitorWaitEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            ClassIdentity monitorType, long monitorId, long timeout) {
+        super(timestamp, thread, location);
+        this.monitorType = Objects.requireNonNull(monitorType, "The monitor type must not be null");
+        this.monitorId = monitorId;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.MONITOR_WAIT;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleMonitorWait(this);
+    }
+
+    public ClassIdentity monitorType() {
+        return monitorType;
+    }
+
+    public long monitorId() {
+        return monitorId;
+    }
+
+    public long timeout() {
+        return timeout;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthMonitorWaitEventSnapshot)) return false;
+        YouthMonitorWaitEventSnapshot that = (YouthMonitorWaitEventSnapshot) o;
+        return locatableEquals(that)
+                && monitorType.equals(that.monitorType)
+                && monitorId == that.monitorId
+                && timeout == that.timeout;
+    }
+}
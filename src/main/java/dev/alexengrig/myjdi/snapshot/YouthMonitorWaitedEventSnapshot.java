@@ -0,0 +1,50 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthMonitorWaitedEventSnapshot extends YouthLocatableEventSnapshot {
+    private final ClassIdentity monitorType;
+    private final long monitorId;
+    private final boolean timedOut;
+
+    public YouthMonitorWaitedEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location,
+            ClassIdentity monitorType, long monitorId, boolean timedOut) {
+        super(timestamp, thread, location);
+        this.monitorType = Objects.requireNonNull(monitorType, "The monitor type must not be null");
+        this.monitorId = monitorId;
+        this.timedOut = timedOut;
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.MONITOR_WAITED;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleMonitorWaited(this);
+    }
+
+    public ClassIdentity monitorType() {
+        return monitorType;
+    }
+
+    public long monitorId() {
+        return monitorId;
+    }
+
+    public boolean timedOut() {
+        return timedOut;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthMonitorWaitedEventSnapshot)) return false;
+        YouthMonitorWaitedEventSnapshot that = (YouthMonitorWaitedEventSnapshot) o;
+        return locatableEquals(that)
+                && monitorType.equals(that.monitorType)
+                && monitorId == that.monitorId
+                && timedOut == that.timedOut;
+    }
+}
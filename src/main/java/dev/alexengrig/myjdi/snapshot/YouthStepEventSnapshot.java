@@ -0,0 +1,25 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class YouthStepEventSnapshot extends YouthLocatableEventSnapshot {
+    public YouthStepEventSnapshot(long timestamp, ThreadIdentity thread, LocationIdentity location) {
+        super(timestamp, thread, location);
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.STEP;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleStep(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthStepEventSnapshot)) return false;
+        YouthStepEventSnapshot that = (YouthStepEventSnapshot) o;
+        return locatableEquals(that);
+    }
+}
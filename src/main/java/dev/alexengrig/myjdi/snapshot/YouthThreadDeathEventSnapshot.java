@@ -0,0 +1,26 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthThreadDeathEventSnapshot extends YouthEventSnapshot {
+    public YouthThreadDeathEventSnapshot(long timestamp, ThreadIdentity thread) {
+        super(timestamp, Objects.requireNonNull(thread, "The thread must not be null"));
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.THREAD_DEATH;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleThreadDeath(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthThreadDeathEventSnapshot)) return false;
+        return baseEquals((YouthThreadDeathEventSnapshot) o);
+    }
+}
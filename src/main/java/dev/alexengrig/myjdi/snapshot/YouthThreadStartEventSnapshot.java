@@ -0,0 +1,26 @@
+package dev.alexengrig.myjdi.snapshot;
+
+import java.util.Objects;
+
+public final class YouthThreadStartEventSnapshot extends YouthEventSnapshot {
+    public YouthThreadStartEventSnapshot(long timestamp, ThreadIdentity thread) {
+        super(timestamp, Objects.requireNonNull(thread, "The thread must not be null"));
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.THREAD_START;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleThreadStart(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthThreadStartEventSnapshot)) return false;
+        return baseEquals((YouthThreadStartEventSnapshot) o);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class YouthVMDeathEventSnapshot extends YouthEventSnapshot {
+    public YouthVMDeathEventSnapshot(long timestamp) {
+        super(timestamp, null);
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.VM_DEATH;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleVmDeath(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthVMDeathEventSnapshot)) return false;
+        return baseEquals((YouthVMDeathEventSnapshot) o);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.alexengrig.myjdi.snapshot;
+
+public final class YouthVMDisconnectEventSnapshot extends YouthEventSnapshot {
+    public YouthVMDisconnectEventSnapshot(long timestamp) {
+        super(timestamp, null);
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.VM_DISCONNECT;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleVmDisconnect(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthVMDisconnectEventSnapshot)) return false;
+        return baseEquals((YouthVMDisconnectEventSnapshot) o);
+    }
+}
@@ -0,0 +1,27 @@
+package dev.alexengrig.myjdi.snapshot;
+
+/**
+ * The thread is {@code null} for a start synthesized without one, e.g. after attaching to a running VM.
+ */
+public final class YouthVMStartEventSnapshot extends YouthEventSnapshot {
+    public YouthVMStartEventSnapshot(long timestamp, ThreadIdentity thread) {
+        super(timestamp, thread);
+    }
+
+    @Override
+    public SnapshotKind kind() {
+        return SnapshotKind.VM_START;
+    }
+
+    @Override
+    public void accept(YouthEventSnapshotHandler handler) {
+        handler.handleVmStart(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YouthVMStartEventSnapshot)) return false;
+        return baseEquals((YouthVMStartEventSnapshot) o);
+    }
+}
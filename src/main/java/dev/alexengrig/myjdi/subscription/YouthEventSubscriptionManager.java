@@ -74,4 +74,25 @@ public interface YouthEventSubscriptionManager {
     void subscribeOnMonitorContendedEnter(YouthEventSubscriber<YouthMonitorContendedEnterEvent> listener);
 
     void notifyOfMonitorContendedEnter(YouthMonitorContendedEnterEvent event);
+
+    default void subscribeOnAll(YouthEventSubscriber<YouthEvent> subscriber) {
+        subscribeOnException(subscriber::accept);
+        subscribeOnBreakpoint(subscriber::accept);
+        subscribeOnStep(subscriber::accept);
+        subscribeOnVMDeath(subscriber::accept);
+        subscribeOnVMDisconnect(subscriber::accept);
+        subscribeOnVMStart(subscriber::accept);
+        subscribeOnClassUnload(subscriber::accept);
+        subscribeOnClassPrepare(subscriber::accept);
+        subscribeOnMethodExit(subscriber::accept);
+        subscribeOnMethodEntry(subscriber::accept);
+        subscribeOnAccessWatchpoint(subscriber::accept);
+        subscribeOnModificationWatchpoint(subscriber::accept);
+        subscribeOnThreadDeath(subscriber::accept);
+        subscribeOnThreadStart(subscriber::accept);
+        subscribeOnMonitorWaited(subscriber::accept);
+        subscribeOnMonitorWait(subscriber::accept);
+        subscribeOnMonitorContendedEntered(subscriber::accept);
+        subscribeOnMonitorContendedEnter(subscriber::accept);
+    }
 }
@@ -0,0 +1,61 @@
+package dev.alexengrig.myjdi.trace;
+
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.log.Log;
+import dev.alexengrig.myjdi.snapshot.SnapshotFactory;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriber;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Traces method entry, method exit and step events into a {@link ColumnarTraceWriter}.
+ * Appending only packs a few varints, so it runs on the event handler thread;
+ * a chunk is written every {@link TraceFormat#DEFAULT_CHUNK_ROWS} rows.
+ */
+public class ColumnarTraceExporter implements YouthEventSubscriber<YouthEvent>, Closeable {
+    private static final Log log = Log.getLog(ColumnarTraceExporter.class);
+
+    protected final SnapshotFactory snapshotFactory;
+    protected final ColumnarTraceWriter writer;
+    protected volatile boolean running = true;
+
+    public ColumnarTraceExporter(Path path, SnapshotFactory snapshotFactory) throws IOException {
+        this.snapshotFactory = snapshotFactory;
+        this.writer = new ColumnarTraceWriter(path);
+    }
+
+    public static ColumnarTraceExporter trace(YouthEventSubscriptionManager subscriptionManager, Path path,
+                                              SnapshotFactory snapshotFactory) throws IOException {
+        ColumnarTraceExporter exporter = new ColumnarTraceExporter(path, snapshotFactory);
+        subscriptionManager.subscribeOnMethodEntry(exporter::accept);
+        subscriptionManager.subscribeOnMethodExit(exporter::accept);
+        subscriptionManager.subscribeOnStep(exporter::accept);
+        return exporter;
+    }
+
+    @Override
+    public synchronized void accept(YouthEvent event) {
+        if (!running) {
+            return;
+        }
+        try {
+            writer.append(snapshotFactory.create(event));
+        } catch (IOException e) {
+            running = false;
+            log.severe("Trace writing failed, tracing is stopped.", e);
+        }
+    }
+
+    public synchronized long written() {
+        return writer.written();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        running = false;
+        writer.close();
+    }
+}
@@ -0,0 +1,156 @@
+package dev.alexengrig.myjdi.trace;
+
+import dev.alexengrig.myjdi.snapshot.ClassIdentity;
+import dev.alexengrig.myjdi.snapshot.MethodIdentity;
+import dev.alexengrig.myjdi.snapshot.ThreadIdentity;
+import dev.alexengrig.myjdi.util.VarInts;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a columnar trace file chunk by chunk from a read-only mapping.
+ * Chunks must be read in file order, they extend the dictionaries of the previous ones.
+ */
+public class ColumnarTraceReader implements Closeable {
+    protected final FileChannel channel;
+    protected final MappedByteBuffer buffer;
+    protected final Map<String, ClassIdentity> classes = new HashMap<>();
+    protected ThreadIdentity[] threads = new ThreadIdentity[64];
+    protected MethodIdentity[] methods = new MethodIdentity[1024];
+
+    protected ColumnarTraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < TraceFormat.HEADER_SIZE || buffer.getInt() != TraceFormat.MAGIC
+                || buffer.getInt() > TraceFormat.VERSION) {
+            channel.close();
+            throw new IOException(String.format("Not a supported trace file: %s.", path));
+        }
+    }
+
+    public static ColumnarTraceReader open(Path path) throws IOException {
+        return new ColumnarTraceReader(path);
+    }
+
+    public boolean hasNext() {
+        return buffer.remaining() >= 4;
+    }
+
+    public TraceChunk next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException(String.format("Truncated trace chunk at %d.", buffer.position() - 4));
+        }
+        ByteBuffer chunk = buffer.slice();
+        chunk.limit(length);
+        buffer.position(buffer.position() + length);
+        int rows = VarInts.readVarInt(chunk);
+        long baseTimestamp = VarInts.readZigZag(chunk);
+        int threadCount = VarInts.readVarInt(chunk);
+        for (int i = 0; i < threadCount; i++) {
+            int id = VarInts.readVarInt(chunk);
+            long uniqueId = VarInts.readVarLong(chunk);
+            defineThread(new ThreadIdentity(id, uniqueId, VarInts.readString(chunk)));
+        }
+        int methodCount = VarInts.readVarInt(chunk);
+        for (int i = 0; i < methodCount; i++) {
+            int id = VarInts.readVarInt(chunk);
+            ClassIdentity type = classes.computeIfAbsent(VarInts.readString(chunk),
+                    name -> new ClassIdentity(classes.size(), name));
+            String name = VarInts.readString(chunk);
+            defineMethod(new MethodIdentity(id, type, name, VarInts.readString(chunk)));
+        }
+        int columnCount = VarInts.readVarInt(chunk);
+        ByteBuffer[] columns = new ByteBuffer[TraceFormat.COLUMN_LINE + 1];
+        for (int i = 0; i < columnCount; i++) {
+            int id = chunk.get() & 0xFF;
+            int encoding = chunk.get() & 0xFF;
+            int size = VarInts.readVarInt(chunk);
+            ByteBuffer column = chunk.slice();
+            column.limit(size);
+            chunk.position(chunk.position() + size);
+            if (id < columns.length && encoding == expectedEncoding(id)) {
+                columns[id] = column;
+            }
+        }
+        return new TraceChunk(this, rows, baseTimestamp, columns);
+    }
+
+    /**
+     * Visits every row of the remaining chunks.
+     *
+     * @return number of visited rows
+     */
+    public long scan(TraceRowHandler handler) throws IOException {
+        long scanned = 0;
+        while (hasNext()) {
+            TraceChunk chunk = next();
+            int[] kinds = chunk.kinds();
+            long[] timestamps = chunk.timestamps();
+            int[] threads = chunk.threads();
+            int[] methods = chunk.methods();
+            int[] lines = chunk.lines();
+            for (int i = 0; i < chunk.rows(); i++) {
+                handler.handle(kinds[i], timestamps[i], threads[i], methods[i], lines[i]);
+            }
+            scanned += chunk.rows();
+        }
+        return scanned;
+    }
+
+    public ThreadIdentity thread(int id) {
+        return id < threads.length ? threads[id] : null;
+    }
+
+    public MethodIdentity method(int id) {
+        return id < methods.length ? methods[id] : null;
+    }
+
+    protected void defineThread(ThreadIdentity thread) {
+        if (thread.id() >= threads.length) {
+            threads = Arrays.copyOf(threads, Math.max(thread.id() + 1, threads.length << 1));
+        }
+        threads[thread.id()] = thread;
+    }
+
+    protected void defineMethod(MethodIdentity method) {
+        if (method.id() >= methods.length) {
+            methods = Arrays.copyOf(methods, Math.max(method.id() + 1, methods.length << 1));
+        }
+        methods[method.id()] = method;
+    }
+
+    protected static int expectedEncoding(int columnId) {
+        switch (columnId) {
+            case TraceFormat.COLUMN_TIMESTAMP:
+                return TraceFormat.ENCODING_DELTA;
+            case TraceFormat.COLUMN_LINE:
+                return TraceFormat.ENCODING_ZIGZAG;
+            default:
+                return TraceFormat.ENCODING_VARINT;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @FunctionalInterface
+    public interface TraceRowHandler {
+        void handle(int kind, long timestamp, int thread, int method, int line);
+    }
+}
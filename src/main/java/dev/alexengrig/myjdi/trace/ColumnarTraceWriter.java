@@ -0,0 +1,168 @@
+package dev.alexengrig.myjdi.trace;
+
+import dev.alexengrig.myjdi.snapshot.*;
+import dev.alexengrig.myjdi.util.ByteSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Writes method entry, method exit and step snapshots to a trace file in the {@link TraceFormat}.
+ * Dictionary ids are the interned identity ids, so they are already dense.
+ * Not thread-safe.
+ */
+public class ColumnarTraceWriter implements Closeable {
+    protected final FileChannel channel;
+    protected final int chunkRows;
+    protected final ByteSink kinds = new ByteSink(1 << 16);
+    protected final ByteSink timestamps = new ByteSink(1 << 17);
+    protected final ByteSink threads = new ByteSink(1 << 16);
+    protected final ByteSink methods = new ByteSink(1 << 17);
+    protected final ByteSink lines = new ByteSink(1 << 17);
+    protected final ByteSink chunk = new ByteSink(1 << 20);
+    protected final BitSet definedThreads = new BitSet();
+    protected final BitSet definedMethods = new BitSet();
+    protected final List<ThreadIdentity> newThreads = new ArrayList<>();
+    protected final List<MethodIdentity> newMethods = new ArrayList<>();
+    protected int rows;
+    protected long baseTimestamp;
+    protected long lastTimestamp;
+    protected long written;
+
+    public ColumnarTraceWriter(Path path) throws IOException {
+        this(path, TraceFormat.DEFAULT_CHUNK_ROWS);
+    }
+
+    public ColumnarTraceWriter(Path path, int chunkRows) throws IOException {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("Chunk rows must be positive: " + chunkRows);
+        }
+        this.chunkRows = chunkRows;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+        header.putInt(TraceFormat.MAGIC).putInt(TraceFormat.VERSION).flip();
+        write(header);
+    }
+
+    /**
+     * Appends the snapshot if it is a method entry, method exit or step, others are ignored.
+     *
+     * @return whether the snapshot was appended
+     */
+    public boolean append(YouthEventSnapshot snapshot) throws IOException {
+        int kind;
+        switch (snapshot.kind()) {
+            case METHOD_ENTRY:
+                kind = TraceFormat.KIND_METHOD_ENTRY;
+                break;
+            case METHOD_EXIT:
+                kind = TraceFormat.KIND_METHOD_EXIT;
+                break;
+            case STEP:
+                kind = TraceFormat.KIND_STEP;
+                break;
+            default:
+                return false;
+        }
+        LocationIdentity location = ((YouthLocatableEventSnapshot) snapshot).location();
+        ThreadIdentity thread = snapshot.thread();
+        MethodIdentity method = location.method();
+        if (!definedThreads.get(thread.id())) {
+            definedThreads.set(thread.id());
+            newThreads.add(thread);
+        }
+        if (!definedMethods.get(method.id())) {
+            definedMethods.set(method.id());
+            newMethods.add(method);
+        }
+        if (rows == 0) {
+            baseTimestamp = snapshot.timestamp();
+            lastTimestamp = baseTimestamp;
+        }
+        kinds.writeVarInt(kind);
+        timestamps.writeZigZag(snapshot.timestamp() - lastTimestamp);
+        threads.writeVarInt(thread.id());
+        methods.writeVarInt(method.id());
+        lines.writeZigZag(location.lineNumber());
+        lastTimestamp = snapshot.timestamp();
+        if (++rows == chunkRows) {
+            writeChunk();
+        }
+        return true;
+    }
+
+    public long written() {
+        return written;
+    }
+
+    public void flush() throws IOException {
+        writeChunk();
+    }
+
+    protected void writeChunk() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        chunk.reset();
+        chunk.writeInt(0);
+        chunk.writeVarInt(rows);
+        chunk.writeZigZag(baseTimestamp);
+        chunk.writeVarInt(newThreads.size());
+        for (ThreadIdentity thread : newThreads) {
+            chunk.writeVarInt(thread.id());
+            chunk.writeVarLong(thread.uniqueId());
+            chunk.writeString(thread.name());
+        }
+        chunk.writeVarInt(newMethods.size());
+        for (MethodIdentity method : newMethods) {
+            chunk.writeVarInt(method.id());
+            chunk.writeString(method.declaringType().name());
+            chunk.writeString(method.name());
+            chunk.writeString(method.signature());
+        }
+        chunk.writeVarInt(5);
+        writeColumn(TraceFormat.COLUMN_KIND, TraceFormat.ENCODING_VARINT, kinds);
+        writeColumn(TraceFormat.COLUMN_TIMESTAMP, TraceFormat.ENCODING_DELTA, timestamps);
+        writeColumn(TraceFormat.COLUMN_THREAD, TraceFormat.ENCODING_VARINT, threads);
+        writeColumn(TraceFormat.COLUMN_METHOD, TraceFormat.ENCODING_VARINT, methods);
+        writeColumn(TraceFormat.COLUMN_LINE, TraceFormat.ENCODING_ZIGZAG, lines);
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.array(), 0, chunk.size());
+        buffer.putInt(0, chunk.size() - 4);
+        write(buffer);
+        written += rows;
+        rows = 0;
+        newThreads.clear();
+        newMethods.clear();
+    }
+
+    protected void writeColumn(int id, int encoding, ByteSink column) {
+        chunk.writeByte(id);
+        chunk.writeByte(encoding);
+        chunk.writeVarInt(column.size());
+        chunk.writeBytes(column.array(), 0, column.size());
+        column.reset();
+    }
+
+    protected void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeChunk();
+        } finally {
+            channel.close();
+        }
+    }
+}
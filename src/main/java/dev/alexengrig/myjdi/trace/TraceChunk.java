@@ -0,0 +1,118 @@
+package dev.alexengrig.myjdi.trace;
+
+import dev.alexengrig.myjdi.snapshot.MethodIdentity;
+import dev.alexengrig.myjdi.snapshot.ThreadIdentity;
+import dev.alexengrig.myjdi.util.VarInts;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One chunk of a columnar trace. Columns are unpacked on first access, so a scan pays only for the columns it reads.
+ */
+public class TraceChunk {
+    protected final ColumnarTraceReader reader;
+    protected final int rows;
+    protected final long baseTimestamp;
+    protected final ByteBuffer[] columns;
+    protected int[] kinds;
+    protected long[] timestamps;
+    protected int[] threads;
+    protected int[] methods;
+    protected int[] lines;
+
+    TraceChunk(ColumnarTraceReader reader, int rows, long baseTimestamp, ByteBuffer[] columns) {
+        this.reader = reader;
+        this.rows = rows;
+        this.baseTimestamp = baseTimestamp;
+        this.columns = columns;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public long firstTimestamp() {
+        return baseTimestamp;
+    }
+
+    /**
+     * {@link TraceFormat#KIND_METHOD_ENTRY}, {@link TraceFormat#KIND_METHOD_EXIT} or {@link TraceFormat#KIND_STEP}.
+     */
+    public int[] kinds() {
+        if (kinds == null) {
+            kinds = unpackInts(TraceFormat.COLUMN_KIND);
+        }
+        return kinds;
+    }
+
+    public long[] timestamps() {
+        if (timestamps == null) {
+            ByteBuffer column = column(TraceFormat.COLUMN_TIMESTAMP);
+            long[] values = new long[rows];
+            long timestamp = baseTimestamp;
+            for (int i = 0; i < rows; i++) {
+                timestamp += VarInts.readZigZag(column);
+                values[i] = timestamp;
+            }
+            timestamps = values;
+        }
+        return timestamps;
+    }
+
+    /**
+     * Thread dictionary ids, see {@link #thread(int)}.
+     */
+    public int[] threads() {
+        if (threads == null) {
+            threads = unpackInts(TraceFormat.COLUMN_THREAD);
+        }
+        return threads;
+    }
+
+    /**
+     * Method dictionary ids, see {@link #method(int)}.
+     */
+    public int[] methods() {
+        if (methods == null) {
+            methods = unpackInts(TraceFormat.COLUMN_METHOD);
+        }
+        return methods;
+    }
+
+    public int[] lines() {
+        if (lines == null) {
+            ByteBuffer column = column(TraceFormat.COLUMN_LINE);
+            int[] values = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = (int) VarInts.readZigZag(column);
+            }
+            lines = values;
+        }
+        return lines;
+    }
+
+    public ThreadIdentity thread(int id) {
+        return reader.thread(id);
+    }
+
+    public MethodIdentity method(int id) {
+        return reader.method(id);
+    }
+
+    protected int[] unpackInts(int columnId) {
+        ByteBuffer column = column(columnId);
+        int[] values = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = VarInts.readVarInt(column);
+        }
+        return values;
+    }
+
+    protected ByteBuffer column(int columnId) {
+        ByteBuffer column = columnId < columns.length ? columns[columnId] : null;
+        if (column == null) {
+            throw new IllegalStateException("The chunk has no column " + columnId);
+        }
+        return column.duplicate();
+    }
+}
@@ -0,0 +1,44 @@
+package dev.alexengrig.myjdi.trace;
+
+/**
+ * Layout of a columnar trace file.
+ * <p>
+ * An 8-byte header (magic, version) is followed by chunks. A chunk starts with an int length of the rest,
+ * then, in varints: row count, zigzag base timestamp, thread and method dictionary entries first used
+ * in the chunk, and the columns. Each column is a column id byte, an encoding byte, a byte length and
+ * the packed values, so a reader skips columns it does not know or need.
+ * Dictionaries grow across chunks, a reader decodes them in file order.
+ */
+public final class TraceFormat {
+    public static final int MAGIC = 0x4D594A54;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+
+    public static final int KIND_METHOD_ENTRY = 1;
+    public static final int KIND_METHOD_EXIT = 2;
+    public static final int KIND_STEP = 3;
+
+    public static final int COLUMN_KIND = 1;
+    public static final int COLUMN_TIMESTAMP = 2;
+    public static final int COLUMN_THREAD = 3;
+    public static final int COLUMN_METHOD = 4;
+    public static final int COLUMN_LINE = 5;
+
+    /**
+     * Unsigned varints.
+     */
+    public static final int ENCODING_VARINT = 1;
+    /**
+     * Zigzag varints of differences to the previous value, the first one to the chunk base.
+     */
+    public static final int ENCODING_DELTA = 2;
+    /**
+     * Zigzag varints.
+     */
+    public static final int ENCODING_ZIGZAG = 3;
+
+    public static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+
+    private TraceFormat() {
+    }
+}
@@ -1,12 +1,13 @@
 package dev.alexengrig.myjdi.ui.model;
 
+import dev.alexengrig.myjdi.log.Log;
+
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
-import java.util.logging.Logger;
 
 public class FileTreeModel implements TreeModel {
-    private static final Logger log = Logger.getLogger(FileTreeModel.class.getName());
+    private static final Log log = Log.getLog(FileTreeModel.class);
 
     private final FileTreeNode root;
 
@@ -0,0 +1,42 @@
+package dev.alexengrig.myjdi.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helpers for the worker pools of profilers and analyzers.
+ */
+public final class Concurrency {
+    private Concurrency() {
+    }
+
+    /**
+     * Daemon threads named by the prefix and a sequence number, so workers never keep the debugger alive.
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Waits for the result, rethrowing a runtime failure of the task as is.
+     *
+     * @param failureMessage message of the {@link IllegalStateException} wrapping a checked failure
+     */
+    public static <T> T get(Future<T> future, String failureMessage) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(failureMessage, e.getCause());
+        }
+    }
+}
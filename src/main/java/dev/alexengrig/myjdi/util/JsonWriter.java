@@ -0,0 +1,214 @@
+package dev.alexengrig.myjdi.util;
+
+/**
+ * Streaming UTF-8 JSON writer into a {@link ByteSink}.
+ * Commas are inserted automatically, nesting is limited to 64 levels.
+ * Reused across documents, so it is not thread-safe.
+ */
+public class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    protected final byte[] digits = new byte[20];
+    protected final ByteSink sink;
+    protected long hasElements;
+    protected int depth;
+    protected boolean afterName;
+
+    public JsonWriter(ByteSink sink) {
+        this.sink = sink;
+    }
+
+    public ByteSink sink() {
+        return sink;
+    }
+
+    public JsonWriter beginObject() {
+        return begin('{');
+    }
+
+    public JsonWriter endObject() {
+        return end('}');
+    }
+
+    public JsonWriter beginArray() {
+        return begin('[');
+    }
+
+    public JsonWriter endArray() {
+        return end(']');
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        sink.writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separate();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separate();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Non-finite numbers are not valid JSON, they are written as strings.
+     */
+    public JsonWriter value(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return value(Double.toString(value));
+        }
+        separate();
+        if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        separate();
+        writeAscii("null");
+        return this;
+    }
+
+    /**
+     * Ends a top-level value with a line feed, as JSON Lines expects.
+     */
+    public JsonWriter newLine() {
+        if (depth != 0) {
+            throw new IllegalStateException("Unclosed JSON value, depth: " + depth);
+        }
+        sink.writeByte('\n');
+        hasElements = 0;
+        afterName = false;
+        return this;
+    }
+
+    protected JsonWriter begin(char bracket) {
+        separate();
+        if (depth == 64) {
+            throw new IllegalStateException("JSON nesting is too deep");
+        }
+        depth++;
+        hasElements &= ~(1L << depth - 1);
+        sink.writeByte(bracket);
+        return this;
+    }
+
+    protected JsonWriter end(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("No JSON value to close");
+        }
+        depth--;
+        sink.writeByte(bracket);
+        return this;
+    }
+
+    protected void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            long bit = 1L << depth - 1;
+            if ((hasElements & bit) != 0) {
+                sink.writeByte(',');
+            } else {
+                hasElements |= bit;
+            }
+        }
+    }
+
+    protected void writeAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            sink.writeByte(value.charAt(i));
+        }
+    }
+
+    protected void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            sink.writeBytes(MIN_LONG, 0, MIN_LONG.length);
+            return;
+        }
+        if (value < 0) {
+            sink.writeByte('-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        sink.writeBytes(digits, position, digits.length - position);
+    }
+
+    protected void writeString(String value) {
+        sink.writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                sink.writeByte(c);
+            } else if (c == '"' || c == '\\') {
+                sink.writeByte('\\');
+                sink.writeByte(c);
+            } else if (c == '\n') {
+                sink.writeByte('\\');
+                sink.writeByte('n');
+            } else if (c == '\r') {
+                sink.writeByte('\\');
+                sink.writeByte('r');
+            } else if (c == '\t') {
+                sink.writeByte('\\');
+                sink.writeByte('t');
+            } else if (c < 0x20 || Character.isSurrogate(c) && !isPair(value, i)) {
+                // control characters and lone surrogates are escaped
+                sink.writeByte('\\');
+                sink.writeByte('u');
+                sink.writeByte(HEX[c >> 12]);
+                sink.writeByte(HEX[(c >> 8) & 0xF]);
+                sink.writeByte(HEX[(c >> 4) & 0xF]);
+                sink.writeByte(HEX[c & 0xF]);
+            } else if (c < 0x800) {
+                sink.writeByte(0xC0 | (c >> 6));
+                sink.writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                sink.writeByte(0xF0 | (codePoint >> 18));
+                sink.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                sink.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                sink.writeByte(0x80 | (codePoint & 0x3F));
+            } else {
+                sink.writeByte(0xE0 | (c >> 12));
+                sink.writeByte(0x80 | ((c >> 6) & 0x3F));
+                sink.writeByte(0x80 | (c & 0x3F));
+            }
+        }
+        sink.writeByte('"');
+    }
+
+    private static boolean isPair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index))
+                && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+}
@@ -0,0 +1,21 @@
+package dev.alexengrig.myjdi.util;
+
+final class LongHashing {
+    static final float LOAD_FACTOR = 0.6f;
+
+    private LongHashing() {
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int tableSize(int expectedSize) {
+        long required = (long) Math.ceil(Math.max(4, expectedSize) / LOAD_FACTOR);
+        if (required > 1 << 30) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+}
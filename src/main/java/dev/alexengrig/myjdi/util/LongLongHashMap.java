@@ -0,0 +1,164 @@
+package dev.alexengrig.myjdi.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from primitive {@code long} keys to primitive {@code long} values.
+ * Uses linear probing and backward-shift deletion, so it never boxes keys or values.
+ */
+public class LongLongHashMap {
+    protected long[] keys;
+    protected long[] values;
+    protected boolean[] used;
+    protected int size;
+    protected int mask;
+    protected int resizeThreshold;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(LongHashing.tableSize(expectedSize));
+    }
+
+    protected void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LongHashing.LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(long key, long defaultValue) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public void put(long key, long value) {
+        int index = LongHashing.hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        insert(index, key, value);
+    }
+
+    /**
+     * Adds the delta to the value of the key, an absent key counts as zero.
+     *
+     * @return new value
+     */
+    public long addTo(long key, long delta) {
+        int index = LongHashing.hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return values[index] += delta;
+            }
+            index = (index + 1) & mask;
+        }
+        insert(index, key, delta);
+        return delta;
+    }
+
+    /**
+     * @return removed value or {@code defaultValue} if the key is absent
+     */
+    public long remove(long key, long defaultValue) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        long value = values[index];
+        used[index] = false;
+        size--;
+        shiftBack(index);
+        return value;
+    }
+
+    protected int indexOf(long key) {
+        int index = LongHashing.hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    protected void insert(int index, long key, long value) {
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    protected void shiftBack(int freed) {
+        int index = (freed + 1) & mask;
+        while (used[index]) {
+            int ideal = LongHashing.hash(keys[index]) & mask;
+            if (((index - ideal) & mask) >= ((index - freed) & mask)) {
+                keys[freed] = keys[index];
+                values[freed] = values[index];
+                used[freed] = true;
+                used[index] = false;
+                freed = index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    protected void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int index = LongHashing.hash(oldKeys[i]) & mask;
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(Entry action) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Entry {
+        void accept(long key, long value);
+    }
+}
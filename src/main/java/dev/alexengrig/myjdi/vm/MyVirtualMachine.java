@@ -13,6 +13,7 @@ import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
 public class MyVirtualMachine extends YouthVirtualMachine.Delegate implements YouthVirtualMachine {
     protected YouthEventHandler eventHandler;
     protected YouthEventSubscriptionManager eventSubscriptionManager;
+    protected ThreadRegistry threadRegistry;
 
     public MyVirtualMachine(VirtualMachine virtualMachine) {
         super(virtualMachine);
@@ -38,6 +39,10 @@ public class MyVirtualMachine extends YouthVirtualMachine.Delegate implements Yo
         return new MyEventSubscriptionManager(virtualMachine);
     }
 
+    protected ThreadRegistry createThreadRegistry(YouthVirtualMachine virtualMachine) {
+        return new ThreadRegistry(virtualMachine);
+    }
+
     @Override
     public YouthEventHandler eventHandler() {
         return eventHandler;
@@ -47,4 +52,13 @@ public class MyVirtualMachine extends YouthVirtualMachine.Delegate implements Yo
     public YouthEventSubscriptionManager eventSubscriptionManager() {
         return eventSubscriptionManager;
     }
+
+    @Override
+    public synchronized ThreadRegistry threadRegistry() {
+        if (threadRegistry == null) {
+            threadRegistry = createThreadRegistry(this);
+            threadRegistry.start();
+        }
+        return threadRegistry;
+    }
 }
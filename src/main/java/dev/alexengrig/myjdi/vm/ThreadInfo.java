@@ -0,0 +1,42 @@
+package dev.alexengrig.myjdi.vm;
+
+/**
+ * Metadata of a debuggee thread kept by the {@link ThreadRegistry}.
+ */
+public final class ThreadInfo {
+    private final long uniqueId;
+    private final String name;
+    private final String group;
+    private final boolean daemon;
+
+    public ThreadInfo(long uniqueId, String name, String group, boolean daemon) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.group = group;
+        this.daemon = daemon;
+    }
+
+    public long uniqueId() {
+        return uniqueId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return thread group name or {@code null} if the thread has terminated
+     */
+    public String group() {
+        return group;
+    }
+
+    public boolean isDaemon() {
+        return daemon;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("\"%s\" id=%d group=%s%s", name, uniqueId, group, daemon ? " daemon" : "");
+    }
+}
@@ -0,0 +1,203 @@
+package dev.alexengrig.myjdi.vm;
+
+import com.sun.jdi.*;
+import com.sun.jdi.request.EventRequest;
+import com.sun.jdi.request.EventRequestManager;
+import dev.alexengrig.myjdi.event.YouthEvent;
+import dev.alexengrig.myjdi.event.YouthThreadDeathEvent;
+import dev.alexengrig.myjdi.event.YouthThreadStartEvent;
+import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
+import dev.alexengrig.myjdi.util.LongLongHashMap;
+import dev.alexengrig.myjdi.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Names, groups and daemon flags of the live debuggee threads by their unique ids.
+ * Seeded from {@link VirtualMachine#allThreads()} and kept current by thread start and death events,
+ * so lookups by id make no JDWP round trips; the event handler must be running for the events to arrive.
+ * A thread renamed after it started keeps its old name until it is {@link #refresh(ThreadReference) refreshed}.
+ */
+public class ThreadRegistry {
+    protected final YouthVirtualMachine virtualMachine;
+    protected final LongObjectHashMap<ThreadInfo> threads = new LongObjectHashMap<>();
+    protected final List<EventRequest> requests = new ArrayList<>();
+    /**
+     * Threads that died while the registry was seeded, they must not be added by the seeding.
+     */
+    protected LongLongHashMap diedWhileSeeding;
+    protected volatile boolean running;
+    protected boolean subscribed;
+
+    public ThreadRegistry(YouthVirtualMachine virtualMachine) {
+        this.virtualMachine = virtualMachine;
+    }
+
+    /**
+     * Requests thread events first and seeds the registry then, so no thread is missed in between.
+     */
+    public void start() {
+        synchronized (this) {
+            if (running) {
+                throw new IllegalStateException("The registry is already started");
+            }
+            if (!subscribed) {
+                YouthEventSubscriptionManager subscriptionManager = virtualMachine.eventSubscriptionManager();
+                subscriptionManager.subscribeOnThreadStart(this::onThreadStart);
+                subscriptionManager.subscribeOnThreadDeath(this::onThreadDeath);
+                subscribed = true;
+            }
+            EventRequestManager requestManager = virtualMachine.eventRequestManager();
+            requests.add(requestManager.createThreadStartRequest());
+            requests.add(requestManager.createThreadDeathRequest());
+            for (EventRequest request : requests) {
+                request.setSuspendPolicy(EventRequest.SUSPEND_NONE);
+                request.putProperty(ThreadRegistry.class, this);
+                request.enable();
+            }
+            running = true;
+            diedWhileSeeding = new LongLongHashMap();
+        }
+        try {
+            for (ThreadReference thread : virtualMachine.allThreads()) {
+                ThreadInfo info = fetch(thread);
+                if (info != null) {
+                    synchronized (this) {
+                        if (!diedWhileSeeding.containsKey(info.uniqueId()) && !threads.containsKey(info.uniqueId())) {
+                            threads.put(info.uniqueId(), info);
+                        }
+                    }
+                }
+            }
+        } finally {
+            synchronized (this) {
+                diedWhileSeeding = null;
+            }
+        }
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        virtualMachine.eventRequestManager().deleteEventRequests(requests);
+        requests.clear();
+        threads.clear();
+    }
+
+    protected boolean isOwn(YouthEvent event) {
+        return running && event.request() != null
+                && event.request().getProperty(ThreadRegistry.class) == this;
+    }
+
+    protected void onThreadStart(YouthThreadStartEvent event) {
+        if (isOwn(event)) {
+            ThreadInfo info = fetch(event.thread());
+            if (info != null) {
+                synchronized (this) {
+                    threads.put(info.uniqueId(), info);
+                }
+            }
+        }
+    }
+
+    protected synchronized void onThreadDeath(YouthThreadDeathEvent event) {
+        if (isOwn(event)) {
+            long uniqueId = event.thread().uniqueID();
+            threads.remove(uniqueId);
+            if (diedWhileSeeding != null) {
+                diedWhileSeeding.put(uniqueId, 1);
+            }
+        }
+    }
+
+    /**
+     * @return metadata of the live thread or {@code null} if it is unknown
+     */
+    public synchronized ThreadInfo get(long uniqueId) {
+        return threads.get(uniqueId);
+    }
+
+    /**
+     * @return name of the live thread or {@code null} if it is unknown
+     */
+    public synchronized String name(long uniqueId) {
+        ThreadInfo info = threads.get(uniqueId);
+        return info == null ? null : info.name();
+    }
+
+    /**
+     * Metadata of the thread, fetched and registered if it is unknown, e.g. the registry is not started.
+     *
+     * @return metadata or {@code null} if the thread has been collected
+     */
+    public ThreadInfo get(ThreadReference thread) {
+        ThreadInfo info = get(thread.uniqueID());
+        return info != null ? info : refresh(thread);
+    }
+
+    public String name(ThreadReference thread) {
+        ThreadInfo info = get(thread);
+        return info == null ? "<collected>" : info.name();
+    }
+
+    /**
+     * Fetches the metadata of the thread again.
+     *
+     * @return metadata or {@code null} if the thread has been collected
+     */
+    public ThreadInfo refresh(ThreadReference thread) {
+        ThreadInfo info = fetch(thread);
+        if (info != null) {
+            synchronized (this) {
+                threads.put(info.uniqueId(), info);
+            }
+        }
+        return info;
+    }
+
+    public synchronized int size() {
+        return threads.size();
+    }
+
+    public synchronized List<ThreadInfo> threads() {
+        List<ThreadInfo> result = new ArrayList<>(threads.size());
+        threads.forEachValue(result::add);
+        return result;
+    }
+
+    /**
+     * @return metadata or {@code null} if the thread has been collected
+     */
+    protected ThreadInfo fetch(ThreadReference thread) {
+        try {
+            ThreadGroupReference group = thread.threadGroup();
+            return new ThreadInfo(thread.uniqueID(), thread.name(), group == null ? null : group.name(),
+                    isDaemon(thread));
+        } catch (ObjectCollectedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads {@code Thread.daemon}, which moved to {@code Thread.holder.daemon} in Java 19.
+     */
+    protected static boolean isDaemon(ThreadReference thread) {
+        ReferenceType type = thread.referenceType();
+        Field field = type.fieldByName("daemon");
+        ObjectReference owner = thread;
+        if (field == null) {
+            Field holderField = type.fieldByName("holder");
+            Value holder = holderField == null ? null : thread.getValue(holderField);
+            if (!(holder instanceof ObjectReference)) {
+                return false;
+            }
+            owner = (ObjectReference) holder;
+            field = owner.referenceType().fieldByName("daemon");
+        }
+        Value value = field == null ? null : owner.getValue(field);
+        return value instanceof BooleanValue && ((BooleanValue) value).value();
+    }
+}
@@ -2,6 +2,7 @@ package dev.alexengrig.myjdi.vm;
 
 import com.sun.jdi.*;
 import dev.alexengrig.myjdi.handle.YouthEventHandler;
+import dev.alexengrig.myjdi.profile.SamplingProfiler;
 import dev.alexengrig.myjdi.queue.YouthEventQueue;
 import dev.alexengrig.myjdi.request.YouthEventRequestManager;
 import dev.alexengrig.myjdi.subscription.YouthEventSubscriptionManager;
@@ -28,6 +29,17 @@ public interface YouthVirtualMachine extends VirtualMachine {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Started on the first call.
+     */
+    default ThreadRegistry threadRegistry() {
+        throw new UnsupportedOperationException();
+    }
+
+    default SamplingProfiler.Builder samplingProfiler() {
+        return SamplingProfiler.builder(this);
+    }
+
     class Delegate implements YouthVirtualMachine {
         protected final VirtualMachine virtualMachine;
         protected final YouthEventQueue eventQueue;